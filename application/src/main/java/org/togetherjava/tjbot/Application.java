@@ -9,18 +9,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.togetherjava.tjbot.config.Config;
+import org.togetherjava.tjbot.config.DatabaseConfig;
+import org.togetherjava.tjbot.config.OpenMetricsConfig;
 import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.DatabaseSettings;
 import org.togetherjava.tjbot.features.Features;
 import org.togetherjava.tjbot.features.SlashCommandAdapter;
+import org.togetherjava.tjbot.features.analytics.LegacyMetricsImport;
 import org.togetherjava.tjbot.features.analytics.Metrics;
 import org.togetherjava.tjbot.features.system.BotCore;
+import org.togetherjava.tjbot.features.system.OpenMetricsSources;
 import org.togetherjava.tjbot.logging.LogMarkers;
 import org.togetherjava.tjbot.logging.discord.DiscordLogging;
+import org.togetherjava.tjbot.metrics.OpenMetricsEndpoint;
+import org.togetherjava.tjbot.metrics.OpenMetricsWriter;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Main class of the application. Use {@link #main(String[])} to start an instance of it.
@@ -76,14 +87,20 @@ public class Application {
         logger.info("Starting bot...");
 
         Path databasePath = Path.of(config.getDatabasePath());
+        Path analyticsDatabasePath = Path.of(config.getAnalyticsDatabasePath());
         try {
-            Path parentDatabasePath = databasePath.toAbsolutePath().getParent();
-            if (parentDatabasePath != null) {
-                Files.createDirectories(parentDatabasePath);
-            }
-            Database database = new Database("jdbc:sqlite:" + databasePath.toAbsolutePath());
-
-            Metrics metrics = new Metrics(database);
+            // Analytics are kept in their own database, so that metrics never delay other writes
+            Database analyticsDatabase = createDatabase(analyticsDatabasePath,
+                    config.getDatabase(), Metrics.MIGRATIONS_LOCATION);
+            // Must happen before the main database is migrated, which drops its analytics tables
+            LegacyMetricsImport.importFrom(databasePath.toAbsolutePath(), analyticsDatabase);
+            Database database = createDatabase(databasePath, config.getDatabase(),
+                    DatabaseSettings.DEFAULT_MIGRATIONS_LOCATION);
+
+            Metrics metrics = new Metrics(analyticsDatabase);
+            // Aggregated counts would be lost otherwise
+            Runtime.getRuntime()
+                .addShutdownHook(new Thread(metrics::flushAggregated, "metrics-flush"));
 
             JDA jda = JDABuilder.createDefault(config.getToken())
                 .enableIntents(GatewayIntent.GUILD_MEMBERS, GatewayIntent.MESSAGE_CONTENT)
@@ -92,12 +109,21 @@ public class Application {
             jda.awaitReady();
 
             BotCore core = new BotCore(jda, database, config, metrics);
-            CommandReloading.reloadCommands(jda, core);
+            CommandReloading.reloadCommands(jda, core, database);
             core.scheduleRoutines(jda);
 
             jda.addEventListener(core);
 
+            if (config.getOpenMetrics().enabled()) {
+                startOpenMetricsEndpoint(config.getOpenMetrics(), List.of(core::writeOpenMetrics,
+                        metrics::writeOpenMetrics,
+                        OpenMetricsSources
+                            .ofDatabases(Map.of("main", database, "analytics", analyticsDatabase)),
+                        OpenMetricsSources.ofJda(jda), OpenMetricsSources.ofDiscordLogging()));
+            }
+
             logger.info("Bot is ready");
+            core.warmUpFeatures();
         } catch (InvalidTokenException e) {
             logger.error(LogMarkers.SENSITIVE, "Failed to login", e);
         } catch (InterruptedException e) {
@@ -106,8 +132,38 @@ public class Application {
         } catch (SQLException e) {
             logger.error("Failed to create database", e);
         } catch (IOException e) {
-            logger.error("Failed to create path to the database at: {}",
-                    databasePath.toAbsolutePath(), e);
+            logger.error("Failed to create path to the databases at: {} and {}",
+                    databasePath.toAbsolutePath(), analyticsDatabasePath.toAbsolutePath(), e);
+        }
+    }
+
+    private static Database createDatabase(Path databasePath, DatabaseConfig databaseConfig,
+            String migrationsLocation) throws IOException, SQLException {
+        Path parentDatabasePath = databasePath.toAbsolutePath().getParent();
+        if (parentDatabasePath != null) {
+            Files.createDirectories(parentDatabasePath);
+        }
+
+        Database database = new Database("jdbc:sqlite:" + databasePath.toAbsolutePath(),
+                databaseConfig.toDatabaseSettings(migrationsLocation));
+        // Pending writes would be lost otherwise
+        Runtime.getRuntime()
+            .addShutdownHook(new Thread(database::flushWriteBehind, "database-flush"));
+        return database;
+    }
+
+    private static void startOpenMetricsEndpoint(OpenMetricsConfig openMetricsConfig,
+            List<Consumer<OpenMetricsWriter>> sources) {
+        InetSocketAddress address =
+                new InetSocketAddress(openMetricsConfig.host(), openMetricsConfig.port());
+        try {
+            OpenMetricsEndpoint endpoint = new OpenMetricsEndpoint(address, sources);
+            Runtime.getRuntime().addShutdownHook(new Thread(endpoint::close, "open-metrics-stop"));
+            logger.info("Serving OpenMetrics at http://{}:{}{}", address.getHostString(),
+                    address.getPort(), OpenMetricsEndpoint.PATH);
+        } catch (IOException e) {
+            // Monitoring is optional, the bot keeps running without it
+            logger.error("Failed to start the OpenMetrics endpoint at {}", address, e);
         }
     }
 
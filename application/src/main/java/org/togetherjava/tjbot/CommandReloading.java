@@ -1,25 +1,47 @@
 package org.togetherjava.tjbot;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
-import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.generated.tables.records.CommandFingerprintsRecord;
 import org.togetherjava.tjbot.features.BotCommand;
 import org.togetherjava.tjbot.features.CommandVisibility;
 import org.togetherjava.tjbot.features.system.CommandProvider;
+import org.togetherjava.tjbot.features.utils.CommandIdRegistry;
+import org.togetherjava.tjbot.features.utils.Hashing;
 
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.togetherjava.tjbot.db.generated.tables.CommandFingerprints.COMMAND_FINGERPRINTS;
 
 /**
  * Offers utility functions for reloading all commands.
+ * <p>
+ * Commands are only pushed to Discord for scopes (global or a specific guild) whose commands
+ * changed since the last reload. Therefore, a fingerprint of the commands of each scope is
+ * persisted in the database. Scopes with unchanged fingerprint are only verified cheaply, by
+ * checking that Discord still knows the expected commands.
  */
 public class CommandReloading {
     private static final Logger logger = LoggerFactory.getLogger(CommandReloading.class);
@@ -34,33 +56,53 @@ public class CommandReloading {
      */
     public static final int MAX_COMMAND_COUNT = 110;
 
+    private static final String GLOBAL_SCOPE = "global";
+    private static final String GUILD_SCOPE_PREFIX = "guild-";
+    private static final String FINGERPRINT_HASH_METHOD = "SHA-256";
+    /**
+     * Serializes the commands with a stable order of their properties, since the order of the
+     * properties in {@link CommandData#toData()} is unspecified.
+     */
+    private static final ObjectMapper CANONICAL_MAPPER =
+            new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
     private CommandReloading() {
         throw new UnsupportedOperationException("Utility class");
     }
 
     /**
      * Reloads all commands based on the given {@link CommandProvider}.
+     * <p>
+     * Only scopes whose commands changed since the last reload are updated, see
+     * {@link CommandReloading}.
      *
      * @param jda the JDA to update commands on
      * @param commandProvider the {@link CommandProvider} to grab commands from
+     * @param database the database to persist the fingerprints of the reloaded commands in
      */
-    public static void reloadCommands(final JDA jda, final CommandProvider commandProvider) {
+    public static void reloadCommands(final JDA jda, final CommandProvider commandProvider,
+            final Database database) {
         logger.info("Reloading commands...");
-        List<CommandListUpdateAction> actions =
+        List<RestAction<?>> actions =
                 Collections.synchronizedList(new ArrayList<>(MAX_COMMAND_COUNT));
 
         // Reload global commands
-        actions.add(updateCommandsIf(command -> CommandVisibility.GLOBAL == command.getVisibility(),
-                getGlobalUpdateAction(jda), commandProvider));
+        actions.add(reloadScope(GLOBAL_SCOPE,
+                getCommands(commandProvider, CommandVisibility.GLOBAL), jda::retrieveCommands,
+                jda::updateCommands, CommandIdRegistry::registerGlobalCommands, database));
 
         // Reload guild commands (potentially many guilds)
         // NOTE Storing the guild actions in a list is potentially dangerous since the
         // bot might theoretically be part of so many guilds that it exceeds the max size of
         // list. However, correctly reducing RestActions in a stream is not trivial.
-        getGuildUpdateActions(jda)
-            .map(updateAction -> updateCommandsIf(
-                    command -> CommandVisibility.GUILD == command.getVisibility(), updateAction,
-                    commandProvider))
+        List<CommandData> guildCommands = getCommands(commandProvider, CommandVisibility.GUILD);
+        jda.getGuildCache()
+            .stream()
+            .map(guild -> reloadScope(GUILD_SCOPE_PREFIX + guild.getId(), guildCommands,
+                    guild::retrieveCommands, guild::updateCommands,
+                    commands -> CommandIdRegistry.registerGuildCommands(guild.getIdLong(),
+                            commands),
+                    database))
             .forEach(actions::add);
         logger.debug("Reloading commands over {} action-upstreams", actions.size());
 
@@ -69,34 +111,126 @@ public class CommandReloading {
     }
 
     /**
-     * Updates all commands given by the command provider which pass the given filter by pushing
-     * through the given action upstream.
+     * Creates the action that reloads the commands of a single scope, i.e. globally or a guild.
+     * <p>
+     * If the fingerprint of the commands changed since the last reload, the commands are pushed to
+     * Discord. Otherwise, the commands known to Discord are only retrieved and the commands are
+     * pushed only if they do not match, for example because they were changed externally.
+     * <p>
+     * Either way, the commands Discord responds with are registered in the
+     * {@link CommandIdRegistry}. The returned action always completes once the scope was checked,
+     * but does not wait for an update caused by mismatching commands known to Discord.
      *
-     * @param commandFilter filter that matches commands that should be uploaded
-     * @param updateAction the upstream to update commands
-     * @return the given upstream for chaining
+     * @param scope the scope to reload, e.g. {@code "global"}
+     * @param commands the commands that should be available in the scope
+     * @param retrieveAction supplies the upstream to retrieve the commands known to Discord, e.g.
+     *        {@link Guild#retrieveCommands()}
+     * @param updateAction supplies the upstream to update commands, e.g.
+     *        {@link Guild#updateCommands()}
+     * @param registerCommands registers the commands known to Discord in the
+     *        {@link CommandIdRegistry}
+     * @param database the database to persist the fingerprint in
+     * @return the action reloading the scope
      */
-    @Contract("_, _, _ -> param2")
-    private static CommandListUpdateAction updateCommandsIf(
-            final Predicate<? super BotCommand> commandFilter,
-            final CommandListUpdateAction updateAction, final CommandProvider commandProvider) {
-        commandProvider.getInteractors()
+    private static RestAction<?> reloadScope(String scope, List<CommandData> commands,
+            Supplier<? extends RestAction<List<Command>>> retrieveAction,
+            Supplier<CommandListUpdateAction> updateAction,
+            Consumer<? super List<Command>> registerCommands, Database database) {
+        String fingerprint = computeFingerprint(commands);
+        Supplier<RestAction<List<Command>>> update =
+                () -> updateAction.get().addCommands(commands).onSuccess(updatedCommands -> {
+                    registerCommands.accept(updatedCommands);
+                    storeFingerprint(scope, fingerprint, database);
+                });
+
+        if (!fingerprint.equals(findFingerprint(scope, database).orElse(null))) {
+            logger.debug("Commands of scope {} changed, updating them", scope);
+            return update.get();
+        }
+
+        // A conditional flatMap would never complete if the condition is false, which would stall
+        // RestAction.allOf. Hence, a repairing update is queued on its own instead.
+        return retrieveAction.get().onSuccess(registerCommands).map(knownCommands -> {
+            if (!isMatching(knownCommands, commands)) {
+                logger.warn("Discord knows different commands for scope {}, updating them", scope);
+                update.get().queue();
+            }
+            return knownCommands;
+        });
+    }
+
+    private static List<CommandData> getCommands(CommandProvider commandProvider,
+            CommandVisibility visibility) {
+        return commandProvider.getInteractors()
             .stream()
             .filter(BotCommand.class::isInstance)
             .map(BotCommand.class::cast)
-            .filter(commandFilter)
+            .filter(command -> visibility == command.getVisibility())
             .map(BotCommand::getData)
-            .forEach(updateAction::addCommands);
+            .toList();
+    }
 
-        return updateAction;
+    /**
+     * Computes a fingerprint of the given commands, which only changes if the commands change.
+     * <p>
+     * The fingerprint is stable across restarts and independent of the order of the commands.
+     *
+     * @param commands the commands to compute the fingerprint of
+     * @return the fingerprint, as hexadecimal hash
+     */
+    static String computeFingerprint(Collection<? extends CommandData> commands) {
+        String canonicalCommands = commands.stream()
+            .map(CommandReloading::toCanonicalJson)
+            .sorted()
+            .collect(Collectors.joining("\n"));
+
+        return Hashing.bytesToHex(Hashing.hash(FINGERPRINT_HASH_METHOD,
+                canonicalCommands.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String toCanonicalJson(CommandData command) {
+        try {
+            Object data = CANONICAL_MAPPER.readValue(command.toData().toJson(), Object.class);
+            return CANONICAL_MAPPER.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private static CommandListUpdateAction getGlobalUpdateAction(final JDA jda) {
-        return jda.updateCommands();
+    /**
+     * Whether the commands known to Discord match the expected commands, by type and name.
+     * <p>
+     * This is only a cheap sanity check, changes of the details of a command, such as its options,
+     * are detected by the fingerprint instead.
+     */
+    private static boolean isMatching(Collection<Command> knownCommands,
+            Collection<CommandData> expectedCommands) {
+        Set<String> knownKeys = knownCommands.stream()
+            .map(command -> command.getType() + ":" + command.getName())
+            .collect(Collectors.toSet());
+        Set<String> expectedKeys = expectedCommands.stream()
+            .map(command -> command.getType() + ":" + command.getName())
+            .collect(Collectors.toSet());
+
+        return knownKeys.equals(expectedKeys);
     }
 
-    private static Stream<CommandListUpdateAction> getGuildUpdateActions(final JDA jda) {
-        return jda.getGuildCache().stream().map(Guild::updateCommands);
+    private static Optional<String> findFingerprint(String scope, Database database) {
+        return database
+            .read(context -> context.selectFrom(COMMAND_FINGERPRINTS)
+                .where(COMMAND_FINGERPRINTS.SCOPE.eq(scope))
+                .fetchOptional())
+            .map(CommandFingerprintsRecord::getFingerprint);
     }
 
+    private static void storeFingerprint(String scope, String fingerprint, Database database) {
+        database.write(context -> context
+            .insertInto(COMMAND_FINGERPRINTS, COMMAND_FINGERPRINTS.SCOPE,
+                    COMMAND_FINGERPRINTS.FINGERPRINT, COMMAND_FINGERPRINTS.UPDATED_AT)
+            .values(scope, fingerprint, Instant.now())
+            .onDuplicateKeyUpdate()
+            .set(COMMAND_FINGERPRINTS.FINGERPRINT, fingerprint)
+            .set(COMMAND_FINGERPRINTS.UPDATED_AT, Instant.now())
+            .execute());
+    }
 }
@@ -19,6 +19,7 @@ public final class Config {
     private final String token;
     private final String githubApiKey;
     private final String databasePath;
+    private final String analyticsDatabasePath;
     private final String projectWebsite;
     private final String discordGuildInvite;
     private final String modAuditLogChannelPattern;
@@ -53,12 +54,19 @@ public final class Config {
     private final TopHelpersConfig topHelpers;
     private final DynamicVoiceChatConfig dynamicVoiceChatConfig;
     private final String tavilyApiKey;
+    private final InteractionExecutorConfig interactionExecutor;
+    private final RoutinesConfig routines;
+    private final DatabaseConfig database;
+    private final RetentionConfig retention;
+    private final OpenMetricsConfig openMetrics;
 
     @SuppressWarnings("ConstructorWithTooManyParameters")
     @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
     private Config(@JsonProperty(value = "token", required = true) String token,
             @JsonProperty(value = "githubApiKey", required = true) String githubApiKey,
             @JsonProperty(value = "databasePath", required = true) String databasePath,
+            @JsonProperty(value = "analyticsDatabasePath",
+                    required = true) String analyticsDatabasePath,
             @JsonProperty(value = "projectWebsite", required = true) String projectWebsite,
             @JsonProperty(value = "discordGuildInvite", required = true) String discordGuildInvite,
             @JsonProperty(value = "modAuditLogChannelPattern",
@@ -113,10 +121,17 @@ public final class Config {
             @JsonProperty(value = "topHelpers", required = true) TopHelpersConfig topHelpers,
             @JsonProperty(value = "dynamicVoiceChatConfig",
                     required = true) DynamicVoiceChatConfig dynamicVoiceChatConfig,
-            @JsonProperty(value = "tavilyApiKey", required = true) String tavilyApiKey) {
+            @JsonProperty(value = "tavilyApiKey", required = true) String tavilyApiKey,
+            @JsonProperty(value = "interactionExecutor",
+                    required = true) InteractionExecutorConfig interactionExecutor,
+            @JsonProperty(value = "routines", required = true) RoutinesConfig routines,
+            @JsonProperty(value = "database", required = true) DatabaseConfig database,
+            @JsonProperty(value = "retention", required = true) RetentionConfig retention,
+            @JsonProperty(value = "openMetrics", required = true) OpenMetricsConfig openMetrics) {
         this.token = Objects.requireNonNull(token);
         this.githubApiKey = Objects.requireNonNull(githubApiKey);
         this.databasePath = Objects.requireNonNull(databasePath);
+        this.analyticsDatabasePath = Objects.requireNonNull(analyticsDatabasePath);
         this.projectWebsite = Objects.requireNonNull(projectWebsite);
         this.memberCountCategoryPattern = Objects.requireNonNull(memberCountCategoryPattern);
         this.discordGuildInvite = Objects.requireNonNull(discordGuildInvite);
@@ -153,6 +168,11 @@ public final class Config {
         this.topHelpers = Objects.requireNonNull(topHelpers);
         this.dynamicVoiceChatConfig = Objects.requireNonNull(dynamicVoiceChatConfig);
         this.tavilyApiKey = Objects.requireNonNull(tavilyApiKey);
+        this.interactionExecutor = Objects.requireNonNull(interactionExecutor);
+        this.routines = Objects.requireNonNull(routines);
+        this.database = Objects.requireNonNull(database);
+        this.retention = Objects.requireNonNull(retention);
+        this.openMetrics = Objects.requireNonNull(openMetrics);
     }
 
     /**
@@ -236,6 +256,17 @@ public final class Config {
         return databasePath;
     }
 
+    /**
+     * Gets the path where the database of the analytics, i.e. the recorded metrics, is located at.
+     * It is kept separate from the main database, so that writing metrics never delays the writes
+     * of other features.
+     *
+     * @return the path of the analytics database
+     */
+    public String getAnalyticsDatabasePath() {
+        return analyticsDatabasePath;
+    }
+
     /**
      * Gets a URL of the project's website, for example to tell the user where he can contribute.
      *
@@ -514,4 +545,49 @@ public final class Config {
     public String getTavilyApiKey() {
         return tavilyApiKey;
     }
+
+    /**
+     * Gets the config of the executor running user interactions, such as slash commands.
+     *
+     * @return the configuration
+     */
+    public InteractionExecutorConfig getInteractionExecutor() {
+        return interactionExecutor;
+    }
+
+    /**
+     * Gets the config of the scheduler running routines.
+     *
+     * @return the configuration
+     */
+    public RoutinesConfig getRoutines() {
+        return routines;
+    }
+
+    /**
+     * Gets the configuration of the database.
+     *
+     * @return the configuration
+     */
+    public DatabaseConfig getDatabase() {
+        return database;
+    }
+
+    /**
+     * Gets the configuration of how long raw analytics data is kept.
+     *
+     * @return the configuration
+     */
+    public RetentionConfig getRetention() {
+        return retention;
+    }
+
+    /**
+     * Gets the configuration of the endpoint exposing internals of the bot to Prometheus.
+     *
+     * @return the configuration
+     */
+    public OpenMetricsConfig getOpenMetrics() {
+        return openMetrics;
+    }
 }
@@ -0,0 +1,91 @@
+package org.togetherjava.tjbot.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.togetherjava.tjbot.db.DatabaseSettings;
+import org.togetherjava.tjbot.db.WriteBehindSettings;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration of the databases, see {@link org.togetherjava.tjbot.db.Database}. Applies to both,
+ * the main and the analytics database.
+ *
+ * @param readConnections the amount of read-only connections to serve reads with, i.e. how many
+ *        reads can run concurrently
+ * @param writeBehindCapacity the maximal amount of writes that can be pending in the write-behind
+ *        queue, see {@link org.togetherjava.tjbot.db.WriteBehindSettings}
+ * @param writeBehindBatchSize the maximal amount of pending writes committed together in one
+ *        transaction
+ * @param writeBehindFlushIntervalMillis the maximal time a write is pending before it is committed,
+ *        in milliseconds
+ * @param slowQueryThresholdMillis queries taking longer than this are logged as slow, in
+ *        milliseconds
+ * @param storage how SQLite stores and caches the data
+ */
+public record DatabaseConfig(
+        @JsonProperty(value = "readConnections", required = true) int readConnections,
+        @JsonProperty(value = "writeBehindCapacity", required = true) int writeBehindCapacity,
+        @JsonProperty(value = "writeBehindBatchSize", required = true) int writeBehindBatchSize,
+        @JsonProperty(value = "writeBehindFlushIntervalMillis",
+                required = true) int writeBehindFlushIntervalMillis,
+        @JsonProperty(value = "slowQueryThresholdMillis",
+                required = true) int slowQueryThresholdMillis,
+        @JsonProperty(value = "storage", required = true) DatabaseStorageConfig storage) {
+
+    /**
+     * Creates a database config.
+     *
+     * @param readConnections the amount of read-only connections to serve reads with, must be
+     *        higher than 0
+     * @param writeBehindCapacity the maximal amount of writes that can be pending in the
+     *        write-behind queue, must be at least the batch size
+     * @param writeBehindBatchSize the maximal amount of pending writes committed together in one
+     *        transaction, must be higher than 0
+     * @param writeBehindFlushIntervalMillis the maximal time a write is pending before it is
+     *        committed, in milliseconds, must be higher than 0
+     * @param slowQueryThresholdMillis queries taking longer than this are logged as slow, in
+     *        milliseconds, must not be negative
+     * @param storage how SQLite stores and caches the data
+     */
+    public DatabaseConfig {
+        Objects.requireNonNull(storage);
+        if (readConnections <= 0) {
+            throw new IllegalArgumentException("Illegal readConnections : " + readConnections);
+        }
+        if (writeBehindBatchSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal writeBehindBatchSize : " + writeBehindBatchSize);
+        }
+        if (writeBehindCapacity < writeBehindBatchSize) {
+            throw new IllegalArgumentException(
+                    "Illegal writeBehindCapacity : " + writeBehindCapacity);
+        }
+        if (writeBehindFlushIntervalMillis <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal writeBehindFlushIntervalMillis : " + writeBehindFlushIntervalMillis);
+        }
+        if (slowQueryThresholdMillis < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal slowQueryThresholdMillis : " + slowQueryThresholdMillis);
+        }
+    }
+
+    /**
+     * Converts this config into the settings understood by the database.
+     *
+     * @param migrationsLocation the location of the migrations creating the schema of the database,
+     *        see {@link DatabaseSettings#migrationsLocation()}
+     * @return the database settings
+     */
+    public DatabaseSettings toDatabaseSettings(String migrationsLocation) {
+        WriteBehindSettings writeBehind = new WriteBehindSettings(writeBehindCapacity,
+                writeBehindBatchSize, Duration.ofMillis(writeBehindFlushIntervalMillis));
+        return DatabaseSettings.DEFAULT.withReadConnections(readConnections)
+            .withWriteBehind(writeBehind)
+            .withSlowQueryThreshold(Duration.ofMillis(slowQueryThresholdMillis))
+            .withStorage(storage.toStorageSettings())
+            .withMigrationsLocation(migrationsLocation);
+    }
+}
@@ -0,0 +1,60 @@
+package org.togetherjava.tjbot.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.togetherjava.tjbot.db.StorageSettings;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration of how SQLite stores and caches the data of the database, see
+ * {@link StorageSettings}.
+ *
+ * @param cacheSizeKib the maximal size of the page cache of each connection, in KiB
+ * @param mmapSizeBytes the maximal amount of the database file that is memory-mapped, in bytes
+ * @param synchronous how often SQLite waits for data to be written to disk
+ * @param tempStore where temporary tables and indices are kept
+ * @param busyTimeoutMillis how long a connection waits for a lock held by another connection, in
+ *        milliseconds
+ * @param walAutocheckpointPages the size of the write-ahead log, in pages, at which SQLite
+ *        automatically runs a passive checkpoint
+ */
+public record DatabaseStorageConfig(
+        @JsonProperty(value = "cacheSizeKib", required = true) int cacheSizeKib,
+        @JsonProperty(value = "mmapSizeBytes", required = true) long mmapSizeBytes,
+        @JsonProperty(value = "synchronous",
+                required = true) StorageSettings.Synchronous synchronous,
+        @JsonProperty(value = "tempStore", required = true) StorageSettings.TempStore tempStore,
+        @JsonProperty(value = "busyTimeoutMillis", required = true) int busyTimeoutMillis,
+        @JsonProperty(value = "walAutocheckpointPages",
+                required = true) int walAutocheckpointPages) {
+
+    /**
+     * Creates a database storage config.
+     *
+     * @param cacheSizeKib the maximal size of the page cache of each connection, in KiB
+     * @param mmapSizeBytes the maximal amount of the database file that is memory-mapped, in bytes
+     * @param synchronous how often SQLite waits for data to be written to disk
+     * @param tempStore where temporary tables and indices are kept
+     * @param busyTimeoutMillis how long a connection waits for a lock held by another connection,
+     *        in milliseconds
+     * @param walAutocheckpointPages the size of the write-ahead log, in pages, at which SQLite
+     *        automatically runs a passive checkpoint
+     */
+    public DatabaseStorageConfig {
+        Objects.requireNonNull(synchronous);
+        Objects.requireNonNull(tempStore);
+    }
+
+    /**
+     * Converts this config into the settings understood by the database.
+     *
+     * @return the storage settings
+     * @throws IllegalArgumentException if any of the values is not supported by the database
+     */
+    public StorageSettings toStorageSettings() {
+        return new StorageSettings(cacheSizeKib, mmapSizeBytes, synchronous, tempStore,
+                Duration.ofMillis(busyTimeoutMillis), walAutocheckpointPages);
+    }
+}
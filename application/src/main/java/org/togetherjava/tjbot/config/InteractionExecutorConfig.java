@@ -0,0 +1,77 @@
+package org.togetherjava.tjbot.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Configuration of the executor running user interactions, such as slash commands or button clicks,
+ * see {@link org.togetherjava.tjbot.features.system.InteractionExecutor}.
+ *
+ * @param defaultConcurrencyLimit the maximal amount of interactions that may run concurrently for a
+ *        single user interactor, unless overridden by {@code concurrencyLimits}
+ * @param concurrencyLimits maps names of user interactors, e.g. {@code "chatgpt"}, to the maximal
+ *        amount of their interactions that may run concurrently
+ * @param autoCompleteThreads the amount of threads reserved for auto-completion requests
+ * @param autoDeferThresholdMillis the time after which commands that did not acknowledge their
+ *        interaction yet are deferred automatically, in milliseconds. Must be below the 3 seconds
+ *        Discord grants for acknowledging an interaction.
+ */
+public record InteractionExecutorConfig(
+        @JsonProperty(value = "defaultConcurrencyLimit",
+                required = true) int defaultConcurrencyLimit,
+        @JsonProperty(value = "concurrencyLimits",
+                required = true) Map<String, Integer> concurrencyLimits,
+        @JsonProperty(value = "autoCompleteThreads", required = true) int autoCompleteThreads,
+        @JsonProperty(value = "autoDeferThresholdMillis",
+                required = true) int autoDeferThresholdMillis) {
+    private static final int ACKNOWLEDGE_DEADLINE_MILLIS = 3_000;
+
+    /**
+     * Creates an interaction executor config.
+     *
+     * @param defaultConcurrencyLimit the maximal amount of interactions that may run concurrently
+     *        for a single user interactor, must be higher than 0
+     * @param concurrencyLimits maps names of user interactors to the maximal amount of their
+     *        interactions that may run concurrently, all limits must be higher than 0
+     * @param autoCompleteThreads the amount of threads reserved for auto-completion requests, must
+     *        be higher than 0
+     * @param autoDeferThresholdMillis the time after which commands that did not acknowledge their
+     *        interaction yet are deferred automatically, in milliseconds, must be higher than 0 and
+     *        below 3000
+     */
+    public InteractionExecutorConfig {
+        Objects.requireNonNull(concurrencyLimits);
+        if (defaultConcurrencyLimit <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal defaultConcurrencyLimit : " + defaultConcurrencyLimit);
+        }
+        concurrencyLimits.forEach((interactorName, limit) -> {
+            if (limit == null || limit <= 0) {
+                throw new IllegalArgumentException(
+                        "Illegal concurrency limit for %s : %s".formatted(interactorName, limit));
+            }
+        });
+        if (autoCompleteThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal autoCompleteThreads : " + autoCompleteThreads);
+        }
+        if (autoDeferThresholdMillis <= 0
+                || autoDeferThresholdMillis >= ACKNOWLEDGE_DEADLINE_MILLIS) {
+            throw new IllegalArgumentException(
+                    "Illegal autoDeferThresholdMillis : " + autoDeferThresholdMillis);
+        }
+    }
+
+    /**
+     * Gets the maximal amount of interactions that may run concurrently for the given user
+     * interactor.
+     *
+     * @param interactorName the name of the user interactor, e.g. {@code "chatgpt"}
+     * @return the concurrency limit of the interactor
+     */
+    public int getConcurrencyLimit(String interactorName) {
+        return concurrencyLimits.getOrDefault(interactorName, defaultConcurrencyLimit);
+    }
+}
@@ -0,0 +1,33 @@
+package org.togetherjava.tjbot.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Configuration of the HTTP endpoint exposing internals of the bot to Prometheus, see
+ * {@link org.togetherjava.tjbot.metrics.OpenMetricsEndpoint}.
+ *
+ * @param enabled whether the endpoint is started
+ * @param host the host name or address to listen on, e.g. {@code 127.0.0.1} to only allow scrapes
+ *        from the same machine
+ * @param port the port to listen on
+ */
+public record OpenMetricsConfig(@JsonProperty(value = "enabled", required = true) boolean enabled,
+        @JsonProperty(value = "host", required = true) String host,
+        @JsonProperty(value = "port", required = true) int port) {
+
+    /**
+     * Creates an OpenMetrics config.
+     *
+     * @param enabled whether the endpoint is started
+     * @param host the host name or address to listen on
+     * @param port the port to listen on, between 0 and 65535
+     */
+    public OpenMetricsConfig {
+        Objects.requireNonNull(host);
+        if (port < 0 || port > 65_535) {
+            throw new IllegalArgumentException("Illegal port : " + port);
+        }
+    }
+}
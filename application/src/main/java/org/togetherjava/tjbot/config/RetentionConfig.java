@@ -0,0 +1,32 @@
+package org.togetherjava.tjbot.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Configuration of how long raw analytics data is kept before it is rolled up into daily
+ * aggregates, see {@link org.togetherjava.tjbot.features.analytics.RollupRoutine}.
+ *
+ * @param rawRetentionDays after how many days raw metric events and help messages are rolled up
+ * @param rollupChunkSize the maximal amount of raw rows rolled up and deleted in one transaction
+ */
+public record RetentionConfig(
+        @JsonProperty(value = "rawRetentionDays", required = true) int rawRetentionDays,
+        @JsonProperty(value = "rollupChunkSize", required = true) int rollupChunkSize) {
+
+    /**
+     * Creates a retention config.
+     *
+     * @param rawRetentionDays after how many days raw metric events and help messages are rolled
+     *        up, must be higher than 0
+     * @param rollupChunkSize the maximal amount of raw rows rolled up and deleted in one
+     *        transaction, must be higher than 0
+     */
+    public RetentionConfig {
+        if (rawRetentionDays <= 0) {
+            throw new IllegalArgumentException("Illegal rawRetentionDays : " + rawRetentionDays);
+        }
+        if (rollupChunkSize <= 0) {
+            throw new IllegalArgumentException("Illegal rollupChunkSize : " + rollupChunkSize);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.togetherjava.tjbot.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Configuration of the scheduler running routines, see
+ * {@link org.togetherjava.tjbot.features.system.RoutineScheduler}.
+ *
+ * @param maxJitterSeconds the maximal random delay added to the first execution of each routine, so
+ *        that routines scheduled for the same time, e.g. a full hour, do not all fire at once
+ */
+public record RoutinesConfig(
+        @JsonProperty(value = "maxJitterSeconds", required = true) int maxJitterSeconds) {
+
+    /**
+     * Creates a routines config.
+     *
+     * @param maxJitterSeconds the maximal random delay added to the first execution of each
+     *        routine, must not be negative
+     */
+    public RoutinesConfig {
+        if (maxJitterSeconds < 0) {
+            throw new IllegalArgumentException("Illegal maxJitterSeconds : " + maxJitterSeconds);
+        }
+    }
+}
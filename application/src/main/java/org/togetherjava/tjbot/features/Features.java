@@ -8,6 +8,8 @@ import org.togetherjava.tjbot.config.FeatureBlacklistConfig;
 import org.togetherjava.tjbot.db.Database;
 import org.togetherjava.tjbot.features.analytics.EmojiTrackerListener;
 import org.togetherjava.tjbot.features.analytics.Metrics;
+import org.togetherjava.tjbot.features.analytics.MetricsFlushRoutine;
+import org.togetherjava.tjbot.features.analytics.RollupRoutine;
 import org.togetherjava.tjbot.features.basic.MemberCountDisplayRoutine;
 import org.togetherjava.tjbot.features.basic.PingCommand;
 import org.togetherjava.tjbot.features.basic.QuoteBoardForwarder;
@@ -62,6 +64,7 @@ import org.togetherjava.tjbot.features.moderation.WarnCommand;
 import org.togetherjava.tjbot.features.moderation.WhoIsCommand;
 import org.togetherjava.tjbot.features.moderation.attachment.BlacklistedAttachmentListener;
 import org.togetherjava.tjbot.features.moderation.audit.AuditCommand;
+import org.togetherjava.tjbot.features.moderation.audit.ExportCommand;
 import org.togetherjava.tjbot.features.moderation.audit.ModAuditLogRoutine;
 import org.togetherjava.tjbot.features.moderation.audit.ModAuditLogWriter;
 import org.togetherjava.tjbot.features.moderation.modmail.ModMailCommand;
@@ -85,13 +88,17 @@ import org.togetherjava.tjbot.features.tags.TagsCommand;
 import org.togetherjava.tjbot.features.tophelper.TopHelpersAssignmentRoutine;
 import org.togetherjava.tjbot.features.tophelper.TopHelpersCommand;
 import org.togetherjava.tjbot.features.tophelper.TopHelpersMessageListener;
-import org.togetherjava.tjbot.features.tophelper.TopHelpersPurgeMessagesRoutine;
 import org.togetherjava.tjbot.features.tophelper.TopHelpersService;
 import org.togetherjava.tjbot.features.voicechat.DynamicVoiceChat;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Utility class that offers all features that should be registered by the system, such as commands.
@@ -100,6 +107,9 @@ import java.util.List;
  * <p>
  * To add a new slash command, extend the commands returned by
  * {@link #createFeatures(JDA, Database, Config, Metrics)}.
+ * <p>
+ * Features that have to do expensive initialization, such as network I/O, should implement
+ * {@link Warmable} instead of doing it in their constructor, to not delay the startup.
  */
 public class Features {
     private Features() {
@@ -121,8 +131,39 @@ public class Features {
     @SuppressWarnings("unused")
     public static Collection<Feature> createFeatures(JDA jda, Database database, Config config,
             Metrics metrics) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return createFeatures(jda, database, config, metrics, executor);
+        }
+    }
+
+    private static Collection<Feature> createFeatures(JDA jda, Database database, Config config,
+            Metrics metrics, Executor executor) {
         FeatureBlacklistConfig blacklistConfig = config.getFeatureBlacklistConfig();
-        JShellEval jshellEval = new JShellEval(config.getJshell(), config.getGitHubApiKey());
+
+        // Features with slow construction, e.g. because they create HTTP clients, are created
+        // in parallel. Network I/O belongs into Warmable#warmUp instead.
+        CompletableFuture<JShellEval> jshellEvalFuture = CompletableFuture.supplyAsync(
+                () -> new JShellEval(config.getJshell(), config.getGitHubApiKey()), executor);
+        CompletableFuture<CodeMessageHandler> codeMessageHandlerFuture =
+                jshellEvalFuture.thenApplyAsync(
+                        jshellEval -> new CodeMessageHandler(blacklistConfig.special(), jshellEval,
+                                metrics),
+                        executor);
+        CompletableFuture<ChatGptService> chatGptServiceFuture =
+                CompletableFuture.supplyAsync(() -> new ChatGptService(config, metrics), executor);
+        CompletableFuture<HelpSystemHelper> helpSystemHelperFuture =
+                chatGptServiceFuture.thenApplyAsync(
+                        chatGptService -> new HelpSystemHelper(config, database, chatGptService),
+                        executor);
+        CompletableFuture<ChatGptCommand> chatGptCommandFuture =
+                chatGptServiceFuture.thenCombineAsync(helpSystemHelperFuture,
+                        (chatGptService, helpSystemHelper) -> new ChatGptCommand(chatGptService,
+                                helpSystemHelper,
+                                List.of(new WebSearchTool(config.getTavilyApiKey()),
+                                        new FetchUrlTool())),
+                        executor);
+        CompletableFuture<RSSHandlerRoutine> rssHandlerRoutineFuture = CompletableFuture
+            .supplyAsync(() -> new RSSHandlerRoutine(config, database, metrics), executor);
 
         TagSystem tagSystem = new TagSystem(database);
         BookmarksSystem bookmarksSystem = new BookmarksSystem(config, database);
@@ -130,17 +171,18 @@ public class Features {
         ModAuditLogWriter modAuditLogWriter = new ModAuditLogWriter(config);
         ScamHistoryStore scamHistoryStore = new ScamHistoryStore(database);
         GitHubReference githubReference = new GitHubReference(config, metrics);
-        CodeMessageHandler codeMessageHandler =
-                new CodeMessageHandler(blacklistConfig.special(), jshellEval, metrics);
-        ChatGptService chatGptService = new ChatGptService(config, metrics);
-        HelpSystemHelper helpSystemHelper = new HelpSystemHelper(config, database, chatGptService);
+        TopHelpersService topHelpersService = new TopHelpersService(database);
+        TopHelpersAssignmentRoutine topHelpersAssignmentRoutine =
+                new TopHelpersAssignmentRoutine(config, topHelpersService, metrics);
+
+        JShellEval jshellEval = await(jshellEvalFuture);
+        CodeMessageHandler codeMessageHandler = await(codeMessageHandlerFuture);
+        ChatGptService chatGptService = await(chatGptServiceFuture);
+        HelpSystemHelper helpSystemHelper = await(helpSystemHelperFuture);
         HelpThreadLifecycleListener helpThreadLifecycleListener =
                 new HelpThreadLifecycleListener(helpSystemHelper, database);
         HelpThreadCreatedListener helpThreadCreatedListener =
                 new HelpThreadCreatedListener(helpSystemHelper, metrics);
-        TopHelpersService topHelpersService = new TopHelpersService(database);
-        TopHelpersAssignmentRoutine topHelpersAssignmentRoutine =
-                new TopHelpersAssignmentRoutine(config, topHelpersService, metrics);
 
         // NOTE The system can add special system relevant commands also by itself,
         // hence this list may not necessarily represent the full list of all commands actually
@@ -150,7 +192,8 @@ public class Features {
         // Routines
         features.add(new ModAuditLogRoutine(database, config, modAuditLogWriter));
         features.add(new TemporaryModerationRoutine(jda, actionsStore, config));
-        features.add(new TopHelpersPurgeMessagesRoutine(database));
+        features.add(new RollupRoutine(database, metrics.getDatabase(), config.getRetention()));
+        features.add(new MetricsFlushRoutine(metrics));
         features.add(new RemindRoutine(database));
         features.add(new ScamHistoryPurgeRoutine(scamHistoryStore));
         features.add(new HelpThreadMetadataPurger(database));
@@ -161,7 +204,7 @@ public class Features {
         features.add(new LeftoverBookmarksCleanupRoutine(bookmarksSystem));
         features.add(new MarkHelpThreadCloseInDBRoutine(database, helpThreadLifecycleListener));
         features.add(new MemberCountDisplayRoutine(config));
-        features.add(new RSSHandlerRoutine(config, database, metrics));
+        features.add(await(rssHandlerRoutineFuture));
         features.add(topHelpersAssignmentRoutine);
 
         // Message receivers
@@ -208,6 +251,7 @@ public class Features {
         features.add(new BanCommand(actionsStore));
         features.add(new UnbanCommand(actionsStore));
         features.add(new AuditCommand(actionsStore));
+        features.add(new ExportCommand(database, metrics.getDatabase()));
         features.add(new MuteCommand(actionsStore, config));
         features.add(new UnmuteCommand(actionsStore, config));
         features.add(new TopHelpersCommand(topHelpersService, topHelpersAssignmentRoutine));
@@ -224,9 +268,7 @@ public class Features {
         features.add(new ReportCommand(config));
         features.add(new BookmarksCommand(bookmarksSystem));
 
-        features.add(new ChatGptCommand(chatGptService, helpSystemHelper,
-                List.of(new WebSearchTool(config.getTavilyApiKey()), new FetchUrlTool())));
-
+        features.add(await(chatGptCommandFuture));
         features.add(new JShellCommand(jshellEval));
         features.add(new MessageCommand());
         features.add(new RewriteCommand(chatGptService));
@@ -237,4 +279,19 @@ public class Features {
         FeatureBlacklist<Class<?>> blacklist = blacklistConfig.normal();
         return blacklist.filterStream(features.stream(), Object::getClass).toList();
     }
+
+    private static <T> T await(CompletableFuture<T> featureFuture) {
+        try {
+            return featureFuture.join();
+        } catch (CompletionException e) {
+            // Propagate failures the same as if the feature was created on the calling thread
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
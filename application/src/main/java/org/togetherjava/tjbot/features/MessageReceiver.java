@@ -18,6 +18,10 @@ import java.util.regex.Pattern;
  * After registration, the system will notify a receiver whenever a new message was sent or an
  * existing message was updated in any channel matching the {@link #getChannelNamePattern()} the bot
  * is added to.
+ * <p>
+ * Unless {@link #requiresInlineExecution()} is set, receivers are notified asynchronously, off the
+ * event thread of JDA. Events of the same channel are still delivered in order, but events of
+ * different channels may be processed in parallel. Hence, receivers must be thread-safe.
  */
 public interface MessageReceiver extends Feature {
     /**
@@ -31,6 +35,19 @@ public interface MessageReceiver extends Feature {
      */
     Pattern getChannelNamePattern();
 
+    /**
+     * Whether this receiver has to be notified directly on the event thread of JDA, before any
+     * asynchronous receiver. Called by the core system once during the startup in order to register
+     * the receiver accordingly.
+     * <p>
+     * Asynchronous receivers may miss events if they can not keep up, inline receivers never do.
+     * This should only be used by receivers that are very fast and do not block, since they delay
+     * the processing of all other events of the bot.
+     *
+     * @return whether the receiver requires inline execution
+     */
+    boolean requiresInlineExecution();
+
     /**
      * Triggered by the core system whenever a new message was sent and received in a text channel
      * of a guild the bot has been added to.
@@ -41,6 +41,16 @@ public abstract class MessageReceiverAdapter implements MessageReceiver {
         return channelNamePattern;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * By default, receivers are notified asynchronously, subclasses may change this behavior.
+     */
+    @Override
+    public boolean requiresInlineExecution() {
+        return false;
+    }
+
     @SuppressWarnings("NoopMethodInAbstractClass")
     @Override
     public void onMessageReceived(MessageReceivedEvent event) {
@@ -44,6 +44,19 @@ public interface Routine extends Feature {
      */
     void runRoutine(JDA jda);
 
+    /**
+     * Gets the name of this routine, used for example in statistics and for the names of the
+     * threads executing it.
+     * <p>
+     * Names have to be unique among all routines. By default, this is the simple name of the class,
+     * hence routines that are registered multiple times have to override it.
+     *
+     * @return the name of this routine
+     */
+    default String getRoutineName() {
+        return getClass().getSimpleName();
+    }
+
     /**
      * The schedule of routines.
      *
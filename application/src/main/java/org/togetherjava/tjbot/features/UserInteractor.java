@@ -126,6 +126,22 @@ public interface UserInteractor extends Feature {
         // Interface does not react by default, implementations may change this behaviour
     }
 
+    /**
+     * Whether the core system may defer interactions of this interactor automatically, if they are
+     * not acknowledged in time, e.g. because of a slow database query.
+     * <p>
+     * Only interactors that respond exclusively through
+     * {@link org.togetherjava.tjbot.features.utils.InteractionReplies} should allow this, since
+     * plain replies, deferrals with callbacks and modals fail once the interaction was deferred.
+     * <p>
+     * Only applies to slash commands and context commands.
+     *
+     * @return whether interactions may be deferred automatically, {@code false} by default
+     */
+    default boolean allowsAutoDefer() {
+        return false;
+    }
+
     /**
      * Triggered by the core system during its setup phase. It will provide the command a component
      * id generator through this method, which can be used to generate component ids, as used for
@@ -0,0 +1,42 @@
+package org.togetherjava.tjbot.features;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Features that have to do expensive initialization, such as network I/O, can implement this
+ * interface to do it asynchronously once the bot is ready, instead of blocking the startup in their
+ * constructor.
+ * <p>
+ * After registration in {@link Features}, the core system will call {@link #warmUp()} once on a
+ * background thread, after all {@link #getWarmUpDependencies() dependencies} finished warming up.
+ * Warm-ups of unrelated features run in parallel.
+ * <p>
+ * Events might already arrive while a feature is still warming up, it has to handle them
+ * gracefully, for example by ignoring them or by telling the user to try again later.
+ */
+public interface Warmable extends Feature {
+    /**
+     * Warms up this feature, for example by populating caches or connecting to external services.
+     * Called by the core system once, on a background thread, after the bot is ready.
+     * <p>
+     * Failures are logged by the core system, the feature is considered ready afterwards
+     * regardless.
+     *
+     * @throws Exception if the warm-up failed
+     */
+    void warmUp() throws Exception;
+
+    /**
+     * Gets the features that have to finish warming up before this feature can warm up, for example
+     * because it needs data they fetch during their warm-up.
+     * <p>
+     * Dependencies that are not registered with the core system, for example because they are
+     * blacklisted, are ignored.
+     *
+     * @return the features this feature depends on, empty by default
+     */
+    default Collection<Warmable> getWarmUpDependencies() {
+        return List.of();
+    }
+}
@@ -9,6 +9,7 @@ import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
 import org.togetherjava.tjbot.features.MessageReceiverAdapter;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Listener that tracks custom emoji usage across all channels for analytics purposes.
@@ -17,11 +18,15 @@ import java.util.Map;
  * should be removed.
  * <p>
  * Custom emojis are tracked by their Discord ID (e.g. {@code emoji-custom-123456789}). Animated
- * custom emojis are tracked separately (e.g. {@code emoji-custom-animated-123456789}).
+ * custom emojis are tracked separately (e.g. {@code emoji-custom-animated-123456789}). Since emojis
+ * are used frequently, their usage is only counted per hour, see
+ * {@link Metrics#countAggregated(String, Map)}. The counters of each emoji are kept, so tracking an
+ * emoji that was used before does not build and hash its dimensions again.
  */
 public final class EmojiTrackerListener extends MessageReceiverAdapter {
     private static final String METRIC_NAME = "emoji";
     private final Metrics metrics;
+    private final Map<Long, EmojiCounters> emojiIdToCounters = new ConcurrentHashMap<>();
 
     /**
      * Creates a new listener to track emoji usage across all channels.
@@ -43,8 +48,7 @@ public final class EmojiTrackerListener extends MessageReceiverAdapter {
         event.getMessage()
             .getMentions()
             .getCustomEmojis()
-            .forEach(customEmoji -> trackCustomEmoji("message", customEmoji.getIdLong(),
-                    customEmoji.isAnimated(), customEmoji.getName()));
+            .forEach(customEmoji -> countersOf(customEmoji).message().increment());
     }
 
     @Override
@@ -54,14 +58,29 @@ public final class EmojiTrackerListener extends MessageReceiverAdapter {
             return;
         }
 
-        CustomEmoji customEmoji = emoji.asCustom();
+        countersOf(emoji.asCustom()).reaction().increment();
+    }
+
+    private EmojiCounters countersOf(CustomEmoji customEmoji) {
+        EmojiCounters counters = emojiIdToCounters.get(customEmoji.getIdLong());
+        if (counters != null && counters.name().equals(customEmoji.getName())) {
+            return counters;
+        }
+
+        // Renamed emojis are counted with their new name from now on
+        counters = new EmojiCounters(customEmoji.getName(),
+                createCounter("message", customEmoji), createCounter("reaction", customEmoji));
+        emojiIdToCounters.put(customEmoji.getIdLong(), counters);
+        return counters;
+    }
 
-        trackCustomEmoji("reaction", customEmoji.getIdLong(), customEmoji.isAnimated(),
-                customEmoji.getName());
+    private Metrics.AggregatedCounter createCounter(String type, CustomEmoji customEmoji) {
+        return metrics.aggregatedCounter(METRIC_NAME,
+                Map.of("type", type, "id", customEmoji.getIdLong(), "animated",
+                        customEmoji.isAnimated(), "name", customEmoji.getName()));
     }
 
-    private void trackCustomEmoji(String type, long id, boolean isAnimated, String name) {
-        metrics.count(METRIC_NAME,
-                Map.of("type", type, "id", id, "animated", isAnimated, "name", name));
+    private record EmojiCounters(String name, Metrics.AggregatedCounter message,
+            Metrics.AggregatedCounter reaction) {
     }
 }
@@ -0,0 +1,77 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import org.jooq.DSLContext;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.db.Database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEventsDaily.METRIC_EVENTS_DAILY;
+
+/**
+ * Imports the metrics recorded before the analytics got their own database, see
+ * {@link Metrics#MIGRATIONS_LOCATION}, from the main database into the analytics database.
+ * <p>
+ * The main database drops its analytics tables once it is migrated, so the import must run before
+ * the main database is opened.
+ */
+public final class LegacyMetricsImport {
+    private static final Logger logger = LoggerFactory.getLogger(LegacyMetricsImport.class);
+    private static final String LEGACY_SCHEMA = "legacy";
+
+    private LegacyMetricsImport() {
+        throw new UnsupportedOperationException("Utility class, construction not supported");
+    }
+
+    /**
+     * Imports the metrics from the given main database, if it still contains any and they have not
+     * been imported yet.
+     *
+     * @param mainDatabaseFile the file of the main database, which has not been migrated yet
+     * @param analyticsDatabase the database to import the metrics into
+     */
+    public static void importFrom(Path mainDatabaseFile, Database analyticsDatabase) {
+        if (!Files.exists(mainDatabaseFile)) {
+            return;
+        }
+
+        analyticsDatabase.writeAttached(mainDatabaseFile, LEGACY_SCHEMA, context -> {
+            if (!hasLegacyTable(context, METRIC_EVENTS) || context.fetchExists(METRIC_EVENTS)
+                    || context.fetchExists(METRIC_EVENTS_DAILY)) {
+                return;
+            }
+
+            context.transaction(configuration -> {
+                DSLContext transaction = configuration.dsl();
+                int events = importTable(transaction, METRIC_EVENTS);
+                int dailyEvents = hasLegacyTable(transaction, METRIC_EVENTS_DAILY)
+                        ? importTable(transaction, METRIC_EVENTS_DAILY)
+                        : 0;
+
+                logger.info(
+                        "Imported {} metric events and {} daily aggregates from the main database into the analytics database",
+                        events, dailyEvents);
+            });
+        });
+    }
+
+    private static boolean hasLegacyTable(DSLContext context, Table<?> table) {
+        return context.fetchExists(DSL.table(DSL.name(LEGACY_SCHEMA, "sqlite_master")),
+                DSL.field(DSL.name("type"))
+                    .eq("table")
+                    .and(DSL.field(DSL.name("name")).eq(table.getName())));
+    }
+
+    private static int importTable(DSLContext context, Table<?> table) {
+        // The columns of the legacy tables are in the same order
+        return context.insertInto(table)
+            .select(context.selectFrom(DSL.table(DSL.name(LEGACY_SCHEMA, table.getName()))))
+            .execute();
+    }
+}
@@ -0,0 +1,127 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+
+import org.togetherjava.tjbot.db.Database;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+
+/**
+ * Analytical queries over the raw metric events recorded by {@link Metrics#count(String, Map)},
+ * such as how often each slash command was used.
+ * <p>
+ * The queries filter and group by the most common {@link Dimension dimensions}, which are extracted
+ * from the JSON of the events into indexed generated columns. Hence, they do not have to parse the
+ * JSON of every event, and only read the events of the queried type and time range.
+ * <p>
+ * Only raw events are considered. Events older than the retention have been rolled up into daily
+ * aggregates by the {@link RollupRoutine} already.
+ */
+public final class MetricQueries {
+    private final Database database;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param database the analytics database to query, see {@link Metrics#getDatabase()}
+     */
+    public MetricQueries(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Counts the events of the given type per value of the given dimension, e.g. the usage of each
+     * slash command. Events without the dimension are not counted.
+     *
+     * @param event the type of the events to count, e.g. {@code "slash"}
+     * @param dimension the dimension to group the events by, e.g. {@link Dimension#NAME}
+     * @param since only events that happened at or after this moment are counted
+     * @param limit the maximal amount of values to return
+     * @return the values of the dimension with their count, most frequent first
+     */
+    public List<DimensionCount> countByDimension(String event, Dimension dimension, Instant since,
+            int limit) {
+        Field<String> value = dimension.getColumn();
+        Field<Integer> count = DSL.count();
+
+        return database.read(context -> context.select(value, count)
+            .from(METRIC_EVENTS)
+            // The condition on the value is redundant, but required to use the partial index
+            .where(METRIC_EVENTS.EVENT.eq(event)
+                .and(value.isNotNull())
+                .and(METRIC_EVENTS.HAPPENED_AT.greaterOrEqual(since)))
+            .groupBy(value)
+            .orderBy(count.desc(), value)
+            .limit(limit)
+            .fetch(record -> new DimensionCount(record.get(value), record.get(count))));
+    }
+
+    /**
+     * Counts the events of the given type whose dimension has the given value, e.g. how often a
+     * certain tag has been used.
+     *
+     * @param event the type of the events to count, e.g. {@code "tag"}
+     * @param dimension the dimension to filter by, e.g. {@link Dimension#ID}
+     * @param value the value of the dimension, numbers are given in their decimal representation
+     * @param since only events that happened at or after this moment are counted
+     * @return the amount of matching events
+     */
+    public int countWithDimension(String event, Dimension dimension, String value,
+            Instant since) {
+        return database.read(context -> context.fetchCount(METRIC_EVENTS,
+                METRIC_EVENTS.EVENT.eq(event)
+                    .and(dimension.getColumn().eq(value))
+                    .and(METRIC_EVENTS.HAPPENED_AT.greaterOrEqual(since))));
+    }
+
+    /**
+     * Dimensions of metric events that are indexed and can hence be queried efficiently.
+     */
+    public enum Dimension {
+        /**
+         * The name of e.g. a slash command or code action.
+         */
+        NAME("dimension_name"),
+        /**
+         * The id of e.g. a tag.
+         */
+        ID("dimension_id"),
+        /**
+         * The id of the user that triggered the event.
+         */
+        USER_ID("dimension_user_id"),
+        /**
+         * The category of e.g. a help thread.
+         */
+        CATEGORY("dimension_category");
+
+        /**
+         * Declared here instead of using the generated table, so that records of metric events
+         * never attempt to write the generated columns.
+         */
+        private final Field<String> column;
+
+        Dimension(String columnName) {
+            column = DSL.field(DSL.name(METRIC_EVENTS.getName(), columnName), SQLDataType.VARCHAR);
+        }
+
+        Field<String> getColumn() {
+            return column;
+        }
+    }
+
+    /**
+     * The amount of events with a certain value of a dimension.
+     *
+     * @param value the value of the dimension, numbers are given in their decimal representation
+     * @param count the amount of events with this value
+     */
+    public record DimensionCount(String value, int count) {
+    }
+}
@@ -2,39 +2,86 @@ package org.togetherjava.tjbot.features.analytics;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.DatabaseException;
 import org.togetherjava.tjbot.db.generated.tables.MetricEvents;
+import org.togetherjava.tjbot.metrics.OpenMetricsWriter;
 
 import javax.annotation.Nullable;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.togetherjava.tjbot.db.generated.tables.MetricEventCounts.METRIC_EVENT_COUNTS;
 
 /**
  * Service for tracking and recording events for analytics purposes.
+ * <p>
+ * Events are stored in their own database, separate from the main database of the other features.
+ * Hence, bursts of events never contend with writes of other features, such as moderation actions.
+ * <p>
+ * Events are either recorded raw, one row per event with the moment it happened, see
+ * {@link #count(String, Map)}, or aggregated, see {@link #countAggregated(String, Map)}. Aggregated
+ * events are only counted in memory and written as one row per event, dimensions and hour by
+ * {@link #flushAggregated()}, which suits frequent events such as emoji usage. Callers on hot paths
+ * can keep the counter of an aggregated event, see {@link #aggregatedCounter(String, Map)}, to
+ * count it without any lookup.
  */
 public final class Metrics {
     private static final Logger logger = LoggerFactory.getLogger(Metrics.class);
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // Dimensions are compared by their serialized form, so their order must not depend on the map
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    /**
+     * The location of the migrations creating the analytics database.
+     */
+    public static final String MIGRATIONS_LOCATION = "classpath:/db-analytics/";
+    /**
+     * The time buckets aggregated events are counted in.
+     */
+    static final ChronoUnit AGGREGATION_BUCKET = ChronoUnit.HOURS;
 
     private final Database database;
-
-    private final ExecutorService service = Executors.newSingleThreadExecutor();
+    /**
+     * Counts of the aggregated events since the last flush. Counters that did not count anything
+     * since the previous flush are removed, since dimensions such as emoji or user ids would
+     * otherwise grow the map with every distinct value ever seen.
+     */
+    private final Map<AggregationKey, AggregatedCounter> aggregationKeyToCounter =
+            new ConcurrentHashMap<>();
+    /**
+     * Total counts of all events since startup, raw and aggregated, regardless of their dimensions.
+     */
+    private final Map<String, LongAdder> eventToTotalCount = new ConcurrentHashMap<>();
 
     /**
      * Creates a new instance.
      *
-     * @param database the database to use for storing and retrieving analytics data
+     * @param database the database to use for storing and retrieving analytics data, created with
+     *        the migrations at {@link #MIGRATIONS_LOCATION}
      */
     public Metrics(Database database) {
         this.database = database;
     }
 
+    /**
+     * Gets the database the events are stored in.
+     *
+     * @return the analytics database
+     */
+    public Database getDatabase() {
+        return database;
+    }
+
     /**
      * Track an event execution.
      *
@@ -56,12 +103,157 @@ public final class Metrics {
      */
     public void count(String event, Map<String, Object> dimensions) {
         logger.debug("Counting new record for event: {}", event);
+        countTotal(event);
 
         Instant happenedAt = Instant.now();
         String serializedDimensions = serializeDimensions(dimensions);
 
-        service.submit(() -> processEvent(event, happenedAt,
-                dimensions.isEmpty() ? null : serializedDimensions));
+        processEvent(event, happenedAt, dimensions.isEmpty() ? null : serializedDimensions);
+    }
+
+    /**
+     * Track an event execution, only counting it in memory until the next flush, see
+     * {@link #countAggregated(String, Map)}.
+     *
+     * @param event the event to count
+     */
+    public void countAggregated(String event) {
+        countAggregated(event, Map.of());
+    }
+
+    /**
+     * Track an event execution with additional contextual data, only counting it in memory until
+     * the next flush. Unlike {@link #count(String, Map)}, the moment of each single event is not
+     * recorded, only how often it happened per hour. Hence, this is preferred for frequent events,
+     * since the amount of writes only grows with the amount of distinct events and dimensions.
+     *
+     * @param event the name of the event to count
+     * @param dimensions optional key-value pairs providing extra context about the event, see
+     *        {@link #count(String, Map)}. Events are counted separately per distinct dimensions, so
+     *        they should not contain values that differ for every event, such as message IDs.
+     */
+    public void countAggregated(String event, Map<String, Object> dimensions) {
+        aggregatedCounter(event, dimensions).increment();
+    }
+
+    /**
+     * Gets the counter of the given aggregated event, see {@link #countAggregated(String, Map)}.
+     * The counter is the same for equal events and dimensions, and stays valid for the lifetime of
+     * this instance. Hence, callers counting the same event frequently can keep it, and skip
+     * looking it up by its dimensions on every event. Counters removed for being idle attach
+     * themselves again once they count.
+     *
+     * @param event the name of the event to count
+     * @param dimensions optional key-value pairs providing extra context about the event, see
+     *        {@link #countAggregated(String, Map)}
+     * @return the counter of the event
+     */
+    public AggregatedCounter aggregatedCounter(String event, Map<String, Object> dimensions) {
+        AggregatedCounter counter =
+                aggregationKeyToCounter.get(new AggregationKey(event, dimensions));
+        if (counter != null) {
+            return counter;
+        }
+
+        // Copying protects the key from later modifications of the given dimensions
+        AggregationKey key = new AggregationKey(event, Map.copyOf(dimensions));
+        return aggregationKeyToCounter.computeIfAbsent(key,
+                _ -> new AggregatedCounter(this, key, totalCount(event)));
+    }
+
+    /**
+     * Writes the counts of all aggregated events since the last flush to the database, adding them
+     * to the counts of the current hour. Called periodically by {@link MetricsFlushRoutine}.
+     */
+    public void flushAggregated() {
+        List<AggregatedCount> counts = new ArrayList<>();
+        aggregationKeyToCounter.forEach((key, counter) -> {
+            // Unlike sumThenReset, this does not lose increments happening concurrently
+            long flushedCount = counter.count.sum();
+            counter.count.add(-flushedCount);
+            if (flushedCount > 0) {
+                counts.add(new AggregatedCount(key, flushedCount));
+            } else if (aggregationKeyToCounter.remove(key, counter)) {
+                evict(counter);
+            }
+        });
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        Instant bucketStart = Instant.now().truncatedTo(AGGREGATION_BUCKET);
+        try {
+            database.writeTransaction(context -> counts.forEach(count -> context
+                .insertInto(METRIC_EVENT_COUNTS)
+                .set(METRIC_EVENT_COUNTS.BUCKET_START, bucketStart)
+                .set(METRIC_EVENT_COUNTS.EVENT, count.key().event())
+                .set(METRIC_EVENT_COUNTS.DIMENSIONS, serializeDimensions(count.key().dimensions()))
+                .set(METRIC_EVENT_COUNTS.EVENT_COUNT, count.count())
+                .onConflict(METRIC_EVENT_COUNTS.BUCKET_START, METRIC_EVENT_COUNTS.EVENT,
+                        METRIC_EVENT_COUNTS.DIMENSIONS)
+                .doUpdate()
+                .set(METRIC_EVENT_COUNTS.EVENT_COUNT,
+                        METRIC_EVENT_COUNTS.EVENT_COUNT.plus(count.count()))
+                .execute()));
+        } catch (DatabaseException e) {
+            // Not lost, but written with the next flush instead
+            counts.forEach(
+                    count -> aggregationKeyToCounter.get(count.key()).count.add(count.count()));
+            throw e;
+        }
+        logger.debug("Flushed {} aggregated metric counts", counts.size());
+    }
+
+    private void evict(AggregatedCounter counter) {
+        counter.isEvicted = true;
+        // Increments that did not see the eviction yet must not get lost
+        if (counter.count.sum() != 0) {
+            reattach(counter);
+        }
+    }
+
+    private void reattach(AggregatedCounter counter) {
+        synchronized (counter) {
+            AggregatedCounter attachedCounter =
+                    aggregationKeyToCounter.putIfAbsent(counter.key, counter);
+            if (attachedCounter == null) {
+                counter.isEvicted = false;
+                return;
+            }
+            if (attachedCounter == counter) {
+                return;
+            }
+
+            // The key got a new counter meanwhile, which the pending counts are moved to
+            long pendingCount = counter.count.sum();
+            counter.count.add(-pendingCount);
+            attachedCounter.count.add(pendingCount);
+        }
+    }
+
+    private void countTotal(String event) {
+        totalCount(event).increment();
+    }
+
+    private LongAdder totalCount(String event) {
+        LongAdder totalCount = eventToTotalCount.get(event);
+        if (totalCount == null) {
+            totalCount = eventToTotalCount.computeIfAbsent(event, _ -> new LongAdder());
+        }
+        return totalCount;
+    }
+
+    /**
+     * Writes the total counts of all events since startup, raw and aggregated, as OpenMetrics
+     * counter family. Does not block and does not access the database.
+     *
+     * @param writer the writer to write the counts to
+     */
+    public void writeOpenMetrics(OpenMetricsWriter writer) {
+        writer.family("tjbot_metric_events", OpenMetricsWriter.Type.COUNTER,
+                "Events counted by the analytics service since startup");
+        eventToTotalCount
+            .forEach((event, totalCount) -> writer.sample(totalCount.sum(), "event", event));
     }
 
     private static String serializeDimensions(Map<String, Object> dimensions) {
@@ -73,17 +265,55 @@ public final class Metrics {
     }
 
     /**
+     * Saves the event to the database. The event is written in the background, batched with other
+     * events, to not block the caller.
      *
      * @param event the event to save
      * @param happenedAt the moment when the event is dispatched
      * @param dimensionsJson optional JSON-serialized dimensions, or null
      */
     private void processEvent(String event, Instant happenedAt, @Nullable String dimensionsJson) {
-        database.write(context -> context.newRecord(MetricEvents.METRIC_EVENTS)
+        database.writeBehind(context -> context.newRecord(MetricEvents.METRIC_EVENTS)
             .setEvent(event)
             .setHappenedAt(happenedAt)
             .setDimensions(dimensionsJson)
             .insert());
     }
 
+    private record AggregationKey(String event, Map<String, Object> dimensions) {
+    }
+
+    /**
+     * Counts a single aggregated event with fixed dimensions, see
+     * {@link #aggregatedCounter(String, Map)}. Counting does not allocate, unless the counter was
+     * removed for being idle.
+     */
+    public static final class AggregatedCounter {
+        private final Metrics metrics;
+        private final AggregationKey key;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalCount;
+        private volatile boolean isEvicted;
+
+        private AggregatedCounter(Metrics metrics, AggregationKey key, LongAdder totalCount) {
+            this.metrics = metrics;
+            this.key = key;
+            this.totalCount = totalCount;
+        }
+
+        /**
+         * Tracks an execution of the event, only counting it in memory until the next flush.
+         */
+        public void increment() {
+            totalCount.increment();
+            // Counting before checking the eviction, so that either this or the eviction sees it
+            count.increment();
+            if (isEvicted) {
+                metrics.reattach(this);
+            }
+        }
+    }
+
+    private record AggregatedCount(AggregationKey key, long count) {
+    }
 }
@@ -0,0 +1,34 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import net.dv8tion.jda.api.JDA;
+
+import org.togetherjava.tjbot.features.Routine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routine that periodically writes the events counted by
+ * {@link Metrics#countAggregated(String, java.util.Map)} to the database.
+ */
+public final class MetricsFlushRoutine implements Routine {
+    private final Metrics metrics;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param metrics the metrics whose aggregated events to flush
+     */
+    public MetricsFlushRoutine(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Schedule createSchedule() {
+        return new Schedule(ScheduleMode.FIXED_RATE, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void runRoutine(JDA jda) {
+        metrics.flushAggregated();
+    }
+}
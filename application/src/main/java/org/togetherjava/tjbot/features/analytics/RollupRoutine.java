@@ -0,0 +1,191 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import net.dv8tion.jda.api.JDA;
+import org.jooq.DSLContext;
+import org.jooq.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.config.RetentionConfig;
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.generated.tables.records.HelpChannelMessagesRecord;
+import org.togetherjava.tjbot.db.generated.tables.records.MetricEventCountsRecord;
+import org.togetherjava.tjbot.db.generated.tables.records.MetricEventsRecord;
+import org.togetherjava.tjbot.features.Routine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessages.HELP_CHANNEL_MESSAGES;
+import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessagesDaily.HELP_CHANNEL_MESSAGES_DAILY;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEventCounts.METRIC_EVENT_COUNTS;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEventsDaily.METRIC_EVENTS_DAILY;
+
+/**
+ * Routine that rolls raw analytics rows, which are older than the configured retention, up into
+ * daily aggregates and deletes them afterwards.
+ * <p>
+ * Metric events, as well as the hourly counts of aggregated metric events, see
+ * {@link Metrics#countAggregated(String, Map)}, are aggregated into their count per day, event and
+ * dimensions. Help channel messages are aggregated into the sum of their message lengths per guild,
+ * author and day. Metric events are stored in the analytics database, help channel messages in the
+ * main database.
+ * <p>
+ * Raw rows are processed in chunks. Each chunk is rolled up and deleted within a single
+ * transaction, so every row is at any time either raw or part of an aggregate, never both. Queries
+ * over a time range can hence simply combine both tables.
+ */
+public final class RollupRoutine implements Routine {
+    private static final Logger logger = LoggerFactory.getLogger(RollupRoutine.class);
+    /**
+     * Stored instead of {@code null} for metric events without dimensions, since the dimensions are
+     * part of the primary key of the aggregates.
+     */
+    public static final String NO_DIMENSIONS = "{}";
+
+    private final Database database;
+    private final Database analyticsDatabase;
+    private final Duration rawRetention;
+    private final int chunkSize;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param database the main database containing the help channel messages and their aggregates
+     * @param analyticsDatabase the analytics database containing the metric events and their
+     *        aggregates, see {@link Metrics#getDatabase()}
+     * @param config the config describing how long raw rows are kept
+     */
+    public RollupRoutine(Database database, Database analyticsDatabase, RetentionConfig config) {
+        this.database = database;
+        this.analyticsDatabase = analyticsDatabase;
+        rawRetention = Duration.ofDays(config.rawRetentionDays());
+        chunkSize = config.rollupChunkSize();
+    }
+
+    @Override
+    public Schedule createSchedule() {
+        return new Schedule(ScheduleMode.FIXED_RATE, 0, 4, TimeUnit.HOURS);
+    }
+
+    @Override
+    public void runRoutine(JDA jda) {
+        // Only whole days are rolled up, so that a day is either aggregated fully or not at all
+        Instant rollupBefore = Instant.now().minus(rawRetention).truncatedTo(ChronoUnit.DAYS);
+
+        int metricEvents = analyticsDatabase.writeInChunks(chunkSize,
+                context -> rollupMetricEvents(context, rollupBefore));
+        int metricEventCounts = analyticsDatabase.writeInChunks(chunkSize,
+                context -> rollupMetricEventCounts(context, rollupBefore));
+        int helpMessages = database.writeInChunks(chunkSize,
+                context -> rollupHelpMessages(context, rollupBefore));
+
+        if (metricEvents > 0 || metricEventCounts > 0 || helpMessages > 0) {
+            logger.debug(
+                    "Rolled up {} metric events, {} metric event counts and {} help messages older than {}.",
+                    metricEvents, metricEventCounts, helpMessages, rollupBefore);
+        }
+    }
+
+    private int rollupMetricEvents(DSLContext context, Instant rollupBefore) {
+        Result<MetricEventsRecord> events = context.selectFrom(METRIC_EVENTS)
+            .where(METRIC_EVENTS.HAPPENED_AT.lessThan(rollupBefore))
+            .orderBy(METRIC_EVENTS.HAPPENED_AT)
+            .limit(chunkSize)
+            .fetch();
+
+        Map<MetricKey, Long> keyToCount = events.stream()
+            .collect(Collectors.groupingBy(MetricKey::ofEvent, Collectors.counting()));
+        addToDailyMetrics(context, keyToCount);
+
+        context.deleteFrom(METRIC_EVENTS)
+            .where(METRIC_EVENTS.ID.in(events.getValues(METRIC_EVENTS.ID)))
+            .execute();
+        return events.size();
+    }
+
+    private int rollupMetricEventCounts(DSLContext context, Instant rollupBefore) {
+        Result<MetricEventCountsRecord> counts = context.selectFrom(METRIC_EVENT_COUNTS)
+            .where(METRIC_EVENT_COUNTS.BUCKET_START.lessThan(rollupBefore))
+            .orderBy(METRIC_EVENT_COUNTS.BUCKET_START)
+            .limit(chunkSize)
+            .fetch();
+
+        Map<MetricKey, Long> keyToCount = counts.stream()
+            .collect(Collectors.groupingBy(MetricKey::ofCount,
+                    Collectors.summingLong(MetricEventCountsRecord::getEventCount)));
+        addToDailyMetrics(context, keyToCount);
+
+        context.batchDelete(counts).execute();
+        return counts.size();
+    }
+
+    private static void addToDailyMetrics(DSLContext context, Map<MetricKey, Long> keyToCount) {
+        keyToCount.forEach((key, count) -> context.insertInto(METRIC_EVENTS_DAILY)
+            .set(METRIC_EVENTS_DAILY.DAY, key.day())
+            .set(METRIC_EVENTS_DAILY.EVENT, key.event())
+            .set(METRIC_EVENTS_DAILY.DIMENSIONS, key.dimensions())
+            .set(METRIC_EVENTS_DAILY.EVENT_COUNT, count)
+            .onConflict(METRIC_EVENTS_DAILY.DAY, METRIC_EVENTS_DAILY.EVENT,
+                    METRIC_EVENTS_DAILY.DIMENSIONS)
+            .doUpdate()
+            .set(METRIC_EVENTS_DAILY.EVENT_COUNT, METRIC_EVENTS_DAILY.EVENT_COUNT.plus(count))
+            .execute());
+    }
+
+    private int rollupHelpMessages(DSLContext context, Instant rollupBefore) {
+        Result<HelpChannelMessagesRecord> messages = context.selectFrom(HELP_CHANNEL_MESSAGES)
+            .where(HELP_CHANNEL_MESSAGES.SENT_AT.lessThan(rollupBefore))
+            .orderBy(HELP_CHANNEL_MESSAGES.SENT_AT)
+            .limit(chunkSize)
+            .fetch();
+
+        Map<HelpMessageKey, Long> keyToMessageLength = messages.stream()
+            .collect(Collectors.groupingBy(HelpMessageKey::ofRecord,
+                    Collectors.summingLong(HelpChannelMessagesRecord::getMessageLength)));
+        keyToMessageLength.forEach((key, messageLength) -> context
+            .insertInto(HELP_CHANNEL_MESSAGES_DAILY)
+            .set(HELP_CHANNEL_MESSAGES_DAILY.GUILD_ID, key.guildId())
+            .set(HELP_CHANNEL_MESSAGES_DAILY.DAY, key.day())
+            .set(HELP_CHANNEL_MESSAGES_DAILY.AUTHOR_ID, key.authorId())
+            .set(HELP_CHANNEL_MESSAGES_DAILY.MESSAGE_LENGTH, messageLength)
+            .onConflict(HELP_CHANNEL_MESSAGES_DAILY.GUILD_ID, HELP_CHANNEL_MESSAGES_DAILY.DAY,
+                    HELP_CHANNEL_MESSAGES_DAILY.AUTHOR_ID)
+            .doUpdate()
+            .set(HELP_CHANNEL_MESSAGES_DAILY.MESSAGE_LENGTH,
+                    HELP_CHANNEL_MESSAGES_DAILY.MESSAGE_LENGTH.plus(messageLength))
+            .execute());
+
+        context.deleteFrom(HELP_CHANNEL_MESSAGES)
+            .where(HELP_CHANNEL_MESSAGES.MESSAGE_ID
+                .in(messages.getValues(HELP_CHANNEL_MESSAGES.MESSAGE_ID)))
+            .execute();
+        return messages.size();
+    }
+
+    private record MetricKey(Instant day, String event, String dimensions) {
+        static MetricKey ofEvent(MetricEventsRecord event) {
+            return new MetricKey(event.getHappenedAt().truncatedTo(ChronoUnit.DAYS),
+                    event.getEvent(),
+                    Objects.requireNonNullElse(event.getDimensions(), NO_DIMENSIONS));
+        }
+
+        static MetricKey ofCount(MetricEventCountsRecord count) {
+            return new MetricKey(count.getBucketStart().truncatedTo(ChronoUnit.DAYS),
+                    count.getEvent(), count.getDimensions());
+        }
+    }
+
+    private record HelpMessageKey(long guildId, Instant day, long authorId) {
+        static HelpMessageKey ofRecord(HelpChannelMessagesRecord message) {
+            return new HelpMessageKey(message.getGuildId(),
+                    message.getSentAt().truncatedTo(ChronoUnit.DAYS), message.getAuthorId());
+        }
+    }
+}
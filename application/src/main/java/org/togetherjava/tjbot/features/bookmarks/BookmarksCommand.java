@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import org.togetherjava.tjbot.features.CommandVisibility;
 import org.togetherjava.tjbot.features.SlashCommandAdapter;
+import org.togetherjava.tjbot.features.utils.InteractionReplies;
 
 import java.util.List;
 import java.util.Objects;
@@ -52,6 +53,9 @@ public final class BookmarksCommand extends SlashCommandAdapter {
     private static final MessageEmbed BOOKMARK_ADDED_EMBED =
             BookmarksSystem.createSuccessEmbed("Your bookmark was added.");
 
+    private static final MessageEmbed BOOKMARK_ADD_FAILED_EMBED =
+            BookmarksSystem.createFailureEmbed("Sorry, your bookmark could not be added.");
+
     private static final MessageEmbed BOOKMARK_LIMIT_USER_EMBED = BookmarksSystem
         .createFailureEmbed(
                 "You have exceeded your bookmarks limit of `%d`. Please delete some of your other bookmarks."
@@ -129,9 +133,14 @@ public final class BookmarksCommand extends SlashCommandAdapter {
             return;
         }
 
-        bookmarksSystem.addBookmark(userID, channelID, note);
-
-        sendResponse(event, BOOKMARK_ADDED_EMBED);
+        bookmarksSystem.addBookmark(userID, channelID, note)
+            .thenRun(() -> sendResponse(event, BOOKMARK_ADDED_EMBED))
+            .exceptionally(failure -> {
+                logger.error("Failed to add a bookmark for user {} in channel {}", userID,
+                        channelID, failure);
+                sendResponse(event, BOOKMARK_ADD_FAILED_EMBED);
+                return null;
+            });
     }
 
     private boolean handleCanAddBookmark(SlashCommandInteractionEvent event) {
@@ -180,6 +189,6 @@ public final class BookmarksCommand extends SlashCommandAdapter {
     }
 
     private void sendResponse(SlashCommandInteractionEvent event, MessageEmbed embed) {
-        event.replyEmbeds(embed).setEphemeral(true).queue();
+        InteractionReplies.replyEphemeral(event, event.replyEmbeds(embed));
     }
 }
@@ -18,6 +18,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -69,8 +70,8 @@ public final class BookmarksSystem {
             .fetchOne() != null);
     }
 
-    void addBookmark(long authorID, long channelID, @Nullable String note) {
-        database.write(context -> context.newRecord(BOOKMARKS)
+    CompletableFuture<Void> addBookmark(long authorID, long channelID, @Nullable String note) {
+        return database.writeAsync(context -> context.newRecord(BOOKMARKS)
             .setAuthorId(authorID)
             .setChannelId(channelID)
             .setCreatedAt(Instant.now())
@@ -101,26 +102,25 @@ public final class BookmarksSystem {
             .read(context -> context.fetchCount(BOOKMARKS, BOOKMARKS.AUTHOR_ID.eq(authorID)));
     }
 
-    void startDeletionPeriodForUser(long authorID) {
+    CompletableFuture<Void> startDeletionPeriodForUser(long authorID) {
         Instant deleteAt = Instant.now().plus(REMOVE_BOOKMARKS_AFTER_LEAVE_DELAY);
 
-        database.write(context -> context.update(BOOKMARKS)
+        return database.writeAsync(context -> context.update(BOOKMARKS)
             .set(BOOKMARKS.DELETE_AT, deleteAt)
             .where(BOOKMARKS.AUTHOR_ID.eq(authorID))
             .execute());
     }
 
-    void cancelDeletionPeriodForUser(long authorID) {
-        database.write(context -> context.update(BOOKMARKS)
+    CompletableFuture<Void> cancelDeletionPeriodForUser(long authorID) {
+        return database.writeAsync(context -> context.update(BOOKMARKS)
             .setNull(BOOKMARKS.DELETE_AT)
             .where(BOOKMARKS.AUTHOR_ID.eq(authorID))
             .execute());
     }
 
     void deleteLeftoverBookmarks() {
-        database.write(context -> context.deleteFrom(BOOKMARKS)
-            .where(BOOKMARKS.DELETE_AT.isNotNull(), BOOKMARKS.DELETE_AT.lessThan(Instant.now()))
-            .execute());
+        database.deleteInChunks(Database.DEFAULT_CHUNK_SIZE, BOOKMARKS,
+                BOOKMARKS.DELETE_AT.isNotNull().and(BOOKMARKS.DELETE_AT.lessThan(Instant.now())));
     }
 
     private static MessageEmbed createColoredEmbed(String content, Color color) {
@@ -3,6 +3,8 @@ package org.togetherjava.tjbot.features.bookmarks;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.togetherjava.tjbot.features.EventReceiver;
 
@@ -11,6 +13,7 @@ import org.togetherjava.tjbot.features.EventReceiver;
  * the guild the deletion period will be canceled
  */
 public final class LeftoverBookmarksListener extends ListenerAdapter implements EventReceiver {
+    private static final Logger logger = LoggerFactory.getLogger(LeftoverBookmarksListener.class);
 
     private final BookmarksSystem bookmarksSystem;
 
@@ -27,13 +30,21 @@ public final class LeftoverBookmarksListener extends ListenerAdapter implements
     public void onGuildMemberRemove(GuildMemberRemoveEvent event) {
         long userID = event.getUser().getIdLong();
 
-        bookmarksSystem.startDeletionPeriodForUser(userID);
+        bookmarksSystem.startDeletionPeriodForUser(userID).exceptionally(failure -> {
+            logger.error("Failed to start the bookmarks deletion period for user {}", userID,
+                    failure);
+            return null;
+        });
     }
 
     @Override
     public void onGuildMemberJoin(GuildMemberJoinEvent event) {
         long userID = event.getUser().getIdLong();
 
-        bookmarksSystem.cancelDeletionPeriodForUser(userID);
+        bookmarksSystem.cancelDeletionPeriodForUser(userID).exceptionally(failure -> {
+            logger.error("Failed to cancel the bookmarks deletion period for user {}", userID,
+                    failure);
+            return null;
+        });
     }
 }
@@ -2,10 +2,10 @@ package org.togetherjava.tjbot.features.componentids;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
-import org.jooq.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +15,8 @@ import org.togetherjava.tjbot.db.generated.tables.records.ComponentIdsRecord;
 import org.togetherjava.tjbot.features.SlashCommand;
 import org.togetherjava.tjbot.logging.LogMarkers;
 
+import javax.annotation.Nullable;
+
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
@@ -22,9 +24,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -54,7 +59,9 @@ import java.util.stream.Collectors;
  * Users can react to eviction by adding a listener to
  * {@link #addComponentIdRemovedListener(Consumer)}.
  * <p>
- * The store is fully thread-safe, component IDs can be generated and parsed multithreaded.
+ * The store is fully thread-safe, component IDs can be generated and parsed multithreaded. Look-ups
+ * served by the cache do not lock, concurrent look-ups of the same component ID missing the cache
+ * share a single database query. Writes are only serialized by the database itself.
  */
 @SuppressWarnings("ClassWithTooManyFields")
 public final class ComponentIdStore implements AutoCloseable {
@@ -66,22 +73,34 @@ public final class ComponentIdStore implements AutoCloseable {
     private static final ChronoUnit EVICT_DATABASE_EVERY_UNIT = ChronoUnit.MINUTES;
     private static final long EVICT_DATABASE_OLDER_THAN = 20;
     private static final ChronoUnit EVICT_DATABASE_OLDER_THAN_UNIT = ChronoUnit.DAYS;
+    /**
+     * Names of all lifespans that are subject to eviction. Listed explicitly, instead of excluding
+     * {@link Lifespan#PERMANENT}, so that the eviction query can be served by an index.
+     */
+    private static final List<String> EVICTABLE_LIFESPANS = Arrays.stream(Lifespan.values())
+        .filter(lifespan -> lifespan != Lifespan.PERMANENT)
+        .map(Lifespan::name)
+        .toList();
 
     private static final int CACHE_SIZE = 1_000;
     private static final int EVICT_CACHE_OLDER_THAN = 2;
     private static final ChronoUnit EVICT_CACHE_OLDER_THAN_UNIT = ChronoUnit.HOURS;
 
-    private final Object storeLock = new Object();
     private final Database database;
     /**
      * In-memory cache which is used as first stage before the database, to speedup look-ups. Should
      * cover the majority of all queries, as most queries (e.g. button clicks) come from messages
      * that have been created in the past hours and not days.
+     * <p>
+     * Misses are loaded from the database by the {@link #loadService}. Component IDs that are not
+     * in the database are not cached.
      */
-    private final Cache<UUID, ComponentId> storeCache;
+    private final AsyncLoadingCache<UUID, ComponentId> storeCache;
+    private final ExecutorService loadService = Executors.newCachedThreadPool();
     private final Collection<Consumer<ComponentId>> componentIdRemovedListeners =
             Collections.synchronizedCollection(new ArrayList<>());
     private final ExecutorService heatService = Executors.newCachedThreadPool();
+    private final AtomicInteger pendingHeats = new AtomicInteger();
     private final ExecutorService componentIdRemovedListenerService =
             Executors.newCachedThreadPool();
     private final ScheduledExecutorService evictionService =
@@ -123,7 +142,9 @@ public final class ComponentIdStore implements AutoCloseable {
         storeCache = Caffeine.newBuilder()
             .maximumSize(CACHE_SIZE)
             .expireAfterAccess(EVICT_CACHE_OLDER_THAN, TimeUnit.of(EVICT_CACHE_OLDER_THAN_UNIT))
-            .build();
+            .recordStats()
+            .executor(loadService)
+            .buildAsync(this::loadFromDatabase);
 
         Runnable evictCommand = () -> {
             try {
@@ -165,23 +186,55 @@ public final class ComponentIdStore implements AutoCloseable {
      * @throws InvalidComponentIdFormatException if the given component ID was in an unexpected
      *         format and could not be serialized
      */
-    @SuppressWarnings({"WeakerAccess", "squid:S2259"})
+    @SuppressWarnings("WeakerAccess")
     public Optional<ComponentId> get(UUID uuid) {
-        synchronized (storeLock) {
-            // Get it from the cache or, if not found, the database
-            return Optional.ofNullable(storeCache.getIfPresent(uuid)).or(() -> {
-                Optional<ComponentId> databaseComponentId = getFromDatabase(uuid);
-                databaseComponentId.ifPresent(id -> {
-                    // Put it back into the cache
-                    storeCache.put(uuid, id);
-
-                    heatService.execute(() -> heatRecord(uuid));
-                });
-                return databaseComponentId;
+        return Optional.ofNullable(join(storeCache.get(uuid)));
+    }
+
+    /**
+     * Loads the component ID missing in the cache from the database, and heats it if present.
+     *
+     * @param uuid the UUID to load
+     * @return the associated component ID, or {@code null} if not present, which is not cached
+     */
+    private @Nullable ComponentId loadFromDatabase(UUID uuid) {
+        Optional<ComponentId> databaseComponentId = getFromDatabase(uuid);
+        databaseComponentId.ifPresent(id -> {
+            pendingHeats.incrementAndGet();
+            heatService.execute(() -> {
+                try {
+                    heatRecord(uuid);
+                } finally {
+                    pendingHeats.decrementAndGet();
+                }
             });
+        });
+        return databaseComponentId.orElse(null);
+    }
+
+    private static @Nullable ComponentId join(CompletableFuture<ComponentId> componentId) {
+        try {
+            return componentId.join();
+        } catch (CompletionException e) {
+            // Rethrow the original exception, such as an InvalidComponentIdFormatException
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 
+    /**
+     * Gets statistics about the store, such as how many look-ups could be served by its in-memory
+     * cache. Does not block.
+     *
+     * @return the current statistics of the store
+     */
+    public Statistics getStatistics() {
+        return new Statistics(storeCache.synchronous().estimatedSize(),
+                storeCache.synchronous().stats(), pendingHeats.get());
+    }
+
     /**
      * Adds the given component ID to the store, associated with the given UUID as key.
      * <p>
@@ -203,12 +256,21 @@ public final class ComponentIdStore implements AutoCloseable {
                 () -> "The UUID '%s' already exists and is associated to a component id."
                     .formatted(uuid);
 
-        synchronized (storeLock) {
-            if (storeCache.getIfPresent(uuid) != null) {
+        String serializedComponentId = serializeComponentId(componentId);
+        // Claims the UUID atomically, in case it is put concurrently
+        CompletableFuture<ComponentId> cachedComponentId =
+                CompletableFuture.completedFuture(componentId);
+        CompletableFuture<ComponentId> previousComponentId;
+        while ((previousComponentId =
+                storeCache.asMap().putIfAbsent(uuid, cachedComponentId)) != null) {
+            if (join(previousComponentId) != null) {
                 throw new IllegalArgumentException(alreadyExistsMessageSupplier.get());
             }
-            storeCache.put(uuid, componentId);
+            // A look-up of the UUID that found nothing, which is about to leave the cache
+            storeCache.asMap().remove(uuid, previousComponentId);
+        }
 
+        try {
             database.writeTransaction(context -> {
                 String uuidText = uuid.toString();
                 if (context.fetchExists(ComponentIds.COMPONENT_IDS,
@@ -216,14 +278,17 @@ public final class ComponentIdStore implements AutoCloseable {
                     throw new IllegalArgumentException(alreadyExistsMessageSupplier.get());
                 }
 
-                ComponentIdsRecord componentIdsRecord =
-                        context.newRecord(ComponentIds.COMPONENT_IDS)
-                            .setUuid(uuid.toString())
-                            .setComponentId(serializeComponentId(componentId))
-                            .setLastUsed(Instant.now())
-                            .setLifespan(lifespan.name());
-                componentIdsRecord.insert();
+                context.newRecord(ComponentIds.COMPONENT_IDS)
+                    .setUuid(uuidText)
+                    .setComponentId(serializedComponentId)
+                    .setLastUsed(Instant.now())
+                    .setLifespan(lifespan.name())
+                    .insert();
             });
+        } catch (RuntimeException e) {
+            // The component ID must not outlive a failed insert in the cache
+            storeCache.asMap().remove(uuid, cachedComponentId);
+            throw e;
         }
     }
 
@@ -245,14 +310,11 @@ public final class ComponentIdStore implements AutoCloseable {
      * @throws IllegalArgumentException if there is no, or multiple, records associated to that UUID
      */
     private void heatRecord(UUID uuid) {
-        int updatedRecords;
-        synchronized (storeLock) {
-            updatedRecords =
-                    database.writeAndProvide(context -> context.update(ComponentIds.COMPONENT_IDS)
-                        .set(ComponentIds.COMPONENT_IDS.LAST_USED, Instant.now())
-                        .where(ComponentIds.COMPONENT_IDS.UUID.eq(uuid.toString()))
-                        .execute());
-        }
+        int updatedRecords =
+                database.writeAndProvide(context -> context.update(ComponentIds.COMPONENT_IDS)
+                    .set(ComponentIds.COMPONENT_IDS.LAST_USED, Instant.now())
+                    .where(ComponentIds.COMPONENT_IDS.UUID.eq(uuid.toString()))
+                    .execute());
 
         // NOTE Case 0, where no records are updated, is ignored on purpose.
         // This happens when the entry has been evicted before the heating was executed.
@@ -264,46 +326,40 @@ public final class ComponentIdStore implements AutoCloseable {
 
     private void evictDatabase() {
         logger.debug("Evicting old non-permanent component ids from the database...");
-        AtomicInteger evictedCounter = new AtomicInteger(0);
-        synchronized (storeLock) {
-            database.write(context -> {
-                Result<ComponentIdsRecord> oldRecords = context
-                    .selectFrom(ComponentIds.COMPONENT_IDS)
-                    .where(ComponentIds.COMPONENT_IDS.LIFESPAN.notEqual(Lifespan.PERMANENT.name())
-                        .and(ComponentIds.COMPONENT_IDS.LAST_USED.lessOrEqual(Instant.now()
-                            .minus(evictDatabaseOlderThan, evictDatabaseOlderThanUnit))))
-                    .fetch();
-
-                oldRecords.forEach(recordToDelete -> {
-                    UUID uuid = UUID
-                        .fromString(recordToDelete.getValue(ComponentIds.COMPONENT_IDS.UUID));
-                    ComponentId componentId = deserializeComponentId(
-                            recordToDelete.getValue(ComponentIds.COMPONENT_IDS.COMPONENT_ID));
-                    Instant lastUsed = recordToDelete.getLastUsed();
-
-                    recordToDelete.delete();
-                    evictedCounter.getAndIncrement();
-                    logger.debug(
-                            "Evicted component id with uuid '{}' from user interactor '{}', last used '{}'",
-                            uuid, componentId.userInteractorName(), lastUsed);
-
-                    // Remove them from the cache if still in there
-                    storeCache.invalidate(uuid);
-                    // Notify all listeners, but non-blocking to not delay eviction
-                    componentIdRemovedListeners
-                        .forEach(listener -> componentIdRemovedListenerService
-                            .execute(() -> listener.accept(componentId)));
-                });
-            });
-        }
-
-        if (evictedCounter.get() != 0) {
+        Instant evictOlderThan =
+                Instant.now().minus(evictDatabaseOlderThan, evictDatabaseOlderThanUnit);
+
+        // Other writes, such as heating a component ID, may run in between the chunks
+        int evictedCount = database.deleteInChunks(Database.DEFAULT_CHUNK_SIZE,
+                context -> context.selectFrom(ComponentIds.COMPONENT_IDS)
+                    .where(ComponentIds.COMPONENT_IDS.LIFESPAN.in(EVICTABLE_LIFESPANS)
+                        .and(ComponentIds.COMPONENT_IDS.LAST_USED.lessOrEqual(evictOlderThan)))
+                    .limit(Database.DEFAULT_CHUNK_SIZE)
+                    .fetch(),
+                evictedRecords -> evictedRecords.forEach(this::onEvicted));
+
+        if (evictedCount != 0) {
             logger.info("Evicted {} old non-permanent component ids from the database",
-                    evictedCounter.get());
+                    evictedCount);
         }
     }
 
-    private static String serializeComponentId(ComponentId componentId) {
+    private void onEvicted(ComponentIdsRecord evictedRecord) {
+        UUID uuid = UUID.fromString(evictedRecord.getValue(ComponentIds.COMPONENT_IDS.UUID));
+        ComponentId componentId = deserializeComponentId(
+                evictedRecord.getValue(ComponentIds.COMPONENT_IDS.COMPONENT_ID));
+        logger.debug(
+                "Evicted component id with uuid '{}' from user interactor '{}', last used '{}'",
+                uuid, componentId.userInteractorName(), evictedRecord.getLastUsed());
+
+        // Remove them from the cache if still in there
+        storeCache.synchronous().invalidate(uuid);
+        // Notify all listeners, but non-blocking to not delay eviction
+        componentIdRemovedListeners.forEach(listener -> componentIdRemovedListenerService
+            .execute(() -> listener.accept(componentId)));
+    }
+
+    static String serializeComponentId(ComponentId componentId) {
         try {
             return CSV.writerFor(ComponentId.class)
                 .with(CSV.schemaFor(ComponentId.class))
@@ -313,7 +369,7 @@ public final class ComponentIdStore implements AutoCloseable {
         }
     }
 
-    private static ComponentId deserializeComponentId(String componentId) {
+    static ComponentId deserializeComponentId(String componentId) {
         try {
             return CSV.readerFor(ComponentId.class)
                 .with(CSV.schemaFor(ComponentId.class))
@@ -341,6 +397,7 @@ public final class ComponentIdStore implements AutoCloseable {
 
     @Override
     public void close() {
+        loadService.shutdown();
         heatService.shutdown();
         if (evictionTask != null) {
             evictionTask.cancel(false);
@@ -348,4 +405,15 @@ public final class ComponentIdStore implements AutoCloseable {
         evictionService.shutdown();
         componentIdRemovedListenerService.shutdown();
     }
+
+    /**
+     * Snapshot of statistics about the store.
+     *
+     * @param cachedCount the approximate amount of component IDs in the in-memory cache
+     * @param cacheStats the statistics of the in-memory cache, such as its hit count
+     * @param pendingHeatCount the amount of component IDs loaded from the database, whose usage
+     *        timestamp still has to be updated
+     */
+    public record Statistics(long cachedCount, CacheStats cacheStats, int pendingHeatCount) {
+    }
 }
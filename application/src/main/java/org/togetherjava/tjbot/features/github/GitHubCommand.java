@@ -10,17 +10,18 @@ import org.slf4j.LoggerFactory;
 
 import org.togetherjava.tjbot.features.CommandVisibility;
 import org.togetherjava.tjbot.features.SlashCommandAdapter;
+import org.togetherjava.tjbot.features.Warmable;
 import org.togetherjava.tjbot.features.utils.StringDistances;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
-import java.util.concurrent.CompletableFuture;
 import java.util.function.ToIntFunction;
 import java.util.regex.Matcher;
 import java.util.stream.Stream;
@@ -29,7 +30,7 @@ import java.util.stream.Stream;
  * Slash command (/github-search) used to search for an issue in one of the repositories listed in
  * the config. It also auto suggests issues/PRs on trigger.
  */
-public final class GitHubCommand extends SlashCommandAdapter {
+public final class GitHubCommand extends SlashCommandAdapter implements Warmable {
     private static final Duration CACHE_EXPIRES_AFTER = Duration.ofMinutes(1);
 
     /**
@@ -49,8 +50,8 @@ public final class GitHubCommand extends SlashCommandAdapter {
 
     private final GitHubReference reference;
 
-    private Instant lastCacheUpdate = Instant.EPOCH;
-    private List<String> autocompleteGHIssueCache = List.of();
+    private volatile Instant lastCacheUpdate = Instant.EPOCH;
+    private volatile List<String> autocompleteGHIssueCache = List.of();
 
     /**
      * Constructs an instance of GitHubCommand.
@@ -70,15 +71,19 @@ public final class GitHubCommand extends SlashCommandAdapter {
 
         getData().addOption(OptionType.STRING, TITLE_OPTION,
                 "Title of the issue you're looking for", true, true);
+    }
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                updateCache();
-            } catch (Exception e) {
-                logger.error("Unknown error updating the GitHub cache", e);
-            }
-        });
+    /**
+     * Populates the autocomplete cache, once the repositories were acquired by the reference.
+     */
+    @Override
+    public void warmUp() {
+        updateCache();
+    }
 
+    @Override
+    public Collection<Warmable> getWarmUpDependencies() {
+        return List.of(reference);
     }
 
     @Override
@@ -126,7 +131,9 @@ public final class GitHubCommand extends SlashCommandAdapter {
         }
 
         if (choices.isEmpty()) {
-            choices = List.of("No issues found");
+            choices = List.of(lastCacheUpdate.equals(Instant.EPOCH)
+                    ? "Still loading issues, try again in a moment"
+                    : "No issues found");
         }
         event.replyChoiceStrings(choices).queue();
 
@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import org.togetherjava.tjbot.config.Config;
 import org.togetherjava.tjbot.features.MessageReceiverAdapter;
+import org.togetherjava.tjbot.features.Warmable;
 import org.togetherjava.tjbot.features.analytics.Metrics;
 
 import java.awt.Color;
@@ -42,7 +43,7 @@ import java.util.stream.Collectors;
  * GitHub Referencing feature. If someone sends #id of an issue (e.g. #207) in specified channel,
  * the bot replies with an embed that contains info on the issue/PR.
  */
-public final class GitHubReference extends MessageReceiverAdapter {
+public final class GitHubReference extends MessageReceiverAdapter implements Warmable {
     private static final Logger logger = LoggerFactory.getLogger(GitHubReference.class);
     static final String ID_GROUP = "id";
 
@@ -71,15 +72,17 @@ public final class GitHubReference extends MessageReceiverAdapter {
     private final Metrics metrics;
 
     /**
-     * The repositories that are searched when looking for an issue.
+     * The repositories that are searched when looking for an issue. Empty until acquired during the
+     * {@link #warmUp() warm-up}.
      */
-    private List<GHRepository> repositories;
+    private volatile List<GHRepository> repositories = List.of();
 
     /**
      * Constructs an instance of GitHubReference.
      *
      * This constructor initializes a new GitHubReference with the specified Config. It also sets up
-     * a predicate for matching allowed channels for feature and acquires repositories.
+     * a predicate for matching allowed channels for feature. The repositories are acquired during
+     * the warm-up.
      *
      * @param config The Config to get allowed channel pattern for feature.
      * @param metrics to track events
@@ -90,6 +93,14 @@ public final class GitHubReference extends MessageReceiverAdapter {
         this.hasGithubIssueReferenceEnabled =
                 Pattern.compile(config.getGitHubReferencingEnabledChannelPattern())
                     .asMatchPredicate();
+    }
+
+    /**
+     * Acquires the repositories, which requires a request to GitHub per repository. Until then, no
+     * issues are found.
+     */
+    @Override
+    public void warmUp() {
         acquireRepositories();
     }
 
@@ -98,13 +109,14 @@ public final class GitHubReference extends MessageReceiverAdapter {
      */
     private void acquireRepositories() {
         try {
-            repositories = new ArrayList<>();
+            List<GHRepository> acquiredRepositories = new ArrayList<>();
 
             GitHub githubApi = GitHub.connectUsingOAuth(config.getGitHubApiKey());
 
             for (long repoId : config.getGitHubRepositories()) {
-                repositories.add(githubApi.getRepositoryById(repoId));
+                acquiredRepositories.add(githubApi.getRepositoryById(repoId));
             }
+            repositories = List.copyOf(acquiredRepositories);
         } catch (IOException ex) {
             logger.warn(
                     "The GitHub key ({}) used in this config is invalid. Skipping GitHubReference feature – {}",
@@ -20,12 +20,14 @@ import javax.annotation.Nullable;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.Period;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessages.HELP_CHANNEL_MESSAGES;
+import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessagesDaily.HELP_CHANNEL_MESSAGES_DAILY;
 
 /**
  * Due to a technical limitation in Discord, roles with more than 250 users cannot be ghost-pinged
@@ -164,11 +166,18 @@ public final class AutoPruneHelperRoutine implements Routine {
 
         Instant latestActiveMoment = when.minus(inactiveAfter);
 
-        // Has no recent help message
-        return database.read(context -> context.fetchCount(HELP_CHANNEL_MESSAGES,
-                HELP_CHANNEL_MESSAGES.GUILD_ID.eq(member.getGuild().getIdLong())
-                    .and(HELP_CHANNEL_MESSAGES.AUTHOR_ID.eq(member.getIdLong()))
-                    .and(HELP_CHANNEL_MESSAGES.SENT_AT.greaterThan(latestActiveMoment)))) == 0;
+        long guildId = member.getGuild().getIdLong();
+        long authorId = member.getIdLong();
+        // Has no recent help message, older messages have been rolled up into daily aggregates
+        return database.read(context -> !context.fetchExists(HELP_CHANNEL_MESSAGES,
+                HELP_CHANNEL_MESSAGES.GUILD_ID.eq(guildId)
+                    .and(HELP_CHANNEL_MESSAGES.AUTHOR_ID.eq(authorId))
+                    .and(HELP_CHANNEL_MESSAGES.SENT_AT.greaterThan(latestActiveMoment)))
+                && !context.fetchExists(HELP_CHANNEL_MESSAGES_DAILY,
+                        HELP_CHANNEL_MESSAGES_DAILY.GUILD_ID.eq(guildId)
+                            .and(HELP_CHANNEL_MESSAGES_DAILY.AUTHOR_ID.eq(authorId))
+                            .and(HELP_CHANNEL_MESSAGES_DAILY.DAY.greaterOrEqual(
+                                    latestActiveMoment.truncatedTo(ChronoUnit.DAYS)))));
     }
 
     private void pruneMemberFromRole(Member member, Role role,
@@ -41,6 +41,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -49,7 +50,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static org.togetherjava.tjbot.features.utils.MessageUtils.mentionGuildSlashCommand;
+import static org.togetherjava.tjbot.features.utils.MessageUtils.withGuildSlashCommandMention;
 
 /**
  * Helper class offering certain methods used by the help system.
@@ -150,15 +151,13 @@ public final class HelpSystemHelper {
         }
 
         AtomicReference<String> messageId = new AtomicReference<>("");
-        RestAction<Message> post =
-                mentionGuildSlashCommand(threadChannel.getGuild(), ChatGptCommand.COMMAND_NAME)
-                    .map("""
-                            Here is an AI assisted attempt to answer your question 🤖. Maybe it helps! \
-                            In any case, a human is on the way 👍. To continue talking to the AI, you can use \
-                            %s.
-                            """::formatted)
-                    .flatMap(threadChannel::sendMessage)
-                    .onSuccess(message -> messageId.set(message.getId()));
+        RestAction<Message> post = withGuildSlashCommandMention(threadChannel.getGuild(),
+                ChatGptCommand.COMMAND_NAME, commandMention -> threadChannel.sendMessage("""
+                        Here is an AI assisted attempt to answer your question 🤖. Maybe it helps! \
+                        In any case, a human is on the way 👍. To continue talking to the AI, you can use \
+                        %s.
+                        """.formatted(commandMention)))
+            .onSuccess(message -> messageId.set(message.getId()));
 
         String answer = chatGptAnswer.orElseThrow();
         SelfUser selfUser = threadChannel.getJDA().getSelfUser();
@@ -228,12 +227,12 @@ public final class HelpSystemHelper {
     }
 
     private RestAction<Message> useChatGptFallbackMessage(ThreadChannel threadChannel) {
-        return mentionGuildSlashCommand(threadChannel.getGuild(), ChatGptCommand.COMMAND_NAME)
-            .map(CHATGPT_FAILURE_MESSAGE::formatted)
-            .flatMap(threadChannel::sendMessage);
+        return withGuildSlashCommandMention(threadChannel.getGuild(), ChatGptCommand.COMMAND_NAME,
+                commandMention -> threadChannel
+                    .sendMessage(CHATGPT_FAILURE_MESSAGE.formatted(commandMention)));
     }
 
-    void writeHelpThreadToDatabase(long authorId, ThreadChannel threadChannel) {
+    CompletableFuture<Void> writeHelpThreadToDatabase(long authorId, ThreadChannel threadChannel) {
         Instant createdAt = threadChannel.getTimeCreated().toInstant();
 
         String appliedTags = threadChannel.getAppliedTags()
@@ -242,7 +241,7 @@ public final class HelpSystemHelper {
             .map(ForumTag::getName)
             .collect(Collectors.joining(","));
 
-        database.write(content -> {
+        return database.writeAsync(content -> {
             HelpThreadsRecord helpThreadsRecord = content.newRecord(HelpThreads.HELP_THREADS)
                 .setAuthorId(authorId)
                 .setChannelId(threadChannel.getIdLong())
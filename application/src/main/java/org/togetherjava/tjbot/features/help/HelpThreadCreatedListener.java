@@ -256,6 +256,10 @@ public final class HelpThreadCreatedListener extends ListenerAdapter
             authorId = getMentionedAuthorByMessage(message).getIdLong();
         }
 
-        helper.writeHelpThreadToDatabase(authorId, threadChannel);
+        helper.writeHelpThreadToDatabase(authorId, threadChannel).exceptionally(failure -> {
+            log.error("Failed to register the help thread {} in the database",
+                    threadChannel.getId(), failure);
+            return null;
+        });
     }
 }
@@ -87,11 +87,11 @@ public final class HelpThreadLifecycleListener extends ListenerAdapter implement
         ThreadChannel threadChannel = jda.getThreadChannelById(id);
         if (threadChannel == null) {
             logger.info("thread with id: {} no longer exists, marking archived in records", id);
-            database.write(context -> context.update(HELP_THREADS)
+            database.writeAsync(context -> context.update(HELP_THREADS)
                 .set(HELP_THREADS.CLOSED_AT, closedAt)
                 .set(HELP_THREADS.TICKET_STATUS, HelpSystemHelper.TicketStatus.ARCHIVED.val)
                 .where(HELP_THREADS.CHANNEL_ID.eq(id))
-                .execute());
+                .execute()).exceptionally(failure -> logUpdateFailure(id, failure));
             return;
         }
 
@@ -99,34 +99,41 @@ public final class HelpThreadLifecycleListener extends ListenerAdapter implement
         int messageCount = threadChannel.getMessageCount();
         int participantsExceptAuthor = threadChannel.getMemberCount() - 1;
 
-        database.write(context -> context.update(HELP_THREADS)
+        database.writeAsync(context -> context.update(HELP_THREADS)
             .set(HELP_THREADS.CLOSED_AT, closedAt)
             .set(HELP_THREADS.TICKET_STATUS, HelpSystemHelper.TicketStatus.ARCHIVED.val)
             .set(HELP_THREADS.MESSAGE_COUNT, messageCount)
             .set(HELP_THREADS.PARTICIPANTS, participantsExceptAuthor)
             .where(HELP_THREADS.CHANNEL_ID.eq(threadId))
-            .execute());
-
-        logger.info("Thread with id: {}, updated to archived status in database", threadId);
-
+            .execute())
+            .thenRun(() -> logger.info(
+                    "Thread with id: {}, updated to archived status in database", threadId))
+            .exceptionally(failure -> logUpdateFailure(threadId, failure));
     }
 
     private void updateThreadStatusToActive(long threadId) {
-        database.write(context -> context.update(HELP_THREADS)
+        database.writeAsync(context -> context.update(HELP_THREADS)
             .set(HELP_THREADS.TICKET_STATUS, HelpSystemHelper.TicketStatus.ACTIVE.val)
             .where(HELP_THREADS.CHANNEL_ID.eq(threadId))
-            .execute());
-
-        logger.info("Thread with id: {}, updated to active status in database", threadId);
+            .execute())
+            .thenRun(() -> logger.info("Thread with id: {}, updated to active status in database",
+                    threadId))
+            .exceptionally(failure -> logUpdateFailure(threadId, failure));
     }
 
     private void handleTagsUpdate(long threadId, String updatedTag) {
-        database.write(context -> context.update(HELP_THREADS)
+        database.writeAsync(context -> context.update(HELP_THREADS)
             .set(HELP_THREADS.TAGS, updatedTag)
             .where(HELP_THREADS.CHANNEL_ID.eq(threadId))
-            .execute());
+            .execute())
+            .thenRun(() -> logger.info("Updated tag for thread with id: {} in database", threadId))
+            .exceptionally(failure -> logUpdateFailure(threadId, failure));
+    }
 
-        logger.info("Updated tag for thread with id: {} in database", threadId);
+    private static Void logUpdateFailure(long threadId, Throwable failure) {
+        logger.error("Failed to update thread with id: {} in database", threadId, failure);
+        // noinspection ReturnOfNull
+        return null;
     }
 
     /**
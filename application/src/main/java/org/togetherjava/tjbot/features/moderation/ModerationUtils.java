@@ -251,7 +251,7 @@ public class ModerationUtils {
      * @param event the event used to respond to the user
      * @return Whether the author has the required permission
      */
-    static boolean handleHasAuthorPermissions(String actionVerb, Permission permission,
+    public static boolean handleHasAuthorPermissions(String actionVerb, Permission permission,
             IPermissionHolder author, IReplyCallback event) {
         if (!author.hasPermission(permission)) {
             event
@@ -392,10 +392,12 @@ public class ModerationUtils {
             return new CompletedRestAction<>(guild.getJDA(), modActionEmbed);
         }
 
-        return MessageUtils.mentionGlobalSlashCommand(guild.getJDA(), ModMailCommand.COMMAND_NAME)
-            .map(commandMention -> modActionEmbed.appendDescription(
-                    "%n%nTo get in touch with a moderator, you can use the %s command here in this chat. Your message will then be forwarded and a moderator will get back to you soon 😊"
-                        .formatted(commandMention)));
+        return MessageUtils.withGlobalSlashCommandMention(guild.getJDA(),
+                ModMailCommand.COMMAND_NAME,
+                commandMention -> new CompletedRestAction<>(guild.getJDA(), modActionEmbed
+                    .appendDescription(
+                            "%n%nTo get in touch with a moderator, you can use the %s command here in this chat. Your message will then be forwarded and a moderator will get back to you soon 😊"
+                                .formatted(commandMention))));
     }
 
     /**
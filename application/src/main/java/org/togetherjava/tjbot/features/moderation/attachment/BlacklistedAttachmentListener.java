@@ -80,17 +80,16 @@ public final class BlacklistedAttachmentListener extends MessageReceiverAdapter
                         """
                     .formatted(blacklistedAttachments, commandMention);
 
-        return MessageUtils
-            .mentionGlobalSlashCommand(originalMessage.getJDA(), ModMailCommand.COMMAND_NAME)
-            .map(createDmText)
-            .map(dmMessageContent -> {
-                // No embed needed if there was no message from the user
-                if (contentRaw.isEmpty()) {
-                    return new MessageCreateBuilder().setContent(dmMessageContent).build();
-                }
-                return createBaseResponse(contentRaw, dmMessageContent);
-            })
-            .flatMap(channel::sendMessage);
+        return MessageUtils.withGlobalSlashCommandMention(originalMessage.getJDA(),
+                ModMailCommand.COMMAND_NAME, commandMention -> {
+                    String dmMessageContent = createDmText.apply(commandMention);
+                    // No embed needed if there was no message from the user
+                    if (contentRaw.isEmpty()) {
+                        return channel.sendMessage(
+                                new MessageCreateBuilder().setContent(dmMessageContent).build());
+                    }
+                    return channel.sendMessage(createBaseResponse(contentRaw, dmMessageContent));
+                });
     }
 
     private MessageCreateData createBaseResponse(String originalMessageContent,
@@ -26,6 +26,7 @@ import org.togetherjava.tjbot.features.moderation.ModerationAction;
 import org.togetherjava.tjbot.features.moderation.ModerationActionsStore;
 import org.togetherjava.tjbot.features.moderation.ModerationUtils;
 import org.togetherjava.tjbot.features.utils.AmbientColors;
+import org.togetherjava.tjbot.features.utils.InteractionReplies;
 
 import javax.annotation.Nullable;
 
@@ -70,6 +71,12 @@ public final class AuditCommand extends SlashCommandAdapter {
         this.actionsStore = Objects.requireNonNull(actionsStore);
     }
 
+    @Override
+    public boolean allowsAutoDefer() {
+        // Slow responses are sent through InteractionReplies
+        return true;
+    }
+
     @Override
     public void onSlashCommand(SlashCommandInteractionEvent event) {
         OptionMapping targetOption =
@@ -87,8 +94,7 @@ public final class AuditCommand extends SlashCommandAdapter {
         auditUser(MessageCreateBuilder::new, guild.getIdLong(), target.getIdLong(),
                 event.getMember().getIdLong(), -1, event.getJDA())
             .map(MessageCreateBuilder::build)
-            .flatMap(event::reply)
-            .queue();
+            .queue(message -> InteractionReplies.reply(event, event.reply(message)));
     }
 
     private boolean handleChecks(Member bot, Member author, @Nullable Member target,
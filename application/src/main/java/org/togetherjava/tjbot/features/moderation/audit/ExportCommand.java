@@ -0,0 +1,337 @@
+package org.togetherjava.tjbot.features.moderation.audit;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import net.dv8tion.jda.api.utils.FileUpload;
+import org.jooq.Condition;
+import org.jooq.Cursor;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SortField;
+import org.jooq.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.features.CommandVisibility;
+import org.togetherjava.tjbot.features.SlashCommandAdapter;
+import org.togetherjava.tjbot.features.moderation.ModerationUtils;
+import org.togetherjava.tjbot.features.utils.InteractionReplies;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+import static org.togetherjava.tjbot.db.generated.tables.ModerationActions.MODERATION_ACTIONS;
+
+/**
+ * Implements the '/export' command which can be used by moderators to download metric events or
+ * moderation actions as gzip-compressed CSV file, for analysing them offline.
+ * <p>
+ * Rows are streamed from a read-only connection straight into a compressed temporary file, which is
+ * deleted once uploaded. Hence, the export never holds the write lock and its memory use does not
+ * depend on the amount of rows. The size of the file is bounded by the upload limit of the guild,
+ * larger exports are aborted and have to be narrowed down with the filter options instead.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * {@code
+ * /export metrics event: slash days: 7
+ * /export moderation-actions user: @Zabuzard
+ * }
+ * </pre>
+ */
+public final class ExportCommand extends SlashCommandAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(ExportCommand.class);
+    private static final CsvMapper CSV = new CsvMapper();
+    private static final String METRICS_SUBCOMMAND = "metrics";
+    private static final String MODERATION_ACTIONS_SUBCOMMAND = "moderation-actions";
+    private static final String EVENT_OPTION = "event";
+    private static final String USER_OPTION = "user";
+    private static final String DAYS_OPTION = "days";
+    private static final String ACTION_VERB = "export the data of";
+    private static final Permission REQUIRED_PERMISSION = Permission.MODERATE_MEMBERS;
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 3_650;
+    /**
+     * Rows the driver fetches at once, the export only keeps these in memory.
+     */
+    private static final int FETCH_SIZE = 500;
+
+    private final Database database;
+    private final Database analyticsDatabase;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param database the main database, containing the moderation actions
+     * @param analyticsDatabase the analytics database, containing the metric events
+     */
+    public ExportCommand(Database database, Database analyticsDatabase) {
+        super("export", "Exports analytics or moderation data as CSV file",
+                CommandVisibility.GUILD);
+
+        getData().setDefaultPermissions(
+                DefaultMemberPermissions.enabledFor(REQUIRED_PERMISSION));
+
+        OptionData daysOption = new OptionData(OptionType.INTEGER, DAYS_OPTION,
+                "How many days back to export, " + DEFAULT_DAYS + " by default", false)
+            .setRequiredRange(1, MAX_DAYS);
+        getData().addSubcommands(
+                new SubcommandData(METRICS_SUBCOMMAND, "Exports the raw metric events")
+                    .addOption(OptionType.STRING, EVENT_OPTION,
+                            "Only export events of this type, e.g. 'slash'", false)
+                    .addOptions(daysOption),
+                new SubcommandData(MODERATION_ACTIONS_SUBCOMMAND,
+                        "Exports the moderation actions of this server")
+                    .addOption(OptionType.USER, USER_OPTION,
+                            "Only export actions against this user", false)
+                    .addOptions(daysOption));
+
+        this.database = Objects.requireNonNull(database);
+        this.analyticsDatabase = Objects.requireNonNull(analyticsDatabase);
+    }
+
+    @Override
+    public boolean allowsAutoDefer() {
+        // Slow responses are sent through InteractionReplies
+        return true;
+    }
+
+    @Override
+    public void onSlashCommand(SlashCommandInteractionEvent event) {
+        // The default permissions can be overridden by the guild, the data must stay protected
+        Member author = Objects.requireNonNull(event.getMember(), "The author is null");
+        if (!ModerationUtils.handleHasAuthorPermissions(ACTION_VERB, REQUIRED_PERMISSION, author,
+                event)) {
+            return;
+        }
+
+        Guild guild = Objects.requireNonNull(event.getGuild());
+        int days = event.getOption(DAYS_OPTION, DEFAULT_DAYS, OptionMapping::getAsInt);
+        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
+
+        Path file = createTempFile();
+        CsvExport export;
+        String fileName;
+        if (MODERATION_ACTIONS_SUBCOMMAND.equals(event.getSubcommandName())) {
+            Condition condition = MODERATION_ACTIONS.GUILD_ID.eq(guild.getIdLong())
+                .and(MODERATION_ACTIONS.ISSUED_AT.greaterOrEqual(since));
+            OptionMapping userOption = event.getOption(USER_OPTION);
+            if (userOption != null) {
+                condition = condition.and(MODERATION_ACTIONS.TARGET_ID.eq(userOption.getAsLong()));
+            }
+
+            export = exportCsvOrDelete(database, MODERATION_ACTIONS, condition,
+                    MODERATION_ACTIONS.CASE_ID.asc(), guild.getMaxFileSize(), file);
+            fileName = "moderation-actions.csv.gz";
+        } else {
+            Condition condition = METRIC_EVENTS.HAPPENED_AT.greaterOrEqual(since);
+            String eventFilter = event.getOption(EVENT_OPTION, OptionMapping::getAsString);
+            if (eventFilter != null) {
+                condition = condition.and(METRIC_EVENTS.EVENT.eq(eventFilter));
+            }
+
+            export = exportCsvOrDelete(analyticsDatabase, METRIC_EVENTS, condition,
+                    METRIC_EVENTS.ID.asc(), guild.getMaxFileSize(), file);
+            fileName = "metric-events.csv.gz";
+        }
+
+        if (export.isTooLarge()) {
+            deleteTempFile(file);
+            InteractionReplies.replyEphemeral(event, event.reply(
+                    "The export exceeds the upload limit of this server, please narrow it down with the filter options."));
+            return;
+        }
+
+        logger.info("Exported {} rows to '{}' for {}", export.rowCount(), fileName,
+                event.getUser().getId());
+        // The file is deleted once JDA closed the upload, after sending it
+        FileUpload upload = FileUpload.fromData(file, fileName, StandardOpenOption.DELETE_ON_CLOSE);
+        InteractionReplies.replyEphemeral(event,
+                event.reply("Exported %d rows of the last %d days.".formatted(export.rowCount(),
+                        days)).addFiles(upload));
+    }
+
+    private static Path createTempFile() {
+        try {
+            return Files.createTempFile("tjbot-export-", ".csv.gz");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create a file for the export", e);
+        }
+    }
+
+    private static void deleteTempFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete the export file '{}'", file, e);
+        }
+    }
+
+    private static CsvExport exportCsvOrDelete(Database database, Table<?> table,
+            Condition condition, SortField<?> order, long maxBytes, Path file) {
+        try {
+            return exportCsv(database, table, condition, order, maxBytes, file);
+        } catch (RuntimeException e) {
+            deleteTempFile(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all rows of the given table matching the condition as gzip-compressed CSV to the given
+     * file, with a header of the column names. Rows are read lazily and written through, so neither
+     * the rows nor the output are kept in memory.
+     *
+     * @param database the database containing the table, only read from
+     * @param table the table to export
+     * @param condition the rows to export
+     * @param order the order to export the rows in
+     * @param maxBytes the maximal size of the compressed output, the export is aborted once it is
+     *        exceeded
+     * @param file the file to write the export to, it is overwritten
+     * @return the export, too large if it exceeded the maximal size, the file is incomplete then
+     */
+    static CsvExport exportCsv(Database database, Table<?> table, Condition condition,
+            SortField<?> order, long maxBytes, Path file) {
+        Field<?>[] fields = table.fields();
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        for (Field<?> field : fields) {
+            schema.addColumn(field.getName());
+        }
+
+        BoundedOutputStream data;
+        try {
+            data = new BoundedOutputStream(Files.newOutputStream(file), maxBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the export file", e);
+        }
+        int rowCount;
+        try (data;
+                GZIPOutputStream gzip = new GZIPOutputStream(data);
+                SequenceWriter csv = CSV.writer(schema.build()).writeValues(gzip)) {
+            rowCount = database.read(context -> {
+                int rows = 0;
+                try (Cursor<? extends Record> cursor = context.selectFrom(table)
+                    .where(condition)
+                    .orderBy(order)
+                    .fetchSize(FETCH_SIZE)
+                    .fetchLazy()) {
+                    String[] row = new String[fields.length];
+                    for (Record record : cursor) {
+                        for (int i = 0; i < fields.length; i++) {
+                            Object value = record.get(i);
+                            row[i] = value == null ? "" : value.toString();
+                        }
+                        writeRow(csv, row);
+                        rows++;
+                    }
+                }
+                return rows;
+            });
+        } catch (IOException | UncheckedIOException e) {
+            if (data.isLimitExceeded()) {
+                return CsvExport.TOO_LARGE;
+            }
+            throw new IllegalStateException("Failed to write the export", e);
+        }
+
+        if (data.isLimitExceeded()) {
+            return CsvExport.TOO_LARGE;
+        }
+        return new CsvExport(rowCount);
+    }
+
+    private static void writeRow(SequenceWriter csv, String[] row) {
+        try {
+            csv.write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * An export of rows as compressed CSV.
+     *
+     * @param rowCount the amount of exported rows, without the header, negative if the export was
+     *        too large
+     */
+    record CsvExport(int rowCount) {
+        private static final CsvExport TOO_LARGE = new CsvExport(-1);
+
+        boolean isTooLarge() {
+            return rowCount < 0;
+        }
+    }
+
+    /**
+     * Passes written bytes through to the given stream, but fails as soon as more than the limit
+     * are written.
+     */
+    private static final class BoundedOutputStream extends OutputStream {
+        private final OutputStream data;
+        private final long maxBytes;
+        private long writtenBytes;
+        private boolean isLimitExceeded;
+
+        private BoundedOutputStream(OutputStream data, long maxBytes) {
+            this.data = data;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            requireCapacity(1);
+            data.write(b);
+            writtenBytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            requireCapacity(len);
+            data.write(b, off, len);
+            writtenBytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            data.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+
+        private void requireCapacity(int bytes) throws IOException {
+            if (writtenBytes + bytes > maxBytes) {
+                isLimitExceeded = true;
+                throw new IOException("Exceeded the limit of " + maxBytes + " bytes");
+            }
+        }
+
+        private boolean isLimitExceeded() {
+            return isLimitExceeded;
+        }
+    }
+}
@@ -45,6 +45,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
@@ -77,6 +79,13 @@ public final class ScamBlocker extends MessageReceiverAdapter implements UserInt
 
     private final Metrics metrics;
     private final ComponentIdInteractor componentIdInteractor;
+    /**
+     * Takes action once the scam was recorded, off the write thread of the database, since actions
+     * send requests to Discord and write to the database themselves. The blocker is notified inline
+     * and must not wait for them, see {@link #requiresInlineExecution()}.
+     */
+    private final Executor actionService = Executors
+        .newThreadPerTaskExecutor(Thread.ofVirtual().name("scam-blocker-action-", 0).factory());
 
     /**
      * Creates a new listener to receive all message sent in any channel.
@@ -123,6 +132,17 @@ public final class ScamBlocker extends MessageReceiverAdapter implements UserInt
         componentIdInteractor.acceptComponentIdGenerator(generator);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Scam has to be moderated even while other receivers can not keep up, e.g. during a raid.
+     * Detecting it does not block, recording it and taking action is done asynchronously.
+     */
+    @Override
+    public boolean requiresInlineExecution() {
+        return true;
+    }
+
     @Override
     public void onMessageReceived(MessageReceivedEvent event) {
         if (event.getAuthor().isBot() || event.isWebhookMessage()) {
@@ -148,18 +168,22 @@ public final class ScamBlocker extends MessageReceiverAdapter implements UserInt
             return;
         }
 
-        if (scamHistoryStore.hasRecentScamDuplicate(message)) {
-            takeActionWasAlreadyReported(event);
-            return;
-        }
-
-        takeAction(event);
+        scamHistoryStore.addScam(message, MODES_WITH_IMMEDIATE_DELETION.contains(mode))
+            .thenAcceptAsync(hasRecentDuplicate -> {
+                if (hasRecentDuplicate) {
+                    takeActionWasAlreadyReported(event);
+                    return;
+                }
+                takeAction(event);
+            }, actionService)
+            .exceptionally(failure -> {
+                logger.error("Failed to handle the scam message {}", message.getId(), failure);
+                return null;
+            });
     }
 
     private void takeActionWasAlreadyReported(MessageReceivedEvent event) {
         // The user recently send the same scam already, and that was already reported and handled
-        addScamToHistory(event);
-
         boolean shouldDeleteMessage = MODES_WITH_IMMEDIATE_DELETION.contains(mode);
         if (shouldDeleteMessage) {
             deleteMessage(event);
@@ -181,25 +205,21 @@ public final class ScamBlocker extends MessageReceiverAdapter implements UserInt
     }
 
     private void takeActionLogOnly(MessageReceivedEvent event) {
-        addScamToHistory(event);
         logScamMessage(event);
     }
 
     private void takeActionApproveFirst(MessageReceivedEvent event) {
-        addScamToHistory(event);
         logScamMessage(event);
         reportScamMessage(event, "Is this scam?", createConfirmDialog(event));
     }
 
     private void takeActionAutoDeleteButApproveQuarantine(MessageReceivedEvent event) {
-        addScamToHistory(event);
         logScamMessage(event);
         deleteMessage(event);
         reportScamMessage(event, "Is this scam? (already deleted)", createConfirmDialog(event));
     }
 
     private void takeActionAutoDeleteAndQuarantine(MessageReceivedEvent event) {
-        addScamToHistory(event);
         logScamMessage(event);
         deleteMessage(event);
         quarantineAuthor(event);
@@ -207,10 +227,6 @@ public final class ScamBlocker extends MessageReceiverAdapter implements UserInt
         reportScamMessage(event, "Detected and handled scam", List.of());
     }
 
-    private void addScamToHistory(MessageReceivedEvent event) {
-        scamHistoryStore.addScam(event.getMessage(), MODES_WITH_IMMEDIATE_DELETION.contains(mode));
-    }
-
     private void logScamMessage(MessageReceivedEvent event) {
         logger.warn(LogMarkers.SENSITIVE,
                 "Detected a scam message ('{}') from user '{}' in channel '{}' of guild '{}'.",
@@ -303,9 +319,9 @@ public final class ScamBlocker extends MessageReceiverAdapter implements UserInt
                         """
                     .formatted(guild.getName(), commandMention);
 
-        return MessageUtils.mentionGlobalSlashCommand(guild.getJDA(), ModMailCommand.COMMAND_NAME)
-            .map(createDmMessage)
-            .flatMap(channel::sendMessage);
+        return MessageUtils.withGlobalSlashCommandMention(guild.getJDA(),
+                ModMailCommand.COMMAND_NAME,
+                commandMention -> channel.sendMessage(createDmMessage.apply(commandMention)));
     }
 
     private Optional<TextChannel> getReportChannel(Guild guild) {
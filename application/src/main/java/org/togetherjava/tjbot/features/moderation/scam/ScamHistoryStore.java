@@ -1,6 +1,7 @@
 package org.togetherjava.tjbot.features.moderation.scam;
 
 import net.dv8tion.jda.api.entities.Message;
+import org.jooq.Condition;
 import org.jooq.Result;
 
 import org.togetherjava.tjbot.db.Database;
@@ -12,6 +13,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import static org.togetherjava.tjbot.db.generated.tables.ScamHistory.SCAM_HISTORY;
 
@@ -20,9 +22,9 @@ import static org.togetherjava.tjbot.db.generated.tables.ScamHistory.SCAM_HISTOR
  * events and further processing and handling of scam. For example, to delete a group of duplicate
  * scam messages after a moderator confirmed that it actually is scam and decided for an action.
  * <p>
- * Scam has to be added to the store using {@link #addScam(Message, boolean)} and can then be used
- * to determine {@link #hasRecentScamDuplicate(Message)} or for further processing, such as
- * {@link #markScamDuplicatesDeleted(Message)}.
+ * Scam has to be added to the store using {@link #addScam(Message, boolean)}, which also tells
+ * whether it {@link #hasRecentScamDuplicate(Message) has recent duplicates}, and can then be used
+ * for further processing, such as {@link #markScamDuplicatesDeleted(Message)}.
  * <p>
  * Entries are only kept for a certain amount of time and will be purged regularly by
  * {@link ScamHistoryPurgeRoutine}.
@@ -44,23 +46,41 @@ public final class ScamHistoryStore {
     }
 
     /**
-     * Adds the given scam message to the store.
+     * Adds the given scam message to the store, asynchronously.
+     * <p>
+     * Whether the store already contained recent duplicates of the message is determined within the
+     * same write, so that of a burst of duplicate scam messages only the first is reported as
+     * having no recent duplicate.
      *
      * @param scam the message to add
      * @param isDeleted whether the message is already, or about to get, deleted
+     * @return future that completes once the message was added, with whether there were recent
+     *         duplicates to it already, see {@link #hasRecentScamDuplicate(Message)}
      */
-    public void addScam(Message scam, boolean isDeleted) {
+    public CompletableFuture<Boolean> addScam(Message scam, boolean isDeleted) {
         Objects.requireNonNull(scam);
 
-        database.write(context -> context.newRecord(SCAM_HISTORY)
-            .setSentAt(scam.getTimeCreated().toInstant())
-            .setGuildId(scam.getGuild().getIdLong())
-            .setChannelId(scam.getChannel().getIdLong())
-            .setMessageId(scam.getIdLong())
-            .setAuthorId(scam.getAuthor().getIdLong())
-            .setContentHash(hashMessageContent(scam))
-            .setIsDeleted(isDeleted)
-            .insert());
+        long guildId = scam.getGuild().getIdLong();
+        long authorId = scam.getAuthor().getIdLong();
+        String contentHash = hashMessageContent(scam);
+        Instant recentScamThreshold = Instant.now().minus(RECENT_SCAM_DURATION);
+
+        return database.writeAndProvideAsync(context -> {
+            boolean hasRecentDuplicate = context.fetchExists(SCAM_HISTORY,
+                    isRecentDuplicate(guildId, authorId, contentHash, recentScamThreshold));
+
+            context.newRecord(SCAM_HISTORY)
+                .setSentAt(scam.getTimeCreated().toInstant())
+                .setGuildId(guildId)
+                .setChannelId(scam.getChannel().getIdLong())
+                .setMessageId(scam.getIdLong())
+                .setAuthorId(authorId)
+                .setContentHash(contentHash)
+                .setIsDeleted(isDeleted)
+                .insert();
+
+            return hasRecentDuplicate;
+        });
     }
 
     /**
@@ -114,10 +134,16 @@ public final class ScamHistoryStore {
         Instant recentScamThreshold = Instant.now().minus(RECENT_SCAM_DURATION);
 
         return database.read(context -> context.fetchCount(SCAM_HISTORY,
-                SCAM_HISTORY.SENT_AT.greaterOrEqual(recentScamThreshold)
-                    .and(SCAM_HISTORY.GUILD_ID.eq(scam.getGuild().getIdLong()))
-                    .and(SCAM_HISTORY.AUTHOR_ID.eq(scam.getAuthor().getIdLong()))
-                    .and(SCAM_HISTORY.CONTENT_HASH.eq(hashMessageContent(scam))))) != 0;
+                isRecentDuplicate(scam.getGuild().getIdLong(), scam.getAuthor().getIdLong(),
+                        hashMessageContent(scam), recentScamThreshold))) != 0;
+    }
+
+    private static Condition isRecentDuplicate(long guildId, long authorId, String contentHash,
+            Instant recentScamThreshold) {
+        return SCAM_HISTORY.SENT_AT.greaterOrEqual(recentScamThreshold)
+            .and(SCAM_HISTORY.GUILD_ID.eq(guildId))
+            .and(SCAM_HISTORY.AUTHOR_ID.eq(authorId))
+            .and(SCAM_HISTORY.CONTENT_HASH.eq(contentHash));
     }
 
     /**
@@ -126,9 +152,8 @@ public final class ScamHistoryStore {
      * @param olderThan all records older than this will be deleted
      */
     public void deleteHistoryOlderThan(Instant olderThan) {
-        database.write(context -> context.deleteFrom(SCAM_HISTORY)
-            .where(SCAM_HISTORY.SENT_AT.lessOrEqual(olderThan))
-            .execute());
+        database.deleteInChunks(Database.DEFAULT_CHUNK_SIZE, SCAM_HISTORY,
+                SCAM_HISTORY.SENT_AT.lessOrEqual(olderThan));
     }
 
     /**
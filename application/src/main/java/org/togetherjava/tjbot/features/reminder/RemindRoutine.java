@@ -56,14 +56,15 @@ public final class RemindRoutine implements Routine {
     @Override
     public void runRoutine(JDA jda) {
         Instant now = Instant.now();
-        database.write(context -> context.selectFrom(PENDING_REMINDERS)
-            .where(PENDING_REMINDERS.REMIND_AT.lessOrEqual(now))
-            .stream()
-            .forEach(pendingReminder -> {
-                sendReminder(jda, pendingReminder);
-
-                pendingReminder.delete();
-            }));
+        // Reminders are only sent once deleted, outside of the write lock, a failed one is
+        // inserted again for a retry
+        database.deleteInChunks(Database.DEFAULT_CHUNK_SIZE,
+                context -> context.selectFrom(PENDING_REMINDERS)
+                    .where(PENDING_REMINDERS.REMIND_AT.lessOrEqual(now))
+                    .limit(Database.DEFAULT_CHUNK_SIZE)
+                    .fetch(),
+                pendingReminders -> pendingReminders
+                    .forEach(pendingReminder -> sendReminder(jda, pendingReminder)));
     }
 
     private void sendReminder(JDA jda, PendingRemindersRecord pendingReminder) {
@@ -153,11 +154,10 @@ public final class RemindRoutine implements Routine {
 
         int failureAttempts = pendingReminder.getFailureAttempts() + 1;
         Instant remindAt = Instant.now().plus(1, ChronoUnit.MINUTES);
-        database.write(_ -> {
-            pendingReminder.setRemindAt(remindAt);
-            pendingReminder.setFailureAttempts(failureAttempts);
-            pendingReminder.insert();
-        });
+        database.write(context -> context.newRecord(PENDING_REMINDERS, pendingReminder)
+            .setRemindAt(remindAt)
+            .setFailureAttempts(failureAttempts)
+            .insert());
 
     }
 }
@@ -3,6 +3,9 @@ package org.togetherjava.tjbot.features.system;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.channel.Channel;
 import net.dv8tion.jda.api.entities.channel.unions.AudioChannelUnion;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateNameEvent;
 import net.dv8tion.jda.api.events.guild.voice.GuildVoiceDeafenEvent;
 import net.dv8tion.jda.api.events.guild.voice.GuildVoiceMuteEvent;
 import net.dv8tion.jda.api.events.guild.voice.GuildVoiceStreamEvent;
@@ -41,12 +44,16 @@ import org.togetherjava.tjbot.features.UserContextCommand;
 import org.togetherjava.tjbot.features.UserInteractionType;
 import org.togetherjava.tjbot.features.UserInteractor;
 import org.togetherjava.tjbot.features.VoiceReceiver;
+import org.togetherjava.tjbot.features.Warmable;
 import org.togetherjava.tjbot.features.analytics.Metrics;
 import org.togetherjava.tjbot.features.componentids.ComponentId;
 import org.togetherjava.tjbot.features.componentids.ComponentIdParser;
 import org.togetherjava.tjbot.features.componentids.ComponentIdStore;
 import org.togetherjava.tjbot.features.componentids.InvalidComponentIdFormatException;
+import org.togetherjava.tjbot.metrics.OpenMetricsWriter;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -54,14 +61,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * The bot core is the core of command handling in this application.
@@ -76,16 +78,23 @@ import java.util.stream.Stream;
  */
 public final class BotCore extends ListenerAdapter implements CommandProvider {
     private static final Logger logger = LoggerFactory.getLogger(BotCore.class);
-    private static final ExecutorService COMMAND_SERVICE = Executors.newCachedThreadPool();
-    private static final ScheduledExecutorService ROUTINE_SERVICE =
-            Executors.newScheduledThreadPool(5);
+    /**
+     * Message events waiting per stripe of the message receiver executor, further events are
+     * dropped until the asynchronous receivers caught up. Inline receivers still get all events.
+     */
+    private static final int MESSAGE_RECEIVER_QUEUE_CAPACITY = 10_000;
     private final Map<String, UserInteractor> prefixedNameToInteractor;
     private final List<Routine> routines;
     private final ComponentIdParser componentIdParser;
     private final ComponentIdStore componentIdStore;
-    private final Map<Pattern, MessageReceiver> channelNameToMessageReceiver = new HashMap<>();
-    private final Map<Pattern, VoiceReceiver> channelNameToVoiceReceiver = new HashMap<>();
+    private final MessageReceiverDispatcher messageReceiverDispatcher;
+    private final ChannelReceiverRouter<VoiceReceiver> voiceReceiverRouter;
     private final Metrics metrics;
+    private final InteractionExecutor interactionExecutor;
+    private final InteractionAutoDeferrer interactionAutoDeferrer;
+    private final RoutineScheduler routineScheduler;
+    private final FeatureWarmUp featureWarmUp;
+    private final HandlerStatistics handlerStatistics = new HandlerStatistics();
 
     /**
      * Creates a new command system which uses the given database to allow commands to persist data.
@@ -99,21 +108,39 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
      */
     public BotCore(JDA jda, Database database, Config config, Metrics metrics) {
         this.metrics = metrics;
-        Collection<Feature> features = Features.createFeatures(jda, database, config, metrics);
+        interactionExecutor = new InteractionExecutor(config.getInteractionExecutor());
+        interactionAutoDeferrer = new InteractionAutoDeferrer(
+                Duration.ofMillis(config.getInteractionExecutor().autoDeferThresholdMillis()),
+                metrics);
+        routineScheduler = new RoutineScheduler(config.getRoutines());
+        Collection<Feature> features =
+                new ArrayList<>(Features.createFeatures(jda, database, config, metrics));
+
+        // System features
+        features.add(new HandlerStatisticsCommand(handlerStatistics));
+        features.add(new HandlerStatisticsLogRoutine(handlerStatistics));
+        features.add(new DatabaseStatisticsLogRoutine(database.getStatistics()));
+        features.add(new WalCheckpointRoutine(database, "main"));
+        features.add(new WalCheckpointRoutine(metrics.getDatabase(), "analytics"));
 
         // Message receivers
-        features.stream()
-            .filter(MessageReceiver.class::isInstance)
-            .map(MessageReceiver.class::cast)
-            .forEach(messageReceiver -> channelNameToMessageReceiver
-                .put(messageReceiver.getChannelNamePattern(), messageReceiver));
+        messageReceiverDispatcher = new MessageReceiverDispatcher(
+                features.stream()
+                    .filter(MessageReceiver.class::isInstance)
+                    .map(MessageReceiver.class::cast)
+                    .toList(),
+                new ChannelStripedExecutor("message-receiver",
+                        Math.max(4, Runtime.getRuntime().availableProcessors()),
+                        MESSAGE_RECEIVER_QUEUE_CAPACITY),
+                handlerStatistics);
 
         // Voice receivers
-        features.stream()
-            .filter(VoiceReceiver.class::isInstance)
-            .map(VoiceReceiver.class::cast)
-            .forEach(voiceReceiver -> channelNameToVoiceReceiver
-                .put(voiceReceiver.getChannelNamePattern(), voiceReceiver));
+        voiceReceiverRouter = new ChannelReceiverRouter<>(
+                features.stream()
+                    .filter(VoiceReceiver.class::isInstance)
+                    .map(VoiceReceiver.class::cast)
+                    .toList(),
+                VoiceReceiver::getChannelNamePattern, VoiceReceiver[]::new);
 
         // Event receivers
         features.stream()
@@ -127,6 +154,12 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
             .map(Routine.class::cast)
             .toList();
 
+        // Warmables (are warmed up once the core is ready)
+        featureWarmUp = new FeatureWarmUp(features.stream()
+            .filter(Warmable.class::isInstance)
+            .map(Warmable.class::cast)
+            .toList());
+
         // User Interactors (e.g. slash commands)
         prefixedNameToInteractor =
                 features.stream()
@@ -191,6 +224,15 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
         return prefixedNameToInteractor.values();
     }
 
+    /**
+     * Gets the statistics about how long features take to handle events.
+     *
+     * @return the handler statistics of this system
+     */
+    public HandlerStatistics getHandlerStatistics() {
+        return handlerStatistics;
+    }
+
     /**
      * Gets the interactor registered under the given name, if any.
      *
@@ -202,6 +244,61 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
         return Optional.ofNullable(prefixedNameToInteractor.get(prefixedName));
     }
 
+    /**
+     * Gets the warm-up of the registered features, which can be used to observe which features are
+     * not ready yet.
+     *
+     * @return the warm-up of the features
+     */
+    public FeatureWarmUp getFeatureWarmUp() {
+        return featureWarmUp;
+    }
+
+    /**
+     * Writes the internal state of this system as OpenMetrics families, such as the queue depths of
+     * its executors, routine executions and the statistics of its caches. Does not block.
+     *
+     * @param writer the writer to write the metrics to
+     */
+    public void writeOpenMetrics(OpenMetricsWriter writer) {
+        OpenMetricsSources.writeInteractionExecutor(writer, interactionExecutor);
+        writer
+            .family("tjbot_message_receivers_queued", OpenMetricsWriter.Type.GAUGE,
+                    "Received messages waiting to be handled by message receivers")
+            .sample(messageReceiverDispatcher.getQueueDepth());
+        writer
+            .family("tjbot_message_receivers_dropped", OpenMetricsWriter.Type.COUNTER,
+                    "Received messages dropped since the queue of message receivers was full")
+            .sample(messageReceiverDispatcher.getDroppedEventCount());
+        OpenMetricsSources.writeRoutineScheduler(writer, routineScheduler);
+        OpenMetricsSources.writeHandlerStatistics(writer, handlerStatistics);
+        writer
+            .family("tjbot_features_warming_up", OpenMetricsWriter.Type.GAUGE,
+                    "Features that did not finish warming up yet")
+            .sample(featureWarmUp.getPendingFeatureNames().size());
+
+        ComponentIdStore.Statistics componentIdStatistics = componentIdStore.getStatistics();
+        OpenMetricsSources.writeComponentIdStore(writer, componentIdStatistics);
+        OpenMetricsSources.writeCaches(writer,
+                Map.of("component_ids", componentIdStatistics.cacheStats(), "message_routes",
+                        messageReceiverDispatcher.getCacheStats(), "inline_message_routes",
+                        messageReceiverDispatcher.getInlineCacheStats(), "voice_routes",
+                        voiceReceiverRouter.getCacheStats()),
+                Map.of("component_ids", componentIdStatistics.cachedCount(), "message_routes",
+                        messageReceiverDispatcher.getCachedChannelCount(), "inline_message_routes",
+                        messageReceiverDispatcher.getInlineCachedChannelCount(), "voice_routes",
+                        voiceReceiverRouter.getCachedChannelCount()));
+    }
+
+    /**
+     * Starts warming up the registered {@link Warmable warmable features} in the background.
+     * <p>
+     * This should be called once the bot is ready.
+     */
+    public void warmUpFeatures() {
+        featureWarmUp.start();
+    }
+
     /**
      * Schedules the registered routines.
      * <p>
@@ -212,56 +309,54 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
     public void scheduleRoutines(JDA jda) {
         routines.forEach(routine -> {
             Runnable command = () -> {
-                String routineName = routine.getClass().getSimpleName();
+                String routineName = routine.getRoutineName();
                 try {
                     logger.debug("Running routine %s...".formatted(routineName));
-                    routine.runRoutine(jda);
+                    handlerStatistics.measure(routine, HandlerStatistics.HandlerType.ROUTINE,
+                            () -> routine.runRoutine(jda));
                     logger.debug("Finished routine %s.".formatted(routineName));
                 } catch (Exception e) {
                     logger.error("Unknown error in routine {}.", routineName, e);
                 }
             };
 
-            Routine.Schedule schedule = routine.createSchedule();
-            switch (schedule.mode()) {
-                case FIXED_RATE -> ROUTINE_SERVICE.scheduleAtFixedRate(command,
-                        schedule.initialDuration(), schedule.duration(), schedule.unit());
-                case FIXED_DELAY -> ROUTINE_SERVICE.scheduleWithFixedDelay(command,
-                        schedule.initialDuration(), schedule.duration(), schedule.unit());
-                default -> throw new AssertionError("Unsupported schedule mode");
-            }
+            routineScheduler.schedule(routine, command);
         });
     }
 
     @Override
     public void onMessageReceived(final MessageReceivedEvent event) {
         if (event.isFromGuild()) {
-            getMessageReceiversSubscribedTo(event.getChannel())
-                .forEach(messageReceiver -> messageReceiver.onMessageReceived(event));
+            messageReceiverDispatcher.dispatch(event.getChannel(),
+                    HandlerStatistics.HandlerType.MESSAGE_RECEIVED,
+                    MessageReceiver::onMessageReceived, event);
         }
     }
 
     @Override
     public void onMessageUpdate(final MessageUpdateEvent event) {
         if (event.isFromGuild()) {
-            getMessageReceiversSubscribedTo(event.getChannel())
-                .forEach(messageReceiver -> messageReceiver.onMessageUpdated(event));
+            messageReceiverDispatcher.dispatch(event.getChannel(),
+                    HandlerStatistics.HandlerType.MESSAGE_UPDATED,
+                    MessageReceiver::onMessageUpdated, event);
         }
     }
 
     @Override
     public void onMessageDelete(final MessageDeleteEvent event) {
         if (event.isFromGuild()) {
-            getMessageReceiversSubscribedTo(event.getChannel())
-                .forEach(messageReceiver -> messageReceiver.onMessageDeleted(event));
+            messageReceiverDispatcher.dispatch(event.getChannel(),
+                    HandlerStatistics.HandlerType.MESSAGE_DELETED,
+                    MessageReceiver::onMessageDeleted, event);
         }
     }
 
     @Override
     public void onMessageReactionAdd(final MessageReactionAddEvent event) {
         if (event.isFromGuild()) {
-            getMessageReceiversSubscribedTo(event.getChannel())
-                .forEach(messageReceiver -> messageReceiver.onMessageReactionAdd(event));
+            messageReceiverDispatcher.dispatch(event.getChannel(),
+                    HandlerStatistics.HandlerType.MESSAGE_REACTION_ADDED,
+                    MessageReceiver::onMessageReactionAdd, event);
         }
     }
 
@@ -302,9 +397,16 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
 
     @Override
     public void onGuildVoiceUpdate(GuildVoiceUpdateEvent event) {
-        selectPreferredAudioChannel(event.getChannelJoined(), event.getChannelLeft())
-            .ifPresent(channel -> getVoiceReceiversSubscribedTo(channel)
-                .forEach(voiceReceiver -> voiceReceiver.onVoiceUpdate(event)));
+        Optional<Channel> channel =
+                selectPreferredAudioChannel(event.getChannelJoined(), event.getChannelLeft());
+        if (channel.isEmpty()) {
+            return;
+        }
+
+        for (VoiceReceiver voiceReceiver : getVoiceReceiversSubscribedTo(channel.orElseThrow())) {
+            handlerStatistics.measure(voiceReceiver, HandlerStatistics.HandlerType.VOICE_EVENT,
+                    VoiceReceiver::onVoiceUpdate, event);
+        }
     }
 
     @Override
@@ -315,8 +417,10 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
             return;
         }
 
-        getVoiceReceiversSubscribedTo(channel)
-            .forEach(voiceReceiver -> voiceReceiver.onVideoToggle(event));
+        for (VoiceReceiver voiceReceiver : getVoiceReceiversSubscribedTo(channel)) {
+            handlerStatistics.measure(voiceReceiver, HandlerStatistics.HandlerType.VOICE_EVENT,
+                    VoiceReceiver::onVideoToggle, event);
+        }
     }
 
     @Override
@@ -327,8 +431,10 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
             return;
         }
 
-        getVoiceReceiversSubscribedTo(channel)
-            .forEach(voiceReceiver -> voiceReceiver.onStreamToggle(event));
+        for (VoiceReceiver voiceReceiver : getVoiceReceiversSubscribedTo(channel)) {
+            handlerStatistics.measure(voiceReceiver, HandlerStatistics.HandlerType.VOICE_EVENT,
+                    VoiceReceiver::onStreamToggle, event);
+        }
     }
 
     @Override
@@ -339,8 +445,10 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
             return;
         }
 
-        getVoiceReceiversSubscribedTo(channel)
-            .forEach(voiceReceiver -> voiceReceiver.onMuteToggle(event));
+        for (VoiceReceiver voiceReceiver : getVoiceReceiversSubscribedTo(channel)) {
+            handlerStatistics.measure(voiceReceiver, HandlerStatistics.HandlerType.VOICE_EVENT,
+                    VoiceReceiver::onMuteToggle, event);
+        }
     }
 
     @Override
@@ -351,28 +459,34 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
             return;
         }
 
-        getVoiceReceiversSubscribedTo(channel)
-            .forEach(voiceReceiver -> voiceReceiver.onDeafenToggle(event));
+        for (VoiceReceiver voiceReceiver : getVoiceReceiversSubscribedTo(channel)) {
+            handlerStatistics.measure(voiceReceiver, HandlerStatistics.HandlerType.VOICE_EVENT,
+                    VoiceReceiver::onDeafenToggle, event);
+        }
     }
 
-    private Stream<MessageReceiver> getMessageReceiversSubscribedTo(Channel channel) {
-        String channelName = channel.getName();
-        return channelNameToMessageReceiver.entrySet()
-            .stream()
-            .filter(patternAndReceiver -> patternAndReceiver.getKey()
-                .matcher(channelName)
-                .matches())
-            .map(Map.Entry::getValue);
+    @Override
+    public void onChannelCreate(ChannelCreateEvent event) {
+        invalidateChannelRoutes(event.getChannel());
     }
 
-    private Stream<VoiceReceiver> getVoiceReceiversSubscribedTo(Channel channel) {
-        String channelName = channel.getName();
-        return channelNameToVoiceReceiver.entrySet()
-            .stream()
-            .filter(patternAndReceiver -> patternAndReceiver.getKey()
-                .matcher(channelName)
-                .matches())
-            .map(Map.Entry::getValue);
+    @Override
+    public void onChannelUpdateName(ChannelUpdateNameEvent event) {
+        invalidateChannelRoutes(event.getChannel());
+    }
+
+    @Override
+    public void onChannelDelete(ChannelDeleteEvent event) {
+        invalidateChannelRoutes(event.getChannel());
+    }
+
+    private void invalidateChannelRoutes(Channel channel) {
+        messageReceiverDispatcher.invalidate(channel.getIdLong());
+        voiceReceiverRouter.invalidate(channel.getIdLong());
+    }
+
+    private VoiceReceiver[] getVoiceReceiversSubscribedTo(Channel channel) {
+        return voiceReceiverRouter.getReceiversSubscribedTo(channel);
     }
 
     @Override
@@ -381,23 +495,25 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
 
         logger.debug("Received slash command '{}' (#{}) on guild '{}'", name, event.getId(),
                 event.getGuild());
-        COMMAND_SERVICE.execute(() -> {
-            SlashCommand interactor = requireUserInteractor(
-                    UserInteractionType.SLASH_COMMAND.getPrefixedName(name), SlashCommand.class);
-
-            Map<String, Object> dimensions = new HashMap<>();
-            dimensions.put("name", name);
-            dimensions.put("user", event.getUser().getName());
-            dimensions.put("userId", event.getUser().getIdLong());
-
-            if (event.getSubcommandName() != null) {
-                dimensions.put("subCommandName", event.getSubcommandName());
-            }
-
-            metrics.count("slash", dimensions);
-
-            interactor.onSlashCommand(event);
-        });
+        SlashCommand interactor = requireUserInteractor(
+                UserInteractionType.SLASH_COMMAND.getPrefixedName(name), SlashCommand.class);
+        interactionExecutor.execute(InteractionExecutor.Lane.DEFAULT, interactor,
+                interactionAutoDeferrer.watch(event, interactor, () -> {
+                    Map<String, Object> dimensions = new HashMap<>();
+                    dimensions.put("name", name);
+                    dimensions.put("user", event.getUser().getName());
+                    dimensions.put("userId", event.getUser().getIdLong());
+
+                    if (event.getSubcommandName() != null) {
+                        dimensions.put("subCommandName", event.getSubcommandName());
+                    }
+
+                    metrics.count("slash", dimensions);
+
+                    handlerStatistics.measure(interactor,
+                            HandlerStatistics.HandlerType.SLASH_COMMAND,
+                            () -> interactor.onSlashCommand(event));
+                }));
     }
 
     @Override
@@ -406,46 +522,48 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
 
         logger.debug("Received auto completion from command '{}' (#{}) on guild '{}'",
                 event.getFullCommandName(), event.getId(), event.getGuild());
-        COMMAND_SERVICE.execute(
-                () -> requireUserInteractor(UserInteractionType.SLASH_COMMAND.getPrefixedName(name),
-                        SlashCommand.class)
-                    .onAutoComplete(event));
+        SlashCommand interactor = requireUserInteractor(
+                UserInteractionType.SLASH_COMMAND.getPrefixedName(name), SlashCommand.class);
+        interactionExecutor.execute(InteractionExecutor.Lane.AUTO_COMPLETE, interactor,
+                () -> handlerStatistics.measure(interactor,
+                        HandlerStatistics.HandlerType.AUTO_COMPLETE,
+                        () -> interactor.onAutoComplete(event)));
     }
 
     @Override
     public void onButtonInteraction(ButtonInteractionEvent event) {
         logger.debug("Received button click '{}' (#{}) on guild '{}'", event.getComponentId(),
                 event.getId(), event.getGuild());
-        COMMAND_SERVICE
-            .execute(() -> forwardComponentCommand(event, UserInteractor::onButtonClick));
+        interactionExecutor.execute(InteractionExecutor.Lane.DEFAULT,
+                () -> resolveComponentCommand(event, UserInteractor::onButtonClick));
     }
 
     @Override
     public void onEntitySelectInteraction(EntitySelectInteractionEvent event) {
         logger.debug("Received entity selection menu event '{}' (#{}) on guild '{}'",
                 event.getComponentId(), event.getId(), event.getGuild());
-        COMMAND_SERVICE
-            .execute(() -> forwardComponentCommand(event, UserInteractor::onEntitySelectSelection));
+        interactionExecutor.execute(InteractionExecutor.Lane.DEFAULT,
+                () -> resolveComponentCommand(event, UserInteractor::onEntitySelectSelection));
     }
 
     @Override
     public void onStringSelectInteraction(StringSelectInteractionEvent event) {
         logger.debug("Received string selection menu event '{}' (#{}) on guild '{}'",
                 event.getComponentId(), event.getId(), event.getGuild());
-        COMMAND_SERVICE
-            .execute(() -> forwardComponentCommand(event, UserInteractor::onStringSelectSelection));
+        interactionExecutor.execute(InteractionExecutor.Lane.DEFAULT,
+                () -> resolveComponentCommand(event, UserInteractor::onStringSelectSelection));
     }
 
     @Override
     public void onModalInteraction(final ModalInteractionEvent event) {
         logger.debug("Received modal event '{}' (#{}) on guild '{}'", event.getModalId(),
                 event.getId(), event.getGuild());
-        COMMAND_SERVICE.execute(() -> {
+        interactionExecutor.execute(InteractionExecutor.Lane.DEFAULT, () -> {
             Optional<ComponentId> componentIdOptional =
                     handleParseComponentId(event, event.getModalId());
 
             if (componentIdOptional.isEmpty()) {
-                return;
+                return Optional.empty();
             }
 
             ComponentId componentId = componentIdOptional.orElseThrow();
@@ -454,7 +572,10 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
                     requireUserInteractor(componentId.userInteractorName(), UserInteractor.class);
             logger.trace("Routing a modal event with id '{}' back to user interactor '{}'",
                     event.getModalId(), interactor.getName());
-            interactor.onModalSubmitted(event, componentId.elements());
+            return Optional.of(new InteractionExecutor.Invocation(interactor,
+                    () -> handlerStatistics.measure(interactor,
+                            HandlerStatistics.HandlerType.MODAL_SUBMITTED,
+                            () -> interactor.onModalSubmitted(event, componentId.elements()))));
         });
     }
 
@@ -464,13 +585,16 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
 
         logger.debug("Received message context command '{}' (#{}) on guild '{}'", name,
                 event.getId(), event.getGuild());
-        COMMAND_SERVICE.execute(() -> {
-            MessageContextCommand userInteractor = requireUserInteractor(
-                    UserInteractionType.MESSAGE_CONTEXT_COMMAND.getPrefixedName(name),
-                    MessageContextCommand.class);
-            metrics.count("msg_ctx-" + name);
-            userInteractor.onMessageContext(event);
-        });
+        MessageContextCommand userInteractor = requireUserInteractor(
+                UserInteractionType.MESSAGE_CONTEXT_COMMAND.getPrefixedName(name),
+                MessageContextCommand.class);
+        interactionExecutor.execute(InteractionExecutor.Lane.DEFAULT, userInteractor,
+                interactionAutoDeferrer.watch(event, userInteractor, () -> {
+                    metrics.countAggregated("msg_ctx-" + name);
+                    handlerStatistics.measure(userInteractor,
+                            HandlerStatistics.HandlerType.MESSAGE_CONTEXT,
+                            () -> userInteractor.onMessageContext(event));
+                }));
     }
 
     @Override
@@ -479,13 +603,16 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
 
         logger.debug("Received user context command '{}' (#{}) on guild '{}'", name, event.getId(),
                 event.getGuild());
-        COMMAND_SERVICE.execute(() -> {
-            UserContextCommand userInteractor = requireUserInteractor(
-                    UserInteractionType.USER_CONTEXT_COMMAND.getPrefixedName(name),
-                    UserContextCommand.class);
-            metrics.count("user_ctx-" + name);
-            userInteractor.onUserContext(event);
-        });
+        UserContextCommand userInteractor = requireUserInteractor(
+                UserInteractionType.USER_CONTEXT_COMMAND.getPrefixedName(name),
+                UserContextCommand.class);
+        interactionExecutor.execute(InteractionExecutor.Lane.DEFAULT, userInteractor,
+                interactionAutoDeferrer.watch(event, userInteractor, () -> {
+                    metrics.countAggregated("user_ctx-" + name);
+                    handlerStatistics.measure(userInteractor,
+                            HandlerStatistics.HandlerType.USER_CONTEXT,
+                            () -> userInteractor.onUserContext(event));
+                }));
     }
 
     /**
@@ -526,13 +653,14 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
     }
 
     /**
-     * Forwards the given component event to the associated user interactor.
+     * Resolves the invocation forwarding the given component event to the associated user
+     * interactor.
      * <p>
      * An example call might look like:
      *
      * <pre>
      * {@code
-     * forwardComponentCommand(event, UserInteractor::onSelectionMenu);
+     * resolveComponentCommand(event, UserInteractor::onSelectionMenu);
      * }
      * </pre>
      *
@@ -540,15 +668,18 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
      * @param interactorArgumentConsumer the action to trigger on the associated user interactor,
      *        providing the event and list of arguments for consumption
      * @param <T> the type of the component interaction that should be forwarded
+     * @return the invocation forwarding the event, or empty if the event can not be forwarded, for
+     *         example because its component ID expired
      */
-    private <T extends ComponentInteraction> void forwardComponentCommand(T event,
+    private <T extends ComponentInteraction> Optional<InteractionExecutor.Invocation> resolveComponentCommand(
+            T event,
             TriConsumer<? super UserInteractor, ? super T, ? super List<String>> interactorArgumentConsumer) {
 
         Optional<ComponentId> componentIdOptional =
                 handleParseComponentId(event, event.getComponentId());
 
         if (componentIdOptional.isEmpty()) {
-            return;
+            return Optional.empty();
         }
 
         ComponentId componentId = componentIdOptional.orElseThrow();
@@ -557,7 +688,10 @@ public final class BotCore extends ListenerAdapter implements CommandProvider {
                 requireUserInteractor(componentId.userInteractorName(), UserInteractor.class);
         logger.trace("Routing a component event with id '{}' back to user interactor '{}'",
                 event.getComponentId(), interactor.getName());
-        interactorArgumentConsumer.accept(interactor, event, componentId.elements());
+        Runnable callback = () -> handlerStatistics.measure(interactor,
+                HandlerStatistics.HandlerType.COMPONENT_INTERACTION,
+                () -> interactorArgumentConsumer.accept(interactor, event, componentId.elements()));
+        return Optional.of(new InteractionExecutor.Invocation(interactor, callback));
     }
 
     /**
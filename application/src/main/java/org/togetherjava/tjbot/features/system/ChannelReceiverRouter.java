@@ -0,0 +1,113 @@
+package org.togetherjava.tjbot.features.system;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import net.dv8tion.jda.api.entities.channel.Channel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Routing table that resolves the receivers subscribed to a channel, based on the channel name
+ * patterns they registered with.
+ * <p>
+ * Matching the patterns against the channel name is only done once per channel, the result is then
+ * cached by the id of the channel. Since the result depends on the name of the channel, entries
+ * have to be invalidated with {@link #invalidate(long)} whenever a channel is created, renamed or
+ * deleted.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @param <T> the type of the receivers, e.g.
+ *        {@link org.togetherjava.tjbot.features.MessageReceiver}
+ */
+final class ChannelReceiverRouter<T> {
+    /**
+     * Upper bound of channels to keep routes for. Help threads are created continuously, so this
+     * prevents the table from growing unbounded over the lifetime of the bot.
+     */
+    private static final int MAX_CACHED_CHANNELS = 10_000;
+
+    private final List<PatternRoute<T>> routes;
+    private final IntFunction<T[]> arrayFactory;
+    private final Cache<Long, T[]> channelIdToReceivers =
+            Caffeine.newBuilder().maximumSize(MAX_CACHED_CHANNELS).recordStats().build();
+
+    /**
+     * Creates a new router for the given receivers.
+     *
+     * @param receivers the receivers to route to, in the order they should be notified
+     * @param receiverToPattern function returning the channel name pattern of a receiver
+     * @param arrayFactory creates an array of receivers with the given size, e.g.
+     *        {@code MessageReceiver[]::new}
+     */
+    ChannelReceiverRouter(Iterable<? extends T> receivers,
+            Function<? super T, Pattern> receiverToPattern, IntFunction<T[]> arrayFactory) {
+        List<PatternRoute<T>> patternRoutes = new ArrayList<>();
+        receivers.forEach(receiver -> patternRoutes
+            .add(new PatternRoute<>(receiverToPattern.apply(receiver), receiver)));
+
+        routes = List.copyOf(patternRoutes);
+        this.arrayFactory = arrayFactory;
+    }
+
+    /**
+     * Gets all receivers that are subscribed to the given channel.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @param channel the channel to get the subscribed receivers for
+     * @return all receivers subscribed to the channel, might be empty
+     */
+    T[] getReceiversSubscribedTo(Channel channel) {
+        T[] receivers = channelIdToReceivers.getIfPresent(channel.getIdLong());
+        if (receivers != null) {
+            return receivers;
+        }
+
+        return channelIdToReceivers.get(channel.getIdLong(),
+                channelId -> resolveReceivers(channel.getName()));
+    }
+
+    /**
+     * Invalidates the cached route of the given channel, for example because its name changed. The
+     * route will be resolved again the next time it is requested.
+     *
+     * @param channelId the id of the channel to invalidate
+     */
+    void invalidate(long channelId) {
+        channelIdToReceivers.invalidate(channelId);
+    }
+
+    /**
+     * Gets statistics about the cached routes, such as how often a route had to be resolved.
+     *
+     * @return the statistics of the route cache
+     */
+    CacheStats getCacheStats() {
+        return channelIdToReceivers.stats();
+    }
+
+    /**
+     * Gets the approximate amount of channels whose routes are currently cached.
+     *
+     * @return the amount of cached routes
+     */
+    long getCachedChannelCount() {
+        return channelIdToReceivers.estimatedSize();
+    }
+
+    private T[] resolveReceivers(String channelName) {
+        return routes.stream()
+            .filter(route -> route.channelNamePattern().matcher(channelName).matches())
+            .map(PatternRoute::receiver)
+            .toArray(arrayFactory);
+    }
+
+    private record PatternRoute<T>(Pattern channelNamePattern, T receiver) {
+    }
+}
@@ -0,0 +1,117 @@
+package org.togetherjava.tjbot.features.system;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor that runs tasks asynchronously, while preserving their order per channel.
+ * <p>
+ * Tasks are distributed onto a fixed amount of stripes, each backed by a single thread. All tasks
+ * of the same channel always end up on the same stripe and are hence executed in the order they
+ * were submitted. Tasks of different channels are executed in parallel, unless they happen to share
+ * a stripe.
+ * <p>
+ * The queue of each stripe is bounded. If a stripe can not keep up and its queue is full, further
+ * tasks of its channels are dropped, instead of piling up in memory or blocking the submitting
+ * thread, which is usually the event thread of JDA. Dropped tasks are counted, see
+ * {@link #getDroppedTaskCount()}.
+ * <p>
+ * Instances are thread-safe.
+ */
+final class ChannelStripedExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(ChannelStripedExecutor.class);
+    /**
+     * Dropping a task is only logged once per this amount, to not flood the logs under overload.
+     */
+    private static final long LOG_DROPPED_TASKS_EVERY = 1_000;
+
+    /**
+     * Mixes the bits of channel ids, which are Discord snowflakes whose lower bits are not evenly
+     * distributed. Fractional part of the golden ratio, see Fibonacci hashing.
+     */
+    private static final long SPREAD_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final ThreadPoolExecutor[] stripes;
+    private final AtomicLong droppedTasks = new AtomicLong();
+
+    /**
+     * Creates a new executor.
+     *
+     * @param name the name of the executor, used as prefix for the names of its threads
+     * @param stripeCount the amount of stripes, i.e. the maximal amount of channels whose tasks are
+     *        executed in parallel
+     * @param queueCapacity the maximal amount of tasks waiting per stripe, further tasks are
+     *        dropped
+     */
+    ChannelStripedExecutor(String name, int stripeCount, int queueCapacity) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive, was " + stripeCount);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Queue capacity must be positive, was " + queueCapacity);
+        }
+
+        stripes = new ThreadPoolExecutor[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            String stripeName = name + "-" + i;
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    Thread.ofPlatform().name(stripeName).daemon().factory(),
+                    (task, stripe) -> onDropped(stripeName));
+        }
+    }
+
+    /**
+     * Executes the given task asynchronously, after all previously submitted tasks of the same
+     * channel have been executed.
+     * <p>
+     * If the queue of the stripe of the channel is full, the task is dropped.
+     *
+     * @param channelId the id of the channel the task belongs to
+     * @param task the task to execute
+     */
+    void execute(long channelId, Runnable task) {
+        stripes[stripeOf(channelId)].execute(task);
+    }
+
+    /**
+     * Gets the total amount of tasks that are waiting to be executed, over all stripes.
+     *
+     * @return the amount of pending tasks
+     */
+    int getQueueDepth() {
+        int queueDepth = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            queueDepth += stripe.getQueue().size();
+        }
+        return queueDepth;
+    }
+
+    /**
+     * Gets the total amount of tasks that were dropped since creation, because the queue of their
+     * stripe was full.
+     *
+     * @return the amount of dropped tasks
+     */
+    long getDroppedTaskCount() {
+        return droppedTasks.get();
+    }
+
+    private void onDropped(String stripeName) {
+        long dropped = droppedTasks.incrementAndGet();
+        if (dropped == 1 || dropped % LOG_DROPPED_TASKS_EVERY == 0) {
+            logger.warn("Dropped a task since the queue of '{}' is full, {} dropped in total",
+                    stripeName, dropped);
+        }
+    }
+
+    private int stripeOf(long channelId) {
+        return Math.floorMod(Long.hashCode(channelId * SPREAD_MULTIPLIER), stripes.length);
+    }
+}
@@ -0,0 +1,114 @@
+package org.togetherjava.tjbot.features.system;
+
+import com.github.freva.asciitable.AsciiTable;
+import com.github.freva.asciitable.Column;
+import com.github.freva.asciitable.ColumnData;
+import com.github.freva.asciitable.HorizontalAlign;
+import net.dv8tion.jda.api.JDA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.db.DatabaseStatistics;
+import org.togetherjava.tjbot.features.Routine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routine that periodically writes the {@link DatabaseStatistics} to the log, i.e. the slowest
+ * queries and the usage of the write lock.
+ */
+public final class DatabaseStatisticsLogRoutine implements Routine {
+    private static final Logger logger =
+            LoggerFactory.getLogger(DatabaseStatisticsLogRoutine.class);
+    private static final int MAX_QUERIES_TO_LOG = 10;
+    private static final int MAX_QUERY_LENGTH = 80;
+
+    private final DatabaseStatistics databaseStatistics;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param databaseStatistics the statistics to log
+     */
+    public DatabaseStatisticsLogRoutine(DatabaseStatistics databaseStatistics) {
+        this.databaseStatistics = databaseStatistics;
+    }
+
+    @Override
+    public Schedule createSchedule() {
+        return new Schedule(ScheduleMode.FIXED_RATE, 1, 1, TimeUnit.HOURS);
+    }
+
+    @Override
+    public void runRoutine(JDA jda) {
+        List<DatabaseStatistics.QuerySnapshot> queries = databaseStatistics.snapshotQueries();
+        if (queries.isEmpty() || !logger.isInfoEnabled()) {
+            return;
+        }
+
+        List<DatabaseStatistics.QuerySnapshot> slowestQueries =
+                queries.subList(0, Math.min(MAX_QUERIES_TO_LOG, queries.size()));
+        logger.info("""
+                Slowest database queries since startup ({} slow, {} failed):
+                {}
+                Usage of the database write lock since startup:
+                {}""", databaseStatistics.getSlowQueryCount(),
+                databaseStatistics.getFailedQueryCount(), asAsciiTable(slowestQueries),
+                locksAsAsciiTable(databaseStatistics.snapshotLocks()));
+    }
+
+    private static String asAsciiTable(List<DatabaseStatistics.QuerySnapshot> snapshots) {
+        List<ColumnData<DatabaseStatistics.QuerySnapshot>> columns = List.of(
+                new Column().header("Query")
+                    .dataAlign(HorizontalAlign.LEFT)
+                    .maxWidth(MAX_QUERY_LENGTH)
+                    .with(DatabaseStatistics.QuerySnapshot::queryShape),
+                new Column().header("Count")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> Long.toString(snapshot.latencies().count())),
+                new Column().header("p50")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.latencies().p50())),
+                new Column().header("p99")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.latencies().p99())),
+                new Column().header("Max")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.latencies().max())));
+
+        return AsciiTable.getTable(AsciiTable.BASIC_ASCII_NO_DATA_SEPARATORS, snapshots, columns);
+    }
+
+    private static String locksAsAsciiTable(List<DatabaseStatistics.LockSnapshot> snapshots) {
+        List<ColumnData<DatabaseStatistics.LockSnapshot>> columns = List.of(
+                new Column().header("Operation")
+                    .dataAlign(HorizontalAlign.LEFT)
+                    .with(snapshot -> snapshot.operation().name()),
+                new Column().header("Count")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> Long.toString(snapshot.holds().count())),
+                new Column().header("Contended")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> Long.toString(snapshot.contendedCount())),
+                new Column().header("Wait p99")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.waits().p99())),
+                new Column().header("Wait max")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.waits().max())),
+                new Column().header("Hold p99")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.holds().p99())),
+                new Column().header("Hold max")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.holds().max())));
+
+        return AsciiTable.getTable(AsciiTable.BASIC_ASCII_NO_DATA_SEPARATORS, snapshots, columns);
+    }
+
+    private static String formatMillis(Duration duration) {
+        return "%.1f ms".formatted(duration.toNanos() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,126 @@
+package org.togetherjava.tjbot.features.system;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.features.Warmable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Warms up {@link Warmable warmable features} once the bot is ready.
+ * <p>
+ * Each warm-up runs on its own virtual thread as soon as all of its dependencies finished warming
+ * up, hence unrelated features warm up in parallel. The progress can be observed with
+ * {@link #isReady()} and {@link #getPendingFeatureNames()}.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class FeatureWarmUp {
+    private static final Logger logger = LoggerFactory.getLogger(FeatureWarmUp.class);
+
+    private final List<Warmable> warmables;
+    private final Executor executor = Executors
+        .newThreadPerTaskExecutor(Thread.ofVirtual().name("feature-warm-up-", 0).factory());
+    private final Set<String> pendingFeatureNames = ConcurrentHashMap.newKeySet();
+    private final CompletableFuture<Void> allReady = new CompletableFuture<>();
+
+    /**
+     * Creates a new warm-up for the given features. Call {@link #start()} to begin warming up.
+     *
+     * @param warmables the features to warm up
+     */
+    public FeatureWarmUp(Collection<? extends Warmable> warmables) {
+        this.warmables = List.copyOf(warmables);
+        this.warmables.forEach(warmable -> pendingFeatureNames.add(getName(warmable)));
+    }
+
+    /**
+     * Starts warming up all features, respecting their dependencies. Returns immediately.
+     * <p>
+     * Must only be called once.
+     *
+     * @return a future that completes once all features finished warming up, successfully or not
+     */
+    public CompletableFuture<Void> start() {
+        long startNanos = System.nanoTime();
+        Map<Warmable, CompletableFuture<Void>> warmableToWarmUp = new HashMap<>();
+
+        CompletableFuture<?>[] warmUps = warmables.stream()
+            .map(warmable -> startWarmUp(warmable, warmableToWarmUp))
+            .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(warmUps).thenRun(() -> {
+            logger.info("All {} features are warmed up after {}", warmUps.length,
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+            allReady.complete(null);
+        });
+        return allReady;
+    }
+
+    private CompletableFuture<Void> startWarmUp(Warmable warmable,
+            Map<Warmable, CompletableFuture<Void>> warmableToWarmUp) {
+        CompletableFuture<Void> warmUp = warmableToWarmUp.get(warmable);
+        if (warmUp != null) {
+            return warmUp;
+        }
+
+        // Mark as visited beforehand, so that a cycle does not recurse infinitely
+        warmableToWarmUp.put(warmable, CompletableFuture.completedFuture(null));
+        CompletableFuture<?>[] dependencies = warmable.getWarmUpDependencies()
+            .stream()
+            .filter(warmables::contains)
+            .map(dependency -> startWarmUp(dependency, warmableToWarmUp))
+            .toArray(CompletableFuture[]::new);
+
+        warmUp = CompletableFuture.allOf(dependencies)
+            .thenRunAsync(() -> warmUp(warmable), executor);
+        warmableToWarmUp.put(warmable, warmUp);
+        return warmUp;
+    }
+
+    private void warmUp(Warmable warmable) {
+        String name = getName(warmable);
+        long startNanos = System.nanoTime();
+        try {
+            warmable.warmUp();
+            logger.info("Feature {} is ready after {}", name,
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+        } catch (Exception e) {
+            logger.warn("Failed to warm up feature {}, it might not work correctly", name, e);
+        } finally {
+            pendingFeatureNames.remove(name);
+        }
+    }
+
+    /**
+     * Whether all features finished warming up, successfully or not.
+     *
+     * @return true if all features are ready
+     */
+    public boolean isReady() {
+        return allReady.isDone();
+    }
+
+    /**
+     * Gets the names of the features that did not finish warming up yet.
+     *
+     * @return the names of all pending features, empty once all features are ready
+     */
+    public Set<String> getPendingFeatureNames() {
+        return Set.copyOf(pendingFeatureNames);
+    }
+
+    private static String getName(Warmable warmable) {
+        return warmable.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,195 @@
+package org.togetherjava.tjbot.features.system;
+
+import com.github.freva.asciitable.AsciiTable;
+import com.github.freva.asciitable.Column;
+import com.github.freva.asciitable.ColumnData;
+import com.github.freva.asciitable.HorizontalAlign;
+
+import org.togetherjava.tjbot.features.Feature;
+import org.togetherjava.tjbot.features.Routine;
+import org.togetherjava.tjbot.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Records how long features take to handle events, such as received messages, slash commands or
+ * routine executions.
+ * <p>
+ * Latencies are recorded per feature and {@link HandlerType} into lock-free
+ * {@link LatencyHistogram histograms}. Once a feature handled its first event of a type, recording
+ * further latencies does not allocate anymore.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class HandlerStatistics {
+    private static final HandlerType[] HANDLER_TYPES = HandlerType.values();
+
+    private final Map<Feature, AtomicReferenceArray<LatencyHistogram>> featureToHistograms =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Executes the given handler of a feature and records how long it took.
+     *
+     * @param feature the feature the handler belongs to
+     * @param type the type of the handler
+     * @param handler the handler to execute, e.g. forwarding an event to the feature
+     */
+    public void measure(Feature feature, HandlerType type, Runnable handler) {
+        long startedAt = System.nanoTime();
+        try {
+            handler.run();
+        } finally {
+            record(feature, type, System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * Executes the given handler of a feature with the given event and records how long it took.
+     * <p>
+     * Unlike {@link #measure(Feature, HandlerType, Runnable)}, this allows passing a handler that
+     * does not capture the feature or event, such as a method reference, which avoids allocating a
+     * handler for every event.
+     *
+     * @param feature the feature the handler belongs to
+     * @param type the type of the handler
+     * @param handler the handler to execute, e.g. forwarding the event to the feature
+     * @param event the event to pass to the handler
+     * @param <F> the type of the feature
+     * @param <E> the type of the event
+     */
+    public <F extends Feature, E> void measure(F feature, HandlerType type,
+            BiConsumer<? super F, ? super E> handler, E event) {
+        long startedAt = System.nanoTime();
+        try {
+            handler.accept(feature, event);
+        } finally {
+            record(feature, type, System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * Records how long a handler of a feature took.
+     *
+     * @param feature the feature the handler belongs to
+     * @param type the type of the handler
+     * @param nanos the time the handler took, in nanoseconds
+     */
+    public void record(Feature feature, HandlerType type, long nanos) {
+        getHistogram(feature, type).recordNanos(nanos);
+    }
+
+    private LatencyHistogram getHistogram(Feature feature, HandlerType type) {
+        AtomicReferenceArray<LatencyHistogram> histograms = featureToHistograms.get(feature);
+        if (histograms == null) {
+            histograms = featureToHistograms.computeIfAbsent(feature,
+                    any -> new AtomicReferenceArray<>(HANDLER_TYPES.length));
+        }
+
+        LatencyHistogram histogram = histograms.get(type.ordinal());
+        if (histogram == null) {
+            histograms.compareAndSet(type.ordinal(), null, new LatencyHistogram());
+            histogram = histograms.get(type.ordinal());
+        }
+        return histogram;
+    }
+
+    /**
+     * Takes a snapshot of all recorded latencies, sorted by their 99th percentile, slowest first.
+     *
+     * @return the snapshots of all handlers that handled at least one event
+     */
+    public List<HandlerSnapshot> snapshot() {
+        List<HandlerSnapshot> snapshots = new ArrayList<>();
+        featureToHistograms.forEach((feature, histograms) -> {
+            for (HandlerType type : HANDLER_TYPES) {
+                LatencyHistogram histogram = histograms.get(type.ordinal());
+                if (histogram != null) {
+                    snapshots.add(new HandlerSnapshot(getFeatureName(feature), type,
+                            histogram.snapshot()));
+                }
+            }
+        });
+
+        snapshots.sort(Comparator
+            .comparing((HandlerSnapshot snapshot) -> snapshot.latencies().p99())
+            .reversed());
+        return snapshots;
+    }
+
+    private static String getFeatureName(Feature feature) {
+        // Routines can be registered multiple times, e.g. once per database, and are named apart
+        return feature instanceof Routine routine ? routine.getRoutineName()
+                : feature.getClass().getSimpleName();
+    }
+
+    /**
+     * Visual representation of the given snapshots as ASCII table.
+     *
+     * @param snapshots the snapshots to represent, e.g. given by {@link #snapshot()}
+     * @return ASCII table representing the snapshots
+     */
+    public static String asAsciiTable(Collection<HandlerSnapshot> snapshots) {
+        List<ColumnData<HandlerSnapshot>> columns = List.of(
+                new Column().header("Feature")
+                    .dataAlign(HorizontalAlign.LEFT)
+                    .with(HandlerSnapshot::featureName),
+                new Column().header("Type")
+                    .dataAlign(HorizontalAlign.LEFT)
+                    .with(snapshot -> snapshot.type().name()),
+                new Column().header("Count")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> Long.toString(snapshot.latencies().count())),
+                new Column().header("p50")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.latencies().p50())),
+                new Column().header("p99")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.latencies().p99())),
+                new Column().header("Max")
+                    .dataAlign(HorizontalAlign.RIGHT)
+                    .with(snapshot -> formatMillis(snapshot.latencies().max())));
+
+        return AsciiTable.getTable(AsciiTable.BASIC_ASCII_NO_DATA_SEPARATORS, snapshots, columns);
+    }
+
+    private static String formatMillis(Duration duration) {
+        return "%.1f ms".formatted(duration.toNanos() / 1_000_000.0);
+    }
+
+    /**
+     * The types of handlers latencies are recorded for.
+     */
+    public enum HandlerType {
+        MESSAGE_RECEIVED,
+        MESSAGE_UPDATED,
+        MESSAGE_DELETED,
+        MESSAGE_REACTION_ADDED,
+        VOICE_EVENT,
+        SLASH_COMMAND,
+        AUTO_COMPLETE,
+        MESSAGE_CONTEXT,
+        USER_CONTEXT,
+        COMPONENT_INTERACTION,
+        MODAL_SUBMITTED,
+        ROUTINE
+    }
+
+    /**
+     * Snapshot of the latencies of a single handler.
+     *
+     * @param featureName the name of the feature the handler belongs to
+     * @param type the type of the handler
+     * @param latencies the recorded latencies
+     */
+    public record HandlerSnapshot(String featureName, HandlerType type,
+            LatencyHistogram.Snapshot latencies) {
+    }
+}
@@ -0,0 +1,59 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+
+import org.togetherjava.tjbot.features.CommandVisibility;
+import org.togetherjava.tjbot.features.SlashCommandAdapter;
+
+import java.util.List;
+
+/**
+ * Implements the '/handler-stats' command which can be used by moderators to see how long features
+ * of the bot take to handle events, see {@link HandlerStatistics}.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * {@code
+ * /handler-stats
+ * }
+ * </pre>
+ */
+public final class HandlerStatisticsCommand extends SlashCommandAdapter {
+    private static final int MAX_HANDLERS_SHOWN = 15;
+
+    private final HandlerStatistics handlerStatistics;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param handlerStatistics the statistics to show
+     */
+    public HandlerStatisticsCommand(HandlerStatistics handlerStatistics) {
+        super("handler-stats", "Shows the slowest features of the bot", CommandVisibility.GUILD);
+
+        getData().setDefaultPermissions(
+                DefaultMemberPermissions.enabledFor(Permission.MODERATE_MEMBERS));
+
+        this.handlerStatistics = handlerStatistics;
+    }
+
+    @Override
+    public void onSlashCommand(SlashCommandInteractionEvent event) {
+        List<HandlerStatistics.HandlerSnapshot> snapshots = handlerStatistics.snapshot();
+
+        if (snapshots.isEmpty()) {
+            event.reply("No events have been handled yet.").setEphemeral(true).queue();
+            return;
+        }
+
+        String message = """
+                ```
+                %s
+                ```""".formatted(HandlerStatistics.asAsciiTable(
+                snapshots.subList(0, Math.min(snapshots.size(), MAX_HANDLERS_SHOWN))));
+        event.reply(message).setEphemeral(true).queue();
+    }
+}
@@ -0,0 +1,44 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.JDA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.features.Routine;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routine that periodically writes the {@link HandlerStatistics} to the log.
+ */
+public final class HandlerStatisticsLogRoutine implements Routine {
+    private static final Logger logger = LoggerFactory.getLogger(HandlerStatisticsLogRoutine.class);
+
+    private final HandlerStatistics handlerStatistics;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param handlerStatistics the statistics to log
+     */
+    public HandlerStatisticsLogRoutine(HandlerStatistics handlerStatistics) {
+        this.handlerStatistics = handlerStatistics;
+    }
+
+    @Override
+    public Schedule createSchedule() {
+        return new Schedule(ScheduleMode.FIXED_RATE, 1, 1, TimeUnit.HOURS);
+    }
+
+    @Override
+    public void runRoutine(JDA jda) {
+        List<HandlerStatistics.HandlerSnapshot> snapshots = handlerStatistics.snapshot();
+        if (snapshots.isEmpty() || !logger.isInfoEnabled()) {
+            return;
+        }
+
+        logger.info("Latencies of event handlers since startup:\n{}",
+                HandlerStatistics.asAsciiTable(snapshots));
+    }
+}
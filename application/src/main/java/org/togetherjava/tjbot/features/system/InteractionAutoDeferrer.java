@@ -0,0 +1,107 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.features.UserInteractor;
+import org.togetherjava.tjbot.features.analytics.Metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defers interactions automatically, if their handler did not acknowledge them in time.
+ * <p>
+ * Discord requires interactions to be acknowledged within 3 seconds, otherwise the interaction
+ * fails for the user. Handlers doing slow work before replying, for example database queries, may
+ * miss this deadline under load. Therefore, a timer is armed when the handler of an interaction
+ * starts. If the handler did not acknowledge the interaction once the threshold passed, it is
+ * deferred on behalf of the handler. Handlers can then still respond in an acknowledgment-agnostic
+ * way, see {@link org.togetherjava.tjbot.features.utils.InteractionReplies}.
+ * <p>
+ * Auto-deferral is opt-in, see {@link UserInteractor#allowsAutoDefer()}, since handlers that reply
+ * directly or open modals fail once their interaction was deferred.
+ * <p>
+ * How often interactions are deferred automatically is tracked by {@link Metrics} per command, as
+ * event {@value #AUTO_DEFER_EVENT}.
+ * <p>
+ * Instances are thread-safe.
+ */
+final class InteractionAutoDeferrer {
+    private static final Logger logger = LoggerFactory.getLogger(InteractionAutoDeferrer.class);
+    private static final String AUTO_DEFER_EVENT = "auto_defer";
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("interaction-auto-defer").daemon().factory());
+    private final Duration threshold;
+    private final Metrics metrics;
+
+    /**
+     * Creates a new auto-deferrer.
+     *
+     * @param threshold the time after which interactions that were not acknowledged yet are
+     *        deferred
+     * @param metrics the metrics service to track auto-deferrals with
+     */
+    InteractionAutoDeferrer(Duration threshold, Metrics metrics) {
+        this.threshold = threshold;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Wraps the handler of the given interaction, so that it arms the timer once it starts and
+     * disarms it again once it returned.
+     * <p>
+     * The timer only starts with the handler, since time spent waiting for execution, e.g. behind
+     * the bulkhead of the interactor, would otherwise defer interactions before their handler had
+     * the chance to respond. Interactors that do not {@link UserInteractor#allowsAutoDefer() allow}
+     * auto-deferral are not watched at all.
+     *
+     * @param event the interaction to watch
+     * @param interactor the interactor handling the interaction
+     * @param handler the handler of the interaction
+     * @return the wrapped handler, to be executed instead of the given handler
+     */
+    Runnable watch(IReplyCallback event, UserInteractor interactor, Runnable handler) {
+        if (!interactor.allowsAutoDefer()) {
+            return handler;
+        }
+
+        return () -> {
+            ScheduledFuture<?> autoDeferral = timer.schedule(
+                    () -> deferIfNotAcknowledged(event, interactor.getName()), threshold.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            try {
+                handler.run();
+            } finally {
+                // Handlers replying asynchronously may still need the auto-deferral
+                if (event.isAcknowledged()) {
+                    autoDeferral.cancel(false);
+                }
+            }
+        };
+    }
+
+    private void deferIfNotAcknowledged(IReplyCallback event, String commandName) {
+        if (event.isAcknowledged()) {
+            return;
+        }
+
+        event.deferReply().queue(hook -> {
+            logger.debug("Automatically deferred interaction (#{}) of command '{}'", event.getId(),
+                    commandName);
+            metrics.countAggregated(AUTO_DEFER_EVENT, Map.of("name", commandName));
+        }, failure -> {
+            // The handler acknowledged the interaction concurrently, nothing to do
+            if (!(failure instanceof IllegalStateException)) {
+                logger.warn("Failed to automatically defer interaction (#{}) of command '{}'",
+                        event.getId(), commandName, failure);
+            }
+        });
+    }
+}
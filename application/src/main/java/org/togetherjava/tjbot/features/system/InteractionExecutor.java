@@ -0,0 +1,207 @@
+package org.togetherjava.tjbot.features.system;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.config.InteractionExecutorConfig;
+import org.togetherjava.tjbot.features.UserInteractor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executes user interactions, such as slash commands, button clicks or auto-completion requests,
+ * off the JDA event thread.
+ * <p>
+ * Interactions are executed in one of multiple {@link Lane lanes}. Regular interactions run on
+ * virtual threads, but each {@link UserInteractor} is guarded by a bulkhead, limiting how many of
+ * its interactions may run concurrently (see {@link InteractionExecutorConfig}). Interactions
+ * exceeding the limit wait until a previous interaction of the same interactor finished. This way,
+ * a burst of slow interactions, such as ChatGPT requests, can not starve other interactors.
+ * <p>
+ * Auto-completion requests have a hard deadline by Discord, hence they run in a dedicated lane
+ * backed by a small pool of platform threads, which is not affected by any other interaction.
+ * <p>
+ * For each lane, the executor records how many interactions are currently waiting to be executed
+ * and how long they waited, see {@link #getLaneStatistics()}.
+ */
+public final class InteractionExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(InteractionExecutor.class);
+
+    private final InteractionExecutorConfig config;
+    private final Map<Lane, LaneState> laneToState = new EnumMap<>(Lane.class);
+    private final Map<String, Semaphore> interactorNameToBulkhead = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new interaction executor.
+     *
+     * @param config the config to use, defining for example concurrency limits
+     */
+    public InteractionExecutor(InteractionExecutorConfig config) {
+        this.config = config;
+
+        ThreadFactory interactionThreads = Thread.ofVirtual().name("interaction-", 0).factory();
+        ThreadFactory autoCompleteThreads =
+                Thread.ofPlatform().name("interaction-autocomplete-", 0).daemon().factory();
+
+        laneToState.put(Lane.DEFAULT,
+                new LaneState(Executors.newThreadPerTaskExecutor(interactionThreads)));
+        laneToState.put(Lane.AUTO_COMPLETE, new LaneState(
+                Executors.newFixedThreadPool(config.autoCompleteThreads(), autoCompleteThreads)));
+    }
+
+    /**
+     * Executes the given callback of an user interactor asynchronously.
+     *
+     * @param lane the lane to execute the interaction in
+     * @param interactor the user interactor the callback belongs to
+     * @param callback the callback to execute, e.g. forwarding a slash command event to the
+     *        interactor
+     */
+    public void execute(Lane lane, UserInteractor interactor, Runnable callback) {
+        execute(lane, () -> Optional.of(new Invocation(interactor, callback)));
+    }
+
+    /**
+     * Executes an interaction asynchronously, whose user interactor has to be resolved first.
+     * <p>
+     * This is useful if resolving the interactor is expensive on its own, for example because it
+     * requires a database lookup. The resolution is then done asynchronously as well.
+     *
+     * @param lane the lane to execute the interaction in
+     * @param invocationResolver resolves the user interactor and its callback to execute, or an
+     *        empty optional if the interaction should be dropped
+     */
+    public void execute(Lane lane, Supplier<Optional<Invocation>> invocationResolver) {
+        LaneState state = laneToState.get(lane);
+        long enqueuedAt = System.nanoTime();
+        state.queued.incrementAndGet();
+
+        state.executor.execute(() -> {
+            boolean isStarted = false;
+            try {
+                Optional<Invocation> invocation = invocationResolver.get();
+                if (invocation.isEmpty()) {
+                    return;
+                }
+
+                Runnable callback = invocation.orElseThrow().callback();
+                if (lane == Lane.AUTO_COMPLETE) {
+                    state.onStarted(enqueuedAt);
+                    isStarted = true;
+                    callback.run();
+                    return;
+                }
+
+                Semaphore bulkhead = getBulkhead(invocation.orElseThrow().interactor());
+                bulkhead.acquireUninterruptibly();
+                try {
+                    state.onStarted(enqueuedAt);
+                    isStarted = true;
+                    callback.run();
+                } finally {
+                    bulkhead.release();
+                }
+            } finally {
+                if (!isStarted) {
+                    state.queued.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private Semaphore getBulkhead(UserInteractor interactor) {
+        return interactorNameToBulkhead.computeIfAbsent(interactor.getName(), interactorName -> {
+            int limit = config.getConcurrencyLimit(interactorName);
+            logger.debug("Limiting concurrent interactions of '{}' to {}", interactorName, limit);
+            return new Semaphore(limit, true);
+        });
+    }
+
+    /**
+     * Gets statistics about all lanes, such as how many interactions are currently waiting to be
+     * executed.
+     *
+     * @return statistics about all lanes
+     */
+    public Map<Lane, LaneStatistics> getLaneStatistics() {
+        Map<Lane, LaneStatistics> laneToStatistics = new EnumMap<>(Lane.class);
+        laneToState.forEach((lane, state) -> laneToStatistics.put(lane, state.toStatistics()));
+        return laneToStatistics;
+    }
+
+    /**
+     * The lanes interactions can be executed in. Lanes are isolated from each other, interactions
+     * in one lane never delay interactions in another lane.
+     */
+    public enum Lane {
+        /**
+         * Lane for all regular interactions, such as slash commands or button clicks.
+         */
+        DEFAULT,
+        /**
+         * Low-latency lane for auto-completion requests, which have to be answered by a hard
+         * deadline.
+         */
+        AUTO_COMPLETE
+    }
+
+    /**
+     * An interaction that is ready to be executed.
+     *
+     * @param interactor the user interactor the callback belongs to
+     * @param callback the callback to execute, e.g. forwarding an event to the interactor
+     */
+    public record Invocation(UserInteractor interactor, Runnable callback) {
+    }
+
+    /**
+     * Snapshot of statistics of a lane.
+     *
+     * @param queueDepth the amount of interactions that are currently waiting to be executed
+     * @param started the total amount of interactions that started execution
+     * @param averageWait the average time interactions waited before their execution started
+     * @param maxWait the longest time an interaction waited before its execution started
+     */
+    public record LaneStatistics(int queueDepth, long started, Duration averageWait,
+            Duration maxWait) {
+    }
+
+    private static final class LaneState {
+        private final ExecutorService executor;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+        private LaneState(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        private void onStarted(long enqueuedAt) {
+            long waitNanos = System.nanoTime() - enqueuedAt;
+            queued.decrementAndGet();
+            started.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulate(waitNanos);
+        }
+
+        private LaneStatistics toStatistics() {
+            long startedCount = started.sum();
+            long averageWaitNanos = startedCount == 0 ? 0 : totalWaitNanos.sum() / startedCount;
+            return new LaneStatistics(queued.get(), startedCount,
+                    Duration.ofNanos(averageWaitNanos), Duration.ofNanos(maxWaitNanos.get()));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.togetherjava.tjbot.features.system;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import net.dv8tion.jda.api.entities.channel.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.features.MessageReceiver;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Notifies message receivers about the events of the channels they are subscribed to.
+ * <p>
+ * Receivers requiring inline execution, see {@link MessageReceiver#requiresInlineExecution()}, are
+ * notified directly on the calling thread. All others are notified asynchronously on a
+ * {@link ChannelStripedExecutor}, preserving the order of events per channel. If the asynchronous
+ * receivers can not keep up, their events are dropped, while inline receivers are still notified
+ * about every event.
+ * <p>
+ * Instances are thread-safe.
+ */
+final class MessageReceiverDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(MessageReceiverDispatcher.class);
+
+    private final ChannelReceiverRouter<MessageReceiver> inlineReceiverRouter;
+    private final ChannelReceiverRouter<MessageReceiver> receiverRouter;
+    private final ChannelStripedExecutor executor;
+    private final HandlerStatistics handlerStatistics;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param receivers the receivers to notify, in the order they should be notified
+     * @param executor the executor to notify receivers asynchronously with
+     * @param handlerStatistics the statistics to record the latencies of the receivers in
+     */
+    MessageReceiverDispatcher(Collection<? extends MessageReceiver> receivers,
+            ChannelStripedExecutor executor, HandlerStatistics handlerStatistics) {
+        Map<Boolean, List<MessageReceiver>> isInlineToReceivers = receivers.stream()
+            .collect(Collectors.partitioningBy(MessageReceiver::requiresInlineExecution));
+        inlineReceiverRouter = new ChannelReceiverRouter<>(isInlineToReceivers.get(true),
+                MessageReceiver::getChannelNamePattern, MessageReceiver[]::new);
+        receiverRouter = new ChannelReceiverRouter<>(isInlineToReceivers.get(false),
+                MessageReceiver::getChannelNamePattern, MessageReceiver[]::new);
+        this.executor = executor;
+        this.handlerStatistics = handlerStatistics;
+    }
+
+    /**
+     * Notifies all receivers subscribed to the given channel about an event.
+     *
+     * @param channel the channel the event happened in
+     * @param handlerType the type of the event, used for recording handler latencies
+     * @param notifier the action notifying a receiver about the event
+     * @param event the event to notify the receivers about
+     * @param <E> the type of the event
+     */
+    <E> void dispatch(Channel channel, HandlerStatistics.HandlerType handlerType,
+            BiConsumer<? super MessageReceiver, ? super E> notifier, E event) {
+        notifyAll(inlineReceiverRouter.getReceiversSubscribedTo(channel), handlerType, notifier,
+                event);
+
+        MessageReceiver[] receivers = receiverRouter.getReceiversSubscribedTo(channel);
+        if (receivers.length == 0) {
+            return;
+        }
+        executor.execute(channel.getIdLong(),
+                () -> notifyAll(receivers, handlerType, notifier, event));
+    }
+
+    private <E> void notifyAll(MessageReceiver[] receivers,
+            HandlerStatistics.HandlerType handlerType,
+            BiConsumer<? super MessageReceiver, ? super E> notifier, E event) {
+        for (MessageReceiver receiver : receivers) {
+            try {
+                handlerStatistics.measure(receiver, handlerType, notifier, event);
+            } catch (Exception e) {
+                // Other receivers must still be notified
+                logger.error("Unknown error in message receiver {}.",
+                        receiver.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached routes of the given channel, for example because its name changed.
+     *
+     * @param channelId the id of the channel to invalidate
+     */
+    void invalidate(long channelId) {
+        inlineReceiverRouter.invalidate(channelId);
+        receiverRouter.invalidate(channelId);
+    }
+
+    /**
+     * Gets the amount of events waiting to be passed to asynchronous receivers.
+     *
+     * @return the amount of pending events
+     */
+    int getQueueDepth() {
+        return executor.getQueueDepth();
+    }
+
+    /**
+     * Gets the amount of events that were not passed to asynchronous receivers since creation,
+     * because they could not keep up.
+     *
+     * @return the amount of dropped events
+     */
+    long getDroppedEventCount() {
+        return executor.getDroppedTaskCount();
+    }
+
+    /**
+     * Gets statistics about the cached routes of the asynchronous receivers.
+     *
+     * @return the statistics of the route cache
+     */
+    CacheStats getCacheStats() {
+        return receiverRouter.getCacheStats();
+    }
+
+    /**
+     * Gets the approximate amount of channels whose routes to asynchronous receivers are cached.
+     *
+     * @return the amount of cached routes
+     */
+    long getCachedChannelCount() {
+        return receiverRouter.getCachedChannelCount();
+    }
+
+    /**
+     * Gets statistics about the cached routes of the inline receivers.
+     *
+     * @return the statistics of the route cache
+     */
+    CacheStats getInlineCacheStats() {
+        return inlineReceiverRouter.getCacheStats();
+    }
+
+    /**
+     * Gets the approximate amount of channels whose routes to inline receivers are cached.
+     *
+     * @return the amount of cached routes
+     */
+    long getInlineCachedChannelCount() {
+        return inlineReceiverRouter.getCachedChannelCount();
+    }
+}
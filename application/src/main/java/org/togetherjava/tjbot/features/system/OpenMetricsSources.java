@@ -0,0 +1,238 @@
+package org.togetherjava.tjbot.features.system;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.http.HttpRequestEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.requests.Response;
+
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.DatabaseStatistics;
+import org.togetherjava.tjbot.features.componentids.ComponentIdStore;
+import org.togetherjava.tjbot.logging.discord.DiscordLogging;
+import org.togetherjava.tjbot.metrics.OpenMetricsEndpoint;
+import org.togetherjava.tjbot.metrics.OpenMetricsWriter;
+import org.togetherjava.tjbot.metrics.OpenMetricsWriter.Type;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Sources of the metrics exposed by the {@link OpenMetricsEndpoint}, such as database latencies or
+ * the state of the connection to Discord.
+ * <p>
+ * All sources only read counters, histograms and other state that can be read without locking, so
+ * that scrapes never delay the bot. The metrics of the {@link BotCore} itself are written by
+ * {@link BotCore#writeOpenMetrics(OpenMetricsWriter)}.
+ */
+public final class OpenMetricsSources {
+    private OpenMetricsSources() {
+        throw new UnsupportedOperationException("Utility class, construction not supported");
+    }
+
+    /**
+     * Creates a source writing the statistics of the given databases, such as query latencies and
+     * the usage of the write lock.
+     *
+     * @param nameToDatabase the databases to write, by the name they are labeled with, e.g.
+     *        {@code "main"}
+     * @return the source writing the statistics
+     */
+    public static Consumer<OpenMetricsWriter> ofDatabases(Map<String, Database> nameToDatabase) {
+        Map<String, Database> databases = Map.copyOf(nameToDatabase);
+        return writer -> writeDatabases(writer, databases);
+    }
+
+    /**
+     * Creates a source writing the state of the connection to Discord, i.e. the gateway ping and
+     * how many REST requests have been rate-limited.
+     * <p>
+     * Registers a listener at the given JDA instance, which counts the REST requests.
+     *
+     * @param jda the JDA instance to write the state of
+     * @return the source writing the state
+     */
+    public static Consumer<OpenMetricsWriter> ofJda(JDA jda) {
+        RestRequestCounter restRequestCounter = new RestRequestCounter();
+        jda.addEventListener(restRequestCounter);
+
+        return writer -> {
+            writer.family("tjbot_discord_gateway_ping_seconds", Type.GAUGE,
+                    "Time between the last heartbeat sent to the Discord gateway and its acknowledgement")
+                .sample(jda.getGatewayPing() / 1_000.0);
+            writer.family("tjbot_discord_connected", Type.GAUGE,
+                    "Whether the bot is connected to the Discord gateway")
+                .sample(jda.getStatus() == JDA.Status.CONNECTED ? 1 : 0);
+            writer
+                .family("tjbot_discord_rest_requests", Type.COUNTER,
+                        "REST requests sent to Discord, including retries")
+                .sample(restRequestCounter.requests.sum());
+            writer
+                .family("tjbot_discord_rest_rate_limited", Type.COUNTER,
+                        "REST requests rejected by Discord because a rate-limit was hit")
+                .sample(restRequestCounter.rateLimitedRequests.sum());
+        };
+    }
+
+    /**
+     * Creates a source writing the state of the log forwarding to Discord, see
+     * {@link DiscordLogging}.
+     *
+     * @return the source writing the state
+     */
+    public static Consumer<OpenMetricsWriter> ofDiscordLogging() {
+        return writer -> {
+            writer.family("tjbot_discord_logs_queued", Type.GAUGE,
+                    "Logs waiting to be forwarded to Discord")
+                .sample(DiscordLogging.getPendingLogCount());
+            writer
+                .family("tjbot_discord_logs_discarded", Type.COUNTER,
+                        "Logs not forwarded to Discord, because too many logs were queued")
+                .sample(DiscordLogging.getDiscardedLogCount());
+        };
+    }
+
+    private static void writeDatabases(OpenMetricsWriter writer, Map<String, Database> databases) {
+        writer.family("tjbot_database_query_seconds", Type.SUMMARY, "Latencies of all queries");
+        databases.forEach((name, database) -> writer
+            .summary(database.getStatistics().snapshotAllQueries(), "database", name));
+
+        writer.family("tjbot_database_slow_queries", Type.COUNTER,
+                "Queries that took longer than the slow query threshold");
+        databases.forEach((name, database) -> writer
+            .sample(database.getStatistics().getSlowQueryCount(), "database", name));
+
+        writer.family("tjbot_database_failed_queries", Type.COUNTER, "Queries that failed");
+        databases.forEach((name, database) -> writer
+            .sample(database.getStatistics().getFailedQueryCount(), "database", name));
+
+        writer.family("tjbot_database_wal_bytes", Type.GAUGE, "Size of the write-ahead log");
+        databases.forEach(
+                (name, database) -> writer.sample(database.getWalSizeBytes(), "database", name));
+
+        Map<String, List<DatabaseStatistics.LockSnapshot>> nameToLocks = new HashMap<>();
+        databases.forEach((name, database) -> nameToLocks.put(name,
+                database.getStatistics().snapshotLocks()));
+
+        writer.family("tjbot_database_lock_wait_seconds", Type.SUMMARY,
+                "Time spent waiting for the write lock, by operation");
+        nameToLocks.forEach((name, locks) -> locks.forEach(lock -> writer.summary(lock.waits(),
+                "database", name, "operation", toLabel(lock.operation()))));
+
+        writer.family("tjbot_database_lock_hold_seconds", Type.SUMMARY,
+                "Time the write lock was held, by operation");
+        nameToLocks.forEach((name, locks) -> locks.forEach(lock -> writer.summary(lock.holds(),
+                "database", name, "operation", toLabel(lock.operation()))));
+
+        writer.family("tjbot_database_lock_contended", Type.COUNTER,
+                "Times the write lock was held by someone else when it was requested");
+        nameToLocks.forEach((name, locks) -> locks.forEach(lock -> writer.sample(
+                lock.contendedCount(), "database", name, "operation", toLabel(lock.operation()))));
+    }
+
+    static void writeInteractionExecutor(OpenMetricsWriter writer,
+            InteractionExecutor interactionExecutor) {
+        Map<InteractionExecutor.Lane, InteractionExecutor.LaneStatistics> laneToStatistics =
+                interactionExecutor.getLaneStatistics();
+
+        writer.family("tjbot_interactions_queued", Type.GAUGE,
+                "Interactions waiting to be executed, by lane");
+        laneToStatistics.forEach((lane, statistics) -> writer.sample(statistics.queueDepth(),
+                "lane", toLabel(lane)));
+
+        writer.family("tjbot_interactions_started", Type.COUNTER,
+                "Interactions that started execution, by lane");
+        laneToStatistics.forEach(
+                (lane, statistics) -> writer.sample(statistics.started(), "lane", toLabel(lane)));
+
+        writer.family("tjbot_interaction_wait_max_seconds", Type.GAUGE,
+                "Longest time an interaction waited before its execution started, by lane");
+        laneToStatistics.forEach((lane, statistics) -> writer
+            .sample(statistics.maxWait().toNanos() / 1_000_000_000.0, "lane", toLabel(lane)));
+    }
+
+    static void writeRoutineScheduler(OpenMetricsWriter writer,
+            RoutineScheduler routineScheduler) {
+        List<RoutineScheduler.RoutineStatistics> routines =
+                routineScheduler.getRoutineStatistics();
+
+        writer.family("tjbot_routine_runs", Type.COUNTER, "Executions of a routine");
+        routines.forEach(routine -> writer.sample(routine.runs(), "routine", routine.name()));
+
+        writer.family("tjbot_routine_overruns", Type.COUNTER,
+                "Times a routine was due while it was still executing");
+        routines.forEach(routine -> writer.sample(routine.overruns(), "routine", routine.name()));
+
+        writer.family("tjbot_routine_running", Type.GAUGE,
+                "Whether a routine is currently executing");
+        routines.forEach(
+                routine -> writer.sample(routine.isRunning() ? 1 : 0, "routine", routine.name()));
+
+        writer.family("tjbot_routine_last_duration_seconds", Type.GAUGE,
+                "Duration of the last execution of a routine");
+        routines.forEach(routine -> writer.sample(
+                routine.lastDuration().toNanos() / 1_000_000_000.0, "routine", routine.name()));
+    }
+
+    static void writeHandlerStatistics(OpenMetricsWriter writer,
+            HandlerStatistics handlerStatistics) {
+        writer.family("tjbot_handler_seconds", Type.SUMMARY,
+                "Time features took to handle events, by feature and type of event");
+        handlerStatistics.snapshot()
+            .forEach(handler -> writer.summary(handler.latencies(), "feature",
+                    handler.featureName(), "type", toLabel(handler.type())));
+    }
+
+    static void writeComponentIdStore(OpenMetricsWriter writer,
+            ComponentIdStore.Statistics statistics) {
+        writer.family("tjbot_component_id_heats_queued", Type.GAUGE,
+                "Component IDs loaded from the database, whose usage timestamp still has to be updated")
+            .sample(statistics.pendingHeatCount());
+    }
+
+    static void writeCaches(OpenMetricsWriter writer, Map<String, CacheStats> nameToStats,
+            Map<String, Long> nameToSize) {
+        writer.family("tjbot_cache_hits", Type.COUNTER, "Look-ups served by an in-memory cache");
+        nameToStats.forEach((name, stats) -> writer.sample(stats.hitCount(), "cache", name));
+
+        writer.family("tjbot_cache_misses", Type.COUNTER,
+                "Look-ups not served by an in-memory cache");
+        nameToStats.forEach((name, stats) -> writer.sample(stats.missCount(), "cache", name));
+
+        writer.family("tjbot_cache_evictions", Type.COUNTER,
+                "Entries evicted from an in-memory cache, because of its size or age");
+        nameToStats.forEach((name, stats) -> writer.sample(stats.evictionCount(), "cache", name));
+
+        writer.family("tjbot_cache_size", Type.GAUGE,
+                "Approximate amount of entries in an in-memory cache");
+        nameToSize.forEach((name, size) -> writer.sample(size, "cache", name));
+    }
+
+    private static String toLabel(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Counts the REST requests sent to Discord. JDA retries rate-limited requests on its own, hence
+     * the amount of rate-limited requests is a measure of how much requests were delayed by
+     * rate-limits.
+     */
+    private static final class RestRequestCounter extends ListenerAdapter {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder rateLimitedRequests = new LongAdder();
+
+        @Override
+        public void onHttpRequest(HttpRequestEvent event) {
+            requests.increment();
+
+            Response response = event.getResponse();
+            if (response != null && response.isRateLimit()) {
+                rateLimitedRequests.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.togetherjava.tjbot.features.system;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.config.RoutinesConfig;
+import org.togetherjava.tjbot.features.Routine;
+
+import javax.annotation.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scheduler that executes {@link Routine routines} according to their {@link Routine.Schedule}.
+ * <p>
+ * A single timer thread keeps track of the schedules, while each execution of a routine runs on its
+ * own virtual thread. Hence, a slow routine can never delay other routines.
+ * <p>
+ * Executions of the same routine never overlap. If a routine is due while its previous execution is
+ * still running, this is recorded as overrun and the due execution is coalesced into a single
+ * execution, which starts right after the running one finished.
+ * <p>
+ * To prevent routines from all firing at the same time, for example at a full hour, the first
+ * execution of each routine is delayed by a random jitter, see {@link RoutinesConfig}.
+ * <p>
+ * For each routine, the scheduler records statistics, such as the duration of its last execution
+ * and when it will run next, see {@link #getRoutineStatistics()}.
+ */
+public final class RoutineScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RoutineScheduler.class);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("routine-timer").daemon().factory());
+    private final Duration maxJitter;
+    private final List<ScheduledRoutine> scheduledRoutines = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param config the config to use, defining for example the jitter
+     */
+    public RoutineScheduler(RoutinesConfig config) {
+        maxJitter = Duration.ofSeconds(config.maxJitterSeconds());
+    }
+
+    /**
+     * Schedules the given routine according to its {@link Routine#createSchedule() schedule}.
+     *
+     * @param routine the routine to schedule
+     * @param execution the action to run whenever the routine is due, typically calls
+     *        {@link Routine#runRoutine(net.dv8tion.jda.api.JDA)}. It should not throw.
+     */
+    public void schedule(Routine routine, Runnable execution) {
+        Routine.Schedule schedule = routine.createSchedule();
+        ScheduledRoutine scheduledRoutine =
+                new ScheduledRoutine(routine.getRoutineName(), schedule, execution);
+        scheduledRoutines.add(scheduledRoutine);
+
+        long periodNanos = schedule.unit().toNanos(schedule.duration());
+        long jitterNanos = maxJitter.isZero() || periodNanos <= 0 ? 0
+                : ThreadLocalRandom.current().nextLong(Math.min(maxJitter.toNanos(), periodNanos));
+        long initialDelayNanos = schedule.unit().toNanos(schedule.initialDuration()) + jitterNanos;
+
+        scheduledRoutine.nextRunAt = Instant.now().plusNanos(initialDelayNanos);
+        switch (schedule.mode()) {
+            case FIXED_RATE -> timer.scheduleAtFixedRate(scheduledRoutine::onDue,
+                    initialDelayNanos, periodNanos, TimeUnit.NANOSECONDS);
+            case FIXED_DELAY -> timer.schedule(scheduledRoutine::onDue, initialDelayNanos,
+                    TimeUnit.NANOSECONDS);
+            default -> throw new AssertionError("Unsupported schedule mode");
+        }
+    }
+
+    /**
+     * Gets statistics about all scheduled routines, sorted by their name.
+     *
+     * @return statistics of all routines
+     */
+    public List<RoutineStatistics> getRoutineStatistics() {
+        return scheduledRoutines.stream()
+            .map(ScheduledRoutine::toStatistics)
+            .sorted(Comparator.comparing(RoutineStatistics::name))
+            .toList();
+    }
+
+    /**
+     * Snapshot of statistics of a routine.
+     *
+     * @param name the name of the routine
+     * @param isRunning whether the routine is currently executing
+     * @param lastStartedAt when the last execution started, if the routine ran already
+     * @param lastDuration how long the last execution took, zero if the routine did not run yet
+     * @param nextRunAt when the routine is due next, if known
+     * @param runs the amount of executions so far
+     * @param overruns the amount of times the routine was due while still executing
+     */
+    public record RoutineStatistics(String name, boolean isRunning, @Nullable Instant lastStartedAt,
+            Duration lastDuration, @Nullable Instant nextRunAt, long runs, long overruns) {
+    }
+
+    private final class ScheduledRoutine {
+        private static final int IDLE = 0;
+        private static final int RUNNING = 1;
+        private static final int RUNNING_WITH_RUN_PENDING = 2;
+
+        private final String name;
+        private final Routine.Schedule schedule;
+        private final Runnable execution;
+
+        /**
+         * Whether the routine is running and whether it was due meanwhile, in a single state, so
+         * that a due execution can never be missed while a running one finishes.
+         */
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder overruns = new LongAdder();
+        @Nullable
+        private volatile Instant lastStartedAt;
+        private volatile Duration lastDuration = Duration.ZERO;
+        @Nullable
+        private volatile Instant nextRunAt;
+
+        private ScheduledRoutine(String name, Routine.Schedule schedule, Runnable execution) {
+            this.name = name;
+            this.schedule = schedule;
+            this.execution = execution;
+        }
+
+        private void onDue() {
+            nextRunAt = schedule.mode() == Routine.ScheduleMode.FIXED_RATE
+                    ? Instant.now().plus(schedule.duration(), schedule.unit().toChronoUnit())
+                    : null;
+
+            int previousState = state.getAndUpdate(
+                    current -> current == IDLE ? RUNNING : RUNNING_WITH_RUN_PENDING);
+            if (previousState != IDLE) {
+                overruns.increment();
+                logger.warn(
+                        "Routine {} is due while its previous execution (started at {}) is still running, coalescing the executions.",
+                        name, lastStartedAt);
+                return;
+            }
+
+            Thread.ofVirtual().name("routine-" + name).start(this::run);
+        }
+
+        private void run() {
+            try {
+                boolean isRunAgain;
+                do {
+                    runOnce();
+                    // Coalesced execution if the routine was due meanwhile, otherwise finished
+                    isRunAgain = state.getAndUpdate(
+                            current -> current == RUNNING_WITH_RUN_PENDING ? RUNNING : IDLE)
+                            == RUNNING_WITH_RUN_PENDING;
+                } while (isRunAgain);
+            } finally {
+                if (schedule.mode() == Routine.ScheduleMode.FIXED_DELAY) {
+                    nextRunAt = Instant.now()
+                        .plus(schedule.duration(), schedule.unit().toChronoUnit());
+                    timer.schedule(this::onDue, schedule.duration(), schedule.unit());
+                }
+            }
+        }
+
+        private void runOnce() {
+            lastStartedAt = Instant.now();
+            long startedAt = System.nanoTime();
+            try {
+                execution.run();
+            } catch (RuntimeException e) {
+                // Must not escape, the routine would be considered running forever otherwise
+                logger.error("Unknown error in routine {}.", name, e);
+            } finally {
+                lastDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+                runs.increment();
+            }
+        }
+
+        private RoutineStatistics toStatistics() {
+            return new RoutineStatistics(name, state.get() != IDLE, lastStartedAt, lastDuration,
+                    nextRunAt, runs.sum(), overruns.sum());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.JDA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.DatabaseStatistics;
+import org.togetherjava.tjbot.db.WalCheckpoint;
+import org.togetherjava.tjbot.features.Routine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routine that keeps the write-ahead log of the database small and reports its size.
+ * <p>
+ * SQLite only checkpoints the log passively by itself, which can not complete while readers are
+ * active, so the log keeps growing under sustained load. This routine runs a passive checkpoint
+ * regularly and, in quiet periods with only few writes, a truncating checkpoint that waits for
+ * readers and shrinks the log on disk again.
+ */
+public final class WalCheckpointRoutine implements Routine {
+    private static final Logger logger = LoggerFactory.getLogger(WalCheckpointRoutine.class);
+    /**
+     * Periods with less writes than this since the previous run are considered quiet.
+     */
+    private static final long QUIET_PERIOD_MAX_WRITES = 50;
+    private static final long LARGE_WAL_SIZE_BYTES = 64L * 1024 * 1024;
+
+    private final Database database;
+    private final String databaseName;
+    private long previousWriteCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param database the database whose write-ahead log to checkpoint
+     * @param databaseName the name of the database, e.g. {@code "main"}, used to tell the routines
+     *        of different databases apart in statistics and logs
+     */
+    public WalCheckpointRoutine(Database database, String databaseName) {
+        this.database = database;
+        this.databaseName = databaseName;
+    }
+
+    @Override
+    public String getRoutineName() {
+        return "WalCheckpointRoutine-" + databaseName;
+    }
+
+    @Override
+    public Schedule createSchedule() {
+        return new Schedule(ScheduleMode.FIXED_DELAY, 5, 5, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void runRoutine(JDA jda) {
+        long writeCount = countWrites();
+        boolean isQuietPeriod = writeCount - previousWriteCount < QUIET_PERIOD_MAX_WRITES;
+        previousWriteCount = writeCount;
+
+        long walSizeBefore = database.getWalSizeBytes();
+        if (walSizeBefore == 0) {
+            return;
+        }
+
+        WalCheckpoint.Mode mode =
+                isQuietPeriod ? WalCheckpoint.Mode.TRUNCATE : WalCheckpoint.Mode.PASSIVE;
+        WalCheckpoint checkpoint = database.checkpoint(mode);
+        long walSizeAfter = database.getWalSizeBytes();
+
+        logger.debug(
+                "Ran {} checkpoint of the {} database ({} of {} frames, busy: {}), WAL size {} KiB -> {} KiB",
+                mode, databaseName, checkpoint.checkpointedFrames(), checkpoint.logFrames(),
+                checkpoint.isBusy(), walSizeBefore / 1024, walSizeAfter / 1024);
+        if (walSizeAfter >= LARGE_WAL_SIZE_BYTES) {
+            logger.warn(
+                    "The write-ahead log of the {} database is large ({} MiB), checkpoints might be starved by long-running reads",
+                    databaseName, walSizeAfter / (1024 * 1024));
+        }
+    }
+
+    private long countWrites() {
+        return database.getStatistics()
+            .snapshotLocks()
+            .stream()
+            .filter(snapshot -> snapshot
+                .operation() != DatabaseStatistics.LockedOperation.CHECKPOINT)
+            .mapToLong(snapshot -> snapshot.holds().count())
+            .sum();
+    }
+}
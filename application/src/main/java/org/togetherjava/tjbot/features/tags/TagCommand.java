@@ -20,6 +20,7 @@ import org.togetherjava.tjbot.features.CommandVisibility;
 import org.togetherjava.tjbot.features.SlashCommandAdapter;
 import org.togetherjava.tjbot.features.analytics.Metrics;
 import org.togetherjava.tjbot.features.utils.AmbientColors;
+import org.togetherjava.tjbot.features.utils.InteractionReplies;
 import org.togetherjava.tjbot.features.utils.LinkDetection;
 import org.togetherjava.tjbot.features.utils.LinkPreview;
 import org.togetherjava.tjbot.features.utils.LinkPreviews;
@@ -85,6 +86,12 @@ public final class TagCommand extends SlashCommandAdapter {
         event.replyChoices(choices).queue();
     }
 
+    @Override
+    public boolean allowsAutoDefer() {
+        // Slow responses are sent through InteractionReplies
+        return true;
+    }
+
     @Override
     public void onSlashCommand(SlashCommandInteractionEvent event) {
         String id = event.getOption(ID_OPTION).getAsString();
@@ -118,11 +125,11 @@ public final class TagCommand extends SlashCommandAdapter {
             // No link previews
             ReplyCallbackAction message = event.replyEmbeds(contentEmbed);
             replyToUserMention.ifPresent(message::setContent);
-            message.queue();
+            InteractionReplies.reply(event, message);
             return;
         }
 
-        event.deferReply().queue();
+        InteractionReplies.deferReply(event);
 
         respondWithLinkPreviews(event.getHook(), links, contentEmbed, replyToUserMention);
     }
@@ -8,6 +8,7 @@ import net.dv8tion.jda.api.interactions.components.buttons.ButtonStyle;
 import org.togetherjava.tjbot.db.Database;
 import org.togetherjava.tjbot.db.generated.tables.Tags;
 import org.togetherjava.tjbot.db.generated.tables.records.TagsRecord;
+import org.togetherjava.tjbot.features.utils.InteractionReplies;
 import org.togetherjava.tjbot.features.utils.StringDistances;
 
 import java.util.Optional;
@@ -59,9 +60,8 @@ public final class TagSystem {
             .map(", did you perhaps mean '%s'?"::formatted)
             .orElse(".");
 
-        event.reply("Could not find any tag with id '%s'%s".formatted(id, suggestionText))
-            .setEphemeral(true)
-            .queue();
+        String message = "Could not find any tag with id '%s'%s".formatted(id, suggestionText);
+        InteractionReplies.replyEphemeral(event, event.reply(message));
         return true;
     }
 
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 
 import org.togetherjava.tjbot.features.CommandVisibility;
 import org.togetherjava.tjbot.features.SlashCommandAdapter;
+import org.togetherjava.tjbot.features.utils.InteractionReplies;
 
 import javax.annotation.Nullable;
 
@@ -70,6 +71,12 @@ public final class TopHelpersCommand extends SlashCommandAdapter {
         this.assignmentRoutine = assignmentRoutine;
     }
 
+    @Override
+    public boolean allowsAutoDefer() {
+        // Slow responses are sent through InteractionReplies
+        return true;
+    }
+
     @Override
     public void onSlashCommand(SlashCommandInteractionEvent event) {
         switch (event.getSubcommandName()) {
@@ -86,17 +93,24 @@ public final class TopHelpersCommand extends SlashCommandAdapter {
 
         TopHelpersService.TimeRange timeRange =
                 TopHelpersService.TimeRange.ofPastMonth(computeMonth(atMonthData));
-        List<TopHelpersService.TopHelperStats> topHelpers =
-                service.computeTopHelpersDescending(guild, timeRange);
+        service.computeTopHelpersDescendingAsync(guild, timeRange)
+            .thenAccept(topHelpers -> showTopHelpers(topHelpers, guild, timeRange, event))
+            .exceptionally(error -> {
+                logger.warn("Failed to compute top-helpers", error);
+                InteractionReplies.reply(event, event.reply("Sorry, something went wrong."));
+                return null;
+            });
+    }
 
+    private void showTopHelpers(List<TopHelpersService.TopHelperStats> topHelpers, Guild guild,
+            TopHelpersService.TimeRange timeRange, SlashCommandInteractionEvent event) {
         if (topHelpers.isEmpty()) {
-            event
-                .reply("No entries for the selected time range (%s)."
-                    .formatted(timeRange.description()))
-                .queue();
+            String message = "No entries for the selected time range (%s)."
+                .formatted(timeRange.description());
+            InteractionReplies.reply(event, event.reply(message));
             return;
         }
-        event.deferReply().queue();
+        InteractionReplies.deferReply(event);
 
         TopHelpersService.retrieveTopHelperMembers(topHelpers, guild)
             .onError(error -> handleError(error, event))
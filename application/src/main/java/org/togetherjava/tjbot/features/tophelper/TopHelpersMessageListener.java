@@ -1,5 +1,6 @@
 package org.togetherjava.tjbot.features.tophelper;
 
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
@@ -9,6 +10,7 @@ import org.togetherjava.tjbot.config.Config;
 import org.togetherjava.tjbot.db.Database;
 import org.togetherjava.tjbot.features.MessageReceiverAdapter;
 
+import java.time.Instant;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -54,14 +56,21 @@ public final class TopHelpersMessageListener extends MessageReceiverAdapter {
     }
 
     private void addMessageRecord(MessageReceivedEvent event) {
-        long messageLength = countValidCharacters(event.getMessage().getContentRaw());
-
-        database.write(context -> context.newRecord(HELP_CHANNEL_MESSAGES)
-            .setMessageId(event.getMessage().getIdLong())
-            .setGuildId(event.getGuild().getIdLong())
-            .setChannelId(event.getChannel().getIdLong())
-            .setAuthorId(event.getAuthor().getIdLong())
-            .setSentAt(event.getMessage().getTimeCreated().toInstant())
+        // Extracted right away, so that the queued write does not keep the event alive
+        Message message = event.getMessage();
+        long messageId = message.getIdLong();
+        long guildId = event.getGuild().getIdLong();
+        long channelId = event.getChannel().getIdLong();
+        long authorId = event.getAuthor().getIdLong();
+        Instant sentAt = message.getTimeCreated().toInstant();
+        long messageLength = countValidCharacters(message.getContentRaw());
+
+        database.writeBehind(context -> context.newRecord(HELP_CHANNEL_MESSAGES)
+            .setMessageId(messageId)
+            .setGuildId(guildId)
+            .setChannelId(channelId)
+            .setAuthorId(authorId)
+            .setSentAt(sentAt)
             .setMessageLength(messageLength)
             .insert());
     }
@@ -7,7 +7,10 @@ import com.github.freva.asciitable.HorizontalAlign;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.utils.concurrent.Task;
+import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Records;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 
 import org.togetherjava.tjbot.db.Database;
@@ -28,12 +31,14 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessages.HELP_CHANNEL_MESSAGES;
+import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessagesDaily.HELP_CHANNEL_MESSAGES_DAILY;
 
 /**
  * Service used to compute Top Helpers of a given time range, see
@@ -44,6 +49,8 @@ import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessages.HEL
 public final class TopHelpersService {
     private static final int TOP_HELPER_LIMIT = 18;
     private static final int MAX_USER_NAME_LIMIT = 15;
+    private static final String AUTHOR_ID = "author_id";
+    private static final String MESSAGE_LENGTH = "message_length";
 
     private final Database database;
 
@@ -128,15 +135,47 @@ public final class TopHelpersService {
      * @return list of top helpers, descending with the user who helped the most first
      */
     public List<TopHelperStats> computeTopHelpersDescending(Guild guild, TimeRange range) {
-        return database.read(context -> context
-            .select(HELP_CHANNEL_MESSAGES.AUTHOR_ID, DSL.sum(HELP_CHANNEL_MESSAGES.MESSAGE_LENGTH))
+        return database.read(context -> fetchTopHelpersDescending(context, guild, range));
+    }
+
+    /**
+     * Computes the Top Helpers of the given time range asynchronously, see
+     * {@link #computeTopHelpersDescending(Guild, TimeRange)}.
+     *
+     * @param guild to compute Top Helpers for
+     * @param range of the time to compute results for
+     * @return future of the list of top helpers, descending with the user who helped the most first
+     */
+    public CompletableFuture<List<TopHelperStats>> computeTopHelpersDescendingAsync(Guild guild,
+            TimeRange range) {
+        return database.readAsync(context -> fetchTopHelpersDescending(context, guild, range));
+    }
+
+    private static List<TopHelperStats> fetchTopHelpersDescending(DSLContext context, Guild guild,
+            TimeRange range) {
+        // Older messages have been rolled up into daily aggregates, see RollupRoutine
+        Table<?> messageLengths = context
+            .select(HELP_CHANNEL_MESSAGES.AUTHOR_ID.as(AUTHOR_ID),
+                    HELP_CHANNEL_MESSAGES.MESSAGE_LENGTH.as(MESSAGE_LENGTH))
             .from(HELP_CHANNEL_MESSAGES)
             .where(HELP_CHANNEL_MESSAGES.GUILD_ID.eq(guild.getIdLong())
                 .and(HELP_CHANNEL_MESSAGES.SENT_AT.between(range.start(), range.end())))
-            .groupBy(HELP_CHANNEL_MESSAGES.AUTHOR_ID)
+            .unionAll(context
+                .select(HELP_CHANNEL_MESSAGES_DAILY.AUTHOR_ID,
+                        HELP_CHANNEL_MESSAGES_DAILY.MESSAGE_LENGTH)
+                .from(HELP_CHANNEL_MESSAGES_DAILY)
+                .where(HELP_CHANNEL_MESSAGES_DAILY.GUILD_ID.eq(guild.getIdLong())
+                    .and(HELP_CHANNEL_MESSAGES_DAILY.DAY.between(range.start(), range.end()))))
+            .asTable("message_lengths");
+        Field<Long> authorId = messageLengths.field(AUTHOR_ID, Long.class);
+        Field<Long> messageLength = messageLengths.field(MESSAGE_LENGTH, Long.class);
+
+        return context.select(authorId, DSL.sum(messageLength))
+            .from(messageLengths)
+            .groupBy(authorId)
             .orderBy(DSL.two().desc())
             .limit(TOP_HELPER_LIMIT)
-            .fetch(Records.mapping(TopHelperStats::new)));
+            .fetch(Records.mapping(TopHelperStats::new));
     }
 
     /**
@@ -0,0 +1,102 @@
+package org.togetherjava.tjbot.features.utils;
+
+import net.dv8tion.jda.api.interactions.commands.Command;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the ids of the slash commands known to Discord, used to mention commands without
+ * having to retrieve them from Discord each time, see {@link MessageUtils}.
+ * <p>
+ * The registry is filled by {@link org.togetherjava.tjbot.CommandReloading} with the commands
+ * Discord responds with when updating or retrieving commands. Commands of a scope (global or a
+ * guild) are always replaced as a whole.
+ * <p>
+ * Thread-safe.
+ */
+public final class CommandIdRegistry {
+    private static final long GLOBAL_SCOPE = 0;
+
+    /**
+     * Maps the id of a guild, or {@link #GLOBAL_SCOPE} for global commands, to the ids of its slash
+     * commands, by their lowercase name.
+     */
+    private static final Map<Long, Map<String, Long>> scopeToCommandNameToId =
+            new ConcurrentHashMap<>();
+
+    private CommandIdRegistry() {
+        throw new UnsupportedOperationException("Utility class, construction not supported");
+    }
+
+    /**
+     * Registers the global commands known to Discord, replacing previously registered global
+     * commands.
+     *
+     * @param commands all global commands, as returned by Discord
+     */
+    public static void registerGlobalCommands(Collection<? extends Command> commands) {
+        register(GLOBAL_SCOPE, commands);
+    }
+
+    /**
+     * Registers the commands known to Discord for a guild, replacing previously registered commands
+     * of that guild.
+     *
+     * @param guildId the id of the guild the commands belong to
+     * @param commands all commands of the guild, as returned by Discord
+     */
+    public static void registerGuildCommands(long guildId, Collection<? extends Command> commands) {
+        register(guildId, commands);
+    }
+
+    /**
+     * Finds the id of a global slash command.
+     *
+     * @param commandName the name of the command, case-insensitive
+     * @return the id of the command, if registered
+     */
+    public static Optional<Long> findGlobalCommandId(String commandName) {
+        return find(GLOBAL_SCOPE, commandName);
+    }
+
+    /**
+     * Finds the id of a slash command of a guild.
+     *
+     * @param guildId the id of the guild the command belongs to
+     * @param commandName the name of the command, case-insensitive
+     * @return the id of the command, if registered
+     */
+    public static Optional<Long> findGuildCommandId(long guildId, String commandName) {
+        return find(guildId, commandName);
+    }
+
+    /**
+     * Forgets all registered commands, e.g. to isolate tests from each other.
+     */
+    static void clear() {
+        scopeToCommandNameToId.clear();
+    }
+
+    private static void register(long scope, Collection<? extends Command> commands) {
+        Map<String, Long> commandNameToId = commands.stream()
+            .filter(command -> command.getType() == Command.Type.SLASH)
+            .collect(Collectors.toUnmodifiableMap(command -> toKey(command.getName()),
+                    Command::getIdLong, (first, second) -> first));
+
+        scopeToCommandNameToId.put(scope, commandNameToId);
+    }
+
+    private static Optional<Long> find(long scope, String commandName) {
+        return Optional.ofNullable(scopeToCommandNameToId.get(scope))
+            .map(commandNameToId -> commandNameToId.get(toKey(commandName)));
+    }
+
+    private static String toKey(String commandName) {
+        return commandName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,111 @@
+package org.togetherjava.tjbot.features.utils;
+
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.restaction.interactions.ReplyCallbackAction;
+import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import net.dv8tion.jda.api.utils.messages.MessageEditData;
+
+import java.util.function.Consumer;
+
+/**
+ * Utility for replying to interactions regardless of whether they have been acknowledged already.
+ * <p>
+ * The system defers interactions automatically if their handler takes too long to acknowledge them.
+ * Once deferred, sending a {@link ReplyCallbackAction} fails. The methods of this class send the
+ * reply if the interaction was not acknowledged yet and otherwise transparently turn it into an
+ * edit of the deferred response, using the {@link InteractionHook}. Handlers doing slow work before
+ * replying, such as database queries, should respond using this utility.
+ * <p>
+ * An example usage would be:
+ *
+ * <pre>
+ * {@code
+ * InteractionReplies.reply(event, event.reply("Hello World!"));
+ * }
+ * </pre>
+ */
+public final class InteractionReplies {
+    private InteractionReplies() {
+        throw new UnsupportedOperationException("Utility class, construction not supported");
+    }
+
+    /**
+     * Sends the given reply to the interaction. If the interaction was deferred already, the
+     * deferred response is edited to the content of the reply instead.
+     *
+     * @param event the interaction to reply to
+     * @param reply the reply to send, e.g. {@code event.reply("Hello World!")}
+     */
+    public static void reply(IReplyCallback event, ReplyCallbackAction reply) {
+        Runnable editDeferred = () -> event.getHook()
+            .editOriginal(MessageEditData.fromCreateData(toMessageData(reply)))
+            .queue();
+
+        if (event.isAcknowledged()) {
+            editDeferred.run();
+            return;
+        }
+        reply.queue(null, onAcknowledgedConcurrently(editDeferred));
+    }
+
+    /**
+     * Sends the given reply to the interaction, only visible to the user who triggered the
+     * interaction. If the interaction was deferred already, the deferred response is replaced by an
+     * ephemeral follow-up message with the content of the reply instead.
+     *
+     * @param event the interaction to reply to
+     * @param reply the reply to send, e.g. {@code event.reply("Hello World!")}
+     */
+    public static void replyEphemeral(IReplyCallback event, ReplyCallbackAction reply) {
+        // A deferred response can not be made ephemeral afterwards, hence it is replaced instead
+        Runnable replaceDeferred = () -> event.getHook()
+            .deleteOriginal()
+            .flatMap(any -> event.getHook().sendMessage(toMessageData(reply)).setEphemeral(true))
+            .queue();
+
+        if (event.isAcknowledged()) {
+            replaceDeferred.run();
+            return;
+        }
+        reply.setEphemeral(true).queue(null, onAcknowledgedConcurrently(replaceDeferred));
+    }
+
+    /**
+     * Defers the given interaction, unless it was acknowledged already.
+     *
+     * @param event the interaction to defer
+     */
+    public static void deferReply(IReplyCallback event) {
+        if (event.isAcknowledged()) {
+            return;
+        }
+        event.deferReply().queue(null, failure -> {
+            // The system deferred the interaction concurrently already
+            if (!(failure instanceof IllegalStateException)) {
+                RestAction.getDefaultFailure().accept(failure);
+            }
+        });
+    }
+
+    private static MessageCreateData toMessageData(ReplyCallbackAction reply) {
+        return new MessageCreateBuilder().setContent(reply.getContent())
+            .setEmbeds(reply.getEmbeds())
+            .setComponents(reply.getComponents())
+            .setFiles(reply.getAttachments())
+            .build();
+    }
+
+    private static Consumer<Throwable> onAcknowledgedConcurrently(Runnable fallback) {
+        return failure -> {
+            if (failure instanceof IllegalStateException) {
+                // The system deferred the interaction while the reply was sent
+                fallback.run();
+                return;
+            }
+            RestAction.getDefaultFailure().accept(failure);
+        };
+    }
+}
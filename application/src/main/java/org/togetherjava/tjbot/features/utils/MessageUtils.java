@@ -3,7 +3,6 @@ package org.togetherjava.tjbot.features.utils;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import net.dv8tion.jda.api.requests.RestAction;
@@ -11,7 +10,7 @@ import net.dv8tion.jda.api.utils.MarkdownSanitizer;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Supplier;
+import java.util.function.Function;
 
 /**
  * Utility methods for {@link Message}.
@@ -69,58 +68,110 @@ public final class MessageUtils {
     /**
      * Converts a guild slash command text to a mentioned slash command, which you can directly
      * click on in Discord.
+     * <p>
+     * The command is resolved from the {@link CommandIdRegistry} only, without contacting Discord.
+     *
+     * @param guildId the id of the guild that contains the command
+     * @param commandName the command's name
+     * @param subCommands optional subcommand group & subcommand, depending on the base command used
+     * @return Formatted string for the mentioned slash command, if the command is registered
+     */
+    public static Optional<String> findGuildSlashCommandMention(long guildId, String commandName,
+            String... subCommands) {
+        return CommandIdRegistry.findGuildCommandId(guildId, commandName)
+            .map(commandId -> formatSlashCommandMention(commandId, commandName, subCommands));
+    }
+
+    /**
+     * Converts a global slash command text to a mentioned slash command, which you can directly
+     * click on in Discord.
+     * <p>
+     * The command is resolved from the {@link CommandIdRegistry} only, without contacting Discord.
+     *
+     * @param commandName the command's name
+     * @param subCommands optional subcommand group & subcommand, depending on the base command used
+     * @return Formatted string for the mentioned slash command, if the command is registered
+     */
+    public static Optional<String> findGlobalSlashCommandMention(String commandName,
+            String... subCommands) {
+        return CommandIdRegistry.findGlobalCommandId(commandName)
+            .map(commandId -> formatSlashCommandMention(commandId, commandName, subCommands));
+    }
+
+    /**
+     * Creates an action using the mention of a guild slash command, see
+     * {@link #findGuildSlashCommandMention(long, String, String...)}.
+     * <p>
+     * Only if the command is not registered in the {@link CommandIdRegistry}, the commands of the
+     * guild are retrieved from Discord first.
      *
      * @param guild the {@link Guild} that contains the command
      * @param commandName the command's name
+     * @param mentionToAction creates the action using the mention, e.g. sending a message
      * @param subCommands optional subcommand group & subcommand, depending on the base command used
-     * @return Formatted string for the mentioned slash command
+     * @param <T> the result of the action
+     * @return the action using the mention
      * @throws IllegalArgumentException when the command isn't found in the guild
      */
-    public static RestAction<String> mentionGuildSlashCommand(Guild guild, String commandName,
+    public static <T> RestAction<T> withGuildSlashCommandMention(Guild guild, String commandName,
+            Function<? super String, ? extends RestAction<T>> mentionToAction,
             String... subCommands) {
-        RestAction<List<Command>> availableCommands = guild.retrieveCommands();
-        Supplier<String> notFoundMessage = () -> "Command '%s' does not exist in guild %s"
-            .formatted(commandName, guild.getId());
+        Optional<String> mention =
+                findGuildSlashCommandMention(guild.getIdLong(), commandName, subCommands);
+        if (mention.isPresent()) {
+            return mentionToAction.apply(mention.orElseThrow());
+        }
 
-        return mentionSlashCommand(availableCommands, notFoundMessage, commandName, subCommands);
+        return guild.retrieveCommands().map(commands -> {
+            CommandIdRegistry.registerGuildCommands(guild.getIdLong(), commands);
+
+            return findGuildSlashCommandMention(guild.getIdLong(), commandName, subCommands)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Command '%s' does not exist in guild %s".formatted(commandName,
+                                guild.getId())));
+        }).flatMap(mentionToAction);
     }
 
     /**
-     * Converts a global slash command text to a mentioned slash command, which you can directly
-     * click on in Discord.
+     * Creates an action using the mention of a global slash command, see
+     * {@link #findGlobalSlashCommandMention(String, String...)}.
+     * <p>
+     * Only if the command is not registered in the {@link CommandIdRegistry}, the global commands
+     * are retrieved from Discord first.
      *
      * @param jda to retrieve global commands from
      * @param commandName the command's name
+     * @param mentionToAction creates the action using the mention, e.g. sending a message
      * @param subCommands optional subcommand group & subcommand, depending on the base command used
-     * @return Formatted string for the mentioned slash command
+     * @param <T> the result of the action
+     * @return the action using the mention
      * @throws IllegalArgumentException when the global command was not found
      */
-    public static RestAction<String> mentionGlobalSlashCommand(JDA jda, String commandName,
+    public static <T> RestAction<T> withGlobalSlashCommandMention(JDA jda, String commandName,
+            Function<? super String, ? extends RestAction<T>> mentionToAction,
             String... subCommands) {
-        RestAction<List<Command>> availableCommands = jda.retrieveCommands();
-        Supplier<String> notFoundMessage =
-                () -> "The global command '%s' does not exist".formatted(commandName);
+        Optional<String> mention = findGlobalSlashCommandMention(commandName, subCommands);
+        if (mention.isPresent()) {
+            return mentionToAction.apply(mention.orElseThrow());
+        }
+
+        return jda.retrieveCommands().map(commands -> {
+            CommandIdRegistry.registerGlobalCommands(commands);
 
-        return mentionSlashCommand(availableCommands, notFoundMessage, commandName, subCommands);
+            return findGlobalSlashCommandMention(commandName, subCommands)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "The global command '%s' does not exist".formatted(commandName)));
+        }).flatMap(mentionToAction);
     }
 
-    private static RestAction<String> mentionSlashCommand(
-            RestAction<? extends List<Command>> availableCommands, Supplier<String> notFoundMessage,
-            String commandName, String... subCommands) {
-        return availableCommands.map(commands -> {
-            Command command = commands.stream()
-                .filter(commandCandidate -> commandCandidate.getName()
-                    .equalsIgnoreCase(commandName))
-                .findAny()
-                .orElseThrow(() -> new IllegalArgumentException(notFoundMessage.get()));
-
-            String commandPath = commandName;
-            if (subCommands.length > 0) {
-                commandPath += " " + String.join(" ", subCommands);
-            }
+    private static String formatSlashCommandMention(long commandId, String commandName,
+            String... subCommands) {
+        String commandPath = commandName;
+        if (subCommands.length > 0) {
+            commandPath += " " + String.join(" ", subCommands);
+        }
 
-            return String.format("</%s:%s>", String.join(" ", commandPath), command.getId());
-        });
+        return "</%s:%d>".formatted(commandPath, commandId);
     }
 
     /**
@@ -29,6 +29,8 @@ import java.util.Queue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 /**
@@ -51,6 +53,12 @@ final class DiscordLogForwarder {
 
     private static final ScheduledExecutorService SERVICE =
             Executors.newSingleThreadScheduledExecutor();
+    /**
+     * Statistics over all forwarders, since they are created by the logging framework and are not
+     * reachable otherwise.
+     */
+    private static final AtomicInteger PENDING_LOG_COUNT = new AtomicInteger();
+    private static final LongAdder DISCARDED_LOG_COUNT = new LongAdder();
 
     private static final int MAX_BATCH_SIZE = WebhookMessage.MAX_EMBEDS;
     /**
@@ -116,6 +124,7 @@ final class DiscordLogForwarder {
                     """
                             Exceeded the max amount of logs that can be buffered. \
                             Logs are forwarded to Discord slower than they pile up. Discarding the latest log...""");
+            DISCARDED_LOG_COUNT.increment();
             return;
         }
         if (pendingLogs.size() >= MAX_PENDING_LOGS_WARNING_THRESHOLD) {
@@ -131,6 +140,26 @@ final class DiscordLogForwarder {
         synchronized (pendingLogsLock) {
             pendingLogs.add(log);
         }
+        PENDING_LOG_COUNT.incrementAndGet();
+    }
+
+    /**
+     * Gets the amount of logs that still have to be forwarded to Discord, over all forwarders.
+     *
+     * @return the amount of pending logs
+     */
+    static int getPendingLogCount() {
+        return PENDING_LOG_COUNT.get();
+    }
+
+    /**
+     * Gets the amount of logs that have been discarded because the buffer was full, over all
+     * forwarders.
+     *
+     * @return the amount of discarded logs
+     */
+    static long getDiscardedLogCount() {
+        return DISCARDED_LOG_COUNT.sum();
     }
 
     private void processPendingLogs() {
@@ -153,9 +182,12 @@ final class DiscordLogForwarder {
 
     private List<LogMessage> pollLogsToProcessBatch() {
         int batchSize = Math.min(pendingLogs.size(), MAX_BATCH_SIZE);
+        List<LogMessage> batch;
         synchronized (pendingLogsLock) {
-            return Stream.generate(pendingLogs::remove).limit(batchSize).toList();
+            batch = Stream.generate(pendingLogs::remove).limit(batchSize).toList();
         }
+        PENDING_LOG_COUNT.addAndGet(-batch.size());
+        return batch;
     }
 
     private List<LogMessage> validateBatch(List<LogMessage> logBatch) {
@@ -45,6 +45,25 @@ public final class DiscordLogging {
         context.updateLoggers();
     }
 
+    /**
+     * Gets the amount of logs that are buffered and still have to be forwarded to Discord.
+     *
+     * @return the amount of pending logs, zero if logs are not forwarded
+     */
+    public static int getPendingLogCount() {
+        return DiscordLogForwarder.getPendingLogCount();
+    }
+
+    /**
+     * Gets the amount of logs that have not been forwarded to Discord, because too many logs were
+     * pending already.
+     *
+     * @return the amount of discarded logs
+     */
+    public static long getDiscardedLogCount() {
+        return DiscordLogForwarder.getDiscardedLogCount();
+    }
+
     private static void addAppenders(Configuration logConfig, Config botConfig) {
         parseWebhookUri(botConfig.getLogInfoChannelWebhook(), "info")
             .ifPresent(webhookUri -> addDiscordLogAppender("DiscordInfo", createInfoRangeFilter(),
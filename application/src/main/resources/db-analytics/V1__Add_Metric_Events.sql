@@ -0,0 +1,19 @@
+CREATE TABLE metric_events
+(
+    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+    event       TEXT      NOT NULL,
+    happened_at TIMESTAMP NOT NULL,
+    dimensions  TEXT
+);
+
+CREATE TABLE metric_events_daily
+(
+    day         TIMESTAMP NOT NULL,
+    event       TEXT      NOT NULL,
+    dimensions  TEXT      NOT NULL,
+    event_count BIGINT    NOT NULL,
+    PRIMARY KEY (day, event, dimensions)
+);
+
+CREATE INDEX metric_events_happened_at
+    ON metric_events (happened_at);
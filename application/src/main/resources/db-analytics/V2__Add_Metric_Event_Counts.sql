@@ -0,0 +1,8 @@
+CREATE TABLE metric_event_counts
+(
+    bucket_start TIMESTAMP NOT NULL,
+    event        TEXT      NOT NULL,
+    dimensions   TEXT      NOT NULL,
+    event_count  BIGINT    NOT NULL,
+    PRIMARY KEY (bucket_start, event, dimensions)
+);
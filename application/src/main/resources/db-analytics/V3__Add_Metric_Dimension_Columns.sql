@@ -0,0 +1,23 @@
+-- Generated columns are computed on read, they only take up space in their indices
+ALTER TABLE metric_events
+    ADD COLUMN dimension_name TEXT GENERATED ALWAYS AS (json_extract(dimensions, '$.name')) VIRTUAL;
+ALTER TABLE metric_events
+    ADD COLUMN dimension_id TEXT GENERATED ALWAYS AS (json_extract(dimensions, '$.id')) VIRTUAL;
+ALTER TABLE metric_events
+    ADD COLUMN dimension_user_id TEXT GENERATED ALWAYS AS (json_extract(dimensions, '$.userId')) VIRTUAL;
+ALTER TABLE metric_events
+    ADD COLUMN dimension_category TEXT GENERATED ALWAYS AS (json_extract(dimensions, '$.category')) VIRTUAL;
+
+-- Most events only have some of the dimensions, so the indices skip events without them
+CREATE INDEX metric_events_dimension_name
+    ON metric_events (event, dimension_name, happened_at)
+    WHERE dimension_name IS NOT NULL;
+CREATE INDEX metric_events_dimension_id
+    ON metric_events (event, dimension_id, happened_at)
+    WHERE dimension_id IS NOT NULL;
+CREATE INDEX metric_events_dimension_user_id
+    ON metric_events (event, dimension_user_id, happened_at)
+    WHERE dimension_user_id IS NOT NULL;
+CREATE INDEX metric_events_dimension_category
+    ON metric_events (event, dimension_category, happened_at)
+    WHERE dimension_category IS NOT NULL;
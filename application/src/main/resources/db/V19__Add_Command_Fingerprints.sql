@@ -0,0 +1,6 @@
+CREATE TABLE command_fingerprints
+(
+    scope       TEXT      NOT NULL PRIMARY KEY,
+    fingerprint TEXT      NOT NULL,
+    updated_at  TIMESTAMP NOT NULL
+)
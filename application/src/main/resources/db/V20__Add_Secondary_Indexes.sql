@@ -0,0 +1,27 @@
+CREATE INDEX help_channel_messages_guild_sent_at
+    ON help_channel_messages (guild_id, sent_at);
+CREATE INDEX help_channel_messages_guild_author_sent_at
+    ON help_channel_messages (guild_id, author_id, sent_at);
+
+CREATE INDEX scam_history_guild_author_content_sent_at
+    ON scam_history (guild_id, author_id, content_hash, sent_at);
+CREATE INDEX scam_history_sent_at
+    ON scam_history (sent_at);
+
+CREATE INDEX moderation_actions_guild_target_type_issued_at
+    ON moderation_actions (guild_id, target_id, action_type, issued_at);
+CREATE INDEX moderation_actions_guild_author_issued_at
+    ON moderation_actions (guild_id, author_id, issued_at);
+CREATE INDEX moderation_actions_guild_type_issued_at
+    ON moderation_actions (guild_id, action_type, issued_at);
+CREATE INDEX moderation_actions_expires_at
+    ON moderation_actions (action_expires_at);
+
+CREATE INDEX component_ids_lifespan_last_used
+    ON component_ids (lifespan, last_used);
+
+CREATE INDEX pending_reminders_remind_at
+    ON pending_reminders (remind_at);
+
+CREATE INDEX bookmarks_delete_at
+    ON bookmarks (delete_at);
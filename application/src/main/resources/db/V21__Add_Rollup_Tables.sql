@@ -0,0 +1,22 @@
+CREATE TABLE metric_events_daily
+(
+    day         TIMESTAMP NOT NULL,
+    event       TEXT      NOT NULL,
+    dimensions  TEXT      NOT NULL,
+    event_count BIGINT    NOT NULL,
+    PRIMARY KEY (day, event, dimensions)
+);
+
+CREATE TABLE help_channel_messages_daily
+(
+    guild_id       BIGINT    NOT NULL,
+    day            TIMESTAMP NOT NULL,
+    author_id      BIGINT    NOT NULL,
+    message_length BIGINT    NOT NULL,
+    PRIMARY KEY (guild_id, day, author_id)
+);
+
+CREATE INDEX metric_events_happened_at
+    ON metric_events (happened_at);
+CREATE INDEX help_channel_messages_sent_at
+    ON help_channel_messages (sent_at);
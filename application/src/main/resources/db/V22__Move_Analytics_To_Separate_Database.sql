@@ -0,0 +1,3 @@
+-- Moved to the analytics database, see db-analytics/V1__Add_Metric_Events.sql
+DROP TABLE metric_events_daily;
+DROP TABLE metric_events;
@@ -0,0 +1,69 @@
+package org.togetherjava.tjbot;
+
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+final class CommandReloadingTest {
+    @Test
+    void fingerprintIsIndependentOfOrder() {
+        // GIVEN the same commands in different order
+        List<CommandData> commands = List.of(createPingCommand(), createTagCommand("Display a tag"),
+                Commands.message("transfer-question"));
+        List<CommandData> reorderedCommands = commands.reversed();
+
+        // WHEN computing their fingerprints
+        String fingerprint = CommandReloading.computeFingerprint(commands);
+        String reorderedFingerprint = CommandReloading.computeFingerprint(reorderedCommands);
+
+        // THEN the fingerprints are equal
+        assertEquals(fingerprint, reorderedFingerprint);
+    }
+
+    @Test
+    void fingerprintIsStable() {
+        // GIVEN the same commands, created separately
+        List<CommandData> commands =
+                List.of(createPingCommand(), createTagCommand("Display a tag"));
+        List<CommandData> recreatedCommands =
+                List.of(createPingCommand(), createTagCommand("Display a tag"));
+
+        // WHEN computing their fingerprints
+        String fingerprint = CommandReloading.computeFingerprint(commands);
+        String recreatedFingerprint = CommandReloading.computeFingerprint(recreatedCommands);
+
+        // THEN the fingerprints are equal
+        assertEquals(fingerprint, recreatedFingerprint);
+    }
+
+    @Test
+    void fingerprintChangesWithDetails() {
+        // GIVEN commands that only differ in the description of an option
+        List<CommandData> commands =
+                List.of(createPingCommand(), createTagCommand("Display a tag"));
+        List<CommandData> changedCommands =
+                List.of(createPingCommand(), createTagCommand("Show a tag"));
+
+        // WHEN computing their fingerprints
+        String fingerprint = CommandReloading.computeFingerprint(commands);
+        String changedFingerprint = CommandReloading.computeFingerprint(changedCommands);
+
+        // THEN the fingerprints differ
+        assertNotEquals(fingerprint, changedFingerprint);
+    }
+
+    private static CommandData createPingCommand() {
+        return Commands.slash("ping", "Bot responds with pong");
+    }
+
+    private static CommandData createTagCommand(String optionDescription) {
+        return Commands.slash("tag", "Display a tag")
+            .addOption(OptionType.STRING, "id", optionDescription, true);
+    }
+}
@@ -0,0 +1,167 @@
+package org.togetherjava.tjbot.db;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.togetherjava.tjbot.features.componentids.ComponentId;
+import org.togetherjava.tjbot.features.componentids.ComponentIdStore;
+import org.togetherjava.tjbot.features.componentids.Lifespan;
+import org.togetherjava.tjbot.features.moderation.ModerationAction;
+import org.togetherjava.tjbot.features.moderation.ModerationActionsStore;
+import org.togetherjava.tjbot.features.moderation.scam.ScamHistoryStore;
+import org.togetherjava.tjbot.features.reminder.RemindRoutine;
+import org.togetherjava.tjbot.features.tophelper.TopHelpersService;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs {@code EXPLAIN QUERY PLAN} on the SQL actually emitted by the hot database paths and ensures
+ * that none of it falls back to scanning a whole table, i.e. that the indexes created by the
+ * migrations are used.
+ */
+final class QueryPlanTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long GUILD_ID = 1;
+    private static final long USER_ID = 2;
+
+    private final List<Query> executedQueries = new CopyOnWriteArrayList<>();
+    private Database database;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws SQLException {
+        ExecuteListener recorder = new ExecuteListener() {
+            @Override
+            public void executeStart(ExecuteContext context) {
+                if (context.query() != null) {
+                    executedQueries.add(context.query());
+                }
+            }
+        };
+        // A file database, since in-memory databases are not created by the migrations
+        database = new Database("jdbc:sqlite:" + tempDir.resolve("database.db"),
+                DatabaseSettings.DEFAULT.withExecuteListener(recorder));
+    }
+
+    @Test
+    void topHelpersUseIndex() {
+        // GIVEN the top helpers service
+        TopHelpersService service = new TopHelpersService(database);
+        Guild guild = mock(Guild.class);
+
+        // WHEN computing the top helpers
+        service.computeTopHelpersDescending(guild, TopHelpersService.TimeRange.ofPreviousMonth());
+
+        // THEN none of the queries scans a whole table
+        assertNoFullScans();
+    }
+
+    @Test
+    void scamHistoryUsesIndex() {
+        // GIVEN the scam history store
+        ScamHistoryStore store = new ScamHistoryStore(database);
+        Message scam = mock(Message.class, RETURNS_DEEP_STUBS);
+
+        // WHEN looking up and purging scam
+        store.hasRecentScamDuplicate(scam);
+        store.markScamDuplicatesDeleted(GUILD_ID, USER_ID, "hash");
+        store.deleteHistoryOlderThan(Instant.now());
+
+        // THEN none of the queries scans a whole table
+        assertNoFullScans();
+    }
+
+    @Test
+    void moderationActionsUseIndex() {
+        // GIVEN the moderation actions store
+        ModerationActionsStore store = new ModerationActionsStore(database);
+
+        // WHEN looking up actions in all supported ways
+        store.getExpiredActionsAscending();
+        store.getActionsByTypeAscending(GUILD_ID, ModerationAction.BAN);
+        store.getActionsByTargetAscending(GUILD_ID, USER_ID);
+        store.getActionsByAuthorAscending(GUILD_ID, USER_ID);
+        store.findLastActionAgainstTargetByType(GUILD_ID, USER_ID, ModerationAction.MUTE);
+        store.findActionByCaseId(1);
+
+        // THEN none of the queries scans a whole table
+        assertNoFullScans();
+    }
+
+    @Test
+    void componentIdsUseIndex() throws InterruptedException {
+        // GIVEN a component id store that evicts unused component ids right away
+        CountDownLatch evicted = new CountDownLatch(1);
+        try (ComponentIdStore store = new ComponentIdStore(database, 0, 10,
+                ChronoUnit.MILLIS, 0, ChronoUnit.MILLIS)) {
+            store.addComponentIdRemovedListener(componentId -> evicted.countDown());
+
+            // WHEN putting and getting component ids, and waiting for the eviction
+            store.putOrThrow(UUID.randomUUID(), new ComponentId("foo", List.of()),
+                    Lifespan.REGULAR);
+            store.get(UUID.randomUUID());
+            database.flushWriteBehind();
+
+            assertTrue(evicted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+
+        // THEN none of the queries scans a whole table
+        assertNoFullScans();
+    }
+
+    @Test
+    void remindersUseIndex() {
+        // GIVEN the reminder routine
+        RemindRoutine routine = new RemindRoutine(database);
+
+        // WHEN looking for pending reminders
+        routine.runRoutine(mock(JDA.class));
+
+        // THEN none of the queries scans a whole table
+        assertNoFullScans();
+    }
+
+    private void assertNoFullScans() {
+        // The queries explaining the plans below are recorded as well, but must not be checked
+        List<Query> queries = List.copyOf(executedQueries);
+        assertFalse(queries.isEmpty(), "No queries have been executed");
+
+        // Scans of subqueries, e.g. of unions, only run over rows that have been filtered already
+        List<String> tables = database.read(context -> context
+            .fetch("SELECT name FROM sqlite_master WHERE type = 'table'")
+            .getValues("name", String.class));
+        Predicate<String> isFullTableScan = step -> tables.stream()
+            .anyMatch(table -> step.equals("SCAN " + table)
+                    || step.startsWith("SCAN " + table + " "));
+
+        for (Query query : queries) {
+            String sql = database.read(context -> context.renderInlined(query));
+            List<String> plan = database.read(context -> context
+                .fetch("EXPLAIN QUERY PLAN " + sql)
+                .getValues("detail", String.class));
+
+            assertTrue(plan.stream().noneMatch(isFullTableScan),
+                    () -> "Query falls back to a full scan: %s%nPlan: %s".formatted(sql, plan));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.DatabaseSettings;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class MetricQueriesTest {
+    private Database database;
+    private Metrics metrics;
+    private MetricQueries queries;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws SQLException {
+        // The generated columns are only created by the migrations
+        database = new Database("jdbc:sqlite:" + tempDir.resolve("analytics.db"),
+                DatabaseSettings.DEFAULT.withReadConnections(1)
+                    .withMigrationsLocation(Metrics.MIGRATIONS_LOCATION));
+        metrics = new Metrics(database);
+        queries = new MetricQueries(database);
+    }
+
+    @Test
+    void countsEventsPerDimensionValue() {
+        // GIVEN slash commands used with different names, and other events
+        metrics.count("slash", Map.of("name", "tag", "userId", 1L));
+        metrics.count("slash", Map.of("name", "tag", "userId", 2L));
+        metrics.count("slash", Map.of("name", "help", "userId", 1L));
+        metrics.count("slash", Map.of("userId", 1L));
+        metrics.count("code_action", Map.of("name", "format"));
+        metrics.count("scam-detected");
+        database.flushWriteBehind();
+
+        // WHEN counting the slash commands per name
+        List<MetricQueries.DimensionCount> counts = queries.countByDimension("slash",
+                MetricQueries.Dimension.NAME, Instant.now().minus(1, ChronoUnit.HOURS), 10);
+
+        // THEN each name is counted, most used first
+        assertEquals(List.of(new MetricQueries.DimensionCount("tag", 2),
+                new MetricQueries.DimensionCount("help", 1)), counts);
+    }
+
+    @Test
+    void countsEventsWithNumericDimensionValue() {
+        // GIVEN events of different users, with their id stored as number
+        metrics.count("top_helper", Map.of("userId", 123_456_789_012_345_678L));
+        metrics.count("top_helper", Map.of("userId", 123_456_789_012_345_678L));
+        metrics.count("top_helper", Map.of("userId", 1L));
+        database.flushWriteBehind();
+
+        // WHEN counting the events of one of the users
+        int count = queries.countWithDimension("top_helper", MetricQueries.Dimension.USER_ID,
+                "123456789012345678", Instant.now().minus(1, ChronoUnit.HOURS));
+
+        // THEN only their events are counted
+        assertEquals(2, count);
+    }
+
+    @Test
+    void ignoresEventsBeforeGivenMoment() {
+        // GIVEN a tag that has been used
+        metrics.count("tag", Map.of("id", "java"));
+        database.flushWriteBehind();
+
+        // WHEN counting its usage since a later moment
+        int count = queries.countWithDimension("tag", MetricQueries.Dimension.ID, "java",
+                Instant.now().plus(1, ChronoUnit.HOURS));
+
+        // THEN the usage is not counted
+        assertEquals(0, count);
+    }
+}
@@ -0,0 +1,133 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.metrics.OpenMetricsWriter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SequencedMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEventCounts.METRIC_EVENT_COUNTS;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+
+final class MetricsTest {
+    private Database database;
+    private Metrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        database = Database.createMemoryDatabase(METRIC_EVENTS, METRIC_EVENT_COUNTS);
+        metrics = new Metrics(database);
+    }
+
+    @Test
+    void aggregatedEventsAreFlushedAsOneRowPerKey() {
+        // GIVEN the same event counted many times, with dimensions in different orders
+        SequencedMap<String, Object> dimensions = new LinkedHashMap<>();
+        dimensions.put("id", 1);
+        dimensions.put("name", "foo");
+        for (int i = 0; i < 100; i++) {
+            metrics.countAggregated("emoji", dimensions);
+            metrics.countAggregated("emoji", dimensions.reversed());
+        }
+        metrics.countAggregated("other");
+
+        // WHEN flushing the counts, twice
+        metrics.flushAggregated();
+        metrics.countAggregated("other");
+        metrics.flushAggregated();
+
+        // THEN there is only one row per event and dimensions, and no raw events
+        assertEquals(List.of(2L, 200L),
+                database.read(context -> context.select(METRIC_EVENT_COUNTS.EVENT_COUNT)
+                    .from(METRIC_EVENT_COUNTS)
+                    .orderBy(METRIC_EVENT_COUNTS.EVENT_COUNT)
+                    .fetch(METRIC_EVENT_COUNTS.EVENT_COUNT)));
+        assertEquals(0, database.read(context -> context.fetchCount(METRIC_EVENTS)));
+    }
+
+    @Test
+    void aggregatedCountersAreSharedWithCountAggregated() {
+        // GIVEN the counter of an event, counted through it and by its dimensions
+        Metrics.AggregatedCounter counter = metrics.aggregatedCounter("emoji", Map.of("id", 1));
+        counter.increment();
+        metrics.countAggregated("emoji", Map.of("id", 1));
+
+        // WHEN flushing the counts
+        metrics.flushAggregated();
+
+        // THEN the counter is reused and both counts end up in the same row
+        assertSame(counter,
+                metrics.aggregatedCounter("emoji", new LinkedHashMap<>(Map.of("id", 1))));
+        assertEquals(List.of(2L),
+                database.read(context -> context.select(METRIC_EVENT_COUNTS.EVENT_COUNT)
+                    .from(METRIC_EVENT_COUNTS)
+                    .fetch(METRIC_EVENT_COUNTS.EVENT_COUNT)));
+    }
+
+    @Test
+    void idleCountersAreRemovedWithoutLosingCounts() {
+        // GIVEN a kept counter of an event, which then was idle during a whole flush interval
+        Metrics.AggregatedCounter counter = metrics.aggregatedCounter("emoji", Map.of("id", 1));
+        counter.increment();
+        metrics.flushAggregated();
+        metrics.flushAggregated();
+
+        // WHEN counting the event again, through the kept counter and by its dimensions
+        Metrics.AggregatedCounter newCounter = metrics.aggregatedCounter("emoji", Map.of("id", 1));
+        counter.increment();
+        newCounter.increment();
+        metrics.flushAggregated();
+
+        // THEN the idle counter was removed, but nothing counted through it is lost
+        assertNotSame(counter, newCounter);
+        assertEquals(3L, database.read(context -> context.select(METRIC_EVENT_COUNTS.EVENT_COUNT)
+            .from(METRIC_EVENT_COUNTS)
+            .fetch(METRIC_EVENT_COUNTS.EVENT_COUNT))
+            .stream()
+            .mapToLong(Long::longValue)
+            .sum());
+    }
+
+    @Test
+    void emptyDimensionsAreStoredAsNoDimensions() {
+        // GIVEN an event counted without dimensions
+        metrics.countAggregated("event", Map.of());
+
+        // WHEN flushing the counts
+        metrics.flushAggregated();
+
+        // THEN they are stored like the rolled up events without dimensions
+        assertEquals(List.of(RollupRoutine.NO_DIMENSIONS),
+                database.read(context -> context.select(METRIC_EVENT_COUNTS.DIMENSIONS)
+                    .from(METRIC_EVENT_COUNTS)
+                    .fetch(METRIC_EVENT_COUNTS.DIMENSIONS)));
+    }
+
+    @Test
+    void openMetricsContainTotalsOfRawAndAggregatedEvents() {
+        // GIVEN an event counted raw and aggregated, with different dimensions
+        metrics.count("emoji");
+        metrics.countAggregated("emoji", Map.of("id", 1));
+        metrics.countAggregated("emoji", Map.of("id", 2));
+
+        // WHEN writing the metrics
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+        metrics.writeOpenMetrics(writer);
+
+        // THEN the event is counted once in total, regardless of its dimensions
+        assertEquals("""
+                # TYPE tjbot_metric_events counter
+                # HELP tjbot_metric_events Events counted by the analytics service since startup
+                tjbot_metric_events_total{event="emoji"} 3
+                # EOF
+                """, writer.finish());
+    }
+}
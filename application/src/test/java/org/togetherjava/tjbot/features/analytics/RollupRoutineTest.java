@@ -0,0 +1,137 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.togetherjava.tjbot.config.RetentionConfig;
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.features.tophelper.TopHelpersService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessages.HELP_CHANNEL_MESSAGES;
+import static org.togetherjava.tjbot.db.generated.tables.HelpChannelMessagesDaily.HELP_CHANNEL_MESSAGES_DAILY;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEventCounts.METRIC_EVENT_COUNTS;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEventsDaily.METRIC_EVENTS_DAILY;
+
+final class RollupRoutineTest {
+    private static final int RAW_RETENTION_DAYS = 30;
+    private static final int CHUNK_SIZE = 2;
+    private static final long GUILD_ID = 1;
+    private static final long AUTHOR_ID = 2;
+
+    private Database database;
+    private Database analyticsDatabase;
+    private RollupRoutine routine;
+    private Instant oldDay;
+
+    @BeforeEach
+    void setUp() {
+        database =
+                Database.createMemoryDatabase(HELP_CHANNEL_MESSAGES, HELP_CHANNEL_MESSAGES_DAILY);
+        analyticsDatabase = Database.createMemoryDatabase(METRIC_EVENTS, METRIC_EVENT_COUNTS,
+                METRIC_EVENTS_DAILY);
+        routine = new RollupRoutine(database, analyticsDatabase,
+                new RetentionConfig(RAW_RETENTION_DAYS, CHUNK_SIZE));
+        oldDay = Instant.now()
+            .minus(RAW_RETENTION_DAYS + 5, ChronoUnit.DAYS)
+            .truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Test
+    void rollsUpOldMetricEventsOnly() {
+        // GIVEN old metric events, spanning multiple chunks, and a recent one
+        for (int i = 0; i < 5; i++) {
+            insertMetricEvent(oldDay.plus(i, ChronoUnit.MINUTES));
+        }
+        insertMetricEvent(Instant.now());
+
+        // WHEN rolling up
+        routine.runRoutine(mock(JDA.class));
+
+        // THEN the old events are counted in a single aggregate and only the recent one is kept raw
+        assertEquals(1, analyticsDatabase.read(context -> context.fetchCount(METRIC_EVENTS)));
+        assertEquals(List.of(5L),
+                analyticsDatabase.read(context -> context.select(METRIC_EVENTS_DAILY.EVENT_COUNT)
+                    .from(METRIC_EVENTS_DAILY)
+                    .where(METRIC_EVENTS_DAILY.DAY.eq(oldDay)
+                        .and(METRIC_EVENTS_DAILY.DIMENSIONS.eq(RollupRoutine.NO_DIMENSIONS)))
+                    .fetch(METRIC_EVENTS_DAILY.EVENT_COUNT)));
+    }
+
+    @Test
+    void rollsUpOldMetricEventCountsTogetherWithEvents() {
+        // GIVEN old hourly counts and an old raw event of the same day
+        insertMetricEventCount(oldDay, 3);
+        insertMetricEventCount(oldDay.plus(1, ChronoUnit.HOURS), 4);
+        insertMetricEvent(oldDay.plus(2, ChronoUnit.HOURS));
+
+        // WHEN rolling up
+        routine.runRoutine(mock(JDA.class));
+
+        // THEN all of them are counted in a single aggregate
+        assertEquals(0, analyticsDatabase.read(context -> context.fetchCount(METRIC_EVENT_COUNTS)));
+        assertEquals(List.of(8L),
+                analyticsDatabase.read(context -> context.select(METRIC_EVENTS_DAILY.EVENT_COUNT)
+                    .from(METRIC_EVENTS_DAILY)
+                    .fetch(METRIC_EVENTS_DAILY.EVENT_COUNT)));
+    }
+
+    @Test
+    void topHelpersIncludeRolledUpMessages() {
+        // GIVEN help messages of which some have been rolled up already
+        insertHelpMessage(1, oldDay, 10);
+        insertHelpMessage(2, oldDay.plus(1, ChronoUnit.HOURS), 20);
+        routine.runRoutine(mock(JDA.class));
+        insertHelpMessage(3, oldDay.plus(2, ChronoUnit.HOURS), 30);
+
+        // WHEN computing the top helpers of a range covering all messages
+        Guild guild = mock(Guild.class);
+        when(guild.getIdLong()).thenReturn(GUILD_ID);
+        TopHelpersService.TimeRange range = new TopHelpersService.TimeRange(oldDay,
+                oldDay.plus(1, ChronoUnit.DAYS), "test");
+        List<TopHelpersService.TopHelperStats> topHelpers =
+                new TopHelpersService(database).computeTopHelpersDescending(guild, range);
+
+        // THEN raw and rolled up messages are both counted
+        assertEquals(1, database.read(context -> context.fetchCount(HELP_CHANNEL_MESSAGES)));
+        assertEquals(1, topHelpers.size());
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(topHelpers.getFirst().messageLengths()));
+    }
+
+    private void insertMetricEvent(Instant happenedAt) {
+        analyticsDatabase.write(context -> context.newRecord(METRIC_EVENTS)
+            .setEvent("test")
+            .setHappenedAt(happenedAt)
+            .insert());
+    }
+
+    private void insertMetricEventCount(Instant bucketStart, long eventCount) {
+        analyticsDatabase.write(context -> context.newRecord(METRIC_EVENT_COUNTS)
+            .setBucketStart(bucketStart)
+            .setEvent("test")
+            .setDimensions(RollupRoutine.NO_DIMENSIONS)
+            .setEventCount(eventCount)
+            .insert());
+    }
+
+    private void insertHelpMessage(long messageId, Instant sentAt, long messageLength) {
+        database.write(context -> context.newRecord(HELP_CHANNEL_MESSAGES)
+            .setMessageId(messageId)
+            .setGuildId(GUILD_ID)
+            .setChannelId(1L)
+            .setAuthorId(AUTHOR_ID)
+            .setSentAt(sentAt)
+            .setMessageLength(messageLength)
+            .insert());
+    }
+}
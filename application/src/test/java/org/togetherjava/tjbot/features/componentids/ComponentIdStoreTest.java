@@ -0,0 +1,136 @@
+package org.togetherjava.tjbot.features.componentids;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.togetherjava.tjbot.db.Database;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ComponentIdStoreTest {
+    private static final int THREADS = 16;
+
+    private Database database;
+    private ComponentIdStore store;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws SQLException {
+        // Read connections only share data with the writer for file databases
+        database = new Database("jdbc:sqlite:" + tempDir.resolve("database.db"));
+        store = new ComponentIdStore(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void getsComponentIdThatWasPut() {
+        // GIVEN a component ID that was put
+        UUID uuid = UUID.randomUUID();
+        ComponentId componentId = new ComponentId("foo", List.of("bar"));
+        store.putOrThrow(uuid, componentId, Lifespan.REGULAR);
+
+        // WHEN getting it
+        Optional<ComponentId> storedComponentId = store.get(uuid);
+
+        // THEN it is found, while unknown ones are not
+        assertEquals(Optional.of(componentId), storedComponentId);
+        assertTrue(store.get(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void throwsWhenPuttingSameUuidTwice() {
+        // GIVEN a component ID that was put and written already
+        UUID uuid = UUID.randomUUID();
+        store.putOrThrow(uuid, new ComponentId("foo", List.of()), Lifespan.REGULAR);
+        database.flushWriteBehind();
+
+        // WHEN putting another component ID with the same UUID, in the same and a new store
+        ComponentId otherComponentId = new ComponentId("bar", List.of());
+        try (ComponentIdStore otherStore = new ComponentIdStore(database)) {
+            // THEN both stores reject it
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.putOrThrow(uuid, otherComponentId, Lifespan.REGULAR));
+            assertThrows(IllegalArgumentException.class,
+                    () -> otherStore.putOrThrow(uuid, otherComponentId, Lifespan.REGULAR));
+        }
+    }
+
+    @Test
+    void putsComponentIdAfterFailedLookUp() {
+        // GIVEN a UUID that was looked up before it was put
+        UUID uuid = UUID.randomUUID();
+        store.get(uuid);
+
+        // WHEN putting a component ID with it
+        ComponentId componentId = new ComponentId("foo", List.of());
+        store.putOrThrow(uuid, componentId, Lifespan.REGULAR);
+
+        // THEN it is found
+        assertEquals(Optional.of(componentId), store.get(uuid));
+    }
+
+    @Test
+    void loadsConcurrentlyMissedComponentIdOnce() throws Exception {
+        // GIVEN a component ID that is only in the database, not in the cache of the store
+        UUID uuid = UUID.randomUUID();
+        ComponentId componentId = new ComponentId("foo", List.of("bar"));
+        store.putOrThrow(uuid, componentId, Lifespan.REGULAR);
+        database.flushWriteBehind();
+
+        try (ComponentIdStore otherStore = new ComponentIdStore(database);
+                ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            long loadsBefore = countComponentIdLoads();
+
+            // WHEN getting it from many threads at once
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Optional<ComponentId>>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return otherStore.get(uuid);
+                }));
+            }
+            start.countDown();
+
+            // THEN all threads get it, but it was only loaded from the database once
+            for (Future<Optional<ComponentId>> result : results) {
+                assertEquals(Optional.of(componentId), result.get());
+            }
+            assertEquals(loadsBefore + 1, countComponentIdLoads());
+        }
+    }
+
+    private long countComponentIdLoads() {
+        return database.getStatistics()
+            .snapshotQueries()
+            .stream()
+            .filter(query -> isComponentIdLoad(query.queryShape()))
+            .mapToLong(query -> query.latencies().count())
+            .sum();
+    }
+
+    private static boolean isComponentIdLoad(String queryShape) {
+        // Excludes e.g. checking whether a UUID exists already
+        return queryShape.startsWith("select") && queryShape.contains("component_ids")
+                && queryShape.contains("uuid") && !queryShape.contains("exists")
+                && !queryShape.contains("count(");
+    }
+}
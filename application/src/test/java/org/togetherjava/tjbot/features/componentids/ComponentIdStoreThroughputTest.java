@@ -0,0 +1,96 @@
+package org.togetherjava.tjbot.features.componentids;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.togetherjava.tjbot.db.Database;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures how many look-ups per second the {@link ComponentIdStore} serves when used by many
+ * threads at once, as it is by concurrent button clicks.
+ * <p>
+ * Most look-ups are served by the cache of the store, the others have to be loaded from the
+ * database. Excluded from the regular test run, execute it with
+ * {@code gradlew :application:loadTest}.
+ */
+@Tag("load")
+final class ComponentIdStoreThroughputTest {
+    private static final Logger logger =
+            LoggerFactory.getLogger(ComponentIdStoreThroughputTest.class);
+    private static final int THREADS = 32;
+    private static final Duration DURATION = Duration.ofSeconds(10);
+    /**
+     * Component IDs put into the store before the measurement. Only the most recent ones fit into
+     * its cache, older ones are loaded from the database.
+     */
+    private static final int COMPONENT_IDS = 5_000;
+    private static final int RECENT_COMPONENT_IDS = 500;
+    private static final double RECENT_LOOK_UP_RATIO = 0.9;
+
+    @Test
+    @DisplayName("The component ID store serves concurrent look-ups")
+    void servesConcurrentLookUps(@TempDir Path tempDir) throws Exception {
+        // GIVEN a store with component IDs, of which only the most recent ones are cached
+        Database database = new Database("jdbc:sqlite:" + tempDir.resolve("database.db"));
+        List<UUID> uuids = new ArrayList<>(COMPONENT_IDS);
+        try (ComponentIdStore store = new ComponentIdStore(database);
+                ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < COMPONENT_IDS; i++) {
+                UUID uuid = UUID.randomUUID();
+                store.putOrThrow(uuid, new ComponentId("button", List.of(Integer.toString(i))),
+                        Lifespan.REGULAR);
+                uuids.add(uuid);
+            }
+            database.flushWriteBehind();
+
+            // WHEN looking them up from many threads
+            long endNanos = System.nanoTime() + DURATION.toNanos();
+            List<Future<Long>> threadLookUps = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                threadLookUps.add(executor.submit(() -> lookUpUntil(store, uuids, endNanos)));
+            }
+            long lookUps = 0;
+            for (Future<Long> threadLookUp : threadLookUps) {
+                lookUps += threadLookUp.get();
+            }
+
+            // THEN all look-ups found their component ID
+            ComponentIdStore.Statistics statistics = store.getStatistics();
+            logger.info("{} threads served {} look-ups per second, {} cache hits, {} misses",
+                    THREADS, lookUps / DURATION.toSeconds(), statistics.cacheStats().hitCount(),
+                    statistics.cacheStats().missCount());
+            assertEquals(statistics.cacheStats().requestCount(), lookUps);
+        }
+    }
+
+    private static long lookUpUntil(ComponentIdStore store, List<UUID> uuids, long endNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long lookUps = 0;
+        while (System.nanoTime() < endNanos) {
+            int index = random.nextDouble() < RECENT_LOOK_UP_RATIO
+                    ? uuids.size() - 1 - random.nextInt(RECENT_COMPONENT_IDS)
+                    : random.nextInt(uuids.size());
+            if (store.get(uuids.get(index)).isEmpty()) {
+                throw new AssertionError("Component ID not found: " + uuids.get(index));
+            }
+            lookUps++;
+        }
+        return lookUps;
+    }
+}
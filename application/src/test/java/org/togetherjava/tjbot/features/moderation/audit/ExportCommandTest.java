@@ -0,0 +1,82 @@
+package org.togetherjava.tjbot.features.moderation.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.togetherjava.tjbot.db.Database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+
+final class ExportCommandTest {
+    private Database database;
+    private Path file;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        database = Database.createMemoryDatabase(METRIC_EVENTS);
+        file = tempDir.resolve("export.csv.gz");
+    }
+
+    private void insertEvent(String event, String dimensions) {
+        database.write(context -> context.newRecord(METRIC_EVENTS)
+            .setEvent(event)
+            .setHappenedAt(Instant.now())
+            .setDimensions(dimensions)
+            .insert());
+    }
+
+    private static List<String> decompressLines(Path file) throws IOException {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+
+    @Test
+    void exportsMatchingRowsAsCsv() throws IOException {
+        // GIVEN events of different types, one with a dimension that has to be quoted
+        insertEvent("slash", "{\"name\":\"tag\"}");
+        insertEvent("tag", null);
+        insertEvent("slash", null);
+
+        // WHEN exporting only the slash commands
+        ExportCommand.CsvExport export = ExportCommand.exportCsv(database, METRIC_EVENTS,
+                METRIC_EVENTS.EVENT.eq("slash"), METRIC_EVENTS.ID.asc(), Long.MAX_VALUE, file);
+
+        // THEN both are exported in order, below a header
+        assertEquals(2, export.rowCount());
+        List<String> lines = decompressLines(file);
+        assertEquals(3, lines.size());
+        assertTrue(lines.getFirst().contains("event"));
+        assertTrue(lines.get(1).startsWith("1,slash,"));
+        assertTrue(lines.get(1).contains(",\"{\"\"name\"\":\"\"tag\"\"}\""));
+        assertTrue(lines.get(2).startsWith("3,slash,"));
+    }
+
+    @Test
+    void abortsExportsExceedingTheLimit() throws IOException {
+        // GIVEN more events than fit into a tiny file
+        for (int i = 0; i < 100; i++) {
+            insertEvent("event-" + i, "{\"id\":\"" + i + "\"}");
+        }
+
+        // WHEN exporting them
+        ExportCommand.CsvExport export = ExportCommand.exportCsv(database, METRIC_EVENTS,
+                METRIC_EVENTS.ID.isNotNull(), METRIC_EVENTS.ID.asc(), 64, file);
+
+        // THEN the export is aborted, without writing more than the limit
+        assertTrue(export.isTooLarge());
+        assertTrue(Files.size(file) <= 64);
+    }
+}
@@ -0,0 +1,85 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.entities.channel.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class ChannelReceiverRouterTest {
+    private static final long CHANNEL_ID = 1;
+
+    private ChannelReceiverRouter<TestReceiver> router;
+    private TestReceiver allChannelsReceiver;
+    private TestReceiver questionsReceiver;
+
+    @BeforeEach
+    void setUp() {
+        allChannelsReceiver = new TestReceiver(Pattern.compile(".*"));
+        questionsReceiver = new TestReceiver(Pattern.compile("questions"));
+
+        router = new ChannelReceiverRouter<>(List.of(allChannelsReceiver, questionsReceiver),
+                TestReceiver::channelNamePattern, TestReceiver[]::new);
+    }
+
+    @Test
+    void routesToMatchingReceivers() {
+        // GIVEN a channel matching only one of the receivers
+        Channel channel = createChannel("chit-chat");
+
+        // WHEN resolving its receivers
+        TestReceiver[] receivers = router.getReceiversSubscribedTo(channel);
+
+        // THEN only the matching receiver is returned
+        assertArrayEquals(new TestReceiver[] {allChannelsReceiver}, receivers);
+    }
+
+    @Test
+    void resolvesRouteOnlyOnce() {
+        // GIVEN a channel
+        Channel channel = createChannel("questions");
+
+        // WHEN resolving its receivers multiple times
+        TestReceiver[] firstReceivers = router.getReceiversSubscribedTo(channel);
+        TestReceiver[] secondReceivers = router.getReceiversSubscribedTo(channel);
+
+        // THEN the route is only resolved once and then served from the table
+        assertSame(firstReceivers, secondReceivers);
+        assertArrayEquals(new TestReceiver[] {allChannelsReceiver, questionsReceiver},
+                firstReceivers);
+        verify(channel, times(1)).getName();
+    }
+
+    @Test
+    void invalidationPicksUpRenamedChannel() {
+        // GIVEN a channel whose route was already resolved
+        Channel channel = createChannel("chit-chat");
+        router.getReceiversSubscribedTo(channel);
+
+        // WHEN the channel is renamed and its route invalidated
+        when(channel.getName()).thenReturn("questions");
+        router.invalidate(CHANNEL_ID);
+        TestReceiver[] receivers = router.getReceiversSubscribedTo(channel);
+
+        // THEN the route is resolved against the new name
+        assertArrayEquals(new TestReceiver[] {allChannelsReceiver, questionsReceiver}, receivers);
+    }
+
+    private static Channel createChannel(String name) {
+        Channel channel = mock(Channel.class);
+        when(channel.getIdLong()).thenReturn(CHANNEL_ID);
+        when(channel.getName()).thenReturn(name);
+        return channel;
+    }
+
+    private record TestReceiver(Pattern channelNamePattern) {
+    }
+}
@@ -0,0 +1,78 @@
+package org.togetherjava.tjbot.features.system;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ChannelStripedExecutorTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long CHANNEL_ID = 1;
+
+    @Test
+    void executesTasksOfAChannelInOrder() throws InterruptedException {
+        // GIVEN an executor with several stripes
+        ChannelStripedExecutor executor = new ChannelStripedExecutor("test", 4, 100);
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch allExecuted = new CountDownLatch(100);
+
+        // WHEN submitting many tasks of the same channel
+        for (int i = 0; i < 100; i++) {
+            int task = i;
+            executor.execute(CHANNEL_ID, () -> {
+                executed.add(task);
+                allExecuted.countDown();
+            });
+        }
+
+        // THEN they are executed in the order they were submitted
+        assertTrue(allExecuted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, executed.get(i));
+        }
+        assertEquals(0, executor.getDroppedTaskCount());
+    }
+
+    @Test
+    void dropsTasksOnceTheQueueIsFull() throws InterruptedException {
+        // GIVEN an executor whose only stripe is blocked and whose queue holds a single task
+        ChannelStripedExecutor executor = new ChannelStripedExecutor("test", 1, 1);
+        CountDownLatch isBlocking = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        executor.execute(CHANNEL_ID, () -> {
+            isBlocking.countDown();
+            await(unblock);
+        });
+        assertTrue(isBlocking.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // WHEN submitting more tasks than fit into the queue
+        CountDownLatch queuedExecuted = new CountDownLatch(1);
+        executor.execute(CHANNEL_ID, queuedExecuted::countDown);
+        executor.execute(CHANNEL_ID, () -> {
+            throw new AssertionError("Dropped task was executed");
+        });
+        executor.execute(CHANNEL_ID, () -> {
+            throw new AssertionError("Dropped task was executed");
+        });
+
+        // THEN the tasks that did not fit are dropped and counted, without blocking the caller
+        assertEquals(2, executor.getDroppedTaskCount());
+        assertEquals(1, executor.getQueueDepth());
+        unblock.countDown();
+        assertTrue(queuedExecuted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.togetherjava.tjbot.features.system;
+
+import org.junit.jupiter.api.Test;
+
+import org.togetherjava.tjbot.features.Warmable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class FeatureWarmUpTest {
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Test
+    void warmsUpDependenciesFirst() throws Exception {
+        // GIVEN a feature depending on another feature, which takes a while to warm up
+        List<String> warmedUp = new CopyOnWriteArrayList<>();
+        TestWarmable dependency = new TestWarmable(List.of(), () -> {
+            Thread.sleep(100);
+            warmedUp.add("dependency");
+        });
+        TestWarmable dependent =
+                new TestWarmable(List.of(dependency), () -> warmedUp.add("dependent"));
+
+        // WHEN warming up both
+        warmUp(new FeatureWarmUp(List.of(dependent, dependency)));
+
+        // THEN the dependency was warmed up first
+        assertEquals(List.of("dependency", "dependent"), warmedUp);
+    }
+
+    @Test
+    void failedWarmUpDoesNotBlockOthers() throws Exception {
+        // GIVEN a feature depending on another feature, whose warm-up fails
+        List<String> warmedUp = new CopyOnWriteArrayList<>();
+        TestWarmable dependency = new TestWarmable(List.of(), () -> {
+            throw new IllegalStateException("GitHub is down");
+        });
+        TestWarmable dependent =
+                new TestWarmable(List.of(dependency), () -> warmedUp.add("dependent"));
+        FeatureWarmUp featureWarmUp = new FeatureWarmUp(List.of(dependency, dependent));
+
+        // WHEN warming up both
+        warmUp(featureWarmUp);
+
+        // THEN the dependent feature was still warmed up and all features are ready
+        assertEquals(List.of("dependent"), warmedUp);
+        assertTrue(featureWarmUp.isReady());
+    }
+
+    @Test
+    void reportsPendingFeatures() throws Exception {
+        // GIVEN a feature whose warm-up is still running
+        CountDownLatch warmUpMayFinish = new CountDownLatch(1);
+        TestWarmable warmable = new TestWarmable(List.of(), warmUpMayFinish::await);
+        FeatureWarmUp featureWarmUp = new FeatureWarmUp(List.of(warmable));
+
+        // WHEN observing the warm-up before and after it finished
+        CompletableFuture<Void> warmUp = featureWarmUp.start();
+        boolean isReadyWhileRunning = featureWarmUp.isReady();
+        Set<String> pendingWhileRunning = featureWarmUp.getPendingFeatureNames();
+
+        warmUpMayFinish.countDown();
+        warmUp.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // THEN the feature is reported as pending until it finished
+        assertFalse(isReadyWhileRunning);
+        assertEquals(Set.of(TestWarmable.class.getSimpleName()), pendingWhileRunning);
+        assertTrue(featureWarmUp.isReady());
+        assertTrue(featureWarmUp.getPendingFeatureNames().isEmpty());
+    }
+
+    private static void warmUp(FeatureWarmUp featureWarmUp)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        featureWarmUp.start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private interface WarmUpAction {
+        void run() throws Exception;
+    }
+
+    private static final class TestWarmable implements Warmable {
+        private final Collection<Warmable> dependencies;
+        private final WarmUpAction action;
+
+        TestWarmable(Collection<Warmable> dependencies, WarmUpAction action) {
+            this.dependencies = dependencies;
+            this.action = action;
+        }
+
+        @Override
+        public void warmUp() throws Exception {
+            action.run();
+        }
+
+        @Override
+        public Collection<Warmable> getWarmUpDependencies() {
+            return dependencies;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.entities.channel.Channel;
+import org.junit.jupiter.api.Test;
+
+import org.togetherjava.tjbot.features.MessageReceiver;
+import org.togetherjava.tjbot.features.MessageReceiverAdapter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+final class MessageReceiverDispatcherTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long CHANNEL_ID = 1;
+    private static final BiConsumer<MessageReceiver, Integer> NOTIFIER =
+            (receiver, event) -> ((TestReceiver) receiver).receive(event);
+
+    @Test
+    void saturatedStripeStillNotifiesInlineReceivers() throws InterruptedException {
+        // GIVEN an asynchronous receiver blocking the only stripe, whose queue holds a single event
+        CountDownLatch isBlocking = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch asyncReceived = new CountDownLatch(2);
+        TestReceiver asyncReceiver = new TestReceiver(false, event -> {
+            if (event == 0) {
+                isBlocking.countDown();
+                await(unblock);
+            }
+            asyncReceived.countDown();
+        });
+        TestReceiver inlineReceiver = new TestReceiver(true, event -> {
+        });
+        ChannelStripedExecutor executor = new ChannelStripedExecutor("test", 1, 1);
+        MessageReceiverDispatcher dispatcher = new MessageReceiverDispatcher(
+                List.of(asyncReceiver, inlineReceiver), executor, new HandlerStatistics());
+        Channel channel = createChannel();
+
+        dispatcher.dispatch(channel, HandlerStatistics.HandlerType.MESSAGE_RECEIVED, NOTIFIER, 0);
+        assertTrue(isBlocking.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // WHEN dispatching more events than the stripe can queue
+        for (int event = 1; event < 5; event++) {
+            dispatcher.dispatch(channel, HandlerStatistics.HandlerType.MESSAGE_RECEIVED, NOTIFIER,
+                    event);
+        }
+
+        // THEN the asynchronous receiver misses some of them, but the inline receiver gets all
+        assertEquals(3, dispatcher.getDroppedEventCount());
+        assertEquals(List.of(0, 1, 2, 3, 4), inlineReceiver.receivedEvents);
+
+        unblock.countDown();
+        assertTrue(asyncReceived.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1), asyncReceiver.receivedEvents);
+    }
+
+    @Test
+    void inlineReceiversAreNotifiedOnTheCallingThread() {
+        // GIVEN an inline receiver
+        Thread callingThread = Thread.currentThread();
+        List<Thread> notifyingThreads = new CopyOnWriteArrayList<>();
+        TestReceiver inlineReceiver =
+                new TestReceiver(true, event -> notifyingThreads.add(Thread.currentThread()));
+        MessageReceiverDispatcher dispatcher =
+                new MessageReceiverDispatcher(List.of(inlineReceiver),
+                        new ChannelStripedExecutor("test", 1, 1), new HandlerStatistics());
+
+        // WHEN dispatching an event
+        dispatcher.dispatch(createChannel(), HandlerStatistics.HandlerType.MESSAGE_RECEIVED,
+                NOTIFIER, 0);
+
+        // THEN the receiver was notified before returning, on the same thread
+        assertEquals(List.of(callingThread), notifyingThreads);
+    }
+
+    private static Channel createChannel() {
+        Channel channel = mock(Channel.class);
+        when(channel.getIdLong()).thenReturn(CHANNEL_ID);
+        when(channel.getName()).thenReturn("general");
+        return channel;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TestReceiver extends MessageReceiverAdapter {
+        private final boolean requiresInlineExecution;
+        private final IntConsumer onEvent;
+        private final List<Integer> receivedEvents = new CopyOnWriteArrayList<>();
+
+        TestReceiver(boolean requiresInlineExecution, IntConsumer onEvent) {
+            this.requiresInlineExecution = requiresInlineExecution;
+            this.onEvent = onEvent;
+        }
+
+        @Override
+        public boolean requiresInlineExecution() {
+            return requiresInlineExecution;
+        }
+
+        void receive(int event) {
+            receivedEvents.add(event);
+            onEvent.accept(event);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.JDA;
+import org.junit.jupiter.api.Test;
+
+import org.togetherjava.tjbot.config.RoutinesConfig;
+import org.togetherjava.tjbot.features.Routine;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RoutineSchedulerTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long PERIOD_MILLIS = 200;
+
+    private final RoutineScheduler scheduler = new RoutineScheduler(new RoutinesConfig(0));
+
+    @Test
+    void coalescesOverlappingExecutions() throws InterruptedException {
+        // GIVEN a routine whose first execution takes longer than two periods
+        AtomicInteger runningExecutions = new AtomicInteger();
+        AtomicInteger maxRunningExecutions = new AtomicInteger();
+        List<Long> startedAtNanos = new CopyOnWriteArrayList<>();
+        List<Long> finishedAtNanos = new CopyOnWriteArrayList<>();
+        CountDownLatch secondExecution = new CountDownLatch(2);
+        Runnable execution = () -> {
+            maxRunningExecutions.accumulateAndGet(runningExecutions.incrementAndGet(), Math::max);
+            startedAtNanos.add(System.nanoTime());
+            if (startedAtNanos.size() == 1) {
+                sleep(PERIOD_MILLIS * 5 / 2);
+            }
+            finishedAtNanos.add(System.nanoTime());
+            runningExecutions.decrementAndGet();
+            secondExecution.countDown();
+        };
+
+        // WHEN scheduling it at a fixed rate
+        Routine.Schedule schedule = new Routine.Schedule(Routine.ScheduleMode.FIXED_RATE, 0,
+                PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.schedule(new TestRoutine("test", schedule), execution);
+
+        // THEN the executions never overlap, and the missed ones run once right after the first
+        assertTrue(secondExecution.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, maxRunningExecutions.get());
+        long coalescedDelayNanos = startedAtNanos.get(1) - finishedAtNanos.getFirst();
+        assertTrue(coalescedDelayNanos < TimeUnit.MILLISECONDS.toNanos(PERIOD_MILLIS / 2),
+                "The coalesced execution started late: " + coalescedDelayNanos + " ns");
+
+        RoutineScheduler.RoutineStatistics statistics =
+                scheduler.getRoutineStatistics().getFirst();
+        assertTrue(statistics.overruns() >= 2, "Overruns: " + statistics.overruns());
+    }
+
+    @Test
+    void reschedulesFixedDelayAfterExecutionFinished() throws InterruptedException {
+        // GIVEN a routine whose executions take longer than its delay
+        List<Long> startedAtNanos = new CopyOnWriteArrayList<>();
+        List<Long> finishedAtNanos = new CopyOnWriteArrayList<>();
+        CountDownLatch thirdExecution = new CountDownLatch(3);
+        Runnable execution = () -> {
+            startedAtNanos.add(System.nanoTime());
+            sleep(PERIOD_MILLIS);
+            finishedAtNanos.add(System.nanoTime());
+            thirdExecution.countDown();
+        };
+
+        // WHEN scheduling it with a fixed delay
+        long delayMillis = PERIOD_MILLIS / 2;
+        Routine.Schedule schedule = new Routine.Schedule(Routine.ScheduleMode.FIXED_DELAY, 0,
+                delayMillis, TimeUnit.MILLISECONDS);
+        scheduler.schedule(new TestRoutine("test", schedule), execution);
+
+        // THEN each execution starts only once the delay passed after the previous one finished
+        assertTrue(thirdExecution.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        for (int i = 1; i < 3; i++) {
+            long delayNanos = startedAtNanos.get(i) - finishedAtNanos.get(i - 1);
+            assertTrue(delayNanos >= TimeUnit.MILLISECONDS.toNanos(delayMillis),
+                    "Execution " + i + " started too early: " + delayNanos + " ns");
+        }
+        assertEquals(0, scheduler.getRoutineStatistics().getFirst().overruns());
+    }
+
+    @Test
+    void statisticsAreKeyedByRoutineName() {
+        // GIVEN two instances of the same routine class, named apart, e.g. one per database
+        Routine.Schedule schedule =
+                new Routine.Schedule(Routine.ScheduleMode.FIXED_DELAY, 1, 1, TimeUnit.HOURS);
+
+        // WHEN scheduling both
+        scheduler.schedule(new TestRoutine("test-main", schedule), () -> {
+        });
+        scheduler.schedule(new TestRoutine("test-analytics", schedule), () -> {
+        });
+
+        // THEN their statistics are told apart by their names
+        assertEquals(List.of("test-analytics", "test-main"), scheduler.getRoutineStatistics()
+            .stream()
+            .map(RoutineScheduler.RoutineStatistics::name)
+            .toList());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record TestRoutine(String name, Schedule schedule) implements Routine {
+        @Override
+        public String getRoutineName() {
+            return name;
+        }
+
+        @Override
+        public Schedule createSchedule() {
+            return schedule;
+        }
+
+        @Override
+        public void runRoutine(JDA jda) {
+            throw new UnsupportedOperationException("Executed by the scheduler directly");
+        }
+    }
+}
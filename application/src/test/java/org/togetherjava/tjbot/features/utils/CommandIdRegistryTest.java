@@ -0,0 +1,84 @@
+package org.togetherjava.tjbot.features.utils;
+
+import net.dv8tion.jda.api.interactions.commands.Command;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+final class CommandIdRegistryTest {
+    @AfterEach
+    void tearDown() {
+        // The registry is global, other tests must not see the commands registered here
+        CommandIdRegistry.clear();
+    }
+
+    @Test
+    void findsRegisteredSlashCommands() {
+        // GIVEN a guild with a slash command and a context command
+        long guildId = 1;
+        CommandIdRegistry.registerGuildCommands(guildId,
+                List.of(createCommand(10, "ChatGPT", Command.Type.SLASH),
+                        createCommand(11, "transfer-question", Command.Type.MESSAGE)));
+
+        // WHEN finding the commands
+        Optional<Long> slashCommandId = CommandIdRegistry.findGuildCommandId(guildId, "chatgpt");
+        Optional<Long> contextCommandId =
+                CommandIdRegistry.findGuildCommandId(guildId, "transfer-question");
+
+        // THEN only the slash command is found, regardless of its case
+        assertEquals(Optional.of(10L), slashCommandId);
+        assertEquals(Optional.empty(), contextCommandId);
+    }
+
+    @Test
+    void separatesScopes() {
+        // GIVEN a global command and a command in a guild
+        long guildId = 2;
+        CommandIdRegistry.registerGlobalCommands(
+                List.of(createCommand(20, "modmail", Command.Type.SLASH)));
+        CommandIdRegistry.registerGuildCommands(guildId,
+                List.of(createCommand(21, "tag", Command.Type.SLASH)));
+
+        // WHEN finding the commands in the other scope
+        Optional<Long> globalCommandIdInGuild =
+                CommandIdRegistry.findGuildCommandId(guildId, "modmail");
+        Optional<Long> guildCommandIdGlobally = CommandIdRegistry.findGlobalCommandId("tag");
+
+        // THEN they are not found
+        assertEquals(Optional.empty(), globalCommandIdInGuild);
+        assertEquals(Optional.empty(), guildCommandIdGlobally);
+    }
+
+    @Test
+    void replacesCommandsOfScope() {
+        // GIVEN a guild whose commands were registered again with different ids
+        long guildId = 3;
+        CommandIdRegistry.registerGuildCommands(guildId,
+                List.of(createCommand(30, "tag", Command.Type.SLASH),
+                        createCommand(31, "tags", Command.Type.SLASH)));
+        CommandIdRegistry.registerGuildCommands(guildId,
+                List.of(createCommand(32, "tag", Command.Type.SLASH)));
+
+        // WHEN finding the commands
+        Optional<Long> replacedCommandId = CommandIdRegistry.findGuildCommandId(guildId, "tag");
+        Optional<Long> removedCommandId = CommandIdRegistry.findGuildCommandId(guildId, "tags");
+
+        // THEN only the latest registration is known
+        assertEquals(Optional.of(32L), replacedCommandId);
+        assertEquals(Optional.empty(), removedCommandId);
+    }
+
+    private static Command createCommand(long id, String name, Command.Type type) {
+        Command command = mock(Command.class);
+        when(command.getIdLong()).thenReturn(id);
+        when(command.getName()).thenReturn(name);
+        when(command.getType()).thenReturn(type);
+        return command;
+    }
+}
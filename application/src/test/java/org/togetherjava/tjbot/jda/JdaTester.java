@@ -18,6 +18,7 @@ import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.interactions.InteractionHook;
 import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
@@ -636,6 +637,64 @@ public final class JdaTester {
         return new MessageReceivedEvent(jda, responseNumber.getAndIncrement(), receivedMessage);
     }
 
+    /**
+     * Creates a Mockito mocked message receive event for a message sent in the given channel, which
+     * can be used for
+     * {@link org.togetherjava.tjbot.features.MessageReceiver#onMessageReceived(MessageReceivedEvent)}.
+     * <p>
+     * Use {@link #createTextChannelSpy(long)} to create channels, for example to simulate messages
+     * in many different channels.
+     *
+     * @param message the message that has been received
+     * @param channel the channel the message was sent in
+     * @return the event of receiving the given message
+     */
+    public MessageReceivedEvent createMessageReceiveEvent(MessageCreateData message,
+            TextChannel channel) {
+        Message receivedMessage = clientMessageToReceivedMessageMock(message);
+        mockMessage(receivedMessage, (MessageChannelUnion) channel);
+
+        return new MessageReceivedEvent(jda, responseNumber.getAndIncrement(), receivedMessage);
+    }
+
+    /**
+     * Creates a Mockito mocked event of adding a reaction to a message in the given channel, which
+     * can be used for
+     * {@link org.togetherjava.tjbot.features.MessageReceiver#onMessageReactionAdd(MessageReactionAddEvent)}.
+     * <p>
+     * The reaction is added by the member returned by {@link #getMemberSpy()}, to a message with
+     * the id {@code 1}.
+     *
+     * @param emoji the emoji that was added as reaction
+     * @param channel the channel of the message the reaction was added to
+     * @return the event of adding the reaction
+     */
+    public MessageReactionAddEvent createMessageReactionAddEvent(Emoji emoji,
+            TextChannel channel) {
+        Message message = clientMessageToReceivedMessageMock(
+                MessageCreateData.fromContent("test message"));
+        mockMessage(message, (MessageChannelUnion) channel);
+
+        MessageReactionAddEvent event = mock(MessageReactionAddEvent.class);
+        when(event.getJDA()).thenReturn(jda);
+        when(event.isFromGuild()).thenReturn(true);
+        when(event.getChannelType()).thenReturn(ChannelType.TEXT);
+        doReturn(channel).when(event).getChannel();
+        doReturn(channel).when(event).getGuildChannel();
+        when(event.getGuild()).thenReturn(guild);
+        when(event.getMember()).thenReturn(member);
+        when(event.getUser()).thenReturn(member.getUser());
+        when(event.getUserIdLong()).thenReturn(member.getIdLong());
+        when(event.getMessageIdLong()).thenReturn(1L);
+        when(event.getMessageId()).thenReturn("1");
+        doReturn(emoji).when(event).getEmoji();
+
+        RestAction<Message> messageAction = createSucceededActionMock(message);
+        when(event.retrieveMessage()).thenReturn(messageAction);
+
+        return event;
+    }
+
     /**
      * Creates an argument matcher that asserts that an attachment has the given content.
      * <p>
@@ -717,6 +776,10 @@ public final class JdaTester {
                 throw new IllegalArgumentException("Unsupported channel type: " + channelType);
         };
 
+        mockMessage(message, channel);
+    }
+
+    private void mockMessage(Message message, MessageChannelUnion channel) {
         doReturn(messageCreateAction).when(message).reply(anyString());
         doReturn(messageCreateAction).when(message)
             .replyEmbeds(ArgumentMatchers.<MessageEmbed>any());
@@ -0,0 +1,49 @@
+package org.togetherjava.tjbot.jda.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the {@link LoadTestHarness} with the settings given by system properties, see
+ * {@link LoadTestSettings#fromSystemProperties()}.
+ * <p>
+ * Excluded from the regular test run, execute it with {@code gradlew :application:loadTest}, for
+ * example {@code gradlew :application:loadTest -Dloadtest.eventsPerSecond=2000}. The report is
+ * logged and written to {@value #REPORT_PATH}.
+ */
+@Tag("load")
+final class BotCoreLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(BotCoreLoadTest.class);
+    private static final String REPORT_PATH = "build/reports/load-test/report.txt";
+
+    @Test
+    @DisplayName("The bot handles synthetic events at the configured rate without failures")
+    void handlesSyntheticLoad() throws IOException, SQLException, InterruptedException {
+        // GIVEN a bot with all features and the configured load profile
+        LoadTestHarness harness = new LoadTestHarness(LoadTestSettings.fromSystemProperties());
+
+        // WHEN firing events at the bot
+        LoadTestReport report = harness.run();
+
+        // THEN all events were dispatched without failures
+        String reportText = report.asText();
+        logger.info("Load test finished:\n{}", reportText);
+        Path reportPath = Path.of(REPORT_PATH);
+        Files.createDirectories(reportPath.getParent());
+        Files.writeString(reportPath, reportText);
+
+        assertTrue(report.firedEvents() > 0);
+        assertEquals(0, report.failedEvents());
+    }
+}
@@ -0,0 +1,314 @@
+package org.togetherjava.tjbot.jda.load;
+
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.emoji.Emoji;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import org.mockito.Mockito;
+
+import org.togetherjava.tjbot.config.Config;
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.DatabaseSettings;
+import org.togetherjava.tjbot.features.SlashCommand;
+import org.togetherjava.tjbot.features.analytics.Metrics;
+import org.togetherjava.tjbot.features.system.BotCore;
+import org.togetherjava.tjbot.jda.JdaTester;
+import org.togetherjava.tjbot.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Load generator firing synthetic events at a real {@link BotCore}, to measure how the bot performs
+ * under load.
+ * <p>
+ * The bot is created with all features, backed by an in-memory database and a JDA mocked by
+ * {@link JdaTester}. Events, such as received messages, reactions, button clicks and slash
+ * commands, are fired by multiple threads at a fixed rate, see {@link LoadTestSettings}. The rate
+ * is kept regardless of how fast the bot handles the events, which mirrors Discord sending events
+ * independently of the bot. The results, such as throughput, latency percentiles and allocation
+ * rate, are summarized in a {@link LoadTestReport}.
+ * <p>
+ * Button clicks use component IDs unknown to the bot, hence they exercise the lookup of component
+ * IDs and the reply for expired components, but not the feature owning the button.
+ * <p>
+ * An example usage would be:
+ *
+ * <pre>
+ * {@code
+ * LoadTestReport report = new LoadTestHarness(LoadTestSettings.fromSystemProperties()).run();
+ * System.out.println(report.asText());
+ * }
+ * </pre>
+ */
+public final class LoadTestHarness {
+    private static final long FIRST_CHANNEL_ID = 1_000;
+    private static final int BUTTON_EVENTS = 64;
+    private static final List<String> MESSAGE_CONTENTS = List.of("Hello World!",
+            "Can someone help me with my code?",
+            "```java\npublic static void main(String[] args) {}\n```",
+            "Take a look at https://github.com/Together-Java/TJ-Bot", "Thanks, that worked :)");
+    private static final List<Emoji> REACTION_EMOJIS =
+            List.of(Emoji.fromUnicode("👍"), Emoji.fromUnicode("👎"), Emoji.fromUnicode("⭐"));
+    private static final Duration DRAIN_POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration CLEAR_INVOCATIONS_INTERVAL = Duration.ofSeconds(1);
+
+    private final LoadTestSettings settings;
+    private final JdaTester jdaTester = new JdaTester();
+    private final BotCore botCore;
+
+    private final List<MessageReceivedEvent> messageEvents = new ArrayList<>();
+    private final List<MessageReactionAddEvent> reactionEvents = new ArrayList<>();
+    private final List<ButtonInteractionEvent> buttonEvents = new ArrayList<>();
+    private final List<SlashCommandInteractionEvent> slashCommandEvents = new ArrayList<>();
+    private final List<Object> mocks = new ArrayList<>();
+    private final EventType[] eventTypeByWeight;
+
+    private final LatencyHistogram dispatchLatencies = new LatencyHistogram();
+    private final LongAdder firedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+
+    /**
+     * Creates a new harness, setting up the bot with all features and preparing the events to fire.
+     *
+     * @param settings the settings of the load test
+     * @throws IOException if the bot configuration could not be loaded
+     * @throws SQLException if the databases could not be created
+     */
+    public LoadTestHarness(LoadTestSettings settings) throws IOException, SQLException {
+        this.settings = settings;
+
+        Config config = Config.load(settings.config());
+        Database database = Database.createMemoryDatabase();
+        // The main migrations dropped the metric tables, they are in their own database
+        Database analyticsDatabase = new Database("jdbc:sqlite:", DatabaseSettings.DEFAULT
+            .withReadConnections(0)
+            .withMigrationsLocation(Metrics.MIGRATIONS_LOCATION));
+        botCore = new BotCore(jdaTester.getJdaMock(), database, config,
+                new Metrics(analyticsDatabase));
+
+        eventTypeByWeight = settings.eventWeights()
+            .entrySet()
+            .stream()
+            .flatMap(weightedType -> Collections
+                .nCopies(weightedType.getValue(), weightedType.getKey())
+                .stream())
+            .toArray(EventType[]::new);
+
+        prepareEvents();
+    }
+
+    private void prepareEvents() {
+        long channelId = FIRST_CHANNEL_ID;
+        for (String channelName : settings.channelNames()) {
+            for (int i = 0; i < settings.channelsPerName(); i++) {
+                TextChannel channel = jdaTester.createTextChannelSpy(channelId);
+                doReturn(channelName).when(channel).getName();
+                channelId++;
+
+                String content = MESSAGE_CONTENTS.get(i % MESSAGE_CONTENTS.size());
+                MessageReceivedEvent messageEvent = jdaTester
+                    .createMessageReceiveEvent(MessageCreateData.fromContent(content), channel);
+                messageEvents.add(messageEvent);
+
+                Emoji emoji = REACTION_EMOJIS.get(i % REACTION_EMOJIS.size());
+                MessageReactionAddEvent reactionEvent =
+                        jdaTester.createMessageReactionAddEvent(emoji, channel);
+                reactionEvents.add(reactionEvent);
+
+                mocks.add(channel);
+                mocks.add(messageEvent.getMessage());
+                mocks.add(reactionEvent);
+            }
+        }
+
+        for (int i = 0; i < BUTTON_EVENTS; i++) {
+            ButtonInteractionEvent buttonEvent = jdaTester.createButtonInteractionEvent()
+                .setActionRow(Button.primary(UUID.randomUUID().toString(), "Click me"))
+                .buildWithSingleButton();
+            buttonEvents.add(buttonEvent);
+            mocks.add(buttonEvent);
+        }
+
+        for (String slashCommandName : settings.slashCommandNames()) {
+            SlashCommand command = requireSlashCommand(slashCommandName);
+            SlashCommandInteractionEvent slashCommandEvent =
+                    jdaTester.createSlashCommandInteractionEvent(command).build();
+            slashCommandEvents.add(slashCommandEvent);
+            mocks.add(slashCommandEvent);
+        }
+
+        mocks.add(jdaTester.getReplyActionMock());
+        mocks.add(jdaTester.getInteractionHookMock());
+    }
+
+    private SlashCommand requireSlashCommand(String name) {
+        return botCore.getInteractors()
+            .stream()
+            .filter(SlashCommand.class::isInstance)
+            .map(SlashCommand.class::cast)
+            .filter(command -> command.getName().equals(name))
+            .findAny()
+            .orElseThrow(() -> new IllegalArgumentException(
+                    "There is no slash command with name " + name));
+    }
+
+    /**
+     * Fires events at the bot according to the settings and waits until the bot finished handling
+     * them.
+     *
+     * @return the results of the load test
+     * @throws InterruptedException if the thread was interrupted while waiting for the firing
+     *         threads to finish
+     */
+    public LoadTestReport run() throws InterruptedException {
+        long allocatedBytesBefore = getTotalAllocatedBytes();
+        long handledEventsBefore = getHandledEvents();
+        long startedAt = System.nanoTime();
+        long firingEndsAt = startedAt + settings.duration().toNanos();
+
+        long intervalNanos =
+                TimeUnit.SECONDS.toNanos(settings.threads()) / settings.eventsPerSecond();
+        Collection<Thread> firingThreads = new ArrayList<>();
+        for (int i = 0; i < settings.threads(); i++) {
+            // Offset the threads, so that they do not all fire at the same time
+            long firstEventAt = startedAt + intervalNanos * i / settings.threads();
+            boolean isHousekeeper = i == 0;
+            firingThreads.add(Thread.ofPlatform()
+                .name("load-generator-" + i)
+                .start(() -> fireEvents(firstEventAt, firingEndsAt, intervalNanos,
+                        isHousekeeper)));
+        }
+        for (Thread firingThread : firingThreads) {
+            firingThread.join();
+        }
+        Duration firingDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        awaitDrained();
+        Duration totalDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        long allocatedBytesAfter = getTotalAllocatedBytes();
+        long allocatedBytes = allocatedBytesBefore < 0 || allocatedBytesAfter < 0 ? -1
+                : allocatedBytesAfter - allocatedBytesBefore;
+
+        return new LoadTestReport(settings, firedEvents.sum(), failedEvents.sum(),
+                firingDuration, getHandledEvents() - handledEventsBefore, totalDuration,
+                dispatchLatencies.snapshot(), allocatedBytes,
+                botCore.getHandlerStatistics().snapshot());
+    }
+
+    private void fireEvents(long firstEventAt, long firingEndsAt, long intervalNanos,
+            boolean isHousekeeper) {
+        long nextClearInvocationsAt = firstEventAt + CLEAR_INVOCATIONS_INTERVAL.toNanos();
+
+        for (long dueAt = firstEventAt; dueAt < firingEndsAt; dueAt += intervalNanos) {
+            long waitNanos = dueAt - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+
+            try {
+                fireRandomEvent();
+            } catch (Exception e) {
+                failedEvents.increment();
+            } finally {
+                // Measured from when the event was due, so that delays caused by slow previous
+                // events are not hidden (coordinated omission)
+                dispatchLatencies.recordNanos(System.nanoTime() - dueAt);
+                firedEvents.increment();
+            }
+
+            if (isHousekeeper && dueAt >= nextClearInvocationsAt) {
+                clearRecordedInvocations();
+                nextClearInvocationsAt = dueAt + CLEAR_INVOCATIONS_INTERVAL.toNanos();
+            }
+        }
+    }
+
+    private void fireRandomEvent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        EventType type = eventTypeByWeight[random.nextInt(eventTypeByWeight.length)];
+
+        switch (type) {
+            case MESSAGE -> fireRandomEvent(messageEvents, botCore::onMessageReceived);
+            case REACTION -> fireRandomEvent(reactionEvents, botCore::onMessageReactionAdd);
+            case BUTTON -> fireRandomEvent(buttonEvents, botCore::onButtonInteraction);
+            case SLASH_COMMAND ->
+                fireRandomEvent(slashCommandEvents, botCore::onSlashCommandInteraction);
+            default -> throw new AssertionError("Unsupported event type: " + type);
+        }
+    }
+
+    private static <T> void fireRandomEvent(List<T> events, Consumer<? super T> dispatcher) {
+        dispatcher.accept(events.get(ThreadLocalRandom.current().nextInt(events.size())));
+    }
+
+    /**
+     * Mockito records every invocation on mocks, for verification. Since events are fired many
+     * times, this would grow unbounded and distort the results.
+     */
+    private void clearRecordedInvocations() {
+        Mockito.clearInvocations(mocks.toArray());
+    }
+
+    private void awaitDrained() throws InterruptedException {
+        long drainEndsAt = System.nanoTime() + settings.drainTimeout().toNanos();
+
+        long handledEvents = getHandledEvents();
+        while (System.nanoTime() < drainEndsAt) {
+            TimeUnit.NANOSECONDS.sleep(DRAIN_POLL_INTERVAL.toNanos());
+
+            long previousHandledEvents = handledEvents;
+            handledEvents = getHandledEvents();
+            if (handledEvents == previousHandledEvents) {
+                return;
+            }
+        }
+    }
+
+    private long getHandledEvents() {
+        return botCore.getHandlerStatistics()
+            .snapshot()
+            .stream()
+            .mapToLong(snapshot -> snapshot.latencies().count())
+            .sum();
+    }
+
+    private static long getTotalAllocatedBytes() {
+        if (ManagementFactory
+            .getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported()
+                && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * The types of events the harness can fire.
+     */
+    public enum EventType {
+        MESSAGE,
+        REACTION,
+        BUTTON,
+        SLASH_COMMAND
+    }
+}
@@ -0,0 +1,91 @@
+package org.togetherjava.tjbot.jda.load;
+
+import org.togetherjava.tjbot.features.system.HandlerStatistics;
+import org.togetherjava.tjbot.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Results of a load test, see {@link LoadTestHarness}.
+ * <p>
+ * Since events and JDA are mocked with Mockito, absolute numbers, especially the allocation rate,
+ * include the overhead of the mocks. They are meant to be compared between runs with the same
+ * settings, for example to catch performance regressions or to size hardware relative to a known
+ * baseline.
+ *
+ * @param settings the settings the load test ran with
+ * @param firedEvents the amount of events fired at the bot
+ * @param failedEvents the amount of events whose dispatch threw an exception
+ * @param firingDuration how long it took to fire all events
+ * @param handledEvents the amount of events handled by features, one event might be handled by
+ *        multiple features
+ * @param totalDuration how long it took to fire all events and until the bot finished handling them
+ * @param dispatchLatencies latencies from when an event was due to be fired until the bot returned
+ *        control to the firing thread, which corresponds to the time the event blocks the gateway
+ *        thread in production. Includes the time an event was delayed because the firing thread was
+ *        blocked by previous events.
+ * @param allocatedBytes the amount of bytes allocated by all threads while firing and handling
+ *        events, or {@code -1} if not supported by the JVM
+ * @param handlerLatencies latencies of the features handling the events
+ */
+public record LoadTestReport(LoadTestSettings settings, long firedEvents, long failedEvents,
+        Duration firingDuration, long handledEvents, Duration totalDuration,
+        LatencyHistogram.Snapshot dispatchLatencies, long allocatedBytes,
+        List<HandlerStatistics.HandlerSnapshot> handlerLatencies) {
+
+    /**
+     * Gets the rate at which events were fired at the bot.
+     *
+     * @return the events fired per second
+     */
+    public double getFiringThroughput() {
+        return perSecond(firedEvents, firingDuration);
+    }
+
+    /**
+     * Gets the rate at which features handled events, until the bot finished handling all events.
+     *
+     * @return the events handled per second
+     */
+    public double getHandlingThroughput() {
+        return perSecond(handledEvents, totalDuration);
+    }
+
+    /**
+     * Gets the rate at which memory was allocated.
+     *
+     * @return the allocated megabytes per second, or a negative number if not supported by the JVM
+     */
+    public double getAllocationRateMegabytes() {
+        if (allocatedBytes < 0) {
+            return -1;
+        }
+        return perSecond(allocatedBytes, totalDuration) / (1024 * 1024);
+    }
+
+    private static double perSecond(long amount, Duration duration) {
+        return amount / (duration.toNanos() / 1_000_000_000.0);
+    }
+
+    /**
+     * Visual representation of this report as human-readable text.
+     *
+     * @return the report as text
+     */
+    public String asText() {
+        return """
+                Load test with %d events/s over %d threads for %s
+                Fired events: %d (%d failed) in %s, %.1f events/s
+                Handled events: %d in %s, %.1f events/s
+                Dispatch latency: p50 %s, p99 %s, max %s
+                Allocation rate: %.1f MB/s
+
+                %s
+                """.formatted(settings.eventsPerSecond(), settings.threads(),
+                settings.duration(), firedEvents, failedEvents, firingDuration,
+                getFiringThroughput(), handledEvents, totalDuration, getHandlingThroughput(),
+                dispatchLatencies.p50(), dispatchLatencies.p99(), dispatchLatencies.max(),
+                getAllocationRateMegabytes(), HandlerStatistics.asAsciiTable(handlerLatencies));
+    }
+}
@@ -0,0 +1,126 @@
+package org.togetherjava.tjbot.jda.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Settings of a load test, see {@link LoadTestHarness}.
+ *
+ * @param config the bot configuration to create all features with
+ * @param eventsPerSecond the total rate of events to fire at the bot
+ * @param threads the amount of threads firing events concurrently, the rate is split evenly between
+ *        them
+ * @param duration how long to fire events for
+ * @param drainTimeout how long to wait at most for the bot to finish handling fired events
+ * @param eventWeights maps the types of events to fire to their relative frequency
+ * @param channelNames the names of the channels to send messages and reactions in, for example
+ *        matching the channel patterns of message receivers
+ * @param channelsPerName the amount of distinct channels to create per channel name
+ * @param slashCommandNames the names of the slash commands to trigger, they must not have required
+ *        options
+ */
+public record LoadTestSettings(Path config, int eventsPerSecond, int threads, Duration duration,
+        Duration drainTimeout, Map<LoadTestHarness.EventType, Integer> eventWeights,
+        List<String> channelNames, int channelsPerName, List<String> slashCommandNames) {
+    private static final String PROPERTY_PREFIX = "loadtest.";
+
+    /**
+     * Creates settings of a load test.
+     *
+     * @param config the bot configuration to create all features with
+     * @param eventsPerSecond the total rate of events to fire at the bot, must be higher than 0
+     * @param threads the amount of threads firing events concurrently, must be higher than 0
+     * @param duration how long to fire events for, must be positive
+     * @param drainTimeout how long to wait at most for the bot to finish handling fired events
+     * @param eventWeights maps the types of events to fire to their relative frequency, weights
+     *        must not be negative and at least one must be positive
+     * @param channelNames the names of the channels to send messages and reactions in, must not be
+     *        empty
+     * @param channelsPerName the amount of distinct channels to create per channel name, must be
+     *        higher than 0
+     * @param slashCommandNames the names of the slash commands to trigger, must not be empty if
+     *        slash commands are fired
+     */
+    public LoadTestSettings {
+        Objects.requireNonNull(config);
+        Objects.requireNonNull(duration);
+        Objects.requireNonNull(drainTimeout);
+        eventWeights = Map.copyOf(eventWeights);
+        channelNames = List.copyOf(channelNames);
+        slashCommandNames = List.copyOf(slashCommandNames);
+
+        if (eventsPerSecond <= 0) {
+            throw new IllegalArgumentException("Illegal eventsPerSecond : " + eventsPerSecond);
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Illegal threads : " + threads);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Illegal duration : " + duration);
+        }
+        if (eventWeights.values().stream().anyMatch(weight -> weight < 0)
+                || eventWeights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Illegal eventWeights : " + eventWeights);
+        }
+        if (channelNames.isEmpty()) {
+            throw new IllegalArgumentException("Illegal channelNames : " + channelNames);
+        }
+        if (channelsPerName <= 0) {
+            throw new IllegalArgumentException("Illegal channelsPerName : " + channelsPerName);
+        }
+        if (slashCommandNames.isEmpty()
+                && eventWeights.getOrDefault(LoadTestHarness.EventType.SLASH_COMMAND, 0) > 0) {
+            throw new IllegalArgumentException("Illegal slashCommandNames : " + slashCommandNames);
+        }
+    }
+
+    /**
+     * Creates settings from system properties, falling back to defaults suitable for a quick run on
+     * a developer machine.
+     * <p>
+     * Supported properties are {@code loadtest.config}, {@code loadtest.eventsPerSecond},
+     * {@code loadtest.threads}, {@code loadtest.durationSeconds},
+     * {@code loadtest.drainTimeoutSeconds}, {@code loadtest.channelsPerName}, the comma separated
+     * {@code loadtest.channelNames} and {@code loadtest.slashCommandNames}, as well as
+     * {@code loadtest.weight.<type>} for each {@link LoadTestHarness.EventType}, e.g.
+     * {@code loadtest.weight.message}.
+     *
+     * @return the settings given by the system properties
+     */
+    public static LoadTestSettings fromSystemProperties() {
+        Map<LoadTestHarness.EventType, Integer> eventWeights =
+                new EnumMap<>(LoadTestHarness.EventType.class);
+        eventWeights.put(LoadTestHarness.EventType.MESSAGE, intProperty("weight.message", 70));
+        eventWeights.put(LoadTestHarness.EventType.REACTION, intProperty("weight.reaction", 15));
+        eventWeights.put(LoadTestHarness.EventType.BUTTON, intProperty("weight.button", 5));
+        eventWeights.put(LoadTestHarness.EventType.SLASH_COMMAND,
+                intProperty("weight.slash_command", 10));
+
+        return new LoadTestSettings(Path.of(property("config", "config.json.template")),
+                intProperty("eventsPerSecond", 500), intProperty("threads", 8),
+                Duration.ofSeconds(intProperty("durationSeconds", 30)),
+                Duration.ofSeconds(intProperty("drainTimeoutSeconds", 30)), eventWeights,
+                listProperty("channelNames", "chit-chat,tj-suggestions,memes,server-suggestions"),
+                intProperty("channelsPerName", 25), listProperty("slashCommandNames", "ping,tags"));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PROPERTY_PREFIX + name, defaultValue);
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(property(name, Integer.toString(defaultValue)));
+    }
+
+    private static List<String> listProperty(String name, String defaultValue) {
+        return Arrays.stream(property(name, defaultValue).split(","))
+            .map(String::strip)
+            .filter(value -> !value.isEmpty())
+            .toList();
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Provides a harness for load testing the bot with synthetic events, see
+ * {@link org.togetherjava.tjbot.jda.load.LoadTestHarness} as entry point.
+ */
+@MethodsReturnNonnullByDefault
+@ParametersAreNonnullByDefault
+package org.togetherjava.tjbot.jda.load;
+
+import org.togetherjava.tjbot.annotations.MethodsReturnNonnullByDefault;
+
+import javax.annotation.ParametersAreNonnullByDefault;
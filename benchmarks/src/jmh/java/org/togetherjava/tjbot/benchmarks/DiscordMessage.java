@@ -0,0 +1,96 @@
+package org.togetherjava.tjbot.benchmarks;
+
+import net.dv8tion.jda.api.entities.Message;
+
+/**
+ * Realistic contents of Discord messages, as typically sent on the server, to be used as benchmark
+ * inputs.
+ * <p>
+ * The contents are sized like real messages, up to the maximal length of
+ * {@value Message#MAX_CONTENT_LENGTH} characters Discord allows.
+ */
+public enum DiscordMessage {
+    /**
+     * A short message in a chat channel.
+     */
+    CHAT("""
+            hey, does anyone know why my gradle build keeps failing with "could not resolve all \
+            dependencies"? it worked yesterday and i didnt change anything :("""),
+    /**
+     * A help request with a code block, close to the maximal message length.
+     */
+    CODE("""
+            Can someone help me? My program throws an exception and I have no idea why, here is \
+            my code:
+            ```java
+            import java.util.*;
+            public class Main{
+            public static void main(String[] args){
+            Scanner scanner=new Scanner(System.in);
+            List<Integer> numbers=new ArrayList<>();
+            System.out.println("How many numbers?");
+            int count=scanner.nextInt();
+            for(int i=0;i<=count;i++){
+            System.out.println("Enter number "+(i+1)+":");
+            numbers.add(scanner.nextInt());}
+            int sum=0;for(int number:numbers){sum+=number;}
+            double average=(double)sum/numbers.size();
+            System.out.println("Average: "+average);
+            Map<String,Integer> counts=new HashMap<>();
+            for(int number:numbers){
+            String key=number%2==0?"even":"odd";
+            counts.put(key,counts.getOrDefault(key,0)+1);}
+            for(Map.Entry<String,Integer> entry:counts.entrySet()){
+            System.out.println(entry.getKey()+": "+entry.getValue());}
+            int[] sorted=new int[numbers.size()];
+            for(int i=0;i<numbers.size();i++){sorted[i]=numbers.get(i);}
+            for(int i=0;i<sorted.length;i++){for(int j=0;j<sorted.length-i;j++){
+            if(sorted[j]>sorted[j+1]){int temp=sorted[j];sorted[j]=sorted[j+1];sorted[j+1]=temp;}}}
+            System.out.println("Sorted: "+Arrays.toString(sorted));
+            System.out.println("Median: "+median(sorted));
+            scanner.close();}
+            private static double median(int[] values){
+            if(values.length%2==0){return (values[values.length/2-1]+values[values.length/2])/2.0;}
+            return values[values.length/2];}
+            private static boolean isPrime(int value){
+            if(value<2){return false;}
+            for(int i=2;i*i<=value;i++){if(value%i==0){return false;}}
+            return true;}
+            }
+            ```
+            The error is `Exception in thread "main" java.lang.ArrayIndexOutOfBoundsException: \
+            Index 5 out of bounds for length 5` but I checked the loops like 10 times already."""),
+    /**
+     * A message sharing several links, some of them suppressed.
+     */
+    LINKS("""
+            For learning Java I can recommend https://dev.java/learn/ and the official tutorials \
+            at <https://docs.oracle.com/javase/tutorial/>. If you prefer videos, \
+            https://www.youtube.com/watch?v=xk4_1vDrzzo is quite good. For the build setup, have \
+            a look at https://docs.gradle.org/current/userguide/getting_started_eng.html and the \
+            example project https://github.com/Together-Java/TJ-Bot/blob/develop/build.gradle, \
+            and if you get stuck, ask in our forum \
+            (https://discord.com/channels/272761734820003841)."""),
+    /**
+     * A typical scam message, advertising free nitro with a suspicious link.
+     */
+    SCAM("""
+            @everyone Free Discord Nitro for 3 months, just claim it before it expires! \
+            https://discord-nitro-gift.ru/claim?code=Zx8kQw2LmN Steam is also giving away free \
+            games https://steamcommunity-gifts.com/redeem""");
+
+    private final String content;
+
+    DiscordMessage(String content) {
+        this.content = content;
+    }
+
+    /**
+     * Gets the content of the message.
+     *
+     * @return the raw content of the message
+     */
+    public String getContent() {
+        return content;
+    }
+}
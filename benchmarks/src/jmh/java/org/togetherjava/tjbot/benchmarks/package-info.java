@@ -0,0 +1,13 @@
+/**
+ * Shared inputs of the JMH benchmarks, such as
+ * {@link org.togetherjava.tjbot.benchmarks.DiscordMessage}.
+ * <p>
+ * The benchmarks themselves are located in the packages of the code they measure.
+ */
+@MethodsReturnNonnullByDefault
+@ParametersAreNonnullByDefault
+package org.togetherjava.tjbot.benchmarks;
+
+import org.togetherjava.tjbot.annotations.MethodsReturnNonnullByDefault;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,169 @@
+package org.togetherjava.tjbot.features.analytics;
+
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.togetherjava.tjbot.db.Database;
+import org.togetherjava.tjbot.db.DatabaseSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.togetherjava.tjbot.db.generated.tables.MetricEvents.METRIC_EVENTS;
+
+/**
+ * Benchmarks analytical queries over a synthetic table of multiple million metric events, comparing
+ * the indexed dimension columns used by {@link MetricQueries} against extracting the dimensions
+ * from the JSON of every event.
+ * <p>
+ * Run with {@code gradlew :benchmarks:jmh -PjmhIncludes=MetricQueriesBenchmark}. Speedups of the
+ * indexed columns should be quoted from such a run only, since other SQLite bindings differ in
+ * version and settings.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MetricQueriesBenchmark {
+    /**
+     * Distinct events are inserted first, then the table is doubled until it reaches its size.
+     */
+    private static final int DISTINCT_EVENTS = 20_000;
+    private static final int DAYS = 90;
+    private static final int QUERIED_DAYS = 7;
+    private static final int LIMIT = 25;
+    private static final String QUERIED_TAG = "tag-7";
+    private static final Field<String> JSON_NAME =
+            DSL.field("json_extract(dimensions, '$.name')", SQLDataType.VARCHAR);
+    private static final Field<String> JSON_ID =
+            DSL.field("json_extract(dimensions, '$.id')", SQLDataType.VARCHAR);
+
+    @Param({"2000000"})
+    private int events;
+
+    private Path directory;
+    private Database database;
+    private MetricQueries queries;
+    private Instant since;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("metric-queries-benchmark");
+        database = new Database("jdbc:sqlite:" + directory.resolve("analytics.db"),
+                DatabaseSettings.DEFAULT.withMigrationsLocation(Metrics.MIGRATIONS_LOCATION));
+        queries = new MetricQueries(database);
+
+        Instant now = Instant.now();
+        since = now.minus(QUERIED_DAYS, ChronoUnit.DAYS);
+        insertDistinctEvents(now);
+        int insertedEvents = DISTINCT_EVENTS;
+        while (insertedEvents < events) {
+            insertedEvents += database.writeAndProvide(context -> context
+                .insertInto(METRIC_EVENTS, METRIC_EVENTS.EVENT, METRIC_EVENTS.HAPPENED_AT,
+                        METRIC_EVENTS.DIMENSIONS)
+                .select(context
+                    .select(METRIC_EVENTS.EVENT, METRIC_EVENTS.HAPPENED_AT,
+                            METRIC_EVENTS.DIMENSIONS)
+                    .from(METRIC_EVENTS))
+                .execute());
+        }
+        database.write(context -> context.execute("ANALYZE"));
+    }
+
+    /**
+     * Inserts events resembling the ones recorded by the bot, spread over the last days.
+     */
+    private void insertDistinctEvents(Instant now) {
+        Random random = new Random(1);
+        database.writeTransaction(context -> {
+            for (int i = 0; i < DISTINCT_EVENTS; i++) {
+                Instant happenedAt = now.minusSeconds(random.nextLong(DAYS * 24L * 60 * 60));
+                long userId = 1_000_000_000_000_000L + random.nextInt(5_000);
+                int kind = random.nextInt(10);
+
+                String event;
+                String dimensions;
+                if (kind < 4) {
+                    event = "slash";
+                    dimensions = "{\"name\":\"command-%d\",\"userId\":%d}"
+                        .formatted(random.nextInt(30), userId);
+                } else if (kind < 6) {
+                    event = "tag";
+                    dimensions = "{\"id\":\"tag-%d\",\"userId\":%d}".formatted(random.nextInt(200),
+                            userId);
+                } else if (kind == 6) {
+                    event = "help-category";
+                    dimensions = "{\"category\":\"category-%d\"}".formatted(random.nextInt(15));
+                } else if (kind == 7) {
+                    event = "code_action";
+                    dimensions = "{\"name\":\"action-%d\"}".formatted(random.nextInt(5));
+                } else {
+                    event = "help-question_posted";
+                    dimensions = null;
+                }
+
+                context.newRecord(METRIC_EVENTS)
+                    .setEvent(event)
+                    .setHappenedAt(happenedAt)
+                    .setDimensions(dimensions)
+                    .insert();
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        database.flushWriteBehind();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<MetricQueries.DimensionCount> countByIndexedDimension() {
+        return queries.countByDimension("slash", MetricQueries.Dimension.NAME, since, LIMIT);
+    }
+
+    @Benchmark
+    public List<MetricQueries.DimensionCount> countByJsonDimension() {
+        return database.read(context -> context.select(JSON_NAME, DSL.count())
+            .from(METRIC_EVENTS)
+            .where(METRIC_EVENTS.EVENT.eq("slash")
+                .and(JSON_NAME.isNotNull())
+                .and(METRIC_EVENTS.HAPPENED_AT.greaterOrEqual(since)))
+            .groupBy(JSON_NAME)
+            .orderBy(DSL.count().desc(), JSON_NAME)
+            .limit(LIMIT)
+            .fetch(record -> new MetricQueries.DimensionCount(record.value1(), record.value2())));
+    }
+
+    @Benchmark
+    public int countWithIndexedDimension() {
+        return queries.countWithDimension("tag", MetricQueries.Dimension.ID, QUERIED_TAG, since);
+    }
+
+    @Benchmark
+    public int countWithJsonDimension() {
+        return database.read(context -> context.fetchCount(METRIC_EVENTS,
+                METRIC_EVENTS.EVENT.eq("tag")
+                    .and(JSON_ID.eq(QUERIED_TAG))
+                    .and(METRIC_EVENTS.HAPPENED_AT.greaterOrEqual(since))));
+    }
+}
@@ -0,0 +1,61 @@
+package org.togetherjava.tjbot.features.componentids;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmarks the CSV serialization of component IDs, as done whenever a component ID is created or
+ * resolved from the database.
+ */
+@State(Scope.Benchmark)
+public class ComponentIdStoreBenchmark {
+    /**
+     * Discord allows at most 25 options in a selection menu, for example when selecting roles.
+     */
+    private static final int MAX_SELECT_OPTIONS = 25;
+    private static final long FIRST_SNOWFLAKE = 1_104_425_102_315_696_148L;
+
+    @Param({"SMALL", "LARGE"})
+    private Size size;
+
+    private ComponentId componentId;
+    private String serializedComponentId;
+
+    @Setup
+    public void setUp() {
+        componentId = switch (size) {
+            // E.g. a delete button of a tag, with the id of the user allowed to click it
+            case SMALL -> new ComponentId("tag", List.of(Long.toString(FIRST_SNOWFLAKE)));
+            // E.g. a role selection menu, with the ids of all selectable roles
+            case LARGE -> new ComponentId("role-select",
+                    LongStream.range(FIRST_SNOWFLAKE, FIRST_SNOWFLAKE + MAX_SELECT_OPTIONS)
+                        .mapToObj(Long::toString)
+                        .toList());
+        };
+        serializedComponentId = ComponentIdStore.serializeComponentId(componentId);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return ComponentIdStore.serializeComponentId(componentId);
+    }
+
+    @Benchmark
+    public ComponentId deserialize() {
+        return ComponentIdStore.deserializeComponentId(serializedComponentId);
+    }
+
+    /**
+     * Sizes of component IDs.
+     */
+    public enum Size {
+        SMALL,
+        LARGE
+    }
+}
@@ -0,0 +1,41 @@
+package org.togetherjava.tjbot.features.moderation.scam;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.togetherjava.tjbot.benchmarks.DiscordMessage;
+import org.togetherjava.tjbot.config.Config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Benchmarks detecting scam, as done for every message sent on the server.
+ * <p>
+ * The detector is configured like in production, using the config template. A different config can
+ * be given with the system property {@value #CONFIG_PROPERTY}.
+ */
+@State(Scope.Benchmark)
+public class ScamDetectorBenchmark {
+    private static final String CONFIG_PROPERTY = "benchmarks.config";
+    private static final String DEFAULT_CONFIG = "../application/config.json.template";
+
+    @Param({"CHAT", "CODE", "LINKS", "SCAM"})
+    private DiscordMessage message;
+
+    private ScamDetector scamDetector;
+
+    @Setup
+    public void setUp() throws IOException {
+        Config config = Config.load(Path.of(System.getProperty(CONFIG_PROPERTY, DEFAULT_CONFIG)));
+        scamDetector = new ScamDetector(config);
+    }
+
+    @Benchmark
+    public boolean isScam() {
+        return scamDetector.isScam(message.getContent());
+    }
+}
@@ -0,0 +1,85 @@
+package org.togetherjava.tjbot.features.system;
+
+import net.dv8tion.jda.api.entities.channel.Channel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks resolving the receivers subscribed to the channel of an incoming event, as done for
+ * every message and reaction, comparing the cached {@link ChannelReceiverRouter} against matching
+ * the patterns of all receivers for each event.
+ */
+@State(Scope.Benchmark)
+public class ChannelReceiverRouterBenchmark {
+    private static final int CHANNELS = 1_000;
+    private static final List<String> CHANNEL_NAMES = List.of("chit-chat", "tj-suggestions",
+            "memes", "server-suggestions", "questions", "java-news-and-changes", "introductions",
+            "projects", "moderation-audit", "hacktoberfest");
+    /**
+     * Channel name patterns as used by the message receivers of the bot.
+     */
+    private static final List<String> RECEIVER_PATTERNS = List.of(".*", ".*", ".*", ".*", ".*",
+            "tj-suggestions", "server-suggestions", "memes", "chit-chat", "questions",
+            "introductions", "projects", "hacktoberfest", "mod-audit-log", "java-news-and-changes",
+            "active-questions", "(?i)chit-chat|memes", "tj-.*", "help-.*", "modmail");
+
+    private List<Receiver> receivers;
+    private ChannelReceiverRouter<Receiver> router;
+    private Channel[] channels;
+    private int nextChannel;
+
+    @Setup
+    public void setUp() {
+        receivers = RECEIVER_PATTERNS.stream()
+            .map(pattern -> new Receiver(Pattern.compile(pattern)))
+            .toList();
+        router = new ChannelReceiverRouter<>(receivers, Receiver::channelNamePattern,
+                Receiver[]::new);
+        channels = IntStream.range(0, CHANNELS)
+            .mapToObj(i -> createChannel(i, CHANNEL_NAMES.get(i % CHANNEL_NAMES.size())))
+            .toArray(Channel[]::new);
+    }
+
+    @Benchmark
+    public Receiver[] matchPatterns() {
+        String channelName = nextChannel().getName();
+        return receivers.stream()
+            .filter(receiver -> receiver.channelNamePattern().matcher(channelName).matches())
+            .toArray(Receiver[]::new);
+    }
+
+    @Benchmark
+    public Receiver[] router() {
+        return router.getReceiversSubscribedTo(nextChannel());
+    }
+
+    private Channel nextChannel() {
+        Channel channel = channels[nextChannel];
+        nextChannel = (nextChannel + 1) % channels.length;
+        return channel;
+    }
+
+    private static Channel createChannel(long id, String name) {
+        return (Channel) Proxy.newProxyInstance(Channel.class.getClassLoader(),
+                new Class<?>[] {Channel.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getIdLong" -> id;
+                    case "getName" -> name;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Receiver subscribed to the channels matching a pattern.
+     *
+     * @param channelNamePattern the pattern of the channel names to subscribe to
+     */
+    public record Receiver(Pattern channelNamePattern) {
+    }
+}
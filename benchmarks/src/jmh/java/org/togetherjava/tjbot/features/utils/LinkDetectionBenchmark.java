@@ -0,0 +1,25 @@
+package org.togetherjava.tjbot.features.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import org.togetherjava.tjbot.benchmarks.DiscordMessage;
+
+import java.util.List;
+
+/**
+ * Benchmarks detecting links in messages, as done for example by the scam detection and when
+ * creating link previews.
+ */
+@State(Scope.Benchmark)
+public class LinkDetectionBenchmark {
+    @Param({"CHAT", "CODE", "LINKS", "SCAM"})
+    private DiscordMessage message;
+
+    @Benchmark
+    public List<String> extractLinks() {
+        return LinkDetection.extractLinks(message.getContent());
+    }
+}
@@ -0,0 +1,25 @@
+package org.togetherjava.tjbot.features.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import org.togetherjava.tjbot.benchmarks.DiscordMessage;
+
+import java.util.Optional;
+
+/**
+ * Benchmarks extracting code from messages, as done for every message in channels with code
+ * detection.
+ */
+@State(Scope.Benchmark)
+public class MessageUtilsBenchmark {
+    @Param({"CHAT", "CODE"})
+    private DiscordMessage message;
+
+    @Benchmark
+    public Optional<CodeFence> extractCode() {
+        return MessageUtils.extractCode(message.getContent());
+    }
+}
@@ -0,0 +1,59 @@
+package org.togetherjava.tjbot.features.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks computing string distances, as done when suggesting tags or auto-completing command
+ * options.
+ */
+@State(Scope.Benchmark)
+public class StringDistancesBenchmark {
+    private static final int AUTO_COMPLETE_LIMIT = 25;
+
+    /**
+     * Resembles the ids of tags, which are the most common candidates for suggestions.
+     */
+    private final Collection<String> candidates = Stream
+        .concat(Stream.of("ask", "dontasktoask", "code", "codeblock", "format", "java",
+                "javadoc", "jdk", "jre", "install-java", "ide", "intellij", "eclipse", "vscode",
+                "maven", "gradle", "build-tools", "nullpointerexception", "npe", "stacktrace",
+                "debugging", "classpath", "modules", "naming-conventions", "static", "oop",
+                "interfaces", "generics", "collections", "streams", "optional", "records",
+                "switch-expressions", "text-blocks", "var", "lambdas", "threads", "concurrency",
+                "virtual-threads", "spring", "spring-boot", "hibernate", "jdbc", "sql", "json",
+                "jackson", "javafx", "swing", "minecraft", "homework", "xy-problem", "learn"),
+                IntStream.range(0, 50).mapToObj(i -> "custom-tag-" + i))
+        .toList();
+
+    private final String query = "colections";
+    private final String prefix = "spri";
+
+    @Benchmark
+    public int editDistance() {
+        return StringDistances.editDistance(query, "collections");
+    }
+
+    @Benchmark
+    public int editDistanceDiscordSized() {
+        return StringDistances.editDistance(
+                "hey, does anyone know why my gradle build keeps failing with could not resolve",
+                "hey does anyone know why my maven build keeps failing with cannot resolve");
+    }
+
+    @Benchmark
+    public Collection<String> closeMatches() {
+        return StringDistances.closeMatches(prefix, candidates, AUTO_COMPLETE_LIMIT);
+    }
+
+    @Benchmark
+    public Optional<String> closestMatch() {
+        return StringDistances.closestMatch(query, candidates);
+    }
+}
@@ -0,0 +1,34 @@
+package org.togetherjava.tjbot.formatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import org.togetherjava.tjbot.benchmarks.DiscordMessage;
+import org.togetherjava.tjbot.formatter.tokenizer.Lexer;
+import org.togetherjava.tjbot.formatter.tokenizer.Token;
+
+import java.util.List;
+
+/**
+ * Benchmarks tokenizing and formatting code, as done when users request their code to be formatted.
+ */
+@State(Scope.Benchmark)
+public class FormatterBenchmark {
+    @Param({"CHAT", "CODE"})
+    private DiscordMessage message;
+
+    private final Lexer lexer = new Lexer();
+    private final Formatter formatter = new Formatter();
+
+    @Benchmark
+    public List<Token> tokenize() {
+        return lexer.tokenize(message.getContent());
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.format(message.getContent());
+    }
+}
@@ -1,50 +1,156 @@
 package org.togetherjava.tjbot.db;
 
 import org.flywaydb.core.Flyway;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.ExecuteListener;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
 import org.jooq.SQLDialect;
 import org.jooq.Table;
+import org.jooq.UpdatableRecord;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sqlite.SQLiteConfig;
 import org.sqlite.SQLiteDataSource;
 
 import org.togetherjava.tjbot.db.util.CheckedConsumer;
 import org.togetherjava.tjbot.db.util.CheckedFunction;
 
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.concurrent.locks.Lock;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 
 /**
  * The main database class used by the application.
  * <p>
- * Create an instance using {@link #Database(String)} and prefer to re-use it. The underlying
- * connections are handled automatically by the system.
+ * Create an instance using {@link #Database(String, DatabaseSettings)} and prefer to re-use it. The
+ * underlying connections are handled automatically by the system.
+ * <p>
+ * Writes go through a single dedicated connection and are serialized. Reads are served by a small
+ * pool of read-only connections instead, so that they neither wait for each other nor for writes,
+ * which SQLite supports in WAL mode. Reads only see committed data.
+ * <p>
+ * Since every commit is expensive in SQLite, high-frequency inserts that do not need to be visible
+ * immediately should be submitted with {@link #writeBehind(CheckedConsumer)} instead, which commits
+ * them in batches. Bulk writes, such as cleanups, should be split into chunks using
+ * {@link #writeInChunks(int, CheckedFunction)} instead, to not block other writes for long.
+ * <p>
+ * All reads and writes block the calling thread. Callers that must not block, such as event
+ * handlers, should use the asynchronous variants instead, e.g. {@link #readAsync(CheckedFunction)}
+ * or {@link #writeAsync(CheckedConsumer)}.
  * <p>
  * Instances of this class are thread-safe and can be used to concurrently write to the database.
  */
 public final class Database {
+    private static final Logger logger = LoggerFactory.getLogger(Database.class);
+    /**
+     * Write that does nothing, used to request a flush of the write-behind queue.
+     */
+    private static final CheckedConsumer<DSLContext, DataAccessException> NO_OP_WRITE =
+            context -> {
+                // Nothing to write
+            };
 
     static {
         System.setProperty("org.jooq.no-logo", "true");
         System.setProperty("org.jooq.no-tips", "true");
     }
 
-    private final DSLContext dslContext;
+    /**
+     * A chunk size suitable for most bulk writes, see {@link #writeInChunks(int, CheckedFunction)}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    /**
+     * How long bulk writes pause between chunks if other writes are waiting.
+     */
+    private static final Duration CHUNK_PAUSE = Duration.ofMillis(5);
+
+    private final DSLContext writeContext;
+    /**
+     * Contexts of the read-only connections that are currently not in use. Empty if reads are
+     * served by the {@link #writeContext} instead.
+     */
+    private final BlockingQueue<DSLContext> idleReadContexts;
+    private final boolean hasReadConnections;
     /**
      * Lock used to implement thread-safety across this class. Any database modifying method must
      * use this lock.
      */
-    private final Lock writeLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final WriteBehindSettings writeBehindSettings;
+    private final BlockingQueue<PendingWrite> pendingWrites;
+    private final AtomicBoolean isWriteBehindStarted = new AtomicBoolean();
+    private final DatabaseStatistics statistics;
+    /**
+     * The file of the database, {@code null} for in-memory databases.
+     */
+    @Nullable
+    private final Path file;
+    /**
+     * Executes asynchronous reads, one virtual thread per read. The amount of concurrent reads is
+     * still bounded by the amount of read connections.
+     */
+    private final ExecutorService readExecutor = Executors
+        .newThreadPerTaskExecutor(Thread.ofVirtual().name("database-read-", 0).factory());
+    /**
+     * Executes asynchronous writes on a single thread, since writes are serialized anyway.
+     */
+    private final ExecutorService writeExecutor = Executors
+        .newSingleThreadExecutor(Thread.ofPlatform().name("database-write").daemon().factory());
 
     /**
-     * Creates an instance of a new database.
+     * Creates an instance of a new database, using the {@link DatabaseSettings#DEFAULT default
+     * settings}.
      *
      * @param jdbcUrl the url to the database in the format expected by JDBC
      * @throws SQLException if no connection could be established
      */
     public Database(String jdbcUrl) throws SQLException {
+        this(jdbcUrl, DatabaseSettings.DEFAULT);
+    }
+
+    /**
+     * Creates an instance of a new database.
+     *
+     * @param jdbcUrl the url to the database in the format expected by JDBC
+     * @param settings the settings of the database, such as the amount of read-only connections and
+     *        the location of the migrations creating its schema
+     * @throws SQLException if no connection could be established
+     */
+    public Database(String jdbcUrl, DatabaseSettings settings) throws SQLException {
+        statistics = new DatabaseStatistics(settings.slowQueryThreshold());
+        writeBehindSettings = settings.writeBehind();
+        pendingWrites = new ArrayBlockingQueue<>(writeBehindSettings.capacity());
+        StorageSettings storageSettings = settings.storage();
+        int readConnections = settings.readConnections();
+
         SQLiteConfig sqliteConfig = new SQLiteConfig();
         sqliteConfig.enforceForeignKeys(true);
         // In WAL mode only concurrent writes pose a problem, so we synchronize those
@@ -53,11 +159,64 @@ public final class Database {
         SQLiteDataSource dataSource = new SQLiteDataSource(sqliteConfig);
         dataSource.setUrl(jdbcUrl);
 
-        Flyway flyway =
-                Flyway.configure().dataSource(dataSource).locations("classpath:/db/").load();
+        Flyway flyway = Flyway.configure()
+            .dataSource(dataSource)
+            .locations(settings.migrationsLocation())
+            .load();
         flyway.migrate();
 
-        dslContext = DSL.using(dataSource.getConnection(), SQLDialect.SQLITE);
+        List<ExecuteListener> executeListeners = new ArrayList<>();
+        executeListeners.add(new QueryTimingListener(statistics));
+        executeListeners.addAll(settings.executeListeners());
+        Connection writeConnection = dataSource.getConnection();
+        applyStorageSettings(writeConnection, storageSettings);
+        writeContext = createContext(writeConnection, executeListeners);
+        file = findDatabaseFile(writeConnection);
+
+        SQLiteConfig readSqliteConfig = new SQLiteConfig();
+        readSqliteConfig.setReadOnly(true);
+        SQLiteDataSource readDataSource = new SQLiteDataSource(readSqliteConfig);
+        readDataSource.setUrl(jdbcUrl);
+
+        hasReadConnections = readConnections > 0;
+        idleReadContexts = new ArrayBlockingQueue<>(Math.max(1, readConnections));
+        for (int i = 0; i < readConnections; i++) {
+            Connection readConnection = readDataSource.getConnection();
+            applyStorageSettings(readConnection, storageSettings);
+            idleReadContexts.add(createContext(readConnection, executeListeners));
+        }
+    }
+
+    private static void applyStorageSettings(Connection connection, StorageSettings settings)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String pragma : settings.toPragmas()) {
+                statement.execute(pragma);
+            }
+        }
+    }
+
+    @Nullable
+    private static Path findDatabaseFile(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet databases = statement.executeQuery("PRAGMA database_list")) {
+            while (databases.next()) {
+                String file = databases.getString("file");
+                // In-memory databases have no file
+                if ("main".equals(databases.getString("name")) && file != null
+                        && !file.isEmpty()) {
+                    return Path.of(file);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static DSLContext createContext(Connection connection,
+            List<ExecuteListener> executeListeners) {
+        return DSL.using(new DefaultConfiguration().set(connection)
+            .set(SQLDialect.SQLITE)
+            .set(executeListeners.toArray(ExecuteListener[]::new)));
     }
 
     /**
@@ -68,7 +227,9 @@ public final class Database {
      */
     public static Database createMemoryDatabase(Table<?>... tables) {
         try {
-            Database database = new Database("jdbc:sqlite:");
+            // Connections to an in-memory database do not share data, hence no read connections
+            Database database =
+                    new Database("jdbc:sqlite:", DatabaseSettings.DEFAULT.withReadConnections(0));
             database.write(context -> context.ddl(tables).executeBatch());
             return database;
         } catch (SQLException e) {
@@ -86,10 +247,13 @@ public final class Database {
      */
     public <T> T read(
             CheckedFunction<? super DSLContext, T, ? extends DataAccessException> action) {
+        DSLContext readContext = acquireReadContext();
         try {
-            return action.accept(getDslContext());
+            return action.accept(readContext);
         } catch (DataAccessException e) {
             throw new DatabaseException(e);
+        } finally {
+            releaseReadContext(readContext);
         }
     }
 
@@ -118,13 +282,13 @@ public final class Database {
      */
     public <T> T writeAndProvide(
             CheckedFunction<? super DSLContext, T, ? extends DataAccessException> action) {
-        writeLock.lock();
+        long lockedAt = lockWrites(DatabaseStatistics.LockedOperation.WRITE);
         try {
-            return action.accept(getDslContext());
+            return action.accept(writeContext);
         } catch (DataAccessException e) {
             throw new DatabaseException(e);
         } finally {
-            writeLock.unlock();
+            unlockWrites(DatabaseStatistics.LockedOperation.WRITE, lockedAt);
         }
     }
 
@@ -142,6 +306,65 @@ public final class Database {
         });
     }
 
+    /**
+     * Acquires read-only access to the database, with another database file attached under the
+     * given schema name. This allows queries across both databases, e.g. joining tables of this
+     * database with tables of the attached one, which are referred to as {@code schemaName.table}.
+     * <p>
+     * The other database is only attached for the duration of the action and is only read, hence
+     * this does not interfere with writes to it.
+     *
+     * @param databaseFile the file of the database to attach, see {@link #getFile()}
+     * @param schemaName the name to refer to the attached database by, must not be {@code main} or
+     *        {@code temp}
+     * @param action the action to apply to the DSL context, e.g. a query
+     * @param <T> the type returned by the given action
+     * @return the result returned by the given action
+     * @throws DatabaseException if the database could not be attached or an error occurs in the
+     *         given action
+     */
+    public <T> T readAttached(Path databaseFile, String schemaName,
+            CheckedFunction<? super DSLContext, T, ? extends DataAccessException> action) {
+        return read(context -> withAttached(context, databaseFile, schemaName, action));
+    }
+
+    /**
+     * Acquires read and write access to the database, with another database file attached under the
+     * given schema name, see {@link #readAttached(Path, String, CheckedFunction)}. This allows
+     * copying data from the attached database into this database.
+     * <p>
+     * Writes to the attached database bypass the write lock of any {@link Database} instance using
+     * that file, hence the attached database must only be read.
+     *
+     * @param databaseFile the file of the database to attach, see {@link #getFile()}
+     * @param schemaName the name to refer to the attached database by, must not be {@code main} or
+     *        {@code temp}
+     * @param action the action to apply to the DSL context, e.g. a query
+     * @throws DatabaseException if the database could not be attached or an error occurs in the
+     *         given action
+     */
+    public void writeAttached(Path databaseFile, String schemaName,
+            CheckedConsumer<? super DSLContext, ? extends DataAccessException> action) {
+        writeAndProvide(context -> withAttached(context, databaseFile, schemaName, attached -> {
+            action.accept(attached);
+            // noinspection ReturnOfNull
+            return null;
+        }));
+    }
+
+    private static <T, E extends DataAccessException> T withAttached(DSLContext context,
+            Path databaseFile, String schemaName,
+            CheckedFunction<? super DSLContext, T, E> action) throws E {
+        // Attaching is not possible within a transaction, so it can not be part of the action
+        context.query("ATTACH DATABASE {0} AS {1}", DSL.inline(databaseFile.toString()),
+                DSL.name(schemaName)).execute();
+        try {
+            return action.accept(context);
+        } finally {
+            context.query("DETACH DATABASE {0}", DSL.name(schemaName)).execute();
+        }
+    }
+
     /**
      * Acquires a transaction that can only read from the database.
      *
@@ -155,10 +378,13 @@ public final class Database {
             CheckedFunction<? super DSLContext, T, DataAccessException> handler) {
         var holder = new ResultHolder<T>();
 
+        DSLContext readContext = acquireReadContext();
         try {
-            getDslContext().transaction(config -> holder.result = handler.accept(config.dsl()));
+            readContext.transaction(config -> holder.result = handler.accept(config.dsl()));
         } catch (DataAccessException e) {
             throw new DatabaseException(e);
+        } finally {
+            releaseReadContext(readContext);
         }
 
         return holder.result;
@@ -194,18 +420,104 @@ public final class Database {
             CheckedFunction<? super DSLContext, T, DataAccessException> handler) {
         var holder = new ResultHolder<T>();
 
-        writeLock.lock();
+        long lockedAt = lockWrites(DatabaseStatistics.LockedOperation.WRITE_TRANSACTION);
         try {
-            getDslContext().transaction(config -> holder.result = handler.accept(config.dsl()));
+            writeContext.transaction(config -> holder.result = handler.accept(config.dsl()));
         } catch (DataAccessException e) {
             throw new DatabaseException(e);
         } finally {
-            writeLock.unlock();
+            unlockWrites(DatabaseStatistics.LockedOperation.WRITE_TRANSACTION, lockedAt);
         }
 
         return holder.result;
     }
 
+    /**
+     * Acquires the {@link #writeLock} and records how long that took.
+     *
+     * @param operation the operation acquiring the lock
+     * @return the time the lock was acquired at, as given by {@link System#nanoTime()}
+     */
+    private long lockWrites(DatabaseStatistics.LockedOperation operation) {
+        long requestedAt = System.nanoTime();
+        boolean isContended = !writeLock.tryLock();
+        if (isContended) {
+            writeLock.lock();
+        }
+
+        long lockedAt = System.nanoTime();
+        statistics.recordLockWait(operation, lockedAt - requestedAt, isContended);
+        return lockedAt;
+    }
+
+    private void unlockWrites(DatabaseStatistics.LockedOperation operation, long lockedAt) {
+        statistics.recordLockHold(operation, System.nanoTime() - lockedAt);
+        writeLock.unlock();
+    }
+
+    /**
+     * Gets the statistics of this database, such as query latencies and contention of writes.
+     *
+     * @return the statistics of this database
+     */
+    public DatabaseStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Runs a checkpoint, moving the content of the write-ahead log into the database file.
+     * <p>
+     * SQLite runs passive checkpoints automatically already. Explicit checkpoints are useful to
+     * keep the log small under sustained write load, ideally at times with little load, since
+     * writes have to wait for the checkpoint.
+     *
+     * @param mode how thoroughly to run the checkpoint
+     * @return the result of the checkpoint
+     * @throws DatabaseException if an error occurs while running the checkpoint
+     */
+    public WalCheckpoint checkpoint(WalCheckpoint.Mode mode) {
+        long lockedAt = lockWrites(DatabaseStatistics.LockedOperation.CHECKPOINT);
+        try {
+            Record result = writeContext.fetchSingle("PRAGMA wal_checkpoint(" + mode.name() + ")");
+            return new WalCheckpoint(result.get(0, Integer.class) != 0,
+                    result.get(1, Integer.class), result.get(2, Integer.class));
+        } catch (DataAccessException e) {
+            throw new DatabaseException(e);
+        } finally {
+            unlockWrites(DatabaseStatistics.LockedOperation.CHECKPOINT, lockedAt);
+        }
+    }
+
+    /**
+     * Gets the file this database is stored in, for example to attach it to another database, see
+     * {@link #readAttached(Path, String, CheckedFunction)}.
+     *
+     * @return the file of this database, empty for in-memory databases
+     */
+    public Optional<Path> getFile() {
+        return Optional.ofNullable(file);
+    }
+
+    /**
+     * Gets the current size of the write-ahead log on disk.
+     *
+     * @return the size of the log in bytes, {@code 0} if there is none, e.g. for in-memory
+     *         databases
+     * @throws DatabaseException if the size could not be determined
+     */
+    public long getWalSizeBytes() {
+        if (file == null) {
+            return 0;
+        }
+
+        Path walFile = Path.of(file + "-wal");
+        try {
+            return Files.exists(walFile) ? Files.size(walFile) : 0;
+        } catch (IOException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
     /**
      * Acquires a transaction that can read and write to the database.
      *
@@ -222,8 +534,314 @@ public final class Database {
         });
     }
 
-    private DSLContext getDslContext() {
-        return dslContext;
+    /**
+     * Runs a bulk write, such as a cleanup, in chunks. Each chunk runs within its own write
+     * transaction and the write lock is released in between, giving other writes the chance to run
+     * first. Hence, bulk writes never block other writes for longer than a single chunk.
+     * <p>
+     * Each chunk must process at most {@code chunkSize} records, for example by using a
+     * {@code LIMIT}, and afterwards no longer select them, for example by deleting them. Chunks are
+     * run until one processes less than {@code chunkSize} records.
+     *
+     * @param chunkSize the maximal amount of records a single chunk processes, must be higher than
+     *        0
+     * @param processChunk processes the next chunk and returns the amount of records it processed
+     * @return the amount of records processed by all chunks
+     * @throws DatabaseException if an error occurs in any of the chunks, chunks that already
+     *         completed stay committed
+     */
+    public int writeInChunks(int chunkSize,
+            CheckedFunction<? super DSLContext, Integer, DataAccessException> processChunk) {
+        return runInChunks(chunkSize, () -> writeTransactionAndProvide(processChunk));
+    }
+
+    /**
+     * Deletes records in chunks, see {@link #writeInChunks(int, CheckedFunction)}.
+     * <p>
+     * The records of a chunk are only selected once the previous chunk has been deleted, so the
+     * records to delete are never all held in memory at once.
+     *
+     * @param chunkSize the maximal amount of records deleted in a single chunk, must be higher than
+     *        0
+     * @param selectChunk selects the next chunk of at most {@code chunkSize} records to delete
+     * @param onDeleted notified with each chunk once its deletion has been committed, outside of
+     *        the write lock
+     * @param <R> the type of the records to delete
+     * @return the amount of deleted records
+     * @throws DatabaseException if an error occurs while selecting or deleting any of the chunks
+     */
+    public <R extends UpdatableRecord<R>> int deleteInChunks(int chunkSize,
+            CheckedFunction<? super DSLContext, Result<R>, DataAccessException> selectChunk,
+            Consumer<? super Result<R>> onDeleted) {
+        return runInChunks(chunkSize, () -> {
+            Result<R> chunk = writeTransactionAndProvide(context -> {
+                Result<R> records = selectChunk.accept(context);
+                context.batchDelete(records).execute();
+                return records;
+            });
+
+            onDeleted.accept(chunk);
+            return chunk.size();
+        });
+    }
+
+    /**
+     * Deletes all records of the given table matching the condition in chunks, see
+     * {@link #writeInChunks(int, CheckedFunction)}.
+     *
+     * @param chunkSize the maximal amount of records deleted in a single chunk, must be higher than
+     *        0
+     * @param table the table to delete records from
+     * @param condition the condition of the records to delete
+     * @return the amount of deleted records
+     * @throws DatabaseException if an error occurs while deleting any of the chunks
+     */
+    public int deleteInChunks(int chunkSize, Table<?> table, Condition condition) {
+        Field<Object> rowId = DSL.field(DSL.name("rowid"));
+        return writeInChunks(chunkSize, context -> context.deleteFrom(table)
+            .where(rowId.in(context.select(rowId).from(table).where(condition).limit(chunkSize)))
+            .execute());
+    }
+
+    private int runInChunks(int chunkSize, IntSupplier runChunk) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Illegal chunkSize : " + chunkSize);
+        }
+
+        int total = 0;
+        int processed;
+        do {
+            if (total > 0) {
+                awaitQueuedWrites();
+            }
+            processed = runChunk.getAsInt();
+            total += processed;
+        } while (processed >= chunkSize);
+        return total;
+    }
+
+    /**
+     * Gives writes waiting for the {@link #writeLock} the chance to acquire it. The lock is not
+     * fair, so without pausing, the next chunk of a bulk write could acquire it again right away.
+     */
+    private void awaitQueuedWrites() {
+        if (!writeLock.hasQueuedThreads()) {
+            return;
+        }
+
+        try {
+            Thread.sleep(CHUNK_PAUSE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Acquires read-only access to the database asynchronously. Returns immediately.
+     * <p>
+     * The returned future is completed on a database thread, dependent actions should therefore not
+     * block.
+     *
+     * @param action the action to apply to the DSL context, e.g. a query
+     * @param <T> the type returned by the given action
+     * @return a future that completes with the result returned by the given action, or
+     *         exceptionally with a {@link DatabaseException} if an error occurs in the action
+     */
+    public <T> CompletableFuture<T> readAsync(
+            CheckedFunction<? super DSLContext, T, ? extends DataAccessException> action) {
+        Objects.requireNonNull(action);
+        return CompletableFuture.supplyAsync(() -> read(action), readExecutor);
+    }
+
+    /**
+     * Acquires read and write access to the database asynchronously and provides the computed
+     * result. Returns immediately.
+     * <p>
+     * Asynchronous writes are executed one after another, in the order they were submitted. The
+     * returned future is completed on a database thread, dependent actions should therefore not
+     * block.
+     *
+     * @param action the action to apply to the DSL context, e.g. a query
+     * @param <T> the type returned by the given action
+     * @return a future that completes with the result returned by the given action, or
+     *         exceptionally with a {@link DatabaseException} if an error occurs in the action
+     */
+    public <T> CompletableFuture<T> writeAndProvideAsync(
+            CheckedFunction<? super DSLContext, T, ? extends DataAccessException> action) {
+        Objects.requireNonNull(action);
+        return CompletableFuture.supplyAsync(() -> writeAndProvide(action), writeExecutor);
+    }
+
+    /**
+     * Acquires read and write access to the database asynchronously. Returns immediately.
+     * <p>
+     * See {@link #writeAndProvideAsync(CheckedFunction)} for details.
+     *
+     * @param action the action to apply to the DSL context, e.g. a query
+     * @return a future that completes once the action is done, or exceptionally with a
+     *         {@link DatabaseException} if an error occurs in the action
+     */
+    public CompletableFuture<Void> writeAsync(
+            CheckedConsumer<? super DSLContext, ? extends DataAccessException> action) {
+        Objects.requireNonNull(action);
+        return CompletableFuture.runAsync(() -> write(action), writeExecutor);
+    }
+
+    /**
+     * Submits a write, typically an insert, that is executed asynchronously. Returns immediately,
+     * unless the queue of pending writes is full, in which case it blocks until there is space
+     * again.
+     * <p>
+     * Pending writes are executed in the order they were submitted and committed together in one
+     * transaction, once per flush interval or whenever a batch is full, see
+     * {@link WriteBehindSettings}. Hence, the write is not visible to reads immediately. Use
+     * {@link #flushWriteBehind()} to wait for pending writes, for example before shutting down.
+     * <p>
+     * If a batch fails, its writes are retried one by one, failures are logged. Since nobody waits
+     * for the result, this should only be used for writes whose loss is acceptable, such as
+     * analytics.
+     *
+     * @param action the action to apply to the DSL context, e.g. an insert
+     * @throws DatabaseException if interrupted while waiting for space in the queue
+     */
+    public void writeBehind(
+            CheckedConsumer<? super DSLContext, ? extends DataAccessException> action) {
+        Objects.requireNonNull(action);
+        startWriteBehindIfNeeded();
+        enqueue(new PendingWrite(action, null));
+    }
+
+    /**
+     * Commits all writes that have been submitted with {@link #writeBehind(CheckedConsumer)} so far
+     * and waits until they are done.
+     *
+     * @throws DatabaseException if interrupted while waiting
+     */
+    public void flushWriteBehind() {
+        if (!isWriteBehindStarted.get()) {
+            return;
+        }
+
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        enqueue(new PendingWrite(NO_OP_WRITE, flushed));
+        try {
+            flushed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        } catch (ExecutionException e) {
+            throw new AssertionError("Flushing never completes exceptionally", e);
+        }
+    }
+
+    private void enqueue(PendingWrite pendingWrite) {
+        try {
+            pendingWrites.put(pendingWrite);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        }
+    }
+
+    private void startWriteBehindIfNeeded() {
+        if (isWriteBehindStarted.get() || !isWriteBehindStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread.ofPlatform().name("database-write-behind").daemon().start(this::runWriteBehind);
+    }
+
+    private void runWriteBehind() {
+        int batchSize = writeBehindSettings.batchSize();
+        long flushIntervalNanos = writeBehindSettings.flushInterval().toNanos();
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // Collect writes until the batch is full, the interval passed or a flush is
+                // requested
+                batch.add(pendingWrites.take());
+                long flushAtNanos = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize && !batch.getLast().isFlushRequest()) {
+                    PendingWrite pendingWrite = pendingWrites
+                        .poll(flushAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (pendingWrite == null) {
+                        break;
+                    }
+                    batch.add(pendingWrite);
+                }
+
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Unknown error in the write-behind queue, dropped {} writes",
+                        batch.size(), e);
+            } finally {
+                batch.forEach(PendingWrite::complete);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commitBatch(List<PendingWrite> batch) {
+        try {
+            writeTransaction(context -> batch
+                .forEach(pendingWrite -> pendingWrite.action().accept(context)));
+        } catch (RuntimeException batchFailure) {
+            // Not only DatabaseException, the transaction rethrows other exceptions of writes as-is
+            logger.warn("Failed to commit a batch of {} writes, retrying them one by one",
+                    batch.size(), batchFailure);
+
+            for (PendingWrite pendingWrite : batch) {
+                try {
+                    write(pendingWrite.action());
+                } catch (RuntimeException e) {
+                    logger.error("Failed to commit a write, dropping it", e);
+                }
+            }
+        }
+    }
+
+    private DSLContext acquireReadContext() {
+        if (!hasReadConnections) {
+            return writeContext;
+        }
+
+        try {
+            return idleReadContexts.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        }
+    }
+
+    private void releaseReadContext(DSLContext readContext) {
+        if (hasReadConnections) {
+            idleReadContexts.add(readContext);
+        }
+    }
+
+    /**
+     * A write submitted to the write-behind queue.
+     *
+     * @param action the write to execute
+     * @param flushed completed once the write has been committed, if someone waits for it, e.g. for
+     *        {@link #flushWriteBehind()}
+     */
+    private record PendingWrite(
+            CheckedConsumer<? super DSLContext, ? extends DataAccessException> action,
+            @Nullable CompletableFuture<Void> flushed) {
+        boolean isFlushRequest() {
+            return flushed != null;
+        }
+
+        void complete() {
+            if (flushed != null) {
+                flushed.complete(null);
+            }
+        }
     }
 
     /**
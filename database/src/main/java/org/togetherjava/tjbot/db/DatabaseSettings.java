@@ -0,0 +1,143 @@
+package org.togetherjava.tjbot.db;
+
+import org.jooq.ExecuteListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Settings of a {@link Database}, such as its connections, its write-behind queue and the
+ * migrations creating its schema.
+ * <p>
+ * Start from {@link #DEFAULT} and adjust single settings with the {@code with} methods, e.g.
+ * {@code DatabaseSettings.DEFAULT.withReadConnections(0)}.
+ *
+ * @param readConnections the amount of read-only connections to serve reads with, i.e. how many
+ *        reads can run concurrently. If {@code 0}, reads are served by the connection used for
+ *        writes, which is required for in-memory databases since each connection would see its own
+ *        database.
+ * @param writeBehind the settings of the queue used by
+ *        {@link Database#writeBehind(org.togetherjava.tjbot.db.util.CheckedConsumer)}
+ * @param slowQueryThreshold queries taking longer than this are logged, see
+ *        {@link Database#getStatistics()}
+ * @param storage the settings of how SQLite stores and caches data, applied to all connections
+ * @param migrationsLocation the location of the Flyway migrations creating the schema of the
+ *        database, e.g. {@code "classpath:/db/"}. Migrations are also searched in subdirectories,
+ *        so the locations of different databases must not be nested.
+ * @param executeListeners additional listeners notified about all queries executed on any of the
+ *        connections, e.g. to record them in tests
+ */
+public record DatabaseSettings(int readConnections, WriteBehindSettings writeBehind,
+        Duration slowQueryThreshold, StorageSettings storage, String migrationsLocation,
+        List<ExecuteListener> executeListeners) {
+    /**
+     * The location of the migrations creating the main database of the application.
+     */
+    public static final String DEFAULT_MIGRATIONS_LOCATION = "classpath:/db/";
+    /**
+     * Settings suitable for the main database of the application, serving reads with 4 read-only
+     * connections and logging queries slower than 100 ms.
+     */
+    public static final DatabaseSettings DEFAULT = new DatabaseSettings(4,
+            WriteBehindSettings.DEFAULT, Duration.ofMillis(100), StorageSettings.DEFAULT,
+            DEFAULT_MIGRATIONS_LOCATION, List.of());
+
+    /**
+     * Creates database settings.
+     *
+     * @param readConnections the amount of read-only connections to serve reads with, must not be
+     *        negative
+     * @param writeBehind the settings of the write-behind queue
+     * @param slowQueryThreshold queries taking longer than this are logged, must not be negative
+     * @param storage the settings of how SQLite stores and caches data
+     * @param migrationsLocation the location of the Flyway migrations creating the schema
+     * @param executeListeners additional listeners notified about all executed queries
+     */
+    public DatabaseSettings {
+        Objects.requireNonNull(writeBehind);
+        Objects.requireNonNull(slowQueryThreshold);
+        Objects.requireNonNull(storage);
+        Objects.requireNonNull(migrationsLocation);
+        executeListeners = List.copyOf(executeListeners);
+        if (readConnections < 0) {
+            throw new IllegalArgumentException("Illegal readConnections : " + readConnections);
+        }
+        if (slowQueryThreshold.isNegative()) {
+            throw new IllegalArgumentException(
+                    "Illegal slowQueryThreshold : " + slowQueryThreshold);
+        }
+    }
+
+    /**
+     * Creates a copy of these settings with the given amount of read-only connections.
+     *
+     * @param readConnections the amount of read-only connections, see {@link #readConnections()}
+     * @return the adjusted settings
+     */
+    public DatabaseSettings withReadConnections(int readConnections) {
+        return new DatabaseSettings(readConnections, writeBehind, slowQueryThreshold, storage,
+                migrationsLocation, executeListeners);
+    }
+
+    /**
+     * Creates a copy of these settings with the given write-behind settings.
+     *
+     * @param writeBehind the settings of the write-behind queue, see {@link #writeBehind()}
+     * @return the adjusted settings
+     */
+    public DatabaseSettings withWriteBehind(WriteBehindSettings writeBehind) {
+        return new DatabaseSettings(readConnections, writeBehind, slowQueryThreshold, storage,
+                migrationsLocation, executeListeners);
+    }
+
+    /**
+     * Creates a copy of these settings with the given slow query threshold.
+     *
+     * @param slowQueryThreshold queries taking longer than this are logged, see
+     *        {@link #slowQueryThreshold()}
+     * @return the adjusted settings
+     */
+    public DatabaseSettings withSlowQueryThreshold(Duration slowQueryThreshold) {
+        return new DatabaseSettings(readConnections, writeBehind, slowQueryThreshold, storage,
+                migrationsLocation, executeListeners);
+    }
+
+    /**
+     * Creates a copy of these settings with the given storage settings.
+     *
+     * @param storage the settings of how SQLite stores and caches data, see {@link #storage()}
+     * @return the adjusted settings
+     */
+    public DatabaseSettings withStorage(StorageSettings storage) {
+        return new DatabaseSettings(readConnections, writeBehind, slowQueryThreshold, storage,
+                migrationsLocation, executeListeners);
+    }
+
+    /**
+     * Creates a copy of these settings with the given location of the migrations.
+     *
+     * @param migrationsLocation the location of the Flyway migrations creating the schema, see
+     *        {@link #migrationsLocation()}
+     * @return the adjusted settings
+     */
+    public DatabaseSettings withMigrationsLocation(String migrationsLocation) {
+        return new DatabaseSettings(readConnections, writeBehind, slowQueryThreshold, storage,
+                migrationsLocation, executeListeners);
+    }
+
+    /**
+     * Creates a copy of these settings with the given listener added to the
+     * {@link #executeListeners()}.
+     *
+     * @param executeListener the listener to notify about all executed queries
+     * @return the adjusted settings
+     */
+    public DatabaseSettings withExecuteListener(ExecuteListener executeListener) {
+        List<ExecuteListener> adjustedListeners = new ArrayList<>(executeListeners);
+        adjustedListeners.add(Objects.requireNonNull(executeListener));
+        return new DatabaseSettings(readConnections, writeBehind, slowQueryThreshold, storage,
+                migrationsLocation, adjustedListeners);
+    }
+}
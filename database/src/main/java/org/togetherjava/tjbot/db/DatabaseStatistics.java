@@ -0,0 +1,238 @@
+package org.togetherjava.tjbot.db;
+
+import org.togetherjava.tjbot.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Records how long the queries of a {@link Database} take and how long writes wait for and hold the
+ * write lock.
+ * <p>
+ * Query latencies are recorded per query shape, which is the SQL with placeholders instead of bind
+ * values, into lock-free {@link LatencyHistogram histograms}. Queries taking longer than the
+ * configured threshold are additionally counted as slow.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class DatabaseStatistics {
+    /**
+     * Maximal amount of distinct query shapes to record, further shapes are recorded as
+     * {@link #OTHER_QUERY_SHAPE}. Protects against unbounded growth, for example if some feature
+     * inlines values into its SQL.
+     */
+    private static final int MAX_QUERY_SHAPES = 1_000;
+    /**
+     * Shape that all queries are recorded as once {@link #MAX_QUERY_SHAPES} is reached.
+     */
+    public static final String OTHER_QUERY_SHAPE = "<other>";
+    /**
+     * Lists of placeholders, such as generated for {@code IN} conditions, whose length depends on
+     * the amount of bind values.
+     */
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final LockedOperation[] LOCKED_OPERATIONS = LockedOperation.values();
+
+    private final Duration slowQueryThreshold;
+    private final long slowQueryThresholdNanos;
+    private final Map<String, LatencyHistogram> queryShapeToLatencies = new ConcurrentHashMap<>();
+    private final LatencyHistogram allQueryLatencies = new LatencyHistogram();
+    private final LongAdder slowQueries = new LongAdder();
+    private final LongAdder failedQueries = new LongAdder();
+    private final LatencyHistogram[] lockWaits = new LatencyHistogram[LOCKED_OPERATIONS.length];
+    private final LatencyHistogram[] lockHolds = new LatencyHistogram[LOCKED_OPERATIONS.length];
+    private final LongAdder[] contendedLocks = new LongAdder[LOCKED_OPERATIONS.length];
+
+    /**
+     * Creates new, empty statistics.
+     *
+     * @param slowQueryThreshold queries taking longer than this are considered slow
+     */
+    DatabaseStatistics(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+        slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+
+        for (LockedOperation operation : LOCKED_OPERATIONS) {
+            lockWaits[operation.ordinal()] = new LatencyHistogram();
+            lockHolds[operation.ordinal()] = new LatencyHistogram();
+            contendedLocks[operation.ordinal()] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records how long a query took.
+     *
+     * @param sql the SQL of the query, with placeholders instead of bind values
+     * @param nanos the time the query took, in nanoseconds
+     * @return whether the query is considered slow
+     */
+    boolean recordQuery(String sql, long nanos) {
+        getQueryLatencies(toQueryShape(sql)).recordNanos(nanos);
+        allQueryLatencies.recordNanos(nanos);
+
+        boolean isSlow = nanos > slowQueryThresholdNanos;
+        if (isSlow) {
+            slowQueries.increment();
+        }
+        return isSlow;
+    }
+
+    /**
+     * Records that a query failed.
+     */
+    void recordFailedQuery() {
+        failedQueries.increment();
+    }
+
+    /**
+     * Records how long an operation waited to acquire the write lock.
+     *
+     * @param operation the operation that acquired the lock
+     * @param nanos the time spent waiting, in nanoseconds
+     * @param isContended whether the lock was held by someone else when it was requested
+     */
+    void recordLockWait(LockedOperation operation, long nanos, boolean isContended) {
+        lockWaits[operation.ordinal()].recordNanos(nanos);
+        if (isContended) {
+            contendedLocks[operation.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Records how long an operation held the write lock.
+     *
+     * @param operation the operation that held the lock
+     * @param nanos the time the lock was held, in nanoseconds
+     */
+    void recordLockHold(LockedOperation operation, long nanos) {
+        lockHolds[operation.ordinal()].recordNanos(nanos);
+    }
+
+    private LatencyHistogram getQueryLatencies(String queryShape) {
+        LatencyHistogram latencies = queryShapeToLatencies.get(queryShape);
+        if (latencies != null) {
+            return latencies;
+        }
+
+        String shapeToRecord =
+                queryShapeToLatencies.size() < MAX_QUERY_SHAPES ? queryShape : OTHER_QUERY_SHAPE;
+        return queryShapeToLatencies.computeIfAbsent(shapeToRecord, any -> new LatencyHistogram());
+    }
+
+    static String toQueryShape(String sql) {
+        return PLACEHOLDER_LIST.matcher(sql).replaceAll("?, ...");
+    }
+
+    /**
+     * Gets the threshold above which queries are considered slow.
+     *
+     * @return the slow query threshold
+     */
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    /**
+     * Gets the amount of queries that took longer than the {@link #getSlowQueryThreshold()}.
+     *
+     * @return the amount of slow queries
+     */
+    public long getSlowQueryCount() {
+        return slowQueries.sum();
+    }
+
+    /**
+     * Gets the amount of queries that failed.
+     *
+     * @return the amount of failed queries
+     */
+    public long getFailedQueryCount() {
+        return failedQueries.sum();
+    }
+
+    /**
+     * Takes a snapshot of the latencies of all queries together, regardless of their shape.
+     *
+     * @return the snapshot of all queries
+     */
+    public LatencyHistogram.Snapshot snapshotAllQueries() {
+        return allQueryLatencies.snapshot();
+    }
+
+    /**
+     * Takes a snapshot of the latencies of all query shapes, sorted by their 99th percentile,
+     * slowest first.
+     *
+     * @return the snapshots of all query shapes that have been executed at least once
+     */
+    public List<QuerySnapshot> snapshotQueries() {
+        List<QuerySnapshot> snapshots = new ArrayList<>(queryShapeToLatencies.size());
+        queryShapeToLatencies.forEach((queryShape, latencies) -> snapshots
+            .add(new QuerySnapshot(queryShape, latencies.snapshot())));
+
+        snapshots.sort(Comparator
+            .comparing((QuerySnapshot snapshot) -> snapshot.latencies().p99())
+            .reversed());
+        return snapshots;
+    }
+
+    /**
+     * Takes a snapshot of the wait and hold times of the write lock, per operation.
+     *
+     * @return the snapshots of all operations, in the order of {@link LockedOperation}
+     */
+    public List<LockSnapshot> snapshotLocks() {
+        List<LockSnapshot> snapshots = new ArrayList<>(LOCKED_OPERATIONS.length);
+        for (LockedOperation operation : LOCKED_OPERATIONS) {
+            int index = operation.ordinal();
+            snapshots.add(new LockSnapshot(operation, contendedLocks[index].sum(),
+                    lockWaits[index].snapshot(), lockHolds[index].snapshot()));
+        }
+        return snapshots;
+    }
+
+    /**
+     * The operations of a {@link Database} that acquire the write lock.
+     */
+    public enum LockedOperation {
+        /**
+         * See {@link Database#writeAndProvide}.
+         */
+        WRITE,
+        /**
+         * See {@link Database#writeTransactionAndProvide}.
+         */
+        WRITE_TRANSACTION,
+        /**
+         * See {@link Database#checkpoint}.
+         */
+        CHECKPOINT
+    }
+
+    /**
+     * Snapshot of the latencies of a single query shape.
+     *
+     * @param queryShape the SQL of the query, with placeholders instead of bind values
+     * @param latencies the recorded latencies
+     */
+    public record QuerySnapshot(String queryShape, LatencyHistogram.Snapshot latencies) {
+    }
+
+    /**
+     * Snapshot of the usage of the write lock by a single operation.
+     *
+     * @param operation the operation that acquired the lock
+     * @param contendedCount how often the lock was held by someone else when it was requested
+     * @param waits the times spent waiting to acquire the lock
+     * @param holds the times the lock was held
+     */
+    public record LockSnapshot(LockedOperation operation, long contendedCount,
+            LatencyHistogram.Snapshot waits, LatencyHistogram.Snapshot holds) {
+    }
+}
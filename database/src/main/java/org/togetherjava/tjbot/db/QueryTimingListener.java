@@ -0,0 +1,95 @@
+package org.togetherjava.tjbot.db;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Measures how long queries take and records them in {@link DatabaseStatistics}. Slow queries are
+ * logged, together with the part of the application that executed them.
+ * <p>
+ * Measured is the full lifecycle of a query, from rendering its SQL until the results have been
+ * fetched.
+ */
+final class QueryTimingListener implements ExecuteListener {
+    private static final Logger logger = LoggerFactory.getLogger(QueryTimingListener.class);
+    private static final String START_NANOS_KEY = QueryTimingListener.class.getName() + ".start";
+    private static final String APPLICATION_PACKAGE_PREFIX = "org.togetherjava.tjbot.";
+    private static final String DATABASE_PACKAGE_PREFIX = Database.class.getPackageName() + ".";
+    private static final String UNKNOWN_CALLER = "unknown";
+
+    private final DatabaseStatistics statistics;
+
+    /**
+     * Creates a new listener.
+     *
+     * @param statistics the statistics to record query latencies in
+     */
+    QueryTimingListener(DatabaseStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void start(ExecuteContext ctx) {
+        ctx.data(START_NANOS_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void exception(ExecuteContext ctx) {
+        statistics.recordFailedQuery();
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        if (!(ctx.data(START_NANOS_KEY) instanceof Long startNanos)) {
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+
+        String sql = getSql(ctx);
+        if (sql == null) {
+            return;
+        }
+
+        boolean isSlow = statistics.recordQuery(sql, nanos);
+        if (isSlow && logger.isWarnEnabled()) {
+            logger.warn("Slow query in {} took {} ms: {}", findCaller(),
+                    Duration.ofNanos(nanos).toMillis(), sql);
+        }
+    }
+
+    @Nullable
+    private static String getSql(ExecuteContext ctx) {
+        if (ctx.sql() != null) {
+            return ctx.sql();
+        }
+
+        String[] batchSql = ctx.batchSQL();
+        return batchSql.length == 0 ? null : batchSql[0];
+    }
+
+    /**
+     * Finds the part of the application that executed the current query, i.e. the first caller
+     * outside of the database module and its libraries.
+     *
+     * @return the caller, as class and method name
+     */
+    private static String findCaller() {
+        return StackWalker.getInstance()
+            .walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE_PREFIX)
+                        && !frame.getClassName().startsWith(DATABASE_PACKAGE_PREFIX))
+                .findFirst())
+            .map(frame -> {
+                String className = frame.getClassName();
+                return className.substring(className.lastIndexOf('.') + 1) + "#"
+                        + frame.getMethodName();
+            })
+            .orElse(UNKNOWN_CALLER);
+    }
+}
@@ -0,0 +1,122 @@
+package org.togetherjava.tjbot.db;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Settings of how SQLite stores and caches the data of a {@link Database}, applied to each of its
+ * connections.
+ *
+ * @param cacheSizeKib the maximal size of the page cache of each connection, in KiB
+ * @param mmapSizeBytes the maximal amount of the database file that is memory-mapped, in bytes,
+ *        {@code 0} disables memory-mapping
+ * @param synchronous how often SQLite waits for data to be written to disk, trading durability in
+ *        case of power loss for write performance
+ * @param tempStore where temporary tables and indices, e.g. for sorting, are kept
+ * @param busyTimeout how long a connection waits for a lock held by another connection before it
+ *        fails, for example for checkpoints waiting on readers
+ * @param walAutocheckpointPages the size of the write-ahead log, in pages, at which SQLite
+ *        automatically runs a passive checkpoint, {@code 0} disables automatic checkpoints
+ */
+public record StorageSettings(int cacheSizeKib, long mmapSizeBytes, Synchronous synchronous,
+        TempStore tempStore, Duration busyTimeout, int walAutocheckpointPages) {
+    /**
+     * Settings suitable for most databases, using a 16 MiB page cache per connection and
+     * memory-mapping up to 256 MiB. Commits are not synced to disk in WAL mode, which can only lose
+     * the most recent commits on power loss, but never corrupts the database.
+     */
+    public static final StorageSettings DEFAULT = new StorageSettings(16 * 1024,
+            256L * 1024 * 1024, Synchronous.NORMAL, TempStore.MEMORY, Duration.ofSeconds(5), 1000);
+
+    /**
+     * Creates storage settings.
+     *
+     * @param cacheSizeKib the maximal size of the page cache of each connection, in KiB, must be
+     *        higher than 0
+     * @param mmapSizeBytes the maximal amount of the database file that is memory-mapped, in bytes,
+     *        must not be negative
+     * @param synchronous how often SQLite waits for data to be written to disk
+     * @param tempStore where temporary tables and indices are kept
+     * @param busyTimeout how long a connection waits for a lock held by another connection, must
+     *        not be negative
+     * @param walAutocheckpointPages the size of the write-ahead log, in pages, at which SQLite
+     *        automatically runs a passive checkpoint, must not be negative
+     */
+    public StorageSettings {
+        Objects.requireNonNull(synchronous);
+        Objects.requireNonNull(tempStore);
+        Objects.requireNonNull(busyTimeout);
+        if (cacheSizeKib <= 0) {
+            throw new IllegalArgumentException("Illegal cacheSizeKib : " + cacheSizeKib);
+        }
+        if (mmapSizeBytes < 0) {
+            throw new IllegalArgumentException("Illegal mmapSizeBytes : " + mmapSizeBytes);
+        }
+        if (busyTimeout.isNegative()) {
+            throw new IllegalArgumentException("Illegal busyTimeout : " + busyTimeout);
+        }
+        if (walAutocheckpointPages < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal walAutocheckpointPages : " + walAutocheckpointPages);
+        }
+    }
+
+    /**
+     * Gets the {@code PRAGMA} statements applying these settings to a connection.
+     *
+     * @return the statements to execute on each connection
+     */
+    List<String> toPragmas() {
+        // A negative cache size is interpreted as KiB instead of pages
+        return List.of("PRAGMA cache_size = " + -cacheSizeKib,
+                "PRAGMA mmap_size = " + mmapSizeBytes,
+                "PRAGMA synchronous = " + synchronous.name(),
+                "PRAGMA temp_store = " + tempStore.name(),
+                "PRAGMA busy_timeout = " + busyTimeout.toMillis(),
+                "PRAGMA wal_autocheckpoint = " + walAutocheckpointPages);
+    }
+
+    /**
+     * How often SQLite waits for data to be written to disk, see
+     * <a href="https://www.sqlite.org/pragma.html#pragma_synchronous">PRAGMA synchronous</a>.
+     */
+    public enum Synchronous {
+        /**
+         * Never waits for data to be written, the database may get corrupted on power loss.
+         */
+        OFF,
+        /**
+         * In WAL mode, waits for data to be written only at checkpoints. Recent commits may be lost
+         * on power loss, but the database stays consistent.
+         */
+        NORMAL,
+        /**
+         * Waits for data to be written at every commit.
+         */
+        FULL,
+        /**
+         * Like {@link #FULL}, but also waits for the directory after deleting journal files.
+         */
+        EXTRA
+    }
+
+    /**
+     * Where temporary tables and indices are kept, see
+     * <a href="https://www.sqlite.org/pragma.html#pragma_temp_store">PRAGMA temp_store</a>.
+     */
+    public enum TempStore {
+        /**
+         * As chosen at compile time of SQLite, usually in files.
+         */
+        DEFAULT,
+        /**
+         * In temporary files.
+         */
+        FILE,
+        /**
+         * In memory.
+         */
+        MEMORY
+    }
+}
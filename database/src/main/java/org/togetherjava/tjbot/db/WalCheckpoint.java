@@ -0,0 +1,29 @@
+package org.togetherjava.tjbot.db;
+
+/**
+ * Result of a checkpoint of the write-ahead log of a {@link Database}, see
+ * {@link Database#checkpoint(WalCheckpoint.Mode)}.
+ *
+ * @param isBusy whether the checkpoint could not complete, for example because readers were still
+ *        using parts of the log
+ * @param logFrames the amount of frames in the log
+ * @param checkpointedFrames the amount of frames of the log that have been moved into the database
+ *        file
+ */
+public record WalCheckpoint(boolean isBusy, int logFrames, int checkpointedFrames) {
+    /**
+     * How thoroughly a checkpoint is run, see
+     * <a href="https://www.sqlite.org/pragma.html#pragma_wal_checkpoint">PRAGMA wal_checkpoint</a>.
+     */
+    public enum Mode {
+        /**
+         * Checkpoints as many frames as possible without waiting for readers or writers.
+         */
+        PASSIVE,
+        /**
+         * Waits for readers until all frames are checkpointed and truncates the log afterwards, so
+         * that it no longer takes up disk space.
+         */
+        TRUNCATE
+    }
+}
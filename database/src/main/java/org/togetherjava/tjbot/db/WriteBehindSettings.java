@@ -0,0 +1,45 @@
+package org.togetherjava.tjbot.db;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of the write-behind queue of a {@link Database}, see
+ * {@link Database#writeBehind(org.togetherjava.tjbot.db.util.CheckedConsumer)}.
+ *
+ * @param capacity the maximal amount of writes that can be pending, submitting further writes
+ *        blocks until the queue has space again
+ * @param batchSize the maximal amount of writes committed together in one transaction
+ * @param flushInterval the maximal time a write is pending before it is committed, unless the
+ *        database is busy
+ */
+public record WriteBehindSettings(int capacity, int batchSize, Duration flushInterval) {
+    /**
+     * Settings suitable for most databases, committing pending writes at least 5 times a second.
+     */
+    public static final WriteBehindSettings DEFAULT =
+            new WriteBehindSettings(10_000, 500, Duration.ofMillis(200));
+
+    /**
+     * Creates write-behind settings.
+     *
+     * @param capacity the maximal amount of writes that can be pending, must be at least the batch
+     *        size
+     * @param batchSize the maximal amount of writes committed together in one transaction, must be
+     *        higher than 0
+     * @param flushInterval the maximal time a write is pending before it is committed, must be
+     *        positive
+     */
+    public WriteBehindSettings {
+        Objects.requireNonNull(flushInterval);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batchSize : " + batchSize);
+        }
+        if (capacity < batchSize) {
+            throw new IllegalArgumentException("Illegal capacity : " + capacity);
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Illegal flushInterval : " + flushInterval);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package org.togetherjava.tjbot.db;
+
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class DatabaseTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final Table<?> ENTRIES = DSL.table("entries");
+    private static final Field<Integer> VALUE = DSL.field("value", SQLDataType.INTEGER);
+
+    private Database database;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws SQLException {
+        database = new Database("jdbc:sqlite:" + tempDir.resolve("test.db"),
+                DatabaseSettings.DEFAULT.withReadConnections(2));
+        database.write(context -> context.createTable(ENTRIES).column(VALUE).execute());
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readsDoNotWaitForEachOther() throws Exception {
+        // GIVEN a read that is still running
+        CountDownLatch firstReadStarted = new CountDownLatch(1);
+        CountDownLatch firstReadMayFinish = new CountDownLatch(1);
+        CompletableFuture<Integer> firstRead = CompletableFuture.supplyAsync(() -> database
+            .read(context -> {
+                firstReadStarted.countDown();
+                await(firstReadMayFinish);
+                return context.fetchCount(ENTRIES);
+            }), executor);
+        assertTrue(firstReadStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // WHEN reading concurrently
+        CompletableFuture<Integer> secondRead = CompletableFuture
+            .supplyAsync(() -> database.read(context -> context.fetchCount(ENTRIES)), executor);
+
+        // THEN the second read finishes while the first read is still running
+        assertEquals(0, secondRead.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        firstReadMayFinish.countDown();
+        assertEquals(0, firstRead.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void readsDoNotWaitForWrites() throws Exception {
+        // GIVEN a write transaction that is still running
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch writeMayFinish = new CountDownLatch(1);
+        CompletableFuture<Void> write =
+                CompletableFuture.runAsync(() -> database.writeTransaction(context -> {
+                    context.insertInto(ENTRIES, VALUE).values(1).execute();
+                    writeStarted.countDown();
+                    await(writeMayFinish);
+                }), executor);
+        assertTrue(writeStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // WHEN reading concurrently
+        CompletableFuture<Integer> readDuringWrite = CompletableFuture
+            .supplyAsync(() -> database.read(context -> context.fetchCount(ENTRIES)), executor);
+
+        // THEN the read finishes while the write is still running and only sees committed data
+        assertEquals(0, readDuringWrite.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        writeMayFinish.countDown();
+        write.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(1, database.read(context -> context.fetchCount(ENTRIES)));
+    }
+
+    @Test
+    void asyncReadsSeeCompletedAsyncWrites() throws Exception {
+        // GIVEN a completed asynchronous write
+        database.writeAsync(context -> context.insertInto(ENTRIES, VALUE).values(1).execute())
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // WHEN reading asynchronously
+        CompletableFuture<Integer> read =
+                database.readAsync(context -> context.fetchCount(ENTRIES));
+
+        // THEN the read sees the write
+        assertEquals(1, read.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedAsyncWriteCompletesExceptionally() {
+        // GIVEN a write that fails
+        CompletableFuture<Void> write = database
+            .writeAsync(context -> context.execute("INSERT INTO unknown_table VALUES (1)"));
+
+        // WHEN waiting for it
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> write.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // THEN the failure is reported as database exception
+        assertInstanceOf(DatabaseException.class, failure.getCause());
+    }
+
+    @Test
+    void writeBehindCommitsAllWritesOnFlush() {
+        // GIVEN many writes submitted to the write-behind queue
+        int writes = 1_000;
+        for (int i = 0; i < writes; i++) {
+            int value = i;
+            database.writeBehind(
+                    context -> context.insertInto(ENTRIES, VALUE).values(value).execute());
+        }
+
+        // WHEN flushing the queue
+        database.flushWriteBehind();
+
+        // THEN all writes have been committed
+        assertEquals(writes, database.read(context -> context.fetchCount(ENTRIES)));
+    }
+
+    @Test
+    void writeBehindKeepsWritesOfFailedBatch() {
+        // GIVEN a failing write submitted together with valid writes
+        database.writeBehind(context -> context.insertInto(ENTRIES, VALUE).values(1).execute());
+        database.writeBehind(context -> context.execute("INSERT INTO unknown_table VALUES (1)"));
+        database.writeBehind(context -> context.insertInto(ENTRIES, VALUE).values(2).execute());
+
+        // WHEN flushing the queue
+        database.flushWriteBehind();
+
+        // THEN the valid writes have still been committed
+        assertEquals(2, database.read(context -> context.fetchCount(ENTRIES)));
+    }
+
+    @Test
+    void writeBehindKeepsWritesOfBatchWithThrowingWrite() {
+        // GIVEN a write throwing an unchecked exception submitted together with valid writes
+        database.writeBehind(context -> context.insertInto(ENTRIES, VALUE).values(1).execute());
+        database.writeBehind(context -> {
+            throw new IllegalArgumentException("Write failed");
+        });
+        database.writeBehind(context -> context.insertInto(ENTRIES, VALUE).values(2).execute());
+
+        // WHEN flushing the queue
+        database.flushWriteBehind();
+
+        // THEN the valid writes have still been committed
+        assertEquals(2, database.read(context -> context.fetchCount(ENTRIES)));
+    }
+
+    @Test
+    void recordsQueryLatenciesPerShape() {
+        // GIVEN queries of the same shape, differing only in their bind values
+        database.read(context -> context.fetchCount(ENTRIES, VALUE.in(1, 2, 3)));
+        database.read(context -> context.fetchCount(ENTRIES, VALUE.in(1, 2)));
+
+        // WHEN taking a snapshot of the statistics
+        List<DatabaseStatistics.QuerySnapshot> snapshots =
+                database.getStatistics().snapshotQueries();
+
+        // THEN both queries are recorded as the same shape
+        List<Long> countQueryCounts = snapshots.stream()
+            .filter(snapshot -> snapshot.queryShape().contains(" in ("))
+            .map(snapshot -> snapshot.latencies().count())
+            .toList();
+        assertEquals(List.of(2L), countQueryCounts);
+    }
+
+    @Test
+    void recordsWriteLockUsage() {
+        // GIVEN writes, write transactions and checkpoints
+        database.write(context -> context.insertInto(ENTRIES, VALUE).values(1).execute());
+        database.writeTransaction(
+                context -> context.insertInto(ENTRIES, VALUE).values(2).execute());
+        database.checkpoint(WalCheckpoint.Mode.PASSIVE);
+
+        // WHEN taking a snapshot of the statistics
+        List<DatabaseStatistics.LockSnapshot> snapshots = database.getStatistics().snapshotLocks();
+
+        // THEN the lock usage is recorded per operation
+        assertEquals(List.of(DatabaseStatistics.LockedOperation.WRITE,
+                DatabaseStatistics.LockedOperation.WRITE_TRANSACTION,
+                DatabaseStatistics.LockedOperation.CHECKPOINT),
+                snapshots.stream().map(DatabaseStatistics.LockSnapshot::operation).toList());
+        assertTrue(snapshots.stream().allMatch(snapshot -> snapshot.holds().count() >= 1));
+    }
+
+    @Test
+    void truncatingCheckpointEmptiesWal() {
+        // GIVEN a write-ahead log containing writes
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            database.write(context -> context.insertInto(ENTRIES, VALUE).values(value).execute());
+        }
+        assertTrue(database.getWalSizeBytes() > 0);
+
+        // WHEN running a truncating checkpoint
+        WalCheckpoint checkpoint = database.checkpoint(WalCheckpoint.Mode.TRUNCATE);
+
+        // THEN all writes have been moved to the database file and the log is empty
+        assertFalse(checkpoint.isBusy());
+        assertEquals(0, database.getWalSizeBytes());
+        assertEquals(100, database.read(context -> context.fetchCount(ENTRIES)));
+    }
+
+    @Test
+    void deleteInChunksDeletesOnlyMatchingRecords() {
+        // GIVEN more matching records than fit into a single chunk
+        for (int i = 0; i < 7; i++) {
+            int value = i;
+            database.write(context -> context.insertInto(ENTRIES, VALUE).values(value).execute());
+        }
+
+        // WHEN deleting them in chunks
+        int deleted = database.deleteInChunks(2, ENTRIES, VALUE.lessThan(5));
+
+        // THEN all matching records have been deleted, over multiple transactions
+        assertEquals(5, deleted);
+        assertEquals(List.of(5, 6), database.read(
+                context -> context.select(VALUE).from(ENTRIES).orderBy(VALUE).fetch(VALUE)));
+        assertEquals(3, database.getStatistics()
+            .snapshotLocks()
+            .stream()
+            .filter(snapshot -> snapshot
+                .operation() == DatabaseStatistics.LockedOperation.WRITE_TRANSACTION)
+            .mapToLong(snapshot -> snapshot.holds().count())
+            .sum());
+    }
+
+    @Test
+    void readAttachedQueriesAcrossDatabases(@TempDir Path tempDir) throws SQLException {
+        // GIVEN two databases containing entries
+        Database otherDatabase = new Database("jdbc:sqlite:" + tempDir.resolve("other.db"),
+                DatabaseSettings.DEFAULT.withReadConnections(1));
+        otherDatabase.write(context -> context.createTable(ENTRIES).column(VALUE).execute());
+        otherDatabase.write(context -> context.insertInto(ENTRIES, VALUE).values(1).execute());
+        database.write(context -> context.insertInto(ENTRIES, VALUE).values(2).execute());
+
+        // WHEN reading the entries of both with the other database attached
+        Table<?> otherEntries = DSL.table(DSL.name("other", "entries"));
+        List<Integer> values = database.readAttached(otherDatabase.getFile().orElseThrow(),
+                "other", context -> context.select(VALUE)
+                    .from(ENTRIES)
+                    .unionAll(context.select(VALUE).from(otherEntries))
+                    .fetch(VALUE));
+
+        // THEN the entries of both are found and the other database has been detached again
+        assertEquals(List.of(1, 2), values.stream().sorted().toList());
+        assertThrows(DatabaseException.class,
+                () -> database.read(context -> context.fetchCount(otherEntries)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.togetherjava.tjbot.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, with microsecond resolution.
+ * <p>
+ * Latencies are counted in log-linear buckets. Each power of two is split into
+ * {@value #SUB_BUCKET_COUNT} linear sub-buckets, which bounds the relative error of computed
+ * percentiles by roughly 6%. Recording a latency does not allocate and never blocks, which makes
+ * the histogram suitable for hot paths.
+ * <p>
+ * Instances are thread-safe. Snapshots taken while latencies are recorded concurrently are not
+ * necessarily consistent with each other, but are accurate enough for monitoring purposes.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * Latencies of {@code 2^(MAX_EXPONENT + 1)} microseconds or more, which is more than three
+     * weeks, are counted in the last bucket.
+     */
+    static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records the given latency.
+     *
+     * @param nanos the latency to record, in nanoseconds, e.g. the difference of two calls to
+     *        {@link System#nanoTime()}
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+
+        buckets.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    /**
+     * Gets the amount of recorded latencies.
+     *
+     * @return the amount of recorded latencies
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Takes a snapshot of the current state of the histogram.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = buckets.get(i);
+            total += bucketCounts[i];
+        }
+
+        long average = total == 0 ? 0 : totalMicros.sum() / total;
+        return new Snapshot(total, Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(average)),
+                percentile(bucketCounts, total, 0.5), percentile(bucketCounts, total, 0.99),
+                Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(maxMicros.get())));
+    }
+
+    private static Duration percentile(long[] bucketCounts, long total, double percentile) {
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(valueOf(i)));
+            }
+        }
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(valueOf(bucketCounts.length - 1)));
+    }
+
+    /**
+     * Gets the bucket the given latency is counted in.
+     *
+     * @param micros the latency, in microseconds, not negative
+     * @return the index of the bucket
+     */
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        long subBucket = (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + (int) subBucket;
+    }
+
+    /**
+     * Inverse of {@link #bucketOf(long)}, returns the middle of the range of values counted in the
+     * given bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the latency representing the bucket, in microseconds
+     */
+    static long valueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long mantissa = SUB_BUCKET_COUNT + (long) (bucket % SUB_BUCKET_COUNT);
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowerBound = mantissa << shift;
+        return lowerBound + ((1L << shift) >> 1);
+    }
+
+    /**
+     * Snapshot of a histogram.
+     *
+     * @param count the amount of recorded latencies
+     * @param average the average latency
+     * @param p50 the median latency
+     * @param p99 the 99th percentile of latencies
+     * @param max the highest recorded latency
+     */
+    public record Snapshot(long count, Duration average, Duration p50, Duration p99,
+            Duration max) {
+    }
+}
@@ -0,0 +1,101 @@
+package org.togetherjava.tjbot.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Embedded HTTP server exposing metrics in the <a href="https://openmetrics.io/">OpenMetrics</a>
+ * text format under {@value #PATH}, to be scraped by Prometheus.
+ * <p>
+ * On each scrape, all sources write their current values into a shared {@link OpenMetricsWriter}.
+ * Sources should only read lock-free state, such as counters and histograms, so that scrapes never
+ * delay the code being measured.
+ * <p>
+ * Requests are handled one after another by the single dispatcher thread of the server, which is
+ * why the writer and its buffer can be reused across scrapes.
+ */
+public final class OpenMetricsEndpoint implements AutoCloseable {
+    /**
+     * The path metrics are served under.
+     */
+    public static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE =
+            "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int STATUS_INTERNAL_ERROR = 500;
+    private static final int NO_RESPONSE_BODY = -1;
+
+    private final HttpServer server;
+    private final List<Consumer<OpenMetricsWriter>> sources;
+    private final OpenMetricsWriter writer = new OpenMetricsWriter();
+
+    /**
+     * Creates and starts the endpoint.
+     *
+     * @param address the address to listen on
+     * @param sources the sources of the metrics, each writing one or more metric families. The
+     *        names of the families must be unique over all sources.
+     * @throws IOException if the server could not be bound to the address
+     */
+    public OpenMetricsEndpoint(InetSocketAddress address,
+            List<? extends Consumer<OpenMetricsWriter>> sources) throws IOException {
+        this.sources = List.copyOf(sources);
+
+        server = HttpServer.create(address, 0);
+        server.createContext(PATH, this::handle);
+        // Null executor, requests are handled sequentially by the dispatcher thread
+        server.setExecutor(null);
+        server.start();
+    }
+
+    /**
+     * Gets the address the endpoint is listening on.
+     *
+     * @return the address of the endpoint, with the actual port if it was started on port 0
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(STATUS_METHOD_NOT_ALLOWED, NO_RESPONSE_BODY);
+                return;
+            }
+
+            byte[] body;
+            try {
+                body = render().getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(STATUS_INTERNAL_ERROR, NO_RESPONSE_BODY);
+                throw e;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(STATUS_OK, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        }
+    }
+
+    private String render() {
+        writer.reset();
+        sources.forEach(source -> source.accept(writer));
+        return writer.finish();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
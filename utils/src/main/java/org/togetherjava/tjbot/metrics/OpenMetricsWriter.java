@@ -0,0 +1,196 @@
+package org.togetherjava.tjbot.metrics;
+
+import javax.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Renders metrics in the <a href="https://openmetrics.io/">OpenMetrics</a> text format, as scraped
+ * by Prometheus.
+ * <p>
+ * Each metric family is introduced by {@link #family(String, Type, String)}, followed by its
+ * samples, see {@link #sample(double, String...)} and
+ * {@link #summary(LatencyHistogram.Snapshot, String...)}. Samples of a family must not be
+ * interleaved with other families. Once all families are written, {@link #finish()} terminates the
+ * exposition.
+ * <p>
+ * The writer renders into an internal buffer that is reused after {@link #reset()}, so that
+ * repeated renderings do not allocate more than the final text. Instances are not thread-safe.
+ */
+public final class OpenMetricsWriter {
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final StringBuilder text = new StringBuilder(INITIAL_CAPACITY);
+    private String familyName = "";
+    private Type familyType = Type.GAUGE;
+
+    /**
+     * Clears all previously written families, to render a new exposition.
+     */
+    public void reset() {
+        text.setLength(0);
+        familyName = "";
+        familyType = Type.GAUGE;
+    }
+
+    /**
+     * Starts a new metric family. All following samples belong to it, until the next family is
+     * started.
+     *
+     * @param name the name of the family, e.g. {@code tjbot_database_queries}. Must not contain the
+     *        {@code _total} suffix of counters, it is added to the samples automatically.
+     * @param type the type of the family
+     * @param help a human-readable description of the family
+     * @return this writer, for chaining
+     */
+    public OpenMetricsWriter family(String name, Type type, String help) {
+        familyName = name;
+        familyType = type;
+
+        text.append("# TYPE ").append(name).append(' ').append(type.getTextName()).append('\n');
+        text.append("# HELP ").append(name).append(' ');
+        appendEscaped(help);
+        text.append('\n');
+        return this;
+    }
+
+    /**
+     * Writes a sample of the current counter or gauge family.
+     *
+     * @param value the value of the sample
+     * @param labels the labels of the sample, as alternating names and values, e.g.
+     *        {@code "lane", "default"}
+     * @return this writer, for chaining
+     */
+    public OpenMetricsWriter sample(double value, String... labels) {
+        if (familyType == Type.SUMMARY) {
+            throw new IllegalStateException(
+                    "Samples of summary families must be written with summary(...)");
+        }
+
+        appendSample(familyType == Type.COUNTER ? "_total" : "", labels, null, value);
+        return this;
+    }
+
+    /**
+     * Writes the given latencies as sample of the current summary family, i.e. their median and
+     * 99th percentile as quantiles, their count and their sum. Latencies are given in seconds.
+     * <p>
+     * The snapshot does not carry the exact sum, so {@code _sum} is approximated as average times
+     * count. Since the average is truncated to whole microseconds, the sum is slightly lower than
+     * the actual one, by less than a microsecond per latency.
+     *
+     * @param latencies the latencies to write
+     * @param labels the labels of the sample, as alternating names and values, e.g.
+     *        {@code "database", "main"}
+     * @return this writer, for chaining
+     */
+    public OpenMetricsWriter summary(LatencyHistogram.Snapshot latencies, String... labels) {
+        if (familyType != Type.SUMMARY) {
+            throw new IllegalStateException("Current family is not a summary: " + familyName);
+        }
+
+        appendSample("", labels, "0.5", toSeconds(latencies.p50()));
+        appendSample("", labels, "0.99", toSeconds(latencies.p99()));
+        appendSample("_count", labels, null, latencies.count());
+        appendSample("_sum", labels, null, toSeconds(latencies.average()) * latencies.count());
+        return this;
+    }
+
+    /**
+     * Terminates the exposition and gets the rendered text.
+     *
+     * @return the rendered exposition, in the OpenMetrics text format
+     */
+    public String finish() {
+        text.append("# EOF\n");
+        return text.toString();
+    }
+
+    private void appendSample(String suffix, String[] labels, @Nullable String quantile,
+            double value) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "Labels must be given as pairs of names and values, but got " + labels.length
+                            + " strings");
+        }
+
+        text.append(familyName).append(suffix);
+        if (labels.length != 0 || quantile != null) {
+            text.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i != 0) {
+                    text.append(',');
+                }
+                text.append(labels[i]).append("=\"");
+                appendEscaped(labels[i + 1]);
+                text.append('"');
+            }
+            if (quantile != null) {
+                text.append(labels.length == 0 ? "" : ",")
+                    .append("quantile=\"")
+                    .append(quantile)
+                    .append('"');
+            }
+            text.append('}');
+        }
+        text.append(' ');
+        appendValue(value);
+        text.append('\n');
+    }
+
+    private void appendValue(double value) {
+        if (Double.isNaN(value)) {
+            text.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            text.append(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+            // Avoids the exponent notation of doubles for large counts
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '\n' -> text.append("\\n");
+                case '"' -> text.append("\\\"");
+                default -> text.append(c);
+            }
+        }
+    }
+
+    private static double toSeconds(Duration duration) {
+        return duration.toNanos() / NANOS_PER_SECOND;
+    }
+
+    /**
+     * The types of metric families.
+     */
+    public enum Type {
+        /**
+         * A value that only ever increases, such as the amount of handled events.
+         */
+        COUNTER,
+        /**
+         * A value that can go up and down, such as the current length of a queue.
+         */
+        GAUGE,
+        /**
+         * Quantiles, count and sum of observations, such as latencies.
+         */
+        SUMMARY;
+
+        private final String textName = name().toLowerCase(Locale.ROOT);
+
+        String getTextName() {
+            return textName;
+        }
+    }
+}
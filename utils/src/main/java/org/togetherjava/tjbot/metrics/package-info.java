@@ -0,0 +1,12 @@
+/**
+ * Package for lightweight, lock-free primitives to measure the performance of the application, such
+ * as {@link org.togetherjava.tjbot.metrics.LatencyHistogram}, and to expose the measurements to
+ * Prometheus, see {@link org.togetherjava.tjbot.metrics.OpenMetricsEndpoint}.
+ */
+@MethodsReturnNonnullByDefault
+@ParametersAreNonnullByDefault
+package org.togetherjava.tjbot.metrics;
+
+import org.togetherjava.tjbot.annotations.MethodsReturnNonnullByDefault;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,169 @@
+package org.togetherjava.tjbot.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class LatencyHistogramTest {
+    private static final int LAST_BUCKET = LatencyHistogram.BUCKET_COUNT - 1;
+
+    @Test
+    void smallLatenciesAreCountedExactly() {
+        // GIVEN latencies below two sub-bucket ranges, which are not rounded
+        for (long micros = 0; micros < 2L * LatencyHistogram.SUB_BUCKET_COUNT; micros++) {
+            // WHEN computing their bucket and its value
+            int bucket = LatencyHistogram.bucketOf(micros);
+
+            // THEN each latency has its own bucket, representing exactly that latency
+            assertEquals(micros, bucket);
+            assertEquals(micros, LatencyHistogram.valueOf(bucket));
+        }
+    }
+
+    @Test
+    void firstRoundedSubBucketIsSharedByTwoLatencies() {
+        // GIVEN the first latencies that do not have their own bucket
+        long micros = 2L * LatencyHistogram.SUB_BUCKET_COUNT;
+
+        // WHEN computing their buckets
+        int bucket = LatencyHistogram.bucketOf(micros);
+
+        // THEN they share the bucket following the exact ones, which represents its middle
+        assertEquals(2 * LatencyHistogram.SUB_BUCKET_COUNT, bucket);
+        assertEquals(bucket, LatencyHistogram.bucketOf(micros + 1));
+        assertEquals(bucket + 1, LatencyHistogram.bucketOf(micros + 2));
+        assertEquals(micros + 1, LatencyHistogram.valueOf(bucket));
+    }
+
+    @Test
+    void latenciesAtMaxExponentUseTheLastBuckets() {
+        // GIVEN the range of latencies with the highest exponent
+        long lowest = 1L << LatencyHistogram.MAX_EXPONENT;
+        long highest = (1L << (LatencyHistogram.MAX_EXPONENT + 1)) - 1;
+
+        // WHEN computing their buckets
+        int lowestBucket = LatencyHistogram.bucketOf(lowest);
+        int highestBucket = LatencyHistogram.bucketOf(highest);
+
+        // THEN they are spread over the last sub-buckets
+        assertEquals(LatencyHistogram.BUCKET_COUNT - LatencyHistogram.SUB_BUCKET_COUNT,
+                lowestBucket);
+        assertEquals(LAST_BUCKET, highestBucket);
+    }
+
+    @Test
+    void latenciesAboveMaxExponentAreCountedInTheLastBucket() {
+        // GIVEN latencies beyond the range of the highest exponent
+        long[] latencies = {1L << (LatencyHistogram.MAX_EXPONENT + 1),
+                (1L << (LatencyHistogram.MAX_EXPONENT + 1)) + (1L << LatencyHistogram.MAX_EXPONENT),
+                Long.MAX_VALUE};
+
+        for (long micros : latencies) {
+            // WHEN computing their bucket
+            int bucket = LatencyHistogram.bucketOf(micros);
+
+            // THEN it is the last one, instead of wrapping around into lower sub-buckets
+            assertEquals(LAST_BUCKET, bucket, "Bucket of " + micros);
+        }
+    }
+
+    @Test
+    void valueOfIsTheInverseOfBucketOf() {
+        // GIVEN all buckets
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT; bucket++) {
+            // WHEN computing the latency representing the bucket
+            long micros = LatencyHistogram.valueOf(bucket);
+
+            // THEN that latency is counted in the bucket again
+            assertEquals(bucket, LatencyHistogram.bucketOf(micros), "Value of " + bucket);
+        }
+    }
+
+    @Test
+    void roundingErrorIsBounded() {
+        // GIVEN latencies across the whole range
+        long maxMicros = 1L << (LatencyHistogram.MAX_EXPONENT + 1);
+        for (long micros = 1; micros < maxMicros; micros = micros * 3 / 2 + 1) {
+            // WHEN rounding them to their bucket
+            long rounded = LatencyHistogram.valueOf(LatencyHistogram.bucketOf(micros));
+
+            // THEN they are off by at most half the width of a sub-bucket
+            double relativeError = Math.abs(rounded - micros) / (double) micros;
+            assertTrue(relativeError <= 1.0 / (2 * LatencyHistogram.SUB_BUCKET_COUNT),
+                    "Relative error of " + micros + ": " + relativeError);
+        }
+    }
+
+    @Test
+    void emptySnapshotIsZero() {
+        // GIVEN a histogram without latencies
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // WHEN taking a snapshot
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // THEN everything is zero
+        assertEquals(new LatencyHistogram.Snapshot(0, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                Duration.ZERO), snapshot);
+    }
+
+    @Test
+    void snapshotComputesAverageAndPercentiles() {
+        // GIVEN the latencies 1 to 10 microseconds, which are counted exactly
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10; micros++) {
+            histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        // WHEN taking a snapshot
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // THEN the average is rounded down, and the percentiles use the nearest rank
+        assertEquals(10, snapshot.count());
+        assertEquals(Duration.ofNanos(5_000), snapshot.average());
+        assertEquals(Duration.ofNanos(5_000), snapshot.p50());
+        assertEquals(Duration.ofNanos(10_000), snapshot.p99());
+        assertEquals(Duration.ofNanos(10_000), snapshot.max());
+    }
+
+    @Test
+    void p99IsDeterminedByTheSlowestPercent() {
+        // GIVEN mostly fast latencies, and two slow ones
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(1));
+        }
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // WHEN taking a snapshot
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // THEN the median is fast, but the 99th percentile is the slow bucket
+        long slowBucketMicros = LatencyHistogram.valueOf(LatencyHistogram.bucketOf(1_000));
+        assertEquals(Duration.ofNanos(1_000), snapshot.p50());
+        assertEquals(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(slowBucketMicros)),
+                snapshot.p99());
+        assertEquals(Duration.ofNanos(20_000), snapshot.average());
+        assertEquals(Duration.ofMillis(1), snapshot.max());
+    }
+
+    @Test
+    void negativeLatenciesAreRecordedAsZero() {
+        // GIVEN a negative latency, e.g. caused by clock adjustments
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // WHEN recording it
+        histogram.recordNanos(-1_000);
+
+        // THEN it is counted as zero
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.count());
+        assertEquals(Duration.ZERO, snapshot.max());
+        assertEquals(Duration.ZERO, snapshot.p99());
+    }
+}
@@ -0,0 +1,113 @@
+package org.togetherjava.tjbot.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class OpenMetricsEndpointTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private OpenMetricsEndpoint endpoint;
+
+    @AfterEach
+    void tearDown() {
+        if (endpoint != null) {
+            endpoint.close();
+        }
+        client.close();
+    }
+
+    @Test
+    void getServesAllSources() throws IOException, InterruptedException {
+        // GIVEN an endpoint with two sources
+        start(List.of(
+                writer -> writer.family("tjbot_first", OpenMetricsWriter.Type.GAUGE, "First")
+                    .sample(1),
+                writer -> writer.family("tjbot_second", OpenMetricsWriter.Type.COUNTER, "Second")
+                    .sample(2)));
+
+        // WHEN scraping it, twice
+        send("GET");
+        HttpResponse<String> response = send("GET");
+
+        // THEN all families are contained once, terminated like an OpenMetrics exposition
+        assertEquals(200, response.statusCode());
+        assertEquals(Optional.of("application/openmetrics-text; version=1.0.0; charset=utf-8"),
+                response.headers().firstValue("Content-Type"));
+        assertEquals("""
+                # TYPE tjbot_first gauge
+                # HELP tjbot_first First
+                tjbot_first 1
+                # TYPE tjbot_second counter
+                # HELP tjbot_second Second
+                tjbot_second_total 2
+                # EOF
+                """, response.body());
+    }
+
+    @Test
+    void otherMethodsAreNotAllowed() throws IOException, InterruptedException {
+        // GIVEN an endpoint
+        start(List.of(writer -> writer.family("tjbot_test", OpenMetricsWriter.Type.GAUGE, "Test")
+            .sample(1)));
+
+        // WHEN sending a request that is not a GET
+        HttpResponse<String> response = send("POST");
+
+        // THEN it is rejected without body
+        assertEquals(405, response.statusCode());
+        assertEquals("", response.body());
+    }
+
+    @Test
+    void failingSourceIsAnInternalError() throws IOException, InterruptedException {
+        // GIVEN an endpoint with a source that fails
+        start(List.of(writer -> {
+            throw new IllegalStateException("Source failed");
+        }));
+
+        // WHEN scraping it
+        HttpResponse<String> response = send("GET");
+
+        // THEN the scrape fails, instead of serving an incomplete exposition
+        assertEquals(500, response.statusCode());
+        assertEquals("", response.body());
+    }
+
+    private void start(List<Consumer<OpenMetricsWriter>> sources) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        endpoint = new OpenMetricsEndpoint(address, sources);
+    }
+
+    private HttpResponse<String> send(String method) throws IOException, InterruptedException {
+        InetSocketAddress address = endpoint.getAddress();
+        URI uri;
+        try {
+            // Unlike formatting the URI manually, this also encloses IPv6 addresses in brackets
+            uri = new URI("http", null, address.getHostString(), address.getPort(),
+                    OpenMetricsEndpoint.PATH, null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .timeout(TIMEOUT)
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,141 @@
+package org.togetherjava.tjbot.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class OpenMetricsWriterTest {
+    private final OpenMetricsWriter writer = new OpenMetricsWriter();
+
+    @Test
+    void counterSamplesHaveTotalSuffix() {
+        // GIVEN a counter family with a sample
+        writer.family("tjbot_events", OpenMetricsWriter.Type.COUNTER, "Handled events")
+            .sample(3, "lane", "default");
+
+        // WHEN finishing the exposition
+        String text = writer.finish();
+
+        // THEN the sample name has the counter suffix, but the family name does not
+        assertEquals("""
+                # TYPE tjbot_events counter
+                # HELP tjbot_events Handled events
+                tjbot_events_total{lane="default"} 3
+                # EOF
+                """, text);
+    }
+
+    @Test
+    void gaugeSamplesHaveNoSuffix() {
+        // GIVEN a gauge family with samples, with and without labels
+        writer.family("tjbot_queue_length", OpenMetricsWriter.Type.GAUGE, "Queued tasks")
+            .sample(1.5)
+            .sample(2, "lane", "slow", "pool", "main");
+
+        // WHEN finishing the exposition
+        String text = writer.finish();
+
+        // THEN the samples are written as given
+        assertEquals("""
+                # TYPE tjbot_queue_length gauge
+                # HELP tjbot_queue_length Queued tasks
+                tjbot_queue_length 1.5
+                tjbot_queue_length{lane="slow",pool="main"} 2
+                # EOF
+                """, text);
+    }
+
+    @Test
+    void labelValuesAndHelpAreEscaped() {
+        // GIVEN a help text and a label value with characters that must be escaped
+        writer.family("tjbot_test", OpenMetricsWriter.Type.GAUGE, "Say \"hi\"\nor \\bye")
+            .sample(1, "name", "a\"b\\c\nd");
+
+        // WHEN finishing the exposition
+        String text = writer.finish();
+
+        // THEN backslashes, quotes and line breaks are escaped
+        assertEquals("""
+                # TYPE tjbot_test gauge
+                # HELP tjbot_test Say \\"hi\\"\\nor \\\\bye
+                tjbot_test{name="a\\"b\\\\c\\nd"} 1
+                # EOF
+                """, text);
+    }
+
+    @Test
+    void summaryHasQuantilesCountAndSum() {
+        // GIVEN a summary family with latencies, with and without labels
+        LatencyHistogram.Snapshot latencies = new LatencyHistogram.Snapshot(4,
+                Duration.ofMillis(250), Duration.ofMillis(100), Duration.ofSeconds(1),
+                Duration.ofSeconds(2));
+        writer.family("tjbot_query_latency", OpenMetricsWriter.Type.SUMMARY, "Query latencies")
+            .summary(latencies, "database", "main")
+            .summary(latencies);
+
+        // WHEN finishing the exposition
+        String text = writer.finish();
+
+        // THEN the quantiles are labeled, and the sum is the average times the count, in seconds
+        assertEquals("""
+                # TYPE tjbot_query_latency summary
+                # HELP tjbot_query_latency Query latencies
+                tjbot_query_latency{database="main",quantile="0.5"} 0.1
+                tjbot_query_latency{database="main",quantile="0.99"} 1
+                tjbot_query_latency_count{database="main"} 4
+                tjbot_query_latency_sum{database="main"} 1
+                tjbot_query_latency{quantile="0.5"} 0.1
+                tjbot_query_latency{quantile="0.99"} 1
+                tjbot_query_latency_count 4
+                tjbot_query_latency_sum 1
+                # EOF
+                """, text);
+    }
+
+    @Test
+    void specialValuesAreWrittenInTextForm() {
+        // GIVEN a gauge with non-finite values, and a value a double prints with exponent
+        writer.family("tjbot_test", OpenMetricsWriter.Type.GAUGE, "Test")
+            .sample(Double.NaN, "value", "nan")
+            .sample(Double.POSITIVE_INFINITY, "value", "inf")
+            .sample(1e15, "value", "large");
+
+        // WHEN finishing the exposition
+        String text = writer.finish();
+
+        // THEN they are written as the format expects, large numbers without exponent
+        assertTrue(text.contains("tjbot_test{value=\"nan\"} NaN\n"), text);
+        assertTrue(text.contains("tjbot_test{value=\"inf\"} +Inf\n"), text);
+        assertTrue(text.contains("tjbot_test{value=\"large\"} 1000000000000000\n"), text);
+    }
+
+    @Test
+    void resetStartsANewExposition() {
+        // GIVEN a finished exposition
+        writer.family("tjbot_old", OpenMetricsWriter.Type.GAUGE, "Old").sample(1);
+        writer.finish();
+
+        // WHEN resetting the writer and writing another one
+        writer.reset();
+        String text = writer.finish();
+
+        // THEN only the new exposition is contained, which still ends with the terminator
+        assertEquals("# EOF\n", text);
+    }
+
+    @Test
+    void mismatchingSamplesAreRejected() {
+        // GIVEN a summary family
+        writer.family("tjbot_test", OpenMetricsWriter.Type.SUMMARY, "Test");
+
+        // WHEN writing a plain sample, or labels without value
+        // THEN it is rejected
+        assertThrows(IllegalStateException.class, () -> writer.sample(1));
+        writer.family("tjbot_other", OpenMetricsWriter.Type.GAUGE, "Test");
+        assertThrows(IllegalArgumentException.class, () -> writer.sample(1, "label"));
+    }
+}